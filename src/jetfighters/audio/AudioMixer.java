@@ -0,0 +1,580 @@
+package jetfighters.audio;
+
+import jetfighters.game.CommandQueue;
+
+import javax.sound.sampled.*;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Mixes all sounds and music of the game into one {@link SourceDataLine}, which stays open for the whole session. <br>
+ * A voice plays decoded samples in the format of the mixer ({@link #FORMAT}, see {@link #decode}) with its own gain
+ * and the gain of its group (music or sounds). Voices are started and changed through commands, which are queued in a
+ * lock-free {@link CommandQueue} and applied by the audio thread before it mixes the next buffer, so no other thread
+ * ever waits for the audio thread or the line. There are at most {@link #getVoiceLimit()} voices. When all are playing, a new voice replaces the oldest
+ * voice with the lowest priority, if that priority isn't higher than its own, otherwise the new voice is dropped. <br>
+ * Music is streamed ({@link MusicStream}) instead of decoded as a whole and the gain of a voice can fade, e.g. to
+ * crossfade two tracks. <br>
+ * The buffer size determines the latency: the line buffers two mix buffers, one playing and one waiting.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class AudioMixer {
+
+    public static final AudioFormat FORMAT = new AudioFormat(44100, 16, 2, true, false);
+    public static final int CHANNELS = 2;
+    public static final int DEFAULT_BUFFER_FRAMES = 512; // About 12 ms
+    public static final int DEFAULT_VOICE_LIMIT = 16;
+    public static final int COMMAND_CAPACITY = 256; // About 20 commands per millisecond of the default buffer
+
+    /**
+     * The groups of voices, every group has its own gain (e.g. the volume of the options).
+     */
+    public static final int GROUP_MUSIC = 0;
+    public static final int GROUP_SOUND = 1;
+    private static final int GROUP_COUNT = 2;
+
+    private static final int BYTES_PER_FRAME = 4;
+    private static final int LINE_BUFFERS = 2;
+
+    private static final int PLAY = 0;
+    private static final int STOP = 1;
+    private static final int SET_GAIN = 2;
+    private static final int SET_GROUP_GAIN = 3;
+    private static final int FADE = 4;
+
+    private final int bufferFrames;
+    private final Voice[] voices;
+    private final float[] groupGains;
+    private final float[] mixBuffer;
+    private final short[] streamBuffer; // The samples read from a stream for one buffer
+    private final byte[] outputBuffer;
+    private final CommandQueue<Command> commands;
+    private final AtomicLong nextVoiceId;
+    private long mixedFrames; // The position of the audio thread, used to find the oldest voice
+
+    private volatile int activeVoiceCount;
+    private volatile int stolenCount;
+    private volatile int droppedCount;
+
+    private static AudioMixer defaultMixer;
+
+    private SourceDataLine line; // Only closed by the audio thread
+    private Thread thread;
+    private volatile boolean running;
+
+    private static final class Voice {
+        private long id;
+        private short[] samples;
+        private MusicStream stream; // Instead of the samples
+        private int position; // In samples, not frames
+        private float gain;
+        private float targetGain;
+        private float gainStep; // Per frame while the voice fades to its target gain
+        private boolean stopAfterFade;
+        private int priority;
+        private int group;
+        private boolean looping;
+        private long startedAt;
+        private boolean active;
+    }
+
+    private record Command(int type, long voiceId, short[] samples, MusicStream stream, float gain, int priority,
+                           int group, boolean flag, int frames) { // The flag loops a new voice or stops a voice after its fade
+    }
+
+    public AudioMixer() {
+        this(DEFAULT_BUFFER_FRAMES, DEFAULT_VOICE_LIMIT);
+    }
+
+    /**
+     * @param bufferFrames the amount of frames mixed at once, larger buffers are more robust but have more latency
+     * @param voiceLimit   the maximum amount of voices playing at the same time
+     */
+    public AudioMixer(int bufferFrames, int voiceLimit) {
+        if (bufferFrames <= 0)
+            throw new IllegalArgumentException("The buffer needs at least one frame");
+        if (voiceLimit <= 0)
+            throw new IllegalArgumentException("The mixer needs at least one voice");
+        this.bufferFrames = bufferFrames;
+        voices = new Voice[voiceLimit];
+        for (int i = 0; i < voiceLimit; i++) {
+            voices[i] = new Voice();
+        }
+        groupGains = new float[GROUP_COUNT];
+        Arrays.fill(groupGains, 1);
+        mixBuffer = new float[bufferFrames * CHANNELS];
+        streamBuffer = new short[bufferFrames * CHANNELS];
+        outputBuffer = new byte[bufferFrames * BYTES_PER_FRAME];
+        commands = new CommandQueue<>(COMMAND_CAPACITY);
+        nextVoiceId = new AtomicLong(1);
+    }
+
+    /**
+     * Returns the mixer shared by all audio players. It is created with the default buffer size and voice limit and
+     * closed when the JVM shuts down.
+     *
+     * @return the shared mixer (it isn't started yet, if no audio player used it)
+     */
+    public static synchronized AudioMixer getDefault() {
+        if (defaultMixer == null) {
+            defaultMixer = new AudioMixer();
+            AudioMixer mixer = defaultMixer;
+            Runtime.getRuntime().addShutdownHook(new Thread(mixer::close, "AudioMixer Shutdown"));
+        }
+        return defaultMixer;
+    }
+
+    /**
+     * Opens the line and starts the audio thread.
+     *
+     * @return true if the mixer is running, false if there is no line for its format (e.g. no sound card) or the
+     * audio thread of the last {@link #close()} hasn't stopped yet
+     */
+    public synchronized boolean start() {
+        if (running)
+            return true;
+        if (thread != null && thread.isAlive()) {
+            System.err.println("Couldn't start the audio mixer, its previous audio thread is still running");
+            return false;
+        }
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, outputBuffer.length * LINE_BUFFERS);
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("Couldn't open an audio line, the game stays silent: " + e.getMessage());
+            return false;
+        }
+        line.start();
+        this.line = line;
+        running = true;
+        thread = new Thread(() -> run(line), "AudioMixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+        return true;
+    }
+
+    private void run(SourceDataLine line) {
+        try {
+            while (running) {
+                render(outputBuffer);
+                line.write(outputBuffer, 0, outputBuffer.length); // Blocks until the line has room, this paces the thread
+            }
+        } finally {
+            // The audio thread is the only consumer of the commands, so it cleans up itself
+            line.close();
+            discardCommands();
+            for (Voice voice : voices) {
+                if (voice.active)
+                    release(voice);
+            }
+            activeVoiceCount = 0;
+        }
+    }
+
+    private void discardCommands() {
+        Command command;
+        while ((command = commands.poll()) != null) {
+            if (command.stream() != null)
+                command.stream().close();
+        }
+    }
+
+    /**
+     * Stops the audio thread, which closes the line and discards the playing voices and queued commands before it
+     * ends. Waits up to a second for the audio thread.
+     */
+    public synchronized void close() {
+        if (!running)
+            return;
+        running = false;
+        line.stop();
+        line.flush(); // Releases a blocked write
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive())
+            System.err.println("The audio thread didn't stop in time, it closes the line when it does");
+        line = null; // Only used by the audio thread from now on
+    }
+
+    /**
+     * Starts a voice. This only queues the voice, it starts with the next buffer.
+     *
+     * @param samples  the interleaved samples in the format of the mixer, they aren't copied
+     * @param gain     the gain of the voice (1 plays the samples unchanged)
+     * @param priority the priority of the voice when voices have to be replaced, higher is more important
+     * @param group    the group of the voice, see {@link #GROUP_MUSIC} and {@link #GROUP_SOUND}
+     * @param looping  if true, the voice plays until it is stopped
+     * @return the id of the voice, to change or stop it, or -1 if too many commands are waiting
+     */
+    public long play(short[] samples, float gain, int priority, int group, boolean looping) {
+        checkGroup(group);
+        if (samples.length % CHANNELS != 0)
+            throw new IllegalArgumentException("The samples have to contain whole frames");
+        long id = nextVoiceId.getAndIncrement();
+        return commands.offer(new Command(PLAY, id, samples, null, gain, priority, group, looping, 0)) ? id : -1;
+    }
+
+    /**
+     * Starts a voice that plays a stream until it ends or the voice is stopped. The stream is closed with the voice.
+     *
+     * @param stream   the started stream
+     * @param gain     the gain of the voice (1 plays the samples unchanged)
+     * @param priority the priority of the voice when voices have to be replaced, higher is more important
+     * @param group    the group of the voice, see {@link #GROUP_MUSIC} and {@link #GROUP_SOUND}
+     * @return the id of the voice, to change or stop it, or -1 if too many commands are waiting
+     */
+    public long play(MusicStream stream, float gain, int priority, int group) {
+        checkGroup(group);
+        long id = nextVoiceId.getAndIncrement();
+        if (commands.offer(new Command(PLAY, id, null, stream, gain, priority, group, false, 0)))
+            return id;
+        stream.close();
+        return -1;
+    }
+
+    /**
+     * Stops a voice, if it is still playing.
+     *
+     * @param voiceId the id returned by {@link #play}
+     */
+    public void stop(long voiceId) {
+        commands.offer(new Command(STOP, voiceId, null, null, 0, 0, 0, false, 0));
+    }
+
+    /**
+     * @param voiceId the id returned by {@link #play}
+     * @param gain    the new gain of the voice
+     */
+    public void setGain(long voiceId, float gain) {
+        commands.offer(new Command(SET_GAIN, voiceId, null, null, gain, 0, 0, false, 0));
+    }
+
+    /**
+     * Changes the gain of a voice linearly over the next {@code frames} frames, e.g. to crossfade two tracks.
+     *
+     * @param voiceId the id returned by {@link #play}
+     * @param gain    the gain at the end of the fade
+     * @param frames  the length of the fade
+     * @param stop    if true, the voice stops at the end of the fade
+     */
+    public void fade(long voiceId, float gain, int frames, boolean stop) {
+        if (frames <= 0)
+            throw new IllegalArgumentException("A fade needs at least one frame");
+        commands.offer(new Command(FADE, voiceId, null, null, gain, 0, 0, stop, frames));
+    }
+
+    /**
+     * @param group the group, see {@link #GROUP_MUSIC} and {@link #GROUP_SOUND}
+     * @param gain  the gain of all voices of the group
+     */
+    public void setGroupGain(int group, float gain) {
+        checkGroup(group);
+        commands.offer(new Command(SET_GROUP_GAIN, 0, null, null, gain, 0, group, false, 0));
+    }
+
+    private static void checkGroup(int group) {
+        if (group < 0 || group >= GROUP_COUNT)
+            throw new IllegalArgumentException("Unknown group " + group);
+    }
+
+    /**
+     * Applies the queued commands and mixes the next {@link #getBufferFrames()} frames. <br>
+     * This is called by the audio thread, it must only be called directly while the mixer isn't running.
+     *
+     * @param output the buffer for the mixed frames (16 bit, little endian), at least {@code getBufferFrames() * 4}
+     *               bytes
+     */
+    public void render(byte[] output) {
+        commands.drain(this::apply);
+
+        Arrays.fill(mixBuffer, 0);
+        int active = 0;
+        for (Voice voice : voices) {
+            if (voice.active) {
+                mixVoice(voice);
+                if (voice.active)
+                    active++;
+            }
+        }
+        activeVoiceCount = active;
+        mixedFrames += bufferFrames;
+
+        for (int i = 0; i < mixBuffer.length; i++) {
+            int sample = Math.round(mixBuffer[i]);
+            sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+            output[2 * i] = (byte) sample;
+            output[2 * i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    private void mixVoice(Voice voice) {
+        int i = 0;
+        while (i < mixBuffer.length) {
+            short[] samples;
+            int offset;
+            int count;
+            if (voice.stream != null) {
+                count = voice.stream.read(streamBuffer, 0, mixBuffer.length - i);
+                if (count < 0) {
+                    release(voice);
+                    return;
+                }
+                if (count == 0)
+                    break; // The stream fell behind, it continues with the next buffer
+                samples = streamBuffer;
+                offset = 0;
+            } else {
+                count = Math.min(mixBuffer.length - i, voice.samples.length - voice.position);
+                samples = voice.samples;
+                offset = voice.position;
+                voice.position += count;
+            }
+
+            mixSamples(voice, samples, offset, i, count);
+            i += count;
+            if (voice.stopAfterFade && voice.gainStep == 0) {
+                release(voice);
+                return;
+            }
+            if (voice.stream == null && voice.position == voice.samples.length) {
+                if (!voice.looping || voice.samples.length == 0) {
+                    release(voice);
+                    return;
+                }
+                voice.position = 0;
+            }
+        }
+    }
+
+    private void mixSamples(Voice voice, short[] samples, int offset, int start, int count) {
+        float groupGain = groupGains[voice.group];
+        if (voice.gainStep == 0) {
+            float gain = voice.gain * groupGain;
+            if (gain != 0) {
+                for (int j = 0; j < count; j++) {
+                    mixBuffer[start + j] += samples[offset + j] * gain;
+                }
+            }
+            return;
+        }
+        for (int j = 0; j < count; j += CHANNELS) {
+            float gain = voice.gain * groupGain;
+            mixBuffer[start + j] += samples[offset + j] * gain;
+            mixBuffer[start + j + 1] += samples[offset + j + 1] * gain;
+            if (voice.gainStep != 0) {
+                voice.gain += voice.gainStep;
+                if (voice.gainStep > 0 ? voice.gain >= voice.targetGain : voice.gain <= voice.targetGain) {
+                    voice.gain = voice.targetGain;
+                    voice.gainStep = 0;
+                }
+            }
+        }
+    }
+
+    private void apply(Command command) {
+        switch (command.type()) {
+            case PLAY -> {
+                Voice voice = findVoice(command.priority());
+                if (voice == null) {
+                    droppedCount++;
+                    if (command.stream() != null)
+                        command.stream().close();
+                    return;
+                }
+                if (voice.active)
+                    release(voice);
+                voice.id = command.voiceId();
+                voice.samples = command.samples();
+                voice.stream = command.stream();
+                voice.position = 0;
+                voice.gain = command.gain();
+                voice.gainStep = 0;
+                voice.stopAfterFade = false;
+                voice.priority = command.priority();
+                voice.group = command.group();
+                voice.looping = command.flag();
+                voice.startedAt = mixedFrames;
+                voice.active = true;
+            }
+            case STOP -> {
+                Voice voice = getVoice(command.voiceId());
+                if (voice != null)
+                    release(voice);
+            }
+            case SET_GAIN -> {
+                Voice voice = getVoice(command.voiceId());
+                if (voice != null) {
+                    voice.gain = command.gain();
+                    voice.gainStep = 0;
+                }
+            }
+            case FADE -> {
+                Voice voice = getVoice(command.voiceId());
+                if (voice != null) {
+                    voice.targetGain = command.gain();
+                    voice.gainStep = (command.gain() - voice.gain) / command.frames();
+                    voice.stopAfterFade = command.flag();
+                    if (voice.gainStep == 0)
+                        voice.gain = command.gain(); // Already there, a stopping voice stops with the next buffer
+                }
+            }
+            case SET_GROUP_GAIN -> groupGains[command.group()] = command.gain();
+        }
+    }
+
+    /**
+     * @return a free voice, the voice to replace or null if the new voice has to be dropped
+     */
+    private Voice findVoice(int priority) {
+        Voice candidate = null;
+        for (Voice voice : voices) {
+            if (!voice.active)
+                return voice;
+            if (candidate == null || voice.priority < candidate.priority
+                    || voice.priority == candidate.priority && voice.startedAt < candidate.startedAt)
+                candidate = voice;
+        }
+        if (candidate.priority > priority)
+            return null;
+        stolenCount++;
+        return candidate;
+    }
+
+    private Voice getVoice(long id) {
+        for (Voice voice : voices) {
+            if (voice.active && voice.id == id)
+                return voice;
+        }
+        return null;
+    }
+
+    private static void release(Voice voice) {
+        voice.active = false;
+        voice.samples = null;
+        if (voice.stream != null)
+            voice.stream.close(); // Only signals the stream thread, it closes the file itself
+        voice.stream = null;
+    }
+
+    /**
+     * Decodes audio into the format of the mixer. The samples are converted to 16 bit, mono is played on both
+     * channels and other sample rates are resampled linearly.
+     *
+     * @param stream the audio to decode, it is read completely but not closed
+     * @return the interleaved samples
+     * @throws IOException              if the stream couldn't be read
+     * @throws IllegalArgumentException if the encoding can't be converted to PCM
+     */
+    public static short[] decode(AudioInputStream stream) throws IOException {
+        AudioFormat source = stream.getFormat();
+        int channels = source.getChannels();
+        AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, source.getSampleRate(), 16, channels,
+                channels * 2, source.getSampleRate(), false);
+        AudioInputStream pcmStream = source.matches(pcm) ? stream : AudioSystem.getAudioInputStream(pcm, stream);
+        byte[] bytes = pcmStream.readAllBytes();
+
+        int frames = bytes.length / (channels * 2);
+        short[] stereo = new short[frames * CHANNELS];
+        for (int frame = 0; frame < frames; frame++) {
+            for (int channel = 0; channel < CHANNELS; channel++) {
+                int offset = (frame * channels + Math.min(channel, channels - 1)) * 2;
+                stereo[frame * CHANNELS + channel] = (short) (bytes[offset] & 0xFF | bytes[offset + 1] << 8);
+            }
+        }
+        return resample(stereo, source.getSampleRate(), FORMAT.getSampleRate());
+    }
+
+    /**
+     * Resamples interleaved stereo samples by interpolating linearly between the neighbouring frames.
+     *
+     * @param samples    the samples to resample
+     * @param sourceRate the sample rate of the samples
+     * @param targetRate the new sample rate
+     * @return the resampled samples, or {@code samples} if the rates are equal
+     */
+    public static short[] resample(short[] samples, float sourceRate, float targetRate) {
+        int frames = samples.length / CHANNELS;
+        if (sourceRate == targetRate || frames == 0)
+            return samples;
+        int targetFrames = (int) ((long) frames * targetRate / sourceRate);
+        short[] resampled = new short[targetFrames * CHANNELS];
+        double step = sourceRate / targetRate;
+        for (int frame = 0; frame < targetFrames; frame++) {
+            double position = frame * step;
+            int before = (int) position;
+            int after = Math.min(before + 1, frames - 1);
+            double weight = position - before;
+            for (int channel = 0; channel < CHANNELS; channel++) {
+                double sample = samples[before * CHANNELS + channel] * (1 - weight)
+                        + samples[after * CHANNELS + channel] * weight;
+                resampled[frame * CHANNELS + channel] = (short) Math.round(sample);
+            }
+        }
+        return resampled;
+    }
+
+    /**
+     * @return true if the line is open and the audio thread is mixing
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return the amount of frames mixed at once
+     */
+    public int getBufferFrames() {
+        return bufferFrames;
+    }
+
+    /**
+     * @return the maximum amount of voices playing at the same time
+     */
+    public int getVoiceLimit() {
+        return voices.length;
+    }
+
+    /**
+     * @return the latency added by the buffers of the line in milliseconds
+     */
+    public double getLatencyMillis() {
+        return bufferFrames * LINE_BUFFERS * 1000.0 / FORMAT.getSampleRate();
+    }
+
+    /**
+     * @return the amount of voices playing after the last buffer
+     */
+    public int getActiveVoiceCount() {
+        return activeVoiceCount;
+    }
+
+    /**
+     * @return how often a playing voice was replaced by a new voice
+     */
+    public int getStolenCount() {
+        return stolenCount;
+    }
+
+    /**
+     * @return how many commands were dropped, because the audio thread didn't keep up
+     */
+    public int getRejectedCommandCount() {
+        return commands.getRejectedCount();
+    }
+
+    /**
+     * @return how often a new voice was dropped, because all voices had a higher priority
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+}
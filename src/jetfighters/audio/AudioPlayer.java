@@ -1,14 +1,5 @@
 package jetfighters.audio;
 
-import javax.sound.sampled.*;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Objects;
-
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
  *
@@ -17,37 +8,52 @@ import java.util.Objects;
  */
 public class AudioPlayer {
 
-    private static final HashMap<String, byte[]> cachedClips = new HashMap<>();
-    private final List<AudioClip> musicClips;
-    private final List<AudioClip> soundClips;
+    public static final int MUSIC_PRIORITY = Integer.MAX_VALUE; // Music is never replaced by sounds
+    public static final int CROSSFADE_FRAMES = 44100; // One second
+
+    // The volumes are mapped linearly onto decibels, like the MASTER_GAIN control of the clips the sounds were played with
+    private static final float MIN_DECIBELS = -80f;
+    private static final float MAX_DECIBELS = 6.0206f;
+
+    private final AudioMixer mixer;
+    private final SampleBank sampleBank;
     private final AudioOptions audioOptions;
+    private long musicVoice; // The voice of the current music, -1 if no music is playing
 
+    /**
+     * @param audioOptions the volumes of the music and sounds, played with the shared mixer
+     * @see AudioMixer#getDefault()
+     */
     public AudioPlayer(AudioOptions audioOptions) {
-        musicClips = new ArrayList<>();
-        soundClips = new ArrayList<>();
+        this(audioOptions, AudioMixer.getDefault());
+    }
+
+    /**
+     * @param audioOptions the volumes of the music and sounds
+     * @param mixer        the mixer to play with, it is started if it isn't running
+     */
+    public AudioPlayer(AudioOptions audioOptions, AudioMixer mixer) {
         this.audioOptions = audioOptions;
+        this.mixer = mixer;
+        sampleBank = SampleBank.getDefault();
+        musicVoice = -1;
+        updateMusic();
+        updateSound();
+        mixer.start();
     }
 
     /**
      * is updating the current volume for the music
      */
     public void updateMusic() {
-        musicClips.forEach(musicClip -> musicClip.setVolume(audioOptions.getMusicValue()));
+        mixer.setGroupGain(AudioMixer.GROUP_MUSIC, toGroupGain(audioOptions.getMusicValue()));
     }
 
     /**
      * is updating the current volume for the sounds
      */
     public void updateSound() {
-        soundClips.forEach(soundClip -> soundClip.setVolume(audioOptions.getSoundValue()));
-
-        List.copyOf(soundClips)
-                .forEach(soundClip -> {
-                    if (soundClip.hasFinishedPlaying()) {
-                        soundClip.cleanup();
-                        soundClips.remove(soundClip);
-                    }
-                });
+        mixer.setGroupGain(AudioMixer.GROUP_SOUND, toGroupGain(audioOptions.getSoundValue()));
     }
 
     /**
@@ -60,22 +66,38 @@ public class AudioPlayer {
     }
 
     /**
-     * a method for playing the music
+     * a method for playing the music, the music that is playing is crossfaded to the new music
      *
      * @param filePath the music path
      * @param volume   the volume value for the playing music
      */
     public void playMusic(String filePath, float volume) {
-        final Clip clip = getClip(filePath, "music");
-        if (clip == null) {
-            System.err.println("Couldn't find clip with path: music/" + filePath);
+        if (!mixer.isRunning())
+            return;
+        final String path = "music/" + filePath;
+        if (AudioPlayer.class.getClassLoader().getResource(path) == null) {
+            System.err.println("Couldn't find clip with path: " + path);
             return;
         }
-        final AudioClip musicClip = new AudioClip(clip);
-        musicClip.setVolume(audioOptions.getMusicValue() * volume);
-        clip.loop(Clip.LOOP_CONTINUOUSLY);
-        musicClip.start();
-        musicClips.add(musicClip);
+        final MusicStream stream = new MusicStream(path).start();
+        float gain = toVoiceGain(volume);
+        if (musicVoice < 0) {
+            musicVoice = mixer.play(stream, gain, MUSIC_PRIORITY, AudioMixer.GROUP_MUSIC);
+            return;
+        }
+        mixer.fade(musicVoice, 0, CROSSFADE_FRAMES, true);
+        musicVoice = mixer.play(stream, 0, MUSIC_PRIORITY, AudioMixer.GROUP_MUSIC);
+        mixer.fade(musicVoice, gain, CROSSFADE_FRAMES, false);
+    }
+
+    /**
+     * is fading out the music that is playing
+     */
+    public void stopMusic() {
+        if (musicVoice < 0)
+            return;
+        mixer.fade(musicVoice, 0, CROSSFADE_FRAMES, true);
+        musicVoice = -1;
     }
 
     /**
@@ -84,7 +106,17 @@ public class AudioPlayer {
      * @param sound the sound clip
      */
     public void playSound(Sound sound) {
-        playSound(sound.getSoundPath(), 1);
+        playSound(sound, 1);
+    }
+
+    /**
+     * a method for playing the sound
+     *
+     * @param sound  the sound clip
+     * @param volume the volume value for the playing sound
+     */
+    public void playSound(Sound sound, float volume) {
+        playSound(sound.getSoundPath(), volume, sound.getPriority());
     }
 
     /**
@@ -94,46 +126,63 @@ public class AudioPlayer {
      * @param volume   the volume value for the playing music
      */
     public void playSound(String filePath, float volume) {
-        final Clip clip = getClip(filePath, "sounds");
-        if (clip == null) {
+        playSound(filePath, volume, 0);
+    }
+
+    /**
+     * a method for playing the sound
+     *
+     * @param filePath the sound path
+     * @param volume   the volume value for the playing sound
+     * @param priority the priority of the sound, see {@link Sound#getPriority()}
+     */
+    public void playSound(String filePath, float volume, int priority) {
+        if (!mixer.isRunning())
+            return;
+        final short[] samples = sampleBank.get("sounds/" + filePath);
+        if (samples == null) {
             System.err.println("Couldn't find clip with path: sounds/" + filePath);
             return;
         }
-        final AudioClip soundclip = new AudioClip(clip);
-        soundclip.setVolume(audioOptions.getSoundValue() * volume);
-        soundclip.start();
-        soundClips.add(soundclip);
+        mixer.play(samples, toVoiceGain(volume), priority, AudioMixer.GROUP_SOUND, false);
     }
 
     /**
-     * a getter for the clip to play it
+     * Converts a volume of the options to the gain of a group of the mixer. The volume is mapped linearly from
+     * -80 dB to +6 dB, so the default volume of 1 doubles the amplitude of the samples.
      *
-     * @param fileName the filepath for the clip
-     * @param source   the source folder as a string
-     * @return the clip
+     * @param volume [0, 1] the volume of the music or sounds
+     * @return the linear gain, 0 if the volume is 0
      */
-    private static Clip getClip(String fileName, String source) {
-        String path = source.toLowerCase() + "/" + fileName;
-        ClassLoader classLoader = AudioPlayer.class.getClassLoader();
-        if (!cachedClips.containsKey(path)) {
-            try (InputStream inputStream = classLoader.getResourceAsStream(path)) {
-                byte[] bytes = Objects.requireNonNull(inputStream).readAllBytes();
-                cachedClips.put(path, bytes);
-            } catch (IOException | NullPointerException e) {
-                System.err.println("Couldn't load bytes from file: " + path);
-                e.printStackTrace();
-            }
-        }
-        try {
-            final Clip clip = AudioSystem.getClip();
-            ByteArrayInputStream bis = new ByteArrayInputStream(cachedClips.get(path));
-            AudioInputStream ais = AudioSystem.getAudioInputStream(bis);
-            clip.open(ais);
-            return clip;
-        } catch (LineUnavailableException | UnsupportedAudioFileException | IOException e) {
-            System.err.println("Couldn't open clip from cached bytes: " + path);
-            e.printStackTrace();
-        }
-        return null;
+    public static float toGroupGain(float volume) {
+        if (volume <= 0)
+            return 0;
+        return decibelsToGain(MIN_DECIBELS + (MAX_DECIBELS - MIN_DECIBELS) * Math.min(volume, 1));
+    }
+
+    /**
+     * Converts the volume a single music or sound is played with to the gain of its voice, on the same decibel scale
+     * as {@link #toGroupGain(float)}.
+     *
+     * @param volume [0, 1] the volume of the music or sound, 1 plays it as loud as its group
+     * @return the linear gain, 0 if the volume is 0
+     */
+    public static float toVoiceGain(float volume) {
+        if (volume <= 0)
+            return 0;
+        return decibelsToGain((MAX_DECIBELS - MIN_DECIBELS) * (Math.min(volume, 1) - 1));
+    }
+
+    private static float decibelsToGain(float decibels) {
+        return (float) Math.pow(10, decibels / 20);
+    }
+
+    /**
+     * a getter for the mixer all music and sounds are played with
+     *
+     * @return the mixer
+     */
+    public AudioMixer getMixer() {
+        return mixer;
     }
 }
@@ -0,0 +1,302 @@
+package jetfighters.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Streams a music track to the {@link AudioMixer}, so the track is never in memory as a whole. <br>
+ * A daemon thread decodes the file in small chunks into a ring buffer, converted to the format of the mixer, and the
+ * audio thread reads the ring buffer while it mixes. The ring buffer has exactly one writer (the stream thread) and
+ * one reader (the audio thread), so both only publish their position and never wait for each other. If the reader
+ * catches up with the writer, the rest of the buffer stays silent and the track continues with the next buffer. <br>
+ * A looping stream opens the file again when it ends. The resampling continues over the end, so the loop has no gap.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class MusicStream {
+
+    public static final int DEFAULT_CAPACITY_FRAMES = 8192; // 32 KB, about 190 ms
+
+    private static final int CHUNK_FRAMES = 1024;
+    private static final int READ_BUFFER_BYTES = 4096;
+    private static final long PARK_NANOS = 5_000_000; // Much shorter than the buffer, so it never runs empty
+
+    private final Callable<AudioInputStream> opener;
+    private final boolean looping;
+    private final short[] ring;
+    private final int mask;
+    private volatile long writePosition; // In samples, only written by the stream thread
+    private volatile long readPosition; // In samples, only written by the audio thread
+    private volatile boolean closed;
+    private volatile boolean finished;
+    private volatile int loopCount;
+    private int underrunCount; // Only accessed by the audio thread
+
+    private volatile Thread thread;
+    private AudioInputStream source;
+    private final byte[] readBuffer;
+    private int readLength;
+    private int readOffset;
+    private int sourceChannels;
+    private double step; // Source frames per output frame
+    private double phase; // The position between the previous and the next source frame
+    private short previousLeft, previousRight, nextLeft, nextRight;
+
+    /**
+     * Creates a looping stream of a music file in the resources.
+     *
+     * @param path the path of the file relative to the resources
+     */
+    public MusicStream(String path) {
+        this(() -> AudioSystem.getAudioInputStream(new BufferedInputStream(Objects.requireNonNull(
+                MusicStream.class.getClassLoader().getResourceAsStream(path), "Couldn't find " + path))),
+                DEFAULT_CAPACITY_FRAMES, true);
+    }
+
+    /**
+     * @param opener         opens the audio to stream, again for every loop
+     * @param capacityFrames the size of the ring buffer in frames, rounded up to a power of two
+     * @param looping        if true, the stream starts again at the end of the audio
+     */
+    public MusicStream(Callable<AudioInputStream> opener, int capacityFrames, boolean looping) {
+        if (capacityFrames < CHUNK_FRAMES)
+            throw new IllegalArgumentException("The buffer needs at least " + CHUNK_FRAMES + " frames");
+        this.opener = opener;
+        this.looping = looping;
+        int capacity = Integer.highestOneBit(capacityFrames * AudioMixer.CHANNELS - 1) << 1;
+        ring = new short[capacity];
+        mask = capacity - 1;
+        readBuffer = new byte[READ_BUFFER_BYTES];
+    }
+
+    /**
+     * Starts the thread that fills the buffer.
+     *
+     * @return this stream
+     */
+    public synchronized MusicStream start() {
+        if (thread == null && !closed) {
+            thread = new Thread(this::run, "MusicStream");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return this;
+    }
+
+    /**
+     * Stops the stream. The file is closed by the stream thread, so this never waits for it.
+     */
+    public void close() {
+        closed = true;
+        Thread streamThread = thread;
+        if (streamThread != null)
+            LockSupport.unpark(streamThread);
+    }
+
+    private void run() {
+        try {
+            open();
+            // The first frame becomes the previous frame when the second one is read
+            if (!readSourceFrame() || !readSourceFrame())
+                return;
+            while (!closed) {
+                long free = ring.length - (writePosition - readPosition);
+                if (free < CHUNK_FRAMES * AudioMixer.CHANNELS) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                    continue;
+                }
+                if (!fill())
+                    return;
+            }
+        } catch (Exception e) {
+            System.err.println("Couldn't stream music");
+            e.printStackTrace();
+        } finally {
+            finished = true;
+            closeSource();
+        }
+    }
+
+    /**
+     * Writes the next chunk into the ring buffer.
+     *
+     * @return false if the audio ended
+     */
+    private boolean fill() throws Exception {
+        long position = writePosition;
+        boolean more = true;
+        for (int frame = 0; frame < CHUNK_FRAMES && more; frame++) {
+            while (phase >= 1) {
+                if (!readSourceFrame()) {
+                    more = false;
+                    break;
+                }
+                phase -= 1;
+            }
+            if (!more)
+                break;
+            ring[(int) (position & mask)] = interpolate(previousLeft, nextLeft);
+            ring[(int) ((position + 1) & mask)] = interpolate(previousRight, nextRight);
+            position += AudioMixer.CHANNELS;
+            phase += step;
+        }
+        writePosition = position;
+        return more;
+    }
+
+    private short interpolate(short previous, short next) {
+        return (short) Math.round(previous + (next - previous) * phase);
+    }
+
+    private void open() throws Exception {
+        AudioInputStream stream = opener.call();
+        AudioFormat format = stream.getFormat();
+        int channels = format.getChannels();
+        AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16, channels,
+                channels * 2, format.getSampleRate(), false);
+        source = format.matches(pcm) ? stream : AudioSystem.getAudioInputStream(pcm, stream);
+        sourceChannels = channels;
+        step = format.getSampleRate() / AudioMixer.FORMAT.getSampleRate();
+        readLength = readOffset = 0;
+    }
+
+    /**
+     * Moves the next source frame to the previous one and reads a new next frame, opening the file again at its end,
+     * if the stream loops.
+     *
+     * @return false if the audio ended
+     */
+    private boolean readSourceFrame() throws Exception {
+        shiftFrame();
+        int frameBytes = sourceChannels * 2;
+        if (readLength - readOffset < frameBytes && !readChunk(frameBytes)) {
+            if (!looping || closed)
+                return false;
+            closeSource();
+            open();
+            loopCount++;
+            if (!readChunk(frameBytes))
+                return false; // The file is empty now, looping would never end
+        }
+        nextLeft = readSample(0);
+        nextRight = readSample(Math.min(1, sourceChannels - 1));
+        readOffset += frameBytes;
+        return true;
+    }
+
+    private void shiftFrame() {
+        previousLeft = nextLeft;
+        previousRight = nextRight;
+    }
+
+    private short readSample(int channel) {
+        int offset = readOffset + channel * 2;
+        return (short) (readBuffer[offset] & 0xFF | readBuffer[offset + 1] << 8);
+    }
+
+    /**
+     * Reads more bytes from the source, keeping the incomplete frame at the end of the buffer.
+     *
+     * @return false if the source has no complete frame left
+     */
+    private boolean readChunk(int frameBytes) throws IOException {
+        int remaining = readLength - readOffset;
+        System.arraycopy(readBuffer, readOffset, readBuffer, 0, remaining);
+        readLength = remaining;
+        readOffset = 0;
+        int maxLength = readBuffer.length - readBuffer.length % frameBytes;
+        while (readLength < frameBytes) {
+            int read = source.read(readBuffer, readLength, maxLength - readLength);
+            if (read < 0)
+                return false;
+            readLength += read;
+        }
+        return true;
+    }
+
+    private void closeSource() {
+        if (source == null)
+            return;
+        try {
+            source.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        source = null;
+    }
+
+    /**
+     * Copies the next samples of the stream. This must only be called by one thread (the audio thread).
+     *
+     * @param buffer the buffer to copy the interleaved samples to
+     * @param offset the index of the first sample in the buffer
+     * @param length the maximum amount of samples, a multiple of the channels
+     * @return the amount of samples copied or -1, if the stream ended and everything was read
+     */
+    public int read(short[] buffer, int offset, int length) {
+        long position = readPosition;
+        int available = (int) Math.min(length, writePosition - position);
+        if (available == 0) {
+            if (finished || closed)
+                return -1;
+            underrunCount++;
+            return 0;
+        }
+        int start = (int) (position & mask);
+        int first = Math.min(available, ring.length - start);
+        System.arraycopy(ring, start, buffer, offset, first);
+        System.arraycopy(ring, 0, buffer, offset + first, available - first);
+        readPosition = position + available;
+        return available;
+    }
+
+    /**
+     * @return true if the stream was closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return true if the stream thread stopped, because the audio ended, the stream was closed or failed
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return the amount of frames in the buffer, which weren't read yet
+     */
+    public int getBufferedFrames() {
+        return (int) (writePosition - readPosition) / AudioMixer.CHANNELS;
+    }
+
+    /**
+     * @return the size of the ring buffer in frames
+     */
+    public int getCapacityFrames() {
+        return ring.length / AudioMixer.CHANNELS;
+    }
+
+    /**
+     * @return how often the stream started again at the beginning
+     */
+    public int getLoopCount() {
+        return loopCount;
+    }
+
+    /**
+     * @return how often the buffer was empty when it was read
+     */
+    public int getUnderrunCount() {
+        return underrunCount;
+    }
+}
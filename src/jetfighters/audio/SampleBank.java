@@ -0,0 +1,103 @@
+package jetfighters.audio;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Decodes every sound once into the format of the {@link AudioMixer}, so playing a sound only hands the shared
+ * samples to the mixer. Sounds are decoded by the {@code AssetPreloader} at startup, a sound that isn't loaded yet is
+ * decoded by the first thread that plays it. <br>
+ * The samples are stored as interleaved 16 bit stereo, 4 bytes per frame, and must not be modified. A sound that
+ * couldn't be decoded is remembered as missing, so it isn't read again on every play.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class SampleBank {
+
+    private static final short[] MISSING = new short[0];
+    private static final SampleBank defaultBank = new SampleBank();
+
+    private final Map<String, short[]> samples;
+    private final AtomicInteger decodeCount;
+
+    public SampleBank() {
+        samples = new ConcurrentHashMap<>();
+        decodeCount = new AtomicInteger();
+    }
+
+    /**
+     * @return the bank shared by all audio players
+     */
+    public static SampleBank getDefault() {
+        return defaultBank;
+    }
+
+    /**
+     * Decodes a sound, if it isn't decoded yet.
+     *
+     * @param sound the sound to load
+     * @return true, if the sound could be decoded
+     */
+    public boolean load(Sound sound) {
+        return get(sound) != null;
+    }
+
+    /**
+     * @param sound the sound
+     * @return the decoded samples of the sound or null, if it couldn't be decoded
+     */
+    public short[] get(Sound sound) {
+        return get("sounds/" + sound.getSoundPath());
+    }
+
+    /**
+     * @param path the path of the audio file relative to the resources
+     * @return the decoded samples of the file or null, if it couldn't be decoded
+     */
+    public short[] get(String path) {
+        short[] decoded = samples.computeIfAbsent(path, this::decode);
+        return decoded == MISSING ? null : decoded;
+    }
+
+    private short[] decode(String path) {
+        decodeCount.incrementAndGet();
+        ClassLoader classLoader = SampleBank.class.getClassLoader();
+        // The file readers need to reset the stream after checking the header
+        try (InputStream inputStream = new BufferedInputStream(Objects.requireNonNull(classLoader.getResourceAsStream(path)));
+             AudioInputStream ais = AudioSystem.getAudioInputStream(inputStream)) {
+            return AudioMixer.decode(ais);
+        } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException | NullPointerException e) {
+            System.err.println("Couldn't decode audio file: " + path);
+            e.printStackTrace();
+        }
+        return MISSING;
+    }
+
+    /**
+     * @return how often a file was decoded (including files that couldn't be decoded)
+     */
+    public int getDecodeCount() {
+        return decodeCount.get();
+    }
+
+    /**
+     * @return the size of all decoded samples in bytes
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (short[] decoded : samples.values()) {
+            bytes += 2L * decoded.length;
+        }
+        return bytes;
+    }
+}
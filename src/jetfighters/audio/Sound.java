@@ -8,19 +8,21 @@ package jetfighters.audio;
  */
 public enum Sound {
 
-    Button01("Button_01.wav"),
-    Button02("Button_02.wav"),
-    Button03("Button_03.wav"),
-    Hit("jet/8bit_hit_1.wav"),
-    Collision("jet/8bit_hit_6.wav"),
-    Death("jet/8bit_death_3.wav"),
-    Heal("jet/8bit_grow_level_up_2.wav"),
-    PowerUp("jet/8bit_powerup.wav");
+    Button01("Button_01.wav", 2),
+    Button02("Button_02.wav", 2),
+    Button03("Button_03.wav", 2),
+    Hit("jet/8bit_hit_1.wav", 0),
+    Collision("jet/8bit_hit_6.wav", 0),
+    Death("jet/8bit_death_3.wav", 3),
+    Heal("jet/8bit_grow_level_up_2.wav", 1),
+    PowerUp("jet/8bit_powerup.wav", 1);
 
     private final String soundPath;
+    private final int priority;
 
-    Sound(String soundPath) {
+    Sound(String soundPath, int priority) {
         this.soundPath = soundPath;
+        this.priority = priority;
     }
 
     /**
@@ -32,4 +34,13 @@ public enum Sound {
         return soundPath;
     }
 
+    /**
+     * a getter for the priority, sounds with a higher priority replace other sounds when too many sounds are playing
+     *
+     * @return the priority
+     */
+    public int getPriority() {
+        return priority;
+    }
+
 }
@@ -0,0 +1,133 @@
+package jetfighters.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * A bounded queue that hands commands from any thread (e.g. the EDT and the game thread) to exactly one consumer
+ * thread (e.g. the game or the audio thread), without locks. <br>
+ * The commands are stored in a ring. Every slot has a sequence number, which tells the producers if the slot is free
+ * for their lap around the ring and the consumer if the command in it is complete. Producers reserve a slot by
+ * advancing the shared tail, the consumer is the only one who advances the head, so it never competes with anyone.
+ * If the ring is full, a command is rejected instead of waiting for the consumer. <br>
+ * Commands of one producer are consumed in the order they were offered.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class CommandQueue<T> {
+
+    private final AtomicReferenceArray<T> commands;
+    private final AtomicLongArray sequences; // The position a slot can be written at, or the position + 1 once written
+    private final int mask;
+    private final AtomicLong tail; // The next position to write, shared by the producers
+    private final AtomicInteger rejectedCount;
+    private long head; // The next position to read, only used by the consumer
+
+    /**
+     * @param capacity the maximum amount of commands waiting in the queue, rounded up to a power of two (at least 2)
+     */
+    public CommandQueue(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("The capacity has to be positive, but was " + capacity);
+        // With one slot "written at position 0" and "free for position 1" would have the same sequence number
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        commands = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+        tail = new AtomicLong();
+        rejectedCount = new AtomicInteger();
+    }
+
+    /**
+     * Adds a command to the queue. Can be called by any thread.
+     *
+     * @param command the command
+     * @return false if the queue is full and the command was rejected
+     */
+    public boolean offer(T command) {
+        if (command == null)
+            throw new IllegalArgumentException("Commands can't be null");
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    commands.set(index, command);
+                    sequences.set(index, position + 1); // Publishes the command to the consumer
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds the command of the previous lap
+                rejectedCount.incrementAndGet();
+                return false;
+            } else {
+                position = tail.get(); // Another producer took the slot
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest command. Must only be called by the consumer thread.
+     *
+     * @return the command or null if the queue is empty (or the oldest command isn't written completely yet)
+     */
+    public T poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1)
+            return null;
+        T command = commands.get(index);
+        commands.set(index, null);
+        sequences.set(index, head + mask + 1); // Frees the slot for the next lap
+        head++;
+        return command;
+    }
+
+    /**
+     * Removes the commands that are in the queue and passes them to {@code consumer} in their order. Commands that are
+     * added meanwhile are left for the next drain, so this always ends. Must only be called by the consumer thread.
+     *
+     * @param consumer executes the commands
+     * @return the amount of commands
+     */
+    public int drain(Consumer<? super T> consumer) {
+        long end = tail.get();
+        int count = 0;
+        T command;
+        while (head < end && (command = poll()) != null) {
+            consumer.accept(command);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return true if there is no command in the queue (only exact on the consumer thread)
+     */
+    public boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    /**
+     * @return the maximum amount of commands in the queue
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return how many commands were rejected because the queue was full
+     */
+    public int getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
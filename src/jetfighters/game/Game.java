@@ -1,15 +1,15 @@
 package jetfighters.game;
 
-import jetfighters.audio.AudioPlayer;
 import jetfighters.audio.Sound;
-import jetfighters.game.camera.ShakeCamera;
 import jetfighters.game.entities.Entity;
+import jetfighters.game.entities.EntityPools;
 import jetfighters.game.entities.Player;
-import jetfighters.game.handlers.CollisionHandler;
-import jetfighters.game.handlers.EntityHandler;
-import jetfighters.game.handlers.TweenHandler;
-import jetfighters.game.math.Vector2;
-import jetfighters.game.spawner.PowerUpSpawner;
+import jetfighters.game.entities.projectiles.BulletSystem;
+import jetfighters.game.input.InputSystem;
+import jetfighters.game.rendering.BackgroundLayer;
+import jetfighters.game.rendering.FrameSnapshot;
+import jetfighters.game.rendering.RenderQueue;
+import jetfighters.game.rendering.SnapshotBuffer;
 import jetfighters.game.states.GameState;
 import jetfighters.game.states.GameStateManager;
 import jetfighters.game.transitions.RectangleFadeTransition;
@@ -21,9 +21,11 @@ import jetfighters.windows.Window;
 import jetfighters.windows.exceptions.StateNotFoundException;
 import jetfighters.windows.states.MenuState;
 
+import javax.swing.*;
 import java.awt.*;
-import java.awt.geom.AffineTransform;
 import java.awt.image.BufferStrategy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
@@ -31,34 +33,37 @@ import java.awt.image.BufferStrategy;
  * @author do04 - Daniel Flat, Moritz Junge
  * @version 13.07.22
  */
-public class Game extends Canvas implements Runnable {
+public class Game extends Canvas implements Runnable, GameWorld {
 
     private final Window window;
     public static final boolean debug = false;
-    private EntityHandler entityHandler;
-    private CollisionHandler collisionHandler;
-    private PowerUpSpawner powerUpSpawner;
-    private TweenHandler tweenHandler;
-    private boolean running;
+    public static final boolean reportInputLatency = Boolean.getBoolean("jetfighters.inputLatency"); // Prints the input latency when the game stops
+    private final Simulation simulation;
+    private volatile boolean running;
     private Thread thread;
+    private Thread renderThread;
+    private final SnapshotBuffer snapshotBuffer; // Hands the state of each tick from the game thread to the render thread
 
-    private Player player1;
-    private Player player2;
+    public static final int DEFAULT_MAX_CATCH_UP_TICKS = 5;
+    public static final int COMMAND_CAPACITY = 256;
+    private static final long SPIN_THRESHOLD_NS = 1_000_000; // The last millisecond before a deadline is spun instead of parked
 
-    private final ShakeCamera camera;
+    private volatile double tickRate; // Simulation updates per second
+    private volatile double frameCap; // Maximum rendered frames per second, 0 = one frame per tick
+    private volatile int maxCatchUpTicks; // Maximum amount of updates that may be run back to back in one frame
 
-    private HUD hud;
+    private final HUD hud; // Drawn by the render thread, so it is reset instead of replaced
 
     private final int canvasWidth;
     private final int canvasHeight;
 
-    private double currentGameTime; // The time that has passed in between every update call when the game was resumed
-    private double gameSpeed;
-
     private final GameStateManager gms;
-    private final Image backgroundImage;
-
-    private final AudioPlayer audioPlayer;
+    private final BackgroundLayer backgroundLayer;
+    private final RenderQueue renderQueue; // Only used by the render thread
+    private final CommandQueue<GameCommand> commands; // Changes from other threads, executed by the game thread
+    private final InputSystem inputSystem; // The key events of the players, applied by the game thread
+    private volatile long tick; // The number of ticks run, only changed by the game thread
+    private volatile long presentedTick; // The tick of the last frame the render thread presented
 
     /**
      * Creates a new Game instance (which is a canvas) to run the game in. <br>
@@ -73,36 +78,25 @@ public class Game extends Canvas implements Runnable {
         gms = new GameStateManager();
         gms.setState(GameState.Running);
 
-        gameSpeed = 1;
-
-        setupEntities();
-
-        camera = new ShakeCamera();
+        tickRate = Simulation.DEFAULT_TICK_RATE;
+        frameCap = getDisplayRefreshRate();
+        maxCatchUpTicks = DEFAULT_MAX_CATCH_UP_TICKS;
+        snapshotBuffer = new SnapshotBuffer();
+        renderQueue = new RenderQueue();
+        commands = new CommandQueue<>(COMMAND_CAPACITY);
+        inputSystem = new InputSystem();
 
         this.window = window;
-        this.backgroundImage = window.getBackgroundImage().getBackgroundImageScaled(1.1, 1.1).getImage();
-        this.audioPlayer = window.getAudioPlayer();
-    }
-
-    private void setupEntities() {
-        gameSpeed = 1;
-
-        entityHandler = new EntityHandler();
-        //Enemy strafer = new StrafeEnemy(this, new Vector2(-100, -100), new Vector2(800, 700), TweenMode.Quadratic);
-        powerUpSpawner = new PowerUpSpawner(entityHandler);
-        if (player1 == null && player2 == null) {
-            player1 = new Player(1, new Vector2(200, 350), this);
-            player2 = new Player(2, new Vector2(800, 350), this);
-            player1.setOpponent(player2);
-            player2.setOpponent(player1);
-        }
-        entityHandler.addEntity(player1);
-        entityHandler.addEntity(player2);
-        //entityHandler.addEntity(strafer);
-
-        collisionHandler = new CollisionHandler(entityHandler);
-        tweenHandler = new TweenHandler();
-        hud = new HUD(entityHandler);
+        // The scaled background is usually ready, otherwise the current one is drawn until it is scaled
+        CompletableFuture<ImageIcon> background = window.getBackgroundImage().getBackgroundImageScaledAsync(1.1, 1.1);
+        this.backgroundLayer = new BackgroundLayer(background.getNow(window.getBackgroundImage().getBackgroundImage()).getImage(), -20, -20);
+        if (!background.isDone())
+            background.thenAccept((image) -> backgroundLayer.setSource(image.getImage()));
+
+        simulation = new Simulation(canvasWidth, canvasHeight);
+        simulation.setAudioPlayer(window.getAudioPlayer());
+        simulation.setGameOverAction(this::showGameOver);
+        hud = new HUD();
     }
 
     /**
@@ -115,29 +109,35 @@ public class Game extends Canvas implements Runnable {
         this.createBufferStrategy(2); // Use buffering to draw every frame at once instead of drawing everything one by one
     }
 
+    /**
+     * Draws the latest snapshot published by the game thread, interpolating the entities by the time that has passed since it was published.
+     */
     private void render() {
         if (gms.inAny(GameState.Running)) {
+            FrameSnapshot snapshot = snapshotBuffer.getReadSnapshot();
+            if (snapshot.isEmpty())
+                return;
+            double alpha = snapshot.getAlpha(System.nanoTime());
             BufferStrategy bs = this.getBufferStrategy();
             try {
                 Graphics2D g2d = (Graphics2D) bs.getDrawGraphics();
 
-                g2d.setColor(Color.white);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
+                // Covers the whole canvas, so it isn't cleared first
+                backgroundLayer.draw(g2d, snapshot.getCameraTransform(), getWidth(), getHeight());
 
-                AffineTransform cameraTransform = camera.getTransform(getCanvasWidth(), getCanvasHeight());
-                AffineTransform cameraInverseTransform = camera.getInverseTransform(getCanvasWidth(), getCanvasHeight());
-                g2d.transform(cameraTransform);
+                g2d.transform(snapshot.getCameraTransform());
 
-                g2d.drawImage(backgroundImage, -20, -20, null);
+                snapshot.drawEntities(g2d, renderQueue, alpha);
+                snapshot.drawBullets(g2d, alpha);
 
-                entityHandler.drawEntities(g2d);
+                g2d.transform(snapshot.getCameraInverseTransform());
 
-                g2d.transform(cameraInverseTransform);
-
-                hud.draw(g2d, cameraTransform, cameraInverseTransform, currentGameTime);
+                hud.draw(g2d, snapshot, alpha);
 
                 g2d.dispose();
                 bs.show();
+                presentedTick = snapshot.getTick();
+                inputSystem.framePresented(presentedTick, System.nanoTime());
             } catch (IllegalStateException e) {
                 System.out.println("Dropped frame because of invalid peer");
             }
@@ -146,42 +146,85 @@ public class Game extends Canvas implements Runnable {
     }
 
     private void update(double delta) {
-        double realDelta = delta;
-        delta *= gameSpeed;
+        executeCommands();
         if (gms.inAny(GameState.Running)) {
-            currentGameTime += delta;
-
-            entityHandler.updateEntities(delta);
-            collisionHandler.update();
-            powerUpSpawner.update(delta);
-            camera.update(delta);
+            tick++;
+            inputSystem.apply(tick, this::getPlayer);
+            simulation.update(delta);
+            hud.update(delta);
 
-            hud.update(realDelta);
-            tweenHandler.updateTweens(realDelta);
+            publishSnapshot();
         }
     }
 
+    /**
+     * Executes the commands submitted since the last tick. A failing command is skipped, so it can't stop the game loop.
+     */
+    private void executeCommands() {
+        commands.drain((command) -> {
+            try {
+                command.execute();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Queues a command that is executed by the game thread before its next tick, so it never changes the game in the
+     * middle of a tick. Can be called by any thread. While the game is paused, the commands wait until the game
+     * thread is woken up (by {@link #setGameState(GameState)}).
+     *
+     * @param command the command
+     * @return false if too many commands are waiting and the command was dropped
+     */
+    public boolean submit(GameCommand command) {
+        if (commands.offer(command))
+            return true;
+        System.err.println("Dropped a game command, the game thread is not keeping up");
+        return false;
+    }
+
+    private void publishSnapshot() {
+        FrameSnapshot snapshot = snapshotBuffer.getWriteSnapshot();
+        snapshot.captureTick(tick);
+        snapshot.captureBullets(simulation.getBulletSystem());
+        hud.capture(snapshot);
+        snapshot.capture(simulation.getEntityHandler().getEntities(),
+                simulation.getCamera().getTransform(getCanvasWidth(), getCanvasHeight()),
+                simulation.getCamera().getInverseTransform(getCanvasWidth(), getCanvasHeight()),
+                simulation.getCurrentGameTime(), (long) (1_000_000_000 / tickRate));
+        snapshotBuffer.publish();
+    }
+
     /**
      * Will end the game by fading into the "Game Over"-screen. <br>
      * The fade will be centered on the player who lost.
      * @param playerLost the player who lost the game
      */
+    @Override
     public void gameOver(Player playerLost) {
+        simulation.gameOver(playerLost);
+    }
+
+    private void showGameOver(Player playerLost) {
         addTween(new Tween.Double(2, getGameSpeed(), 0, TweenMode.Linear, this::setGameSpeed));
         hud.transition(new VocalCircleTransition(
                 playerLost.getPosition(), 0, 1600, false, 2, 2,
                 TweenMode.Cubic, () -> {
-            try {
-                gms.setState(GameState.Menu);
-                window.updateMenuState(MenuState.GameOver);
-                GameOverWindow gameOverWindow = window.getGameOverWindow();
-                if (playerLost.getPlayerID() == 1)
-                    gameOverWindow.setDescription(2);
-                else
-                    gameOverWindow.setDescription(1);
-            } catch (StateNotFoundException e) {
-                throw new RuntimeException(e);
-            }
+            gms.setState(GameState.Menu);
+            SwingUtilities.invokeLater(() -> { // The windows are only changed by the EDT
+                try {
+                    window.updateMenuState(MenuState.GameOver);
+                    GameOverWindow gameOverWindow = window.getGameOverWindow();
+                    if (playerLost.getPlayerID() == 1)
+                        gameOverWindow.setDescription(2);
+                    else
+                        gameOverWindow.setDescription(1);
+                } catch (StateNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            });
         }, Color.BLACK
         ));
     }
@@ -192,17 +235,10 @@ public class Game extends Canvas implements Runnable {
      */
     @SuppressWarnings("unused")
     public void fadeIn() {
-        setupEntities();
-        gameSpeed = 0;
-        hud.transition(new RectangleFadeTransition(1, TweenMode.Linear, () -> gameSpeed = 1, Color.BLACK, 1, 0));
-    }
-
-    /**
-     * Plays a sound at full volume using the internal audio player.
-     * @param sound the sound to be played
-     */
-    public void playSound(Sound sound) {
-        playSound(sound, 1f);
+        simulation.reset();
+        hud.reset();
+        simulation.setGameSpeed(0);
+        hud.transition(new RectangleFadeTransition(1, TweenMode.Linear, () -> simulation.setGameSpeed(1), Color.BLACK, 1, 0));
     }
 
     /**
@@ -210,16 +246,28 @@ public class Game extends Canvas implements Runnable {
      * @param sound the sound to be played
      * @param volume the volume to play the sound at
      */
+    @Override
     public void playSound(Sound sound, float volume) {
-        audioPlayer.playSound(sound.getSoundPath(), volume);
+        simulation.playSound(sound, volume);
     }
 
     /**
      * Adds a new entity to the game, making it appear in the game world (by calling the draw() and update() methods)
      * @param entity the entity to be added
      */
+    @Override
     public void addEntity(Entity entity) {
-        entityHandler.addEntity(entity);
+        simulation.addEntity(entity);
+    }
+
+    @Override
+    public BulletSystem getBulletSystem() {
+        return simulation.getBulletSystem();
+    }
+
+    @Override
+    public EntityPools getEntityPools() {
+        return simulation.getEntityPools();
     }
 
     /**
@@ -227,21 +275,24 @@ public class Game extends Canvas implements Runnable {
      * The tween will be updated with the actual time that has passed and not the one adjusted by the games speed.
      * @param tween the tween to be added
      */
+    @Override
     public void addTween(Tween tween) {
-        tweenHandler.addTween(tween);
+        simulation.addTween(tween);
     }
 
     /**
      * Adds trauma to the screen shake, making it shake more violently the higher the trauma gets.
      * @param amount the amount of trauma to be added
      */
+    @Override
     public void addScreenShake(double amount) {
-        camera.addTrauma(amount);
+        simulation.addScreenShake(amount);
     }
 
     /**
      * @return the width of this games canvas
      */
+    @Override
     public int getCanvasWidth() {
         return canvasWidth;
     }
@@ -249,6 +300,7 @@ public class Game extends Canvas implements Runnable {
     /**
      * @return the height of this games canvas
      */
+    @Override
     public int getCanvasHeight() {
         return canvasHeight;
     }
@@ -256,48 +308,104 @@ public class Game extends Canvas implements Runnable {
 
     /**
      * Will start the game loop internally, blocking the current Thread and should therefore only be automatically called by a new Thread. <br>
+     * The simulation is updated with a fixed time step of {@code 1 / tickRate} seconds and publishes a snapshot after every
+     * tick, which is drawn by the render thread (see {@link #renderLoop()}). If the loop falls behind, at most
+     * {@code maxCatchUpTicks} updates are run back to back and the rest of the backlog is dropped.
+     * While the game is not running the thread parks until the state changes. <br>
      * You should not call this manually and instead call {@link #startGameLoop()}.
      */
     @Override
     public void run() {
-        //Initializes the gameloop variables
         long lastTime = System.nanoTime();
-        double amountOfTicks = 50.0;
-        double ns = 1000000000 / amountOfTicks;
-        double delta = 0;
-        double lastUpdate = lastTime;
-        long timer = System.currentTimeMillis();
-        int frames = 0;
-        //The gameloop wich calls the tick() method every gameTick (60 times/sec) and the render() method each frame (dependent on System)
+        double delta = 0; // The amount of ticks that are due
         while (running) {
+            if (!gms.inAny(GameState.Running)) {
+                executeCommands(); // Resuming the game is a command as well
+                if (!gms.inAny(GameState.Running))
+                    LockSupport.park(this); // Woken up by setGameState or stopGameLoop
+                lastTime = System.nanoTime(); // Time spent paused should not be caught up on
+                delta = 0;
+                continue;
+            }
+
             long now = System.nanoTime();
-            delta += (now - lastTime) / ns;
+            double tickNanos = 1_000_000_000 / tickRate;
+            delta += (now - lastTime) / tickNanos;
             lastTime = now;
+            if (delta > maxCatchUpTicks) // Prevents the "spiral of death" after long pauses (e.g. GC or a slow frame)
+                delta = maxCatchUpTicks;
             while (delta >= 1) {
-                long time = System.nanoTime();
-                double deltaTime = ((time - lastUpdate) / 1000000);
-                lastUpdate = time;
-                update(deltaTime / 1000);
+                update(1 / tickRate);
                 delta--;
             }
-            if (running)
-                render();
-            frames++;
 
-            if (System.currentTimeMillis() - timer > 1000) {
-                timer += 1000;
-                frames = 0;
+            waitUntil(lastTime + (long) ((1 - delta) * tickNanos));
+        }
+    }
+
+    /**
+     * The loop of the render thread. Draws the latest snapshot at most {@code frameCap} times per second
+     * (or once per tick if the frame cap is 0), independently of the simulation.
+     */
+    private void renderLoop() {
+        long nextFrame = System.nanoTime();
+        while (running) {
+            if (!gms.inAny(GameState.Running)) {
+                LockSupport.park(this);
+                nextFrame = System.nanoTime();
+                continue;
             }
+
+            double cap = frameCap;
+            long frameNanos = (long) (1_000_000_000 / (cap > 0 ? cap : tickRate));
+            render();
+            nextFrame = Math.max(nextFrame + frameNanos, System.nanoTime()); // Missed frames are skipped instead of rendered back to back
+            waitUntil(nextFrame);
         }
+        backgroundLayer.flush(); // Frees the video memory of the background
+    }
+
+    /**
+     * Waits until {@link System#nanoTime()} reaches {@code deadline} by parking the thread and spinning for the last
+     * {@link #SPIN_THRESHOLD_NS} to compensate for the inaccuracy of the OS scheduler.
+     *
+     * @param deadline the time to wait until (compared to {@link System#nanoTime()})
+     */
+    private void waitUntil(long deadline) {
+        long remaining;
+        while (running && (remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NS)
+                LockSupport.parkNanos(this, remaining - SPIN_THRESHOLD_NS);
+            else
+                Thread.onSpinWait();
+            if (!gms.inAny(GameState.Running))
+                return;
+        }
+    }
+
+    /**
+     * @return the refresh rate of the default screen or 60 if it is unknown (e.g. in headless environments)
+     */
+    private static double getDisplayRefreshRate() {
+        try {
+            int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDisplayMode().getRefreshRate();
+            if (refreshRate != DisplayMode.REFRESH_RATE_UNKNOWN)
+                return refreshRate;
+        } catch (HeadlessException ignored) {
+        }
+        return 60;
     }
 
     /**
      * Will start the game by running its game loop in a new Thread.
      */
     public synchronized void startGameLoop() {
-        thread = new Thread(this);
-        thread.start();
         running = true;
+        thread = new Thread(this, "Game Loop");
+        renderThread = new Thread(this::renderLoop, "Render Loop");
+        thread.start();
+        renderThread.start();
     }
 
     /**
@@ -306,7 +414,12 @@ public class Game extends Canvas implements Runnable {
     public synchronized void stopGameLoop() {
         try {
             running = false;
+            LockSupport.unpark(thread);
+            LockSupport.unpark(renderThread);
             thread.join(10000);
+            renderThread.join(10000);
+            if (reportInputLatency && inputSystem.getLatencyHistogram().getCount() > 0)
+                System.out.print("Input latency: " + inputSystem.getLatencyHistogram().report());
         } catch (Exception e) {
             System.err.println("Failed to stop the game thread: " + thread);
             e.printStackTrace();
@@ -314,32 +427,66 @@ public class Game extends Canvas implements Runnable {
     }
 
     /**
-     * Sets the internal game state of this game using its {@link GameStateManager}.
+     * Sets the internal game state of this game using its {@link GameStateManager}. <br>
+     * The state changes before the next tick of the game thread (immediately, if the game loop isn't running).
      * @param newState the state to change to.
      */
-    public void setGameState(GameState newState) {
-        gms.setState(newState);
+    public synchronized void setGameState(GameState newState) {
+        if (thread == null || !running) {
+            gms.setState(newState);
+            return;
+        }
+        submit(() -> {
+            gms.setState(newState);
+            LockSupport.unpark(renderThread); // Wakes the render loop up if it was parked while paused
+        });
+        LockSupport.unpark(thread); // Wakes the game loop up if it was parked while paused
     }
 
     /**
      * @return the first player
      */
     public Player getPlayer1() {
-        return player1;
+        return simulation.getPlayer1();
     }
 
     /**
      * @return the second player (can be null in single-mode)
      */
     public Player getPlayer2() {
-        return player2;
+        return simulation.getPlayer2();
+    }
+
+    private Player getPlayer(int playerID) {
+        return playerID == 1 ? getPlayer1() : getPlayer2();
+    }
+
+    /**
+     * @return the input system the key events of the players are submitted to
+     */
+    public InputSystem getInputSystem() {
+        return inputSystem;
+    }
+
+    /**
+     * @return the amount of ticks the game was updated while running
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return the tick of the last frame that was shown on the screen (0 if none was shown yet)
+     */
+    public long getPresentedTick() {
+        return presentedTick;
     }
 
     /**
      * @return the current game speed
      */
     public double getGameSpeed() {
-        return gameSpeed;
+        return simulation.getGameSpeed();
     }
 
     /**
@@ -349,6 +496,69 @@ public class Game extends Canvas implements Runnable {
      * @param gameSpeed the new game speed
      */
     public void setGameSpeed(double gameSpeed) {
-        this.gameSpeed = gameSpeed;
+        simulation.setGameSpeed(gameSpeed);
+    }
+
+    /**
+     * @return the headless simulation this game runs and draws
+     */
+    public Simulation getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * @return the amount of simulation updates per second
+     */
+    public double getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Sets the amount of simulation updates per second. Every update is called with a delta of {@code 1 / tickRate}.
+     *
+     * @param tickRate the new tick rate (has to be positive)
+     */
+    public void setTickRate(double tickRate) {
+        if (tickRate <= 0)
+            throw new IllegalArgumentException("The tick rate has to be positive, but was " + tickRate);
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * @return the maximum amount of frames rendered per second (0 if uncapped)
+     */
+    public double getFrameCap() {
+        return frameCap;
+    }
+
+    /**
+     * Sets the maximum amount of frames rendered per second by the render thread. Defaults to the refresh rate of the screen. <br>
+     * If set to 0 a frame is rendered for every simulation update.
+     *
+     * @param frameCap the new frame cap (0 or positive)
+     */
+    public void setFrameCap(double frameCap) {
+        if (frameCap < 0)
+            throw new IllegalArgumentException("The frame cap can't be negative, but was " + frameCap);
+        this.frameCap = frameCap;
+    }
+
+    /**
+     * @return the maximum amount of updates that are run back to back if the game loop falls behind
+     */
+    public int getMaxCatchUpTicks() {
+        return maxCatchUpTicks;
+    }
+
+    /**
+     * Sets the maximum amount of updates that are run back to back if the game loop falls behind (e.g. after a long frame).
+     * Any ticks above that are dropped, slowing the game down instead of freezing it.
+     *
+     * @param maxCatchUpTicks the new maximum (at least 1)
+     */
+    public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+        if (maxCatchUpTicks < 1)
+            throw new IllegalArgumentException("At least one tick has to be run per frame, but was " + maxCatchUpTicks);
+        this.maxCatchUpTicks = maxCatchUpTicks;
     }
 }
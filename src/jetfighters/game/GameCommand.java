@@ -0,0 +1,15 @@
+package jetfighters.game;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * A change of the game (e.g. an input or pausing it), which is executed by the game thread before its next tick.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+@FunctionalInterface
+public interface GameCommand {
+
+    void execute();
+
+}
@@ -1,6 +1,5 @@
 package jetfighters.game;
 
-
 import jetfighters.game.entities.Player;
 
 /**
@@ -10,8 +9,8 @@ import jetfighters.game.entities.Player;
  * @version 13.07.22
  */
 @FunctionalInterface
-public interface GetPlayerMethod {
+public interface GameOverAction {
 
-    Player getPlayer();
+    void execute(Player playerLost);
 
 }
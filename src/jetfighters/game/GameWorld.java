@@ -0,0 +1,84 @@
+package jetfighters.game;
+
+import jetfighters.audio.Sound;
+import jetfighters.game.entities.Entity;
+import jetfighters.game.entities.EntityPools;
+import jetfighters.game.entities.Player;
+import jetfighters.game.entities.projectiles.BulletSystem;
+import jetfighters.game.tween.Tween;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Everything entities need from the game they exist in. <br>
+ * Implemented by the headless {@link Simulation} and by {@link Game}, which runs a simulation on a canvas.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 13.07.22
+ */
+public interface GameWorld {
+
+    /**
+     * Adds a new entity to the game world, it will be updated from the next update on.
+     *
+     * @param entity the entity to be added
+     */
+    void addEntity(Entity entity);
+
+    /**
+     * @return the system that simulates all bullets fired by jets
+     */
+    BulletSystem getBulletSystem();
+
+    /**
+     * @return the pools entities should be obtained from instead of creating them (see {@link EntityPools})
+     */
+    EntityPools getEntityPools();
+
+    /**
+     * Adds a new tween that will be updated with the real time that has passed (not affected by the game speed).
+     *
+     * @param tween the tween to be added
+     */
+    void addTween(Tween tween);
+
+    /**
+     * Adds trauma to the screen shake, making it shake more violently the higher the trauma gets.
+     *
+     * @param amount the amount of trauma to be added
+     */
+    void addScreenShake(double amount);
+
+    /**
+     * Plays a sound at full volume.
+     *
+     * @param sound the sound to be played
+     */
+    default void playSound(Sound sound) {
+        playSound(sound, 1f);
+    }
+
+    /**
+     * Plays a sound at the specified volume.
+     *
+     * @param sound  the sound to be played
+     * @param volume the volume to play the sound at
+     */
+    void playSound(Sound sound, float volume);
+
+    /**
+     * Ends the game, because {@code playerLost} lost.
+     *
+     * @param playerLost the player who lost the game
+     */
+    void gameOver(Player playerLost);
+
+    /**
+     * @return the width of the game world
+     */
+    int getCanvasWidth();
+
+    /**
+     * @return the height of the game world
+     */
+    int getCanvasHeight();
+}
@@ -1,32 +1,26 @@
 package jetfighters.game;
 
-import jetfighters.game.entities.Entity;
 import jetfighters.game.entities.JetEntity;
-import jetfighters.game.handlers.EntityHandler;
+import jetfighters.game.rendering.BitmapFont;
+import jetfighters.game.rendering.FrameSnapshot;
 import jetfighters.game.transitions.ScreenTransition;
 
 import java.awt.*;
-import java.awt.geom.AffineTransform;
 
 /**
  * /** <h3>PTP 2022 - Projekt "JetFighters"</h3>
- * Represents the "Heads Up Display" of the game. It uses an entity Handler to draw healthbars, scores and game time among others.
+ * Represents the "Heads Up Display" of the game. It uses the snapshots of the render thread to draw healthbars, scores and game time among others.
  *
  * @author do04 - Daniel Flat, Moritz Junge
  * @version 13.07.22
  */
 public class HUD {
 
-    private final EntityHandler entityHandler;
+    private ScreenTransition currentTransition; // Only used by the game thread, the render thread draws the snapshot of it
+    private final BitmapFont timerFont;
 
-    private ScreenTransition currentTransition;
-
-    /**
-     * Creates a new HUD using an EntityHandler to draw healthbars for its entities.
-     * @param entityHandler the entity handler to draw healthbars for
-     */
-    public HUD(EntityHandler entityHandler) {
-        this.entityHandler = entityHandler;
+    public HUD() {
+        timerFont = BitmapFont.get(new Font(Font.DIALOG, Font.PLAIN, 30), Color.RED);
     }
 
     /**
@@ -41,28 +35,33 @@ public class HUD {
         }
     }
 
+    /**
+     * Captures the current screen transition into {@code snapshot}, so the render thread can draw it.
+     *
+     * @param snapshot the snapshot of the current tick
+     */
+    public void capture(FrameSnapshot snapshot) {
+        snapshot.captureTransition(currentTransition);
+    }
+
     /**
      * Renders all HUD elements to the screen. Should be called last to ensure it is on top of everything else.
      * This also draws healthbars for {@link JetEntity}
      *
-     * @param g2d             Graphics object to draw to
-     * @param currentGameTime the current game time
+     * @param g2d      Graphics object to draw to
+     * @param snapshot the snapshot of the tick that is drawn
+     * @param alpha    the interpolation factor the entities of the snapshot are drawn with
      */
-    public void draw(Graphics2D g2d, AffineTransform cameraTransform, AffineTransform cameraInverseTransform, double currentGameTime) {
-        g2d.setColor(Color.RED);
-        g2d.setFont(g2d.getFont().deriveFont(30f));
-        g2d.drawString("" + ((int) currentGameTime), 500, 30);
+    public void draw(Graphics2D g2d, FrameSnapshot snapshot, double alpha) {
+        timerFont.drawInt(g2d, (int) snapshot.getGameTime(), 500, 30);
 
-        g2d.transform(cameraTransform);
-        for (Entity entity : entityHandler.getEntities()) {
-            if (entity instanceof JetEntity jet)
-                jet.drawHealthBar(g2d);
+        g2d.transform(snapshot.getCameraTransform());
+        for (int i = 0; i < snapshot.getEntityCount(); i++) {
+            snapshot.getEntity(i).drawHealthBar(g2d, alpha);
         }
-        g2d.transform(cameraInverseTransform);
+        g2d.transform(snapshot.getCameraInverseTransform());
 
-        if (currentTransition != null) {
-            currentTransition.render(g2d);
-        }
+        snapshot.drawTransition(g2d);
     }
 
     /**
@@ -75,4 +74,11 @@ public class HUD {
         currentTransition = transition;
     }
 
+    /**
+     * Resets the HUD for a new match by removing the current screen transition.
+     */
+    public void reset() {
+        currentTransition = null;
+    }
+
 }
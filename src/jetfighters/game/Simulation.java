@@ -0,0 +1,298 @@
+package jetfighters.game;
+
+import jetfighters.audio.AudioPlayer;
+import jetfighters.audio.Sound;
+import jetfighters.game.camera.ShakeCamera;
+import jetfighters.game.collision.SpatialHashGrid;
+import jetfighters.game.entities.Entity;
+import jetfighters.game.entities.EntityPools;
+import jetfighters.game.entities.Player;
+import jetfighters.game.entities.projectiles.BulletSystem;
+import jetfighters.game.handlers.CollisionHandler;
+import jetfighters.game.handlers.EntityHandler;
+import jetfighters.game.handlers.TweenHandler;
+import jetfighters.game.math.Vector2;
+import jetfighters.game.spawner.PowerUpSpawner;
+import jetfighters.game.tween.Tween;
+
+import java.util.Random;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * The headless core of the game: updates the entities, bullets, collisions, power up spawning and tweens without needing a
+ * canvas, a window or audio. <br>
+ * {@link Game} runs a simulation in real time and draws it. On its own a simulation can be advanced as fast as the CPU
+ * allows with {@link #step(int)}, e.g. to run many matches for balancing or regression tests on servers without a display.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 13.07.22
+ */
+public class Simulation implements GameWorld {
+
+    public static final double DEFAULT_TICK_RATE = 50.0;
+
+    private EntityHandler entityHandler;
+    private CollisionHandler collisionHandler;
+    private PowerUpSpawner powerUpSpawner;
+    private TweenHandler tweenHandler;
+    private final BulletSystem bulletSystem;
+    private final EntityPools entityPools;
+    private final ShakeCamera camera;
+
+    private Player player1;
+    private Player player2;
+
+    private final int canvasWidth;
+    private final int canvasHeight;
+    private final Random random;
+
+    private double currentGameTime; // The time that has passed in between every update call when the game was resumed
+    private double gameSpeed;
+    private long tickCount;
+
+    private AudioPlayer audioPlayer; // null if sounds should not be played
+    private GameOverAction gameOverAction;
+    private Player loser;
+
+    /**
+     * Creates a new Simulation with a random seed.
+     *
+     * @see #Simulation(int, int, long)
+     */
+    public Simulation(int canvasWidth, int canvasHeight) {
+        this(canvasWidth, canvasHeight, new Random().nextLong());
+    }
+
+    /**
+     * Creates a new Simulation with two players. <br>
+     * Simulations with the same seed and the same inputs will spawn the same power ups.
+     *
+     * @param canvasWidth  the width of the game world
+     * @param canvasHeight the height of the game world
+     * @param seed         the seed used for all random events of the game
+     */
+    public Simulation(int canvasWidth, int canvasHeight, long seed) {
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+        this.random = new Random(seed);
+        camera = new ShakeCamera();
+        bulletSystem = new BulletSystem();
+        entityPools = new EntityPools();
+        reset();
+    }
+
+    /**
+     * Resets the game world and its time, keeping the players but removing every other entity and tween.
+     */
+    public void reset() {
+        gameSpeed = 1;
+        loser = null;
+        currentGameTime = 0;
+        tickCount = 0;
+
+        if (entityHandler != null)
+            entityHandler.clear(); // Unregisters the players, so they can be added to the new handler
+        entityHandler = new EntityHandler();
+        //Enemy strafer = new StrafeEnemy(this, new Vector2(-100, -100), new Vector2(800, 700), TweenMode.Quadratic);
+        powerUpSpawner = new PowerUpSpawner(entityHandler, random, entityPools);
+        if (player1 == null && player2 == null) {
+            player1 = new Player(1, new Vector2(200, 350), this);
+            player2 = new Player(2, new Vector2(800, 350), this);
+            player1.setOpponent(player2);
+            player2.setOpponent(player1);
+        }
+        entityHandler.addEntity(player1);
+        entityHandler.addEntity(player2);
+        //entityHandler.addEntity(strafer);
+
+        collisionHandler = new CollisionHandler(entityHandler, new SpatialHashGrid(canvasWidth, canvasHeight));
+        bulletSystem.clear();
+        tweenHandler = new TweenHandler();
+    }
+
+    /**
+     * Advances the simulation by one tick.
+     *
+     * @param delta the real time that has passed since the last update (will be multiplied by the game speed)
+     */
+    public void update(double delta) {
+        double realDelta = delta;
+        delta *= gameSpeed;
+        currentGameTime += delta;
+        tickCount++;
+
+        entityHandler.updateEntities(delta);
+        collisionHandler.update();
+        bulletSystem.update(delta);
+        bulletSystem.collide(entityHandler.getEntitiesOfType(Player.class));
+        powerUpSpawner.update(delta);
+        camera.update(delta);
+
+        tweenHandler.updateTweens(realDelta);
+    }
+
+    /**
+     * Advances the simulation by {@code ticks} ticks of {@code 1 / }{@link #DEFAULT_TICK_RATE} seconds as fast as possible.
+     *
+     * @see #step(int, double)
+     */
+    public int step(int ticks) {
+        return step(ticks, 1 / DEFAULT_TICK_RATE);
+    }
+
+    /**
+     * Advances the simulation by {@code ticks} ticks of {@code delta} seconds as fast as possible.
+     * Stops early if the game is over.
+     *
+     * @param ticks the amount of ticks to run
+     * @param delta the length of each tick in seconds
+     * @return the amount of ticks that were actually run
+     */
+    public int step(int ticks, double delta) {
+        for (int i = 0; i < ticks; i++) {
+            if (isGameOver())
+                return i;
+            update(delta);
+        }
+        return ticks;
+    }
+
+    @Override
+    public void gameOver(Player playerLost) {
+        loser = playerLost;
+        if (gameOverAction != null)
+            gameOverAction.execute(playerLost);
+    }
+
+    @Override
+    public void playSound(Sound sound, float volume) {
+        if (audioPlayer != null)
+            audioPlayer.playSound(sound, volume);
+    }
+
+    @Override
+    public void addEntity(Entity entity) {
+        entityHandler.addEntity(entity);
+    }
+
+    @Override
+    public BulletSystem getBulletSystem() {
+        return bulletSystem;
+    }
+
+    @Override
+    public EntityPools getEntityPools() {
+        return entityPools;
+    }
+
+    @Override
+    public void addTween(Tween tween) {
+        tweenHandler.addTween(tween);
+    }
+
+    @Override
+    public void addScreenShake(double amount) {
+        camera.addTrauma(amount);
+    }
+
+    @Override
+    public int getCanvasWidth() {
+        return canvasWidth;
+    }
+
+    @Override
+    public int getCanvasHeight() {
+        return canvasHeight;
+    }
+
+    /**
+     * Sets the audio player used to play sounds. If null (default) no sounds will be played.
+     *
+     * @param audioPlayer the audio player to use
+     */
+    public void setAudioPlayer(AudioPlayer audioPlayer) {
+        this.audioPlayer = audioPlayer;
+    }
+
+    /**
+     * Sets the action that is executed when a player lost. The simulation keeps running until it is stopped.
+     *
+     * @param gameOverAction the action to execute
+     */
+    public void setGameOverAction(GameOverAction gameOverAction) {
+        this.gameOverAction = gameOverAction;
+    }
+
+    /**
+     * @return true if a player lost the game
+     */
+    public boolean isGameOver() {
+        return loser != null;
+    }
+
+    /**
+     * @return the player who lost the game or null if the game is not over
+     */
+    public Player getLoser() {
+        return loser;
+    }
+
+    /**
+     * @return the entity handler of this simulation
+     */
+    public EntityHandler getEntityHandler() {
+        return entityHandler;
+    }
+
+    /**
+     * @return the camera that is shaken by {@link #addScreenShake(double)}
+     */
+    public ShakeCamera getCamera() {
+        return camera;
+    }
+
+    /**
+     * @return the first player
+     */
+    public Player getPlayer1() {
+        return player1;
+    }
+
+    /**
+     * @return the second player (can be null in single-mode)
+     */
+    public Player getPlayer2() {
+        return player2;
+    }
+
+    /**
+     * @return the game time that has passed (affected by the game speed)
+     */
+    public double getCurrentGameTime() {
+        return currentGameTime;
+    }
+
+    /**
+     * @return the amount of ticks this simulation was updated
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @return the current game speed
+     */
+    public double getGameSpeed() {
+        return gameSpeed;
+    }
+
+    /**
+     * Sets the game speed, which is multiplied with the delta time of every update. <br>
+     * Tweens will not be affected by this.
+     *
+     * @param gameSpeed the new game speed
+     */
+    public void setGameSpeed(double gameSpeed) {
+        this.gameSpeed = gameSpeed;
+    }
+}
@@ -116,6 +116,10 @@ public class ShakeCamera extends Camera {
         if (trauma > 0) {
             shake();
             trauma = Math.max(trauma - decay * delta, 0);
+            if (trauma == 0) { // Otherwise the last tiny offset and rotation would stay forever
+                shakeOffset = Vector2.ZERO;
+                shakeRotation = 0;
+            }
         }
     }
 
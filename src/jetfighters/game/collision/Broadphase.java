@@ -0,0 +1,52 @@
+package jetfighters.game.collision;
+
+import jetfighters.game.entities.Entity;
+
+import java.util.List;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * The first step of collision detection: finds the pairs of entities that could collide (their bounds are close), so
+ * only those have to be tested exactly by the {@link jetfighters.game.handlers.CollisionHandler}.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public interface Broadphase {
+
+    /**
+     * Updates the broadphase with the current bounds of {@code entities}. Entities that are not in the broadphase yet
+     * are inserted, entities that moved are reinserted.
+     *
+     * @param entities all entities that can collide
+     */
+    void update(List<Entity> entities);
+
+    /**
+     * Removes {@code entity} from the broadphase, e.g. because it was removed from the game.
+     *
+     * @param entity the entity to remove
+     */
+    void remove(Entity entity);
+
+    /**
+     * Calls {@code callback} once for every unordered pair of entities that could collide.
+     * The order of the two entities of a pair is not defined.
+     *
+     * @param callback the callback receiving the candidate pairs
+     */
+    void findPairs(PairCallback callback);
+
+    /**
+     * Receives the candidate pairs of a {@link Broadphase}.
+     */
+    @FunctionalInterface
+    interface PairCallback {
+
+        /**
+         * @param entity      one entity of the pair
+         * @param otherEntity the other entity of the pair
+         */
+        void onPair(Entity entity, Entity otherEntity);
+    }
+}
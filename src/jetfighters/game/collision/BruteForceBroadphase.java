@@ -0,0 +1,43 @@
+package jetfighters.game.collision;
+
+import jetfighters.game.entities.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Reports every pair of entities as a candidate, so its cost grows with the square of the amount of entities. <br>
+ * Only useful for very few entities or to check the results of other broadphases.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class BruteForceBroadphase implements Broadphase {
+
+    private final List<Entity> entities;
+
+    public BruteForceBroadphase() {
+        entities = new ArrayList<>();
+    }
+
+    @Override
+    public void update(List<Entity> entities) {
+        this.entities.clear();
+        this.entities.addAll(entities);
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        entities.remove(entity);
+    }
+
+    @Override
+    public void findPairs(PairCallback callback) {
+        for (int i = 0; i < entities.size(); i++) {
+            for (int j = i + 1; j < entities.size(); j++) {
+                callback.onPair(entities.get(i), entities.get(j));
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package jetfighters.game.collision;
+
+import jetfighters.game.entities.Entity;
+
+import java.util.Arrays;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Remembers which pairs of entities are touching to dispatch the collision events of both entities: <br>
+ * {@link Entity#handleCollision(Entity)} when a contact starts, {@link Entity#handleCollisionStay(Entity)} in every
+ * update it lasts and {@link Entity#handleCollisionExit(Entity)} when it ends. An entity only receives the events of
+ * contacts with entities on its collision mask. <br>
+ * Contacts are stored in an open addressing hash table keyed by the ids of both entities, so tracking them doesn't
+ * allocate anything. Contacts that end and contacts of removed entities are dropped, so the table doesn't grow over a match.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class ContactManager {
+
+    public static final int FIRST_DETECTS_SECOND = 1; // The mask of the first entity contains the layer of the second
+    public static final int SECOND_DETECTS_FIRST = 2; // The mask of the second entity contains the layer of the first
+
+    private static final long EMPTY = -1;
+    private static final float MAX_LOAD = 0.5f;
+
+    private long[] keys;
+    private Entity[] firstEntities; // The entity with the lower id
+    private Entity[] secondEntities;
+    private int[] directions;
+    private long[] lastUpdates;
+    private int size;
+    private long updateCount;
+
+    public ContactManager() {
+        allocate(64);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        firstEntities = new Entity[capacity];
+        secondEntities = new Entity[capacity];
+        directions = new int[capacity];
+        lastUpdates = new long[capacity];
+    }
+
+    /**
+     * Starts a new update. All contacts that are not reported until {@link #endUpdate()} end.
+     */
+    public void beginUpdate() {
+        updateCount++;
+    }
+
+    /**
+     * Reports that two entities are touching in the current update. Dispatches the enter events if the contact is new,
+     * otherwise the stay events.
+     *
+     * @param entity      one of the entities
+     * @param otherEntity the other entity
+     * @param directions  which entities detect the collision ({@link #FIRST_DETECTS_SECOND} and/or
+     *                    {@link #SECOND_DETECTS_FIRST}, first = {@code entity}), should be decided before either entity handles it
+     */
+    public void reportContact(Entity entity, Entity otherEntity, int directions) {
+        if (entity.getId() > otherEntity.getId()) { // Contacts are stored with the lower id first
+            Entity swap = entity;
+            entity = otherEntity;
+            otherEntity = swap;
+            directions = ((directions & FIRST_DETECTS_SECOND) << 1) | ((directions & SECOND_DETECTS_FIRST) >> 1);
+        }
+        long key = pairKey(entity, otherEntity);
+        int slot = findSlot(key);
+        boolean isNew = keys[slot] == EMPTY;
+        if (isNew) {
+            if (size + 1 > keys.length * MAX_LOAD) {
+                grow();
+                slot = findSlot(key);
+            }
+            keys[slot] = key;
+            firstEntities[slot] = entity;
+            secondEntities[slot] = otherEntity;
+            size++;
+        }
+        this.directions[slot] = directions;
+        lastUpdates[slot] = updateCount;
+
+        if ((directions & FIRST_DETECTS_SECOND) != 0) {
+            if (isNew) entity.handleCollision(otherEntity);
+            else entity.handleCollisionStay(otherEntity);
+        }
+        if ((directions & SECOND_DETECTS_FIRST) != 0) {
+            if (isNew) otherEntity.handleCollision(entity);
+            else otherEntity.handleCollisionStay(entity);
+        }
+    }
+
+    /**
+     * Ends the current update: every contact that was not reported in it ends and its exit events are dispatched.
+     */
+    public void endUpdate() {
+        for (int slot = 0; slot < keys.length; ) {
+            if (keys[slot] != EMPTY && lastUpdates[slot] != updateCount) {
+                Entity entity = firstEntities[slot];
+                Entity otherEntity = secondEntities[slot];
+                int contactDirections = directions[slot];
+                removeSlot(slot); // Moves a later contact into this slot, so it is checked again
+                dispatchExit(entity, otherEntity, contactDirections);
+            } else {
+                slot++;
+            }
+        }
+    }
+
+    /**
+     * Drops all contacts of {@code entity} (e.g. because it was removed from the game). The other entities of the
+     * contacts receive their exit events, {@code entity} doesn't.
+     *
+     * @param entity the entity to drop the contacts of
+     */
+    public void remove(Entity entity) {
+        for (int slot = 0; slot < keys.length; ) {
+            if (keys[slot] != EMPTY && (firstEntities[slot] == entity || secondEntities[slot] == entity)) {
+                boolean isFirst = firstEntities[slot] == entity;
+                Entity otherEntity = isFirst ? secondEntities[slot] : firstEntities[slot];
+                int contactDirections = directions[slot];
+                removeSlot(slot);
+                if ((contactDirections & (isFirst ? SECOND_DETECTS_FIRST : FIRST_DETECTS_SECOND)) != 0)
+                    otherEntity.handleCollisionExit(entity);
+            } else {
+                slot++;
+            }
+        }
+    }
+
+    private static void dispatchExit(Entity entity, Entity otherEntity, int directions) {
+        if ((directions & FIRST_DETECTS_SECOND) != 0)
+            entity.handleCollisionExit(otherEntity);
+        if ((directions & SECOND_DETECTS_FIRST) != 0)
+            otherEntity.handleCollisionExit(entity);
+    }
+
+    /**
+     * @param entity      one of the entities
+     * @param otherEntity the other entity
+     * @return true if the two entities are touching
+     */
+    public boolean isInContact(Entity entity, Entity otherEntity) {
+        Entity first = entity.getId() < otherEntity.getId() ? entity : otherEntity;
+        Entity second = first == entity ? otherEntity : entity;
+        return keys[findSlot(pairKey(first, second))] != EMPTY;
+    }
+
+    /**
+     * @return the amount of current contacts
+     */
+    public int size() {
+        return size;
+    }
+
+    private static long pairKey(Entity first, Entity second) {
+        return ((long) first.getId() << 32) | (second.getId() & 0xFFFFFFFFL);
+    }
+
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33; // Finalizer of MurmurHash3
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * Removes the contact in {@code slot} and moves the following contacts of its probe sequence back, so no tombstones are needed.
+     */
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            // Move the contact into the gap if its home slot is not between the gap and its current slot
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                moveSlot(next, gap);
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        firstEntities[gap] = null;
+        secondEntities[gap] = null;
+        size--;
+    }
+
+    private void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        firstEntities[to] = firstEntities[from];
+        secondEntities[to] = secondEntities[from];
+        directions[to] = directions[from];
+        lastUpdates[to] = lastUpdates[from];
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Entity[] oldFirstEntities = firstEntities;
+        Entity[] oldSecondEntities = secondEntities;
+        int[] oldDirections = directions;
+        long[] oldLastUpdates = lastUpdates;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY)
+                continue;
+            int slot = findSlot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            firstEntities[slot] = oldFirstEntities[i];
+            secondEntities[slot] = oldSecondEntities[i];
+            directions[slot] = oldDirections[i];
+            lastUpdates[slot] = oldLastUpdates[i];
+        }
+    }
+}
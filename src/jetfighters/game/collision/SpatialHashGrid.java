@@ -0,0 +1,234 @@
+package jetfighters.game.collision;
+
+import jetfighters.game.entities.Entity;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * A broadphase that sorts the entities into a uniform grid of square cells by their bounds. Only entities that share a
+ * cell are reported as candidate pairs, so the cost grows with the amount of entities close to each other instead of
+ * the square of all entities. <br>
+ * The grid covers the game world once and wraps around at its edges like the jets do (see {@code JetEntity#applyScreenWrapping}),
+ * so entities that left the screen still map to a cell and the grid never has to grow. Entities that share a wrapped
+ * cell but are a whole world apart are not reported. <br>
+ * Entities are only reinserted if the cells they cover changed.
+ * Entities without a collision layer and mask (e.g. explosions) are ignored.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class SpatialHashGrid implements Broadphase {
+
+    public static final int DEFAULT_WORLD_WIDTH = 1068;
+    public static final int DEFAULT_WORLD_HEIGHT = 685;
+    public static final double DEFAULT_CELL_SIZE = 64; // Slightly bigger than a jet, so a jet mostly covers 1 to 4 cells
+
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final List<Proxy>[] cells;
+    private final Map<Entity, Proxy> proxies;
+    private final List<Proxy> proxyList; // All proxies by Proxy.listIndex, so they are walked without an iterator
+    private final List<Proxy> oversized; // Entities that are bigger than the world are tested against all others
+
+    /**
+     * Creates a new SpatialHashGrid for a world of {@link #DEFAULT_WORLD_WIDTH} x {@link #DEFAULT_WORLD_HEIGHT}
+     * with {@link #DEFAULT_CELL_SIZE}.
+     */
+    public SpatialHashGrid() {
+        this(DEFAULT_WORLD_WIDTH, DEFAULT_WORLD_HEIGHT, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a new SpatialHashGrid with {@link #DEFAULT_CELL_SIZE}.
+     *
+     * @see #SpatialHashGrid(int, int, double)
+     */
+    public SpatialHashGrid(int worldWidth, int worldHeight) {
+        this(worldWidth, worldHeight, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a new, empty SpatialHashGrid.
+     *
+     * @param worldWidth  the width of the world the entities wrap around in
+     * @param worldHeight the height of the world the entities wrap around in
+     * @param cellSize    the width and height of a cell (should be about the size of the biggest common entity)
+     */
+    public SpatialHashGrid(int worldWidth, int worldHeight, double cellSize) {
+        if (worldWidth <= 0 || worldHeight <= 0 || cellSize <= 0)
+            throw new IllegalArgumentException("World size and cell size have to be positive");
+        this.cellSize = cellSize;
+        columns = (int) Math.ceil(worldWidth / cellSize);
+        rows = (int) Math.ceil(worldHeight / cellSize);
+        @SuppressWarnings("unchecked") // Arrays of a generic type can't be created directly
+        List<Proxy>[] cells = (List<Proxy>[]) new List<?>[columns * rows];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new ArrayList<>(4);
+        }
+        this.cells = cells;
+        proxies = new IdentityHashMap<>();
+        proxyList = new ArrayList<>();
+        oversized = new ArrayList<>();
+    }
+
+    @Override
+    public void update(List<Entity> entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (entity.getCollisionLayer() == 0 && entity.getCollisionMask() == 0) {
+                remove(entity);
+                continue;
+            }
+            Proxy proxy = proxies.get(entity);
+            if (proxy == null) {
+                proxy = new Proxy(entity);
+                proxies.put(entity, proxy);
+                proxy.listIndex = proxyList.size();
+                proxyList.add(proxy);
+            }
+            Rectangle2D bounds = entity.getWorldBounds();
+            int minColumn = (int) Math.floor(bounds.getMinX() / cellSize);
+            int minRow = (int) Math.floor(bounds.getMinY() / cellSize);
+            int maxColumn = (int) Math.floor(bounds.getMaxX() / cellSize);
+            int maxRow = (int) Math.floor(bounds.getMaxY() / cellSize);
+            if (proxy.inserted && proxy.minColumn == minColumn && proxy.minRow == minRow
+                    && proxy.maxColumn == maxColumn && proxy.maxRow == maxRow)
+                continue; // Still in the same cells
+            removeFromCells(proxy);
+            proxy.minColumn = minColumn;
+            proxy.minRow = minRow;
+            proxy.maxColumn = maxColumn;
+            proxy.maxRow = maxRow;
+            insertIntoCells(proxy);
+        }
+    }
+
+    private void insertIntoCells(Proxy proxy) {
+        proxy.inserted = true;
+        if (proxy.isOversized()) {
+            proxy.oversizedIndex = oversized.size();
+            oversized.add(proxy);
+            return;
+        }
+        for (int row = proxy.minRow; row <= proxy.maxRow; row++) {
+            for (int column = proxy.minColumn; column <= proxy.maxColumn; column++) {
+                cells[cellIndex(column, row)].add(proxy);
+            }
+        }
+    }
+
+    private void removeFromCells(Proxy proxy) {
+        if (!proxy.inserted)
+            return;
+        proxy.inserted = false;
+        if (proxy.isOversized()) {
+            // The last oversized proxy takes the place of the removed one
+            Proxy last = oversized.remove(oversized.size() - 1);
+            if (last != proxy) {
+                last.oversizedIndex = proxy.oversizedIndex;
+                oversized.set(last.oversizedIndex, last);
+            }
+            proxy.oversizedIndex = -1;
+            return;
+        }
+        for (int row = proxy.minRow; row <= proxy.maxRow; row++) {
+            for (int column = proxy.minColumn; column <= proxy.maxColumn; column++) {
+                cells[cellIndex(column, row)].remove(proxy);
+            }
+        }
+    }
+
+    private int cellIndex(int column, int row) {
+        return Math.floorMod(row, rows) * columns + Math.floorMod(column, columns);
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        Proxy proxy = proxies.remove(entity);
+        if (proxy == null)
+            return;
+        removeFromCells(proxy);
+        Proxy last = proxyList.remove(proxyList.size() - 1);
+        if (last != proxy) {
+            last.listIndex = proxy.listIndex;
+            proxyList.set(last.listIndex, last);
+        }
+    }
+
+    @Override
+    public void findPairs(PairCallback callback) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            List<Proxy> proxiesInCell = cells[cell];
+            for (int i = 0; i < proxiesInCell.size(); i++) {
+                Proxy proxy = proxiesInCell.get(i);
+                for (int j = i + 1; j < proxiesInCell.size(); j++) {
+                    Proxy other = proxiesInCell.get(j);
+                    if (isFirstSharedCell(proxy, other, cell))
+                        callback.onPair(proxy.entity, other.entity);
+                }
+            }
+        }
+        for (int i = 0; i < oversized.size(); i++) {
+            Proxy proxy = oversized.get(i);
+            for (int j = 0; j < proxyList.size(); j++) {
+                Proxy other = proxyList.get(j);
+                // Pairs of two oversized entities are only reported by the one that comes first
+                if (other.inserted && other != proxy && (other.oversizedIndex < 0 || other.oversizedIndex > i))
+                    callback.onPair(proxy.entity, other.entity);
+            }
+        }
+    }
+
+    /**
+     * Two entities that overlap share a rectangle of cells. The pair is only reported in the top left of these cells, so
+     * it is reported exactly once. If the cells only overlap after wrapping, the entities are a world apart and can't collide.
+     */
+    private boolean isFirstSharedCell(Proxy proxy, Proxy other, int cell) {
+        int firstColumn = Math.max(proxy.minColumn, other.minColumn);
+        int firstRow = Math.max(proxy.minRow, other.minRow);
+        if (firstColumn > Math.min(proxy.maxColumn, other.maxColumn) || firstRow > Math.min(proxy.maxRow, other.maxRow))
+            return false;
+        return cellIndex(firstColumn, firstRow) == cell;
+    }
+
+    /**
+     * @return the amount of columns of the grid
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the amount of rows of the grid
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * The cells an entity covers, in grid coordinates that are not wrapped yet.
+     */
+    private class Proxy {
+
+        private final Entity entity;
+        private int minColumn, minRow, maxColumn, maxRow;
+        private boolean inserted;
+        private int listIndex; // The index in proxyList
+        private int oversizedIndex; // The index in oversized, -1 if the proxy is not oversized
+
+        private Proxy(Entity entity) {
+            this.entity = entity;
+            oversizedIndex = -1;
+        }
+
+        private boolean isOversized() {
+            return maxColumn - minColumn + 1 >= columns || maxRow - minRow + 1 >= rows;
+        }
+    }
+}
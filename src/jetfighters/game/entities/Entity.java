@@ -1,10 +1,18 @@
 package jetfighters.game.entities;
 
+import jetfighters.game.math.CachedTransform;
+import jetfighters.game.math.CollisionHull;
+import jetfighters.game.math.MutableVector2;
+import jetfighters.game.math.PixelMask;
 import jetfighters.game.math.Vector2;
+import jetfighters.game.rendering.RenderQueue;
+import jetfighters.game.sprites.Sprite;
 
 import java.awt.*;
 import java.awt.geom.AffineTransform;
-import java.awt.geom.Area;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
@@ -16,6 +24,10 @@ import java.awt.geom.Area;
  */
 public abstract class Entity {
 
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private final int id = nextId.getAndIncrement(); // Unique for the whole runtime, also if the entity is reused by a pool
+
     protected Vector2 position;
     protected double rotation; // Rotation des Schiffs in Bogenmaß
     protected Vector2 scale;
@@ -24,7 +36,27 @@ public abstract class Entity {
     protected int collisionLayer;
     protected int collisionMask;
 
+    private CollisionHull collisionHull; // Hull of hullShape, recreated if the shape is replaced
+    private Shape hullShape;
+
+    // Recomputed only if the position, rotation, scale or shape changed since they were last requested
+    private final CachedTransform cachedTransform = new CachedTransform();
+    private Rectangle localBounds; // Bounds of boundsShape
+    private Shape boundsShape;
+    private Shape transformedShape; // Shape transformed by the cached transform of version transformedShapeVersion
+    private Rectangle2D worldBounds;
+    private Shape transformedShapeSource;
+    private long transformedShapeVersion;
+
+    private Vector2 previousPosition; // Position at the start of the current update, used to interpolate rendering
+    private double previousRotation;
+
     private boolean queueDestroy; // True if it will be removed next update()
+    EntityPool<?> pool; // The pool this entity was obtained from, null if it was created directly
+    boolean inPool;
+    EntityRegistry registry; // The registry this entity is registered in, null if it is not part of the game
+    long handle = EntityRegistry.INVALID_HANDLE;
+    int[] bucketIndices = new int[0]; // Index of this entity in each bucket of its registry (by bucket id), -1 if not in the bucket
 
     /**
      * Creates a new Entity
@@ -41,6 +73,7 @@ public abstract class Entity {
         this.collisionMask = collisionMask;
         rotation = 0;
         scale = Vector2.ONE;
+        previousPosition = position;
     }
 
     /**
@@ -59,6 +92,17 @@ public abstract class Entity {
      */
     public abstract void draw(Graphics2D g2d);
 
+    /**
+     * The render thread never calls {@link #draw(Graphics2D)}, it draws the sprite captured after each tick. Entities
+     * without a visible sprite are drawn by filling their shape with this color instead. <br>
+     * Called by the simulation thread when the entity is captured.
+     *
+     * @return the color to fill the shape with or null if nothing should be drawn without a sprite
+     */
+    public Color getFillColor() {
+        return null;
+    }
+
     /**
      * Marks this entity for destruction. It will be destroyed after this and before the next {@link #update(double)} call.
      * It will no longer be able to collide, as it will have its collision layer and mask set to 0.
@@ -70,25 +114,102 @@ public abstract class Entity {
     }
 
     /**
-     * Returns the transform that is applied to this entity
+     * Reinitialises this entity so it can be added to the game again after it was destroyed (see {@link EntityPool}).
+     * Subclasses should reset their own state in a {@code reset} method that calls this.
+     *
+     * @param position       the new position
+     * @param collisionLayer the layer this entity should exist on
+     * @param collisionMask  the layer this entity detects collisions on
+     */
+    protected void reset(Vector2 position, int collisionLayer, int collisionMask) {
+        this.position = position;
+        this.collisionLayer = collisionLayer;
+        this.collisionMask = collisionMask;
+        rotation = 0;
+        previousPosition = position;
+        previousRotation = 0;
+        queueDestroy = false;
+    }
+
+    /**
+     * Returns this entity to the {@link EntityPool} it was obtained from, if it was destroyed. <br>
+     * Called by the {@link jetfighters.game.handlers.EntityHandler} after removing this entity, it must not be used afterwards.
+     */
+    public void release() {
+        if (pool != null && queueDestroy)
+            pool.free(this);
+    }
+
+    /**
+     * Returns the transform that is applied to this entity. It is cached and only recomputed if the position, rotation,
+     * scale or shape changed since the last call.
      *
-     * @return the transform
+     * @return the transform, must not be modified
      */
     public AffineTransform getTransform() {
-        AffineTransform transform = new AffineTransform();
-        transform.rotate(rotation, position.x + shape.getBounds().getWidth() * scale.x / 2.0, position.y + shape.getBounds().getHeight() * scale.y / 2.0);
-        transform.translate(position.x, position.y);
-        transform.scale(scale.x, scale.y);
-        return transform;
+        Rectangle bounds = getLocalBounds();
+        cachedTransform.update(position.x, position.y, rotation, scale.x, scale.y, bounds.width, bounds.height);
+        return cachedTransform.getTransform();
+    }
+
+    /**
+     * @return the inverse of {@link #getTransform()}, must not be modified
+     * @throws NoninvertibleTransformException if the transform is not invertible (e.g. scaled by 0)
+     */
+    public AffineTransform getInverseTransform() throws NoninvertibleTransformException {
+        getTransform();
+        return cachedTransform.getInverse();
+    }
+
+    /**
+     * Writes the transform this entity would have at the given position, rotation and scale into {@code target}. <br>
+     * Used to draw interpolated states of this entity without changing the entity itself.
+     *
+     * @param target   the transform to overwrite
+     * @param x        the x-position to use
+     * @param y        the y-position to use
+     * @param rotation the rotation to use in radians
+     * @param scaleX   the horizontal scale to use
+     * @param scaleY   the vertical scale to use
+     */
+    public void computeTransform(AffineTransform target, double x, double y, double rotation, double scaleX, double scaleY) {
+        Rectangle bounds = getLocalBounds();
+        CachedTransform.compute(target, x, y, rotation, scaleX, scaleY, bounds.width, bounds.height);
+    }
+
+    /**
+     * @return the bounds of the untransformed shape, must not be modified
+     */
+    public Rectangle getLocalBounds() {
+        if (localBounds == null || boundsShape != shape) {
+            localBounds = shape.getBounds();
+            boundsShape = shape;
+        }
+        return localBounds;
     }
 
     /**
-     * Returns a scaled, rotated and translated version of this entities shape.
+     * Returns a scaled, rotated and translated version of this entities shape. It is cached like {@link #getTransform()}.
      *
-     * @return the transformed shape of this entity
+     * @return the transformed shape of this entity, must not be modified
      */
     public Shape getTransformedShape() {
-        return getTransform().createTransformedShape(shape);
+        AffineTransform transform = getTransform();
+        if (transformedShape == null || transformedShapeSource != shape || transformedShapeVersion != cachedTransform.getVersion()) {
+            transformedShape = transform.createTransformedShape(shape);
+            worldBounds = transformedShape.getBounds2D();
+            transformedShapeSource = shape;
+            transformedShapeVersion = cachedTransform.getVersion();
+        }
+        return transformedShape;
+    }
+
+    /**
+     * @return the axis aligned bounds of {@link #getTransformedShape()} in world coordinates, must not be modified
+     */
+    public Rectangle2D getWorldBounds() {
+        getTransformedShape();
+        return worldBounds;
     }
 
     /**
@@ -100,15 +221,63 @@ public abstract class Entity {
     } // left empty to be overwritten, not abstract as it is not mandatory
 
     /**
-     * Checks if this entity is currently colliding with {@code otherEntity}.
+     * This will be called in every update after {@link #handleCollision(Entity)} in which this entity is still
+     * colliding with {@code otherEntity}.
+     *
+     * @param otherEntity the entity that is still collided with
+     */
+    public void handleCollisionStay(Entity otherEntity) {
+    }
+
+    /**
+     * This will be called once when this entity stops colliding with {@code otherEntity}, either because they moved apart
+     * or because {@code otherEntity} was removed from the game.
+     *
+     * @param otherEntity the entity that is no longer collided with
+     */
+    public void handleCollisionExit(Entity otherEntity) {
+    }
+
+    /**
+     * Checks if this entity is currently colliding with {@code otherEntity}. If both entities have a
+     * {@link #getPixelMask() pixel mask}, their opaque pixels are tested for overlap after their world bounds,
+     * otherwise their transformed {@link #getCollisionHull() collision hulls} are tested for intersection.
      *
      * @param otherEntity the entity to check collision with
      * @return true if the two entities are colliding
      */
     public boolean isCollidingWith(Entity otherEntity) {
-        Area area = new Area(getTransformedShape());
-        area.intersect(new Area(otherEntity.getTransformedShape()));
-        return !area.isEmpty();
+        PixelMask mask = getPixelMask();
+        PixelMask otherMask = otherEntity.getPixelMask();
+        if (mask != null && otherMask != null) {
+            return getWorldBounds().intersects(otherEntity.getWorldBounds())
+                    && mask.overlaps(getTransform(), otherMask, otherEntity.getTransform());
+        }
+        return getCollisionHull().intersects(getTransform(), otherEntity.getCollisionHull(), otherEntity.getTransform());
+    }
+
+    /**
+     * Returns the opaque pixels of this entity in local coordinates for pixel-perfect collision with other entities
+     * that have one. By default, entities don't have one and collide with their {@link #getCollisionHull() hull}.
+     *
+     * @return the pixel mask of this entity or null if it collides with its hull
+     */
+    public PixelMask getPixelMask() {
+        return null;
+    }
+
+    /**
+     * Returns the convex polygons used for the exact collision test. By default, they are created from {@link #shape}
+     * once (and again if the shape is replaced).
+     *
+     * @return the collision hull of this entity in local coordinates
+     */
+    public CollisionHull getCollisionHull() {
+        if (collisionHull == null || hullShape != shape) {
+            collisionHull = CollisionHull.fromShape(shape);
+            hullShape = shape;
+        }
+        return collisionHull;
     }
 
     /**
@@ -118,6 +287,71 @@ public abstract class Entity {
         return Vector2.UP.rotated(rotation);
     }
 
+    /**
+     * Writes the direction this entity is facing into {@code target} without allocating a new vector.
+     *
+     * @param target the vector to overwrite
+     * @return {@code target}
+     */
+    public MutableVector2 getDirection(MutableVector2 target) {
+        return target.set(Math.sin(rotation), -Math.cos(rotation)); // Vector2.UP rotated by rotation
+    }
+
+    /**
+     * Stores the current position and rotation as the previous state. <br>
+     * Called by the {@link jetfighters.game.handlers.EntityHandler} right before {@link #update(double)}.
+     */
+    public void storePreviousState() {
+        previousPosition = position;
+        previousRotation = rotation;
+    }
+
+    /**
+     * @return the position this entity had before the last update
+     */
+    public Vector2 getPreviousPosition() {
+        return previousPosition;
+    }
+
+    /**
+     * @return the rotation this entity had before the last update in radians
+     */
+    public double getPreviousRotation() {
+        return previousRotation;
+    }
+
+    /**
+     * Returns the sprite that is used to draw this entity. If this returns a sprite, the render thread will draw the
+     * current frame of it instead of calling {@link #draw(Graphics2D)}.
+     *
+     * @return the sprite of this entity or null if it is drawn by {@link #draw(Graphics2D)}
+     */
+    public Sprite getSprite() {
+        return null;
+    }
+
+    /**
+     * @return the layer this entity is drawn in, entities in higher layers are drawn on top (see {@link RenderQueue})
+     */
+    public int getRenderLayer() {
+        return RenderQueue.LAYER_DEFAULT;
+    }
+
+    /**
+     * @return the unique id of this entity
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the handle of this entity in the {@link EntityRegistry} it is registered in or
+     * {@link EntityRegistry#INVALID_HANDLE} if it is not registered
+     */
+    public long getHandle() {
+        return handle;
+    }
+
     /**
      * @return true if this entity is marked for destruction and therefore should be removed.
      */
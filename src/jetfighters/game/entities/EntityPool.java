@@ -0,0 +1,103 @@
+package jetfighters.game.entities;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Keeps destroyed entities of one type to reuse them instead of creating new ones, so long matches don't produce
+ * garbage that has to be collected in the middle of the game. <br>
+ * Entities obtained from a pool are returned automatically when the {@link jetfighters.game.handlers.EntityHandler}
+ * removes them after they were destroyed. They have to be reinitialised (e.g. {@link Explosion#reset(jetfighters.game.math.Vector2, double)})
+ * after {@link #obtain()}. <br>
+ * Pools are not thread safe and should only be used by the simulation thread.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class EntityPool<T extends Entity> {
+
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private final Supplier<T> factory;
+    private final ArrayDeque<T> freeEntities;
+    private final int maxSize;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a new EntityPool that keeps at most {@link #DEFAULT_MAX_SIZE} free entities.
+     *
+     * @see #EntityPool(Supplier, int)
+     */
+    public EntityPool(Supplier<T> factory) {
+        this(factory, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new, empty EntityPool.
+     *
+     * @param factory creates a new entity if the pool is empty
+     * @param maxSize the maximum amount of free entities that are kept, returned entities exceeding it are dropped
+     */
+    public EntityPool(Supplier<T> factory, int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("The maximum size of a pool can't be negative, was " + maxSize);
+        this.factory = factory;
+        this.maxSize = maxSize;
+        freeEntities = new ArrayDeque<>(Math.min(maxSize, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Returns a free entity of this pool or a new one if there is none.
+     *
+     * @return an entity that has to be reinitialised before it is added to the game
+     */
+    public T obtain() {
+        T entity = freeEntities.pollLast();
+        if (entity == null) {
+            misses++;
+            entity = factory.get();
+            entity.pool = this;
+        } else {
+            hits++;
+        }
+        entity.inPool = false;
+        return entity;
+    }
+
+    /**
+     * Puts {@code entity} back into this pool. Called by {@link Entity#release()}.
+     *
+     * @param entity the entity to return (has to be obtained from this pool)
+     */
+    @SuppressWarnings("unchecked")
+    void free(Entity entity) {
+        if (entity.inPool)
+            return;
+        entity.inPool = true;
+        if (freeEntities.size() < maxSize)
+            freeEntities.addLast((T) entity); // Only entities created by the factory of this pool reference it
+    }
+
+    /**
+     * @return the amount of times {@link #obtain()} could reuse an entity
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the amount of times {@link #obtain()} had to create a new entity
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the amount of entities that are ready to be reused
+     */
+    public int getFreeCount() {
+        return freeEntities.size();
+    }
+}
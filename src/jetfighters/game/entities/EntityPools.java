@@ -0,0 +1,79 @@
+package jetfighters.game.entities;
+
+import jetfighters.game.entities.projectiles.Projectile;
+import jetfighters.game.math.Vector2;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * All {@link EntityPool}s of a game. Pools for projectiles and explosions always exist, other pools (e.g. for
+ * power ups) are registered by whoever spawns the entities. <br>
+ * The pools outlive a reset of the game, so entities created in one match are reused in the next one.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class EntityPools {
+
+    private final Map<String, EntityPool<?>> pools;
+    private final EntityPool<Projectile> projectiles;
+    private final EntityPool<Explosion> explosions;
+
+    public EntityPools() {
+        pools = new LinkedHashMap<>();
+        projectiles = register("projectiles", Projectile::new);
+        explosions = register("explosions", () -> new Explosion(Vector2.ZERO, 1));
+    }
+
+    /**
+     * Registers a new pool under {@code name} or returns the existing one if a pool with this name was registered before.
+     *
+     * @param name    the name of the pool (shown in the metrics)
+     * @param factory creates a new entity if the pool is empty
+     * @param <T>     the type of the pooled entities
+     * @return the pool registered under {@code name}
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Entity> EntityPool<T> register(String name, Supplier<T> factory) {
+        return (EntityPool<T>) pools.computeIfAbsent(name, (key) -> new EntityPool<>(factory));
+    }
+
+    /**
+     * @return the pool of projectiles (have to be reset with {@link Projectile#reset})
+     */
+    public EntityPool<Projectile> getProjectiles() {
+        return projectiles;
+    }
+
+    /**
+     * @return the pool of explosions (have to be reset with {@link Explosion#reset})
+     */
+    public EntityPool<Explosion> getExplosions() {
+        return explosions;
+    }
+
+    /**
+     * @return all registered pools by their name
+     */
+    public Map<String, EntityPool<?>> getPools() {
+        return Collections.unmodifiableMap(pools);
+    }
+
+    /**
+     * @return the amount of times an entity could be reused in all pools
+     */
+    public long getTotalHits() {
+        return pools.values().stream().mapToLong(EntityPool::getHits).sum();
+    }
+
+    /**
+     * @return the amount of times an entity had to be created in all pools
+     */
+    public long getTotalMisses() {
+        return pools.values().stream().mapToLong(EntityPool::getMisses).sum();
+    }
+}
@@ -0,0 +1,247 @@
+package jetfighters.game.entities;
+
+import java.util.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Stores the entities of the game in a dense array, so adding and removing an entity are O(1) (removing moves the last
+ * entity into the gap, so the order of the entities changes). <br>
+ * Every registered entity gets a handle that stays valid until the entity is removed. Handles of removed entities are
+ * never valid again, even if their slot is reused. <br>
+ * Besides all entities the registry keeps buckets of the entities on each collision layer and of each type that was
+ * requested with {@link #getByType(Class)}, so callers can iterate only the entities they need. All lists returned by
+ * the registry are read-only views that are not copied and change when entities are added or removed.
+ * The layer buckets use the collision layer an entity had when it was added.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class EntityRegistry {
+
+    public static final long INVALID_HANDLE = -1;
+    private static final int LAYER_COUNT = Integer.SIZE;
+
+    private final Bucket<Entity> entities;
+    private final List<Bucket<?>> buckets; // Index = id of the bucket
+    private final Bucket<?>[] layerBuckets;
+    private final Map<Class<?>, Bucket<?>> typeBuckets;
+
+    // Slots give the handles: the lower 32 bits of a handle are its slot, the upper ones the generation of the slot
+    private Entity[] slots;
+    private int[] slotGenerations;
+    private int[] freeSlots;
+    private int freeSlotCount;
+    private int usedSlotCount;
+
+    public EntityRegistry() {
+        buckets = new ArrayList<>();
+        entities = createBucket(Entity.class);
+        layerBuckets = new Bucket<?>[LAYER_COUNT];
+        typeBuckets = new HashMap<>();
+        slots = new Entity[16];
+        slotGenerations = new int[16];
+        freeSlots = new int[16];
+    }
+
+    private <T> Bucket<T> createBucket(Class<T> type) {
+        Bucket<T> bucket = new Bucket<>(buckets.size(), type);
+        buckets.add(bucket);
+        return bucket;
+    }
+
+    /**
+     * Registers {@code entity}. Does nothing if it is already registered.
+     *
+     * @param entity the entity to register
+     * @return the handle of the entity
+     * @throws IllegalStateException if the entity is registered in another registry
+     */
+    public long add(Entity entity) {
+        if (entity.registry == this)
+            return entity.handle;
+        if (entity.registry != null)
+            throw new IllegalStateException(entity.getClass().getName() + " is already registered in another registry");
+
+        int slot = allocateSlot();
+        slots[slot] = entity;
+        entity.registry = this;
+        entity.handle = ((long) slotGenerations[slot] << 32) | slot;
+
+        entities.insert(entity);
+        int layer = entity.getCollisionLayer();
+        while (layer != 0) {
+            int bit = Integer.numberOfTrailingZeros(layer);
+            layerBucket(bit).insert(entity);
+            layer &= layer - 1;
+        }
+        for (Bucket<?> typeBucket : typeBuckets.values()) {
+            if (typeBucket.type.isInstance(entity))
+                typeBucket.insert(entity);
+        }
+        return entity.handle;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0)
+            return freeSlots[--freeSlotCount];
+        if (usedSlotCount == slots.length) {
+            slots = Arrays.copyOf(slots, usedSlotCount * 2);
+            slotGenerations = Arrays.copyOf(slotGenerations, usedSlotCount * 2);
+            freeSlots = Arrays.copyOf(freeSlots, usedSlotCount * 2);
+        }
+        return usedSlotCount++;
+    }
+
+    /**
+     * Removes {@code entity} from this registry and all of its buckets. Its handle will no longer be valid.
+     *
+     * @param entity the entity to remove
+     * @return true if the entity was registered
+     */
+    public boolean remove(Entity entity) {
+        if (entity.registry != this)
+            return false;
+        for (int id = 0; id < entity.bucketIndices.length; id++) {
+            if (entity.bucketIndices[id] >= 0)
+                buckets.get(id).delete(entity);
+        }
+        int slot = (int) entity.handle;
+        slots[slot] = null;
+        slotGenerations[slot]++;
+        freeSlots[freeSlotCount++] = slot;
+        entity.registry = null;
+        entity.handle = INVALID_HANDLE;
+        return true;
+    }
+
+    /**
+     * @param handle the handle of an entity
+     * @return the entity with this handle or null if it was removed
+     */
+    public Entity get(long handle) {
+        int slot = (int) handle;
+        if (handle < 0 || slot >= usedSlotCount || slotGenerations[slot] != (int) (handle >>> 32))
+            return null;
+        return slots[slot];
+    }
+
+    /**
+     * @param entity the entity to check
+     * @return true if {@code entity} is registered in this registry
+     */
+    public boolean contains(Entity entity) {
+        return entity.registry == this;
+    }
+
+    /**
+     * @return the amount of registered entities
+     */
+    public int size() {
+        return entities.size();
+    }
+
+    /**
+     * @return a read-only view of all registered entities
+     */
+    public List<Entity> getAll() {
+        return entities;
+    }
+
+    /**
+     * @param layer a single collision layer (see {@link jetfighters.game.handlers.CollisionHandler})
+     * @return a read-only view of all entities that were on {@code layer} when they were added
+     * @throws IllegalArgumentException if {@code layer} is not exactly one layer
+     */
+    public List<Entity> getByLayer(int layer) {
+        if (Integer.bitCount(layer) != 1)
+            throw new IllegalArgumentException("Expected a single collision layer, but got " + Integer.toBinaryString(layer));
+        @SuppressWarnings("unchecked")
+        List<Entity> bucket = (List<Entity>) layerBucket(Integer.numberOfTrailingZeros(layer));
+        return bucket;
+    }
+
+    private Bucket<?> layerBucket(int bit) {
+        if (layerBuckets[bit] == null)
+            layerBuckets[bit] = createBucket(Entity.class);
+        return layerBuckets[bit];
+    }
+
+    /**
+     * Returns all entities of a type (including subclasses). The bucket of a type is created when it is requested for the
+     * first time and kept up to date afterwards, so this should be called with a few fixed types (e.g. {@link JetEntity}).
+     *
+     * @param type the type of entities to return
+     * @param <T>  the type of entities to return
+     * @return a read-only view of all registered entities of {@code type}
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Entity> List<T> getByType(Class<T> type) {
+        Bucket<?> bucket = typeBuckets.get(type);
+        if (bucket == null) {
+            bucket = createBucket(type);
+            typeBuckets.put(type, bucket);
+            for (int i = 0; i < entities.size(); i++) {
+                if (type.isInstance(entities.get(i)))
+                    bucket.insert(entities.get(i));
+            }
+        }
+        return (List<T>) bucket;
+    }
+
+    /**
+     * A dense list of entities that knows the index of each entity in it (stored in the entity), so it can remove them in O(1).
+     */
+    private static class Bucket<T> extends AbstractList<T> implements RandomAccess {
+
+        private final int id;
+        private final Class<T> type;
+        private Entity[] items;
+        private int size;
+
+        private Bucket(int id, Class<T> type) {
+            this.id = id;
+            this.type = type;
+            items = new Entity[16];
+        }
+
+        private void insert(Entity entity) {
+            if (entity.bucketIndices.length <= id) {
+                int oldLength = entity.bucketIndices.length;
+                entity.bucketIndices = Arrays.copyOf(entity.bucketIndices, id + 1);
+                Arrays.fill(entity.bucketIndices, oldLength, id + 1, -1);
+            }
+            if (size == items.length)
+                items = Arrays.copyOf(items, size * 2);
+            entity.bucketIndices[id] = size;
+            items[size++] = entity;
+        }
+
+        private void delete(Entity entity) {
+            int index = entity.bucketIndices[id];
+            Entity last = items[--size];
+            items[index] = last;
+            last.bucketIndices[id] = index;
+            items[size] = null;
+            entity.bucketIndices[id] = -1;
+        }
+
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, size);
+            return type.cast(items[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entity entity) || entity.bucketIndices.length <= id)
+                return false;
+            int index = entity.bucketIndices[id];
+            return index >= 0 && index < size && items[index] == entity;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package jetfighters.game.entities;
 
 import jetfighters.game.math.Vector2;
+import jetfighters.game.rendering.RenderQueue;
 import jetfighters.game.sprites.AnimatedSprite;
+import jetfighters.game.sprites.Sprite;
 
 import java.awt.*;
 
@@ -30,6 +32,18 @@ public class Explosion extends Entity {
         explosionSprite.scale(scale);
     }
 
+    /**
+     * Reinitialises this explosion (obtained from an {@link EntityPool}) to run again at {@code position}.
+     *
+     * @param position the position to create the Explosion at
+     * @param scale    the scale of the explosion
+     */
+    public void reset(Vector2 position, double scale) {
+        super.reset(position, 0, 0);
+        explosionSprite.reset();
+        explosionSprite.setScale(new Vector2(scale, scale));
+    }
+
     @Override
     public void update(double delta) {
         explosionSprite.update(delta);
@@ -42,4 +56,14 @@ public class Explosion extends Entity {
     public void draw(Graphics2D g2d) {
         explosionSprite.draw(g2d);
     }
+
+    @Override
+    public Sprite getSprite() {
+        return explosionSprite;
+    }
+
+    @Override
+    public int getRenderLayer() {
+        return RenderQueue.LAYER_EFFECTS;
+    }
 }
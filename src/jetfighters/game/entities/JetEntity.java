@@ -2,18 +2,24 @@ package jetfighters.game.entities;
 
 import jetfighters.audio.Sound;
 import jetfighters.game.Game;
-import jetfighters.game.entities.projectiles.Projectile;
+import jetfighters.game.GameWorld;
+import jetfighters.game.entities.projectiles.BulletSystem;
 import jetfighters.game.entities.projectiles.ProjectileOwner;
+import jetfighters.game.math.CollisionHull;
 import jetfighters.game.math.CollisionUtil;
+import jetfighters.game.math.MutableVector2;
+import jetfighters.game.math.PixelMask;
 import jetfighters.game.math.Vector2;
 import jetfighters.game.powerupseffects.JetStat;
 import jetfighters.game.powerupseffects.PowerUpEffect;
 import jetfighters.game.powerupseffects.StatEffect;
 import jetfighters.game.sprites.AnimatedSprite;
+import jetfighters.game.sprites.Sprite;
 
 import java.awt.*;
 import java.awt.geom.Area;
 import java.lang.reflect.Field;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -26,6 +32,8 @@ import java.util.List;
  * @version 21.07.22
  */
 public abstract class JetEntity extends MovingEntity implements ProjectileOwner {
+    private static final int OUTLINE_ALPHA_THRESHOLD = 200; // Pixels with a lower alpha value are not part of the outline
+
     protected JetStat speed;
     protected JetStat rotationSpeed;
     protected JetStat projectileSpeed;
@@ -51,14 +59,16 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
     private double hitSoundTimer;
 
     protected final List<PowerUpEffect> powerUps;
-    protected final Game game;
+    private final MutableVector2 shotDirection = new MutableVector2();
+    private final MutableVector2 collisionDirection = new MutableVector2();
+    protected final GameWorld game;
 
     /**
      * {@code jetImagePath} defaults to "jet/jet1/Jet_1_1.png".
      *
-     * @see #JetEntity(Game, Vector2, Shape, int, int, double, String)
+     * @see #JetEntity(GameWorld, Vector2, Shape, int, int, double, String)
      */
-    public JetEntity(Game game, Vector2 position, Shape shape, int collisionLayer, int collisionMask, double maxVelocity) {
+    public JetEntity(GameWorld game, Vector2 position, Shape shape, int collisionLayer, int collisionMask, double maxVelocity) {
         this(game, position, shape, collisionLayer, collisionMask, maxVelocity, "jet/jet1/Jet_1_1.png");
     }
 
@@ -73,7 +83,7 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
      * @param maxVelocity    the maximum velocity this jet should be able to reach
      * @param jetImagePath   relative path to an image to use for this jet (relative to "sprites/")
      */
-    public JetEntity(Game game, Vector2 position, Shape shape, int collisionLayer, int collisionMask, double maxVelocity, String jetImagePath) {
+    public JetEntity(GameWorld game, Vector2 position, Shape shape, int collisionLayer, int collisionMask, double maxVelocity, String jetImagePath) {
         super(position, shape, collisionLayer, collisionMask, maxVelocity);
         this.game = game;
         this.powerUps = new LinkedList<>();
@@ -82,12 +92,14 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
 
         setupStats();
 
-        velocity = Vector2.ZERO;
+        velocity.setZero();
 
         String spritePath = "sprites/" + jetImagePath.substring(0, jetImagePath.length() - 5);
         idleSprite = new AnimatedSprite(spritePath, 1, 0.125);
         damagedSprite = new AnimatedSprite(spritePath, 2, 0.125);
         jetSprite = idleSprite;
+        idleSprite.createMasks(OUTLINE_ALPHA_THRESHOLD);
+        damagedSprite.createMasks(OUTLINE_ALPHA_THRESHOLD);
 
         this.immunityDuration = 0.5;
     }
@@ -128,14 +140,15 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
     }
 
     private void updatePowerups(double delta) {
-        List<PowerUpEffect> removePowerups = new LinkedList<>();
-        for (PowerUpEffect powerupEffect : powerUps) {
+        Iterator<PowerUpEffect> iterator = powerUps.iterator();
+        while (iterator.hasNext()) {
+            PowerUpEffect powerupEffect = iterator.next();
             powerupEffect.update(delta);
             if (powerupEffect.shouldRemove()) {
-                removePowerups.add(powerupEffect);
+                powerupEffect.removeEffect(this);
+                iterator.remove();
             }
         }
-        removePowerups.forEach(this::removePowerUpEffect);
     }
 
     private void updateShots(double delta) {
@@ -160,7 +173,7 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
 
     private void applyScreenWrapping() {
         // Wrap the jet at screen edges
-        if (!getTransformedShape().intersects(new Rectangle(0, 0, game.getCanvasWidth(), game.getCanvasHeight()))) {
+        if (!getTransformedShape().intersects(0, 0, game.getCanvasWidth(), game.getCanvasHeight())) {
             // TODO: make wrapping smoother by adding margin.
             double newX = ((int) position.x + game.getCanvasWidth()) % game.getCanvasWidth();
             double newY = ((int) position.y + game.getCanvasHeight()) % game.getCanvasHeight();
@@ -177,33 +190,50 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
         }
     }
 
+    @Override
+    public Sprite getSprite() {
+        return jetSprite;
+    }
+
     @Override
     public void handleCollision(Entity otherEntity) {
         // Knockback code
         if (otherEntity instanceof JetEntity otherJet) {
-            Vector2 knockbackVelocity;
+            // Read component-wise, this runs for every contact of two jets
+            double ownX = getLastVelocityX(), ownY = getLastVelocityY();
+            double otherX = otherJet.getLastVelocityX(), otherY = otherJet.getLastVelocityY();
+            double ownLengthSquared = ownX * ownX + ownY * ownY;
+            double otherLengthSquared = otherX * otherX + otherY * otherY;
+            double knockbackX, knockbackY, knockbackLengthSquared;
             double knockbackStrength;
-            Vector2 ownVelocity = getLastVelocity();
-            Vector2 otherVelocity = otherJet.getLastVelocity();
-            if (ownVelocity.length() > otherVelocity.length()) { // Compute if this is the aggressor of the crash
-                knockbackVelocity = ownVelocity;
-                knockbackStrength = -ownVelocity.length() / 2.0;
-                game.addScreenShake(Math.min(.9, knockbackVelocity.length() / 350));
+            if (ownLengthSquared > otherLengthSquared) { // Compute if this is the aggressor of the crash
+                knockbackX = ownX;
+                knockbackY = ownY;
+                knockbackLengthSquared = ownLengthSquared;
+                knockbackStrength = -Math.sqrt(ownLengthSquared) / 2.0;
+                game.addScreenShake(Math.min(.9, Math.sqrt(ownLengthSquared) / 350));
                 game.playSound(Sound.Collision);
             } else { // Compute if this is the victim of the crash
-                knockbackVelocity = otherVelocity;
-                knockbackStrength = otherVelocity.length() / 1.5;
-
-                if (knockbackVelocity.length() > 50 && getDirection().dot(knockbackVelocity.reversed().normalized()) <= .25) {
-                    int direction = (int) Math.signum(angularVelocity);
-                    startSpinning(direction == 0 ? 1 : direction, 1.5);
+                knockbackX = otherX;
+                knockbackY = otherY;
+                knockbackLengthSquared = otherLengthSquared;
+                double knockbackLength = Math.sqrt(otherLengthSquared);
+                knockbackStrength = knockbackLength / 1.5;
+
+                if (knockbackLength > 50) {
+                    MutableVector2 direction = getDirection(collisionDirection);
+                    // The direction dotted with the reversed, normalized knockback
+                    if (-(direction.x * knockbackX + direction.y * knockbackY) / knockbackLength <= .25) {
+                        int spinDirection = (int) Math.signum(angularVelocity);
+                        startSpinning(spinDirection == 0 ? 1 : spinDirection, 1.5);
+                    }
                 }
             }
-            if (knockbackVelocity.length() > 10) { // Apply knockback
-                acceleration = Vector2.ZERO;
-                velocity = knockbackVelocity.normalized().mult(knockbackStrength);
+            if (knockbackLengthSquared > 10 * 10) { // Apply knockback
+                acceleration.setZero();
+                velocity.set(knockbackX, knockbackY).normalize().mult(knockbackStrength);
             } else {
-                velocity = Vector2.ZERO;
+                velocity.setZero();
             }
         }
     }
@@ -214,20 +244,51 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
      * @param g2d the graphics context to draw to
      */
     public void drawHealthBar(Graphics2D g2d) {
-        double fillPercent = currentHealth / maxHealth.getValue();
-        int barWidth = (int) (60 * scale.x);
-        int barHeight = (int) (6 * scale.y);
+        drawHealthBar(g2d, position.x, position.y, getWidth(), getHeight(), getHealthBarWidth(), getHealthBarHeight(),
+                getHealthPercent());
+    }
+
+    /**
+     * Draws the health bar of a jet above its sprite. Only uses the given values, so the render thread can draw the
+     * health bar of a captured and interpolated state without touching the jet.
+     *
+     * @param g2d         the graphics context to draw to
+     * @param x           the x-position of the jet
+     * @param y           the y-position of the jet
+     * @param width       the width of the jet (see {@link #getWidth()})
+     * @param height      the height of the jet (see {@link #getHeight()})
+     * @param barWidth    the width of the health bar (see {@link #getHealthBarWidth()})
+     * @param barHeight   the height of the health bar (see {@link #getHealthBarHeight()})
+     * @param fillPercent the health of the jet relative to its maximum health
+     */
+    public static void drawHealthBar(Graphics2D g2d, double x, double y, double width, double height,
+                                     int barWidth, int barHeight, double fillPercent) {
         int borderSize = 1;
-        double verticalOffset = -getHeight() / 2.0 - barHeight / 2.0 - 20;
-        Vector2 centerPosition = getCenteredPosition().add(0, verticalOffset);
-        int barLeft = (int) (centerPosition.x - barWidth / 2.0);
+        double verticalOffset = -height / 2.0 - barHeight / 2.0 - 20;
+        double centerX = x + width / 2.0;
+        double centerY = y + height / 2.0 + verticalOffset;
+        int barLeft = (int) (centerX - barWidth / 2.0);
         int barCenter = (int) (barLeft + barWidth * fillPercent);
         g2d.setColor(Color.BLACK);
-        g2d.fillRect(barLeft - borderSize, (int) centerPosition.y - borderSize, barWidth + borderSize * 2, barHeight + borderSize * 2);
+        g2d.fillRect(barLeft - borderSize, (int) centerY - borderSize, barWidth + borderSize * 2, barHeight + borderSize * 2);
         g2d.setColor(Color.GREEN);
-        g2d.fillRect(barLeft, (int) centerPosition.y, (int) (barWidth * fillPercent), barHeight);
+        g2d.fillRect(barLeft, (int) centerY, (int) (barWidth * fillPercent), barHeight);
         g2d.setColor(Color.RED);
-        g2d.fillRect(barCenter, (int) centerPosition.y, (int) (barWidth * (1.0 - fillPercent)), barHeight);
+        g2d.fillRect(barCenter, (int) centerY, (int) (barWidth * (1.0 - fillPercent)), barHeight);
+    }
+
+    /**
+     * @return the width of the health bar of this jet, depending on its scale
+     */
+    public int getHealthBarWidth() {
+        return (int) (60 * scale.x);
+    }
+
+    /**
+     * @return the height of the health bar of this jet, depending on its scale
+     */
+    public int getHealthBarHeight() {
+        return (int) (6 * scale.y);
     }
 
     /**
@@ -235,16 +296,18 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
      */
     public void shoot() {
         int horizontalOffset = 15;
-        Vector2 centerPosition = getCenteredPosition();
-        Vector2 shootPositionCenter = centerPosition.add(getDirection().mult(getHeight() / 3));
-        Vector2 shootPositionRight = shootPositionCenter.add(getDirection().rotated(Math.PI / 2).mult(horizontalOffset));
-        Vector2 shootPositionLeft = shootPositionCenter.add(getDirection().rotated(-Math.PI / 2).mult(horizontalOffset));
-        Vector2 bulletVelocity = getDirection().mult(projectileSpeed.getValue()).add(velocity);
-        Projectile bulletR = new Projectile(this, shootPositionRight, bulletVelocity);
-        Projectile bulletL = new Projectile(this, shootPositionLeft, bulletVelocity);
-        game.addEntity(bulletR);
-        game.addEntity(bulletL);
-        velocity = velocity.sub(getDirection().mult(shootKnockback.getValue()));
+        MutableVector2 direction = getDirection(shotDirection);
+        double shootCenterX = position.x + getWidth() / 2.0 + direction.x * (getHeight() / 3);
+        double shootCenterY = position.y + getHeight() / 2.0 + direction.y * (getHeight() / 3);
+        // The direction rotated by PI/2 is (-y, x), rotated by -PI/2 it is (y, -x)
+        double offsetX = -direction.y * horizontalOffset;
+        double offsetY = direction.x * horizontalOffset;
+        double bulletVelocityX = direction.x * projectileSpeed.getValue() + velocity.x;
+        double bulletVelocityY = direction.y * projectileSpeed.getValue() + velocity.y;
+        BulletSystem bullets = game.getBulletSystem();
+        bullets.spawn(this, shootCenterX + offsetX, shootCenterY + offsetY, bulletVelocityX, bulletVelocityY);
+        bullets.spawn(this, shootCenterX - offsetX, shootCenterY - offsetY, bulletVelocityX, bulletVelocityY);
+        velocity.sub(direction.x * shootKnockback.getValue(), direction.y * shootKnockback.getValue());
     }
 
     /**
@@ -305,7 +368,9 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
      * Destroys this jet, plays the death sound and creates an explosion.
      */
     public void die() { // Should be overwritten in Player to make one player win the game or add a point.
-        game.addEntity(new Explosion(position, 3));
+        Explosion explosion = game.getEntityPools().getExplosions().obtain();
+        explosion.reset(position, 3);
+        game.addEntity(explosion);
         game.playSound(Sound.Death);
         destroy();
     }
@@ -325,8 +390,9 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
                 return;
             }
         }
-        powerUps.add(powerUpEffect);
-        powerUpEffect.applyEffect(this);
+        PowerUpEffect effectCopy = powerUpEffect.copy(); // Power ups are pooled, so their effect may be reused
+        powerUps.add(effectCopy);
+        effectCopy.applyEffect(this);
     }
 
     /**
@@ -352,7 +418,7 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
      * @return an outline generated from the currently used {@link #jetSprite} or if that is {@code null} it will return the shape as an area.
      */
     public Area getOutline() {
-        return getOutline(200);
+        return getOutline(OUTLINE_ALPHA_THRESHOLD);
     }
 
     private Area getOutline(int alphaThreshold) {
@@ -361,6 +427,30 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
         return CollisionUtil.getOutline(alphaThreshold, jetSprite.getImage());
     }
 
+    /**
+     * Uses the opaque pixels of the current frame of {@link #jetSprite} (the hull of every frame is only traced once).
+     * Falls back to the shape if the sprite has no valid image.
+     *
+     * @return the collision hull of the current sprite frame
+     */
+    @Override
+    public CollisionHull getCollisionHull() {
+        if (jetSprite != null && jetSprite.hasValidImage()) {
+            CollisionHull hull = CollisionHull.fromImage(jetSprite.getImage(), OUTLINE_ALPHA_THRESHOLD);
+            if (hull != null)
+                return hull;
+        }
+        return super.getCollisionHull();
+    }
+
+    /**
+     * Jets collide pixel-perfect with each other using the opaque pixels of the current frame of {@link #jetSprite}.
+     */
+    @Override
+    public PixelMask getPixelMask() {
+        return jetSprite != null ? jetSprite.getMask() : null;
+    }
+
     /**
      * Gets the JetStat that is named {@code stat} in this class.
      *
@@ -402,6 +492,16 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
         return shape.getBounds2D().getHeight() * scale.x;
     }
 
+    /**
+     * The radius of the circle used to test bullets against this jet (see {@link BulletSystem}).
+     * It is a bit smaller than the sprite, as the wings and the tail don't fill its corners.
+     *
+     * @return the collision radius of this jet
+     */
+    public double getCollisionRadius() {
+        return Math.min(getWidth(), getHeight()) * 0.4;
+    }
+
     /**
      * The position in the center of this jet.
      *
@@ -432,6 +532,13 @@ public abstract class JetEntity extends MovingEntity implements ProjectileOwner
         return currentHealth;
     }
 
+    /**
+     * @return the current health of this jet relative to its maximum health
+     */
+    public double getHealthPercent() {
+        return currentHealth / maxHealth.getValue();
+    }
+
     /**
      * Sets the current amount of health of this jet.
      *
@@ -1,5 +1,6 @@
 package jetfighters.game.entities;
 
+import jetfighters.game.math.MutableVector2;
 import jetfighters.game.math.Vector2;
 
 import java.awt.*;
@@ -7,19 +8,20 @@ import java.awt.*;
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
  * Represents an entity that can move with acceleration, velocity and angular velocity. <br>
- * Also provides methods to aid physics calculations on moving entities.
+ * Also provides methods to aid physics calculations on moving entities. <br>
+ * Velocity and acceleration are {@link MutableVector2}s that are changed in place, so updating doesn't allocate them.
  *
  * @author do04 - Daniel Flat, Moritz Junge
  * @version 13.07.22
  */
 public abstract class MovingEntity extends Entity {
 
-    protected Vector2 velocity;
+    protected final MutableVector2 velocity = new MutableVector2();
     protected double angularVelocity;
     private Vector2 lastPosition;
-    private Vector2 lastVelocity; // Used for physics calculation should not be exposed, as it is set each update (with velocity)
+    private final MutableVector2 lastVelocity = new MutableVector2(); // Used for physics calculation should not be exposed, as it is set each update (with velocity)
     protected double maxVelocity;
-    protected Vector2 acceleration;
+    protected final MutableVector2 acceleration = new MutableVector2();
 
     /**
      * {@code initialVelocity} defaults to {@link Vector2#ZERO}.
@@ -57,8 +59,25 @@ public abstract class MovingEntity extends Entity {
     public MovingEntity(Vector2 position, Shape shape, int collisionLayer, int collisionMask, double maxVelocity, Vector2 initialVelocity, Vector2 initialAcceleration) {
         super(position, shape, collisionLayer, collisionMask);
         this.maxVelocity = maxVelocity;
-        velocity = initialVelocity;
-        acceleration = initialAcceleration;
+        velocity.set(initialVelocity);
+        acceleration.set(initialAcceleration);
+    }
+
+    /**
+     * Reinitialises this entity with a new velocity and no acceleration or angular velocity.
+     *
+     * @param maxVelocity     the maximum velocity this Entity can reach. if negative the velocity is not capped
+     * @param initialVelocity the velocity this Entity has right after being reset
+     * @see Entity#reset(Vector2, int, int)
+     */
+    protected void reset(Vector2 position, int collisionLayer, int collisionMask, double maxVelocity, Vector2 initialVelocity) {
+        super.reset(position, collisionLayer, collisionMask);
+        this.maxVelocity = maxVelocity;
+        velocity.set(initialVelocity);
+        acceleration.setZero();
+        angularVelocity = 0;
+        lastPosition = null;
+        lastVelocity.setZero();
     }
 
     /**
@@ -68,10 +87,16 @@ public abstract class MovingEntity extends Entity {
      * @param velocity the new velocity
      */
     public void setVelocity(Vector2 velocity) {
-        this.velocity = velocity;
-        if (maxVelocity >= 0 && this.velocity.length() > maxVelocity) {
-            this.velocity = velocity.normalized().mult(maxVelocity);
-        }
+        this.velocity.set(velocity);
+        clampVelocity();
+    }
+
+    /**
+     * Clamps the current velocity to maxVelocity after it was changed in place.
+     */
+    protected void clampVelocity() {
+        if (maxVelocity >= 0)
+            velocity.clampLength(maxVelocity);
     }
 
     /**
@@ -88,10 +113,12 @@ public abstract class MovingEntity extends Entity {
     public void update(double delta) {
         applyAngularVelocity(delta);
 
-        setVelocity(velocity.add(acceleration.mult(delta)));
-        lastVelocity = velocity;
+        velocity.addScaled(acceleration, delta);
+        clampVelocity();
+        lastVelocity.set(velocity);
 
-        position = position.add(lastVelocity.mult(delta));
+        // Positions stay immutable, they are kept as the previous state for interpolation
+        position = position.add(lastVelocity.x * delta, lastVelocity.y * delta);
         lastPosition = position;
     }
 
@@ -108,17 +135,32 @@ public abstract class MovingEntity extends Entity {
     /**
      * Returns the velocity this object had in the last update step (useful if velocity is changed but still needed)
      *
-     * @return the velocity of the last update step
+     * @return the velocity of the last update step as a new vector
+     * @see #getLastVelocityX()
      */
     public Vector2 getLastVelocity() {
-        return lastVelocity;
+        return lastVelocity.toVector2();
+    }
+
+    /**
+     * @return the x-component of {@link #getLastVelocity()}, without allocating a vector
+     */
+    public double getLastVelocityX() {
+        return lastVelocity.x;
+    }
+
+    /**
+     * @return the y-component of {@link #getLastVelocity()}, without allocating a vector
+     */
+    public double getLastVelocityY() {
+        return lastVelocity.y;
     }
 
     /**
-     * @return the current velocity of this entity; could have been modified in the current update step (to get the real value use {@link #getLastVelocity()})
+     * @return the current velocity of this entity as a new vector; could have been modified in the current update step (to get the real value use {@link #getLastVelocity()})
      */
     public Vector2 getVelocity() {
-        return velocity;
+        return velocity.toVector2();
     }
 
     /**
@@ -136,6 +178,6 @@ public abstract class MovingEntity extends Entity {
      */
     public void setMaxVelocity(double maxVelocity) {
         this.maxVelocity = maxVelocity;
-        setVelocity(velocity);
+        clampVelocity();
     }
 }
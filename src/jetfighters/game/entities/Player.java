@@ -1,7 +1,8 @@
 package jetfighters.game.entities;
 
-import jetfighters.game.Game;
+import jetfighters.game.GameWorld;
 import jetfighters.game.handlers.CollisionHandler;
+import jetfighters.game.math.MutableVector2;
 import jetfighters.game.math.Vector2;
 
 import java.awt.geom.Ellipse2D;
@@ -20,6 +21,7 @@ public class Player extends JetEntity {
     private boolean moveBackwards;
 
     private final int playerID;
+    private final MutableVector2 moveDirection = new MutableVector2();
 
     private Player opponent;
 
@@ -31,7 +33,7 @@ public class Player extends JetEntity {
      * @param position the initial position of this player
      * @param game     the game the player should exist in
      */
-    public Player(int playerID, Vector2 position, Game game) {
+    public Player(int playerID, Vector2 position, GameWorld game) {
         super(game, position, new Ellipse2D.Double(0, 0, 32, 30),   //TODO: 30 statt 32 bei height?
                 CollisionHandler.PLAYER_LAYER, CollisionHandler.PLAYER_LAYER | CollisionHandler.ENEMY_LAYER,
                 300, "jet/jet" + playerID + "/Jet_" + playerID + "_1" + ".png");
@@ -47,16 +49,18 @@ public class Player extends JetEntity {
             moveDir = (moveBackwards ? -1 : 0) + (moveForward ? 1 : 0);
             turnDir = (turnLeft ? -1 : 0) + (turnRight ? 1 : 0);
             angularVelocity = turnDir * rotationSpeed.getValue();
-            acceleration = getDirection().mult(speed.getValue()).mult(moveDir); // Brauch kein delta, da gesetzt wird, nicht addiert.
+            getDirection(acceleration).mult(speed.getValue() * moveDir); // Brauch kein delta, da gesetzt wird, nicht addiert.
         }
         if (shouldSlowDown()) {
             // Slowly stop the plane when no input is given
             if (moveDir == 0) {
-                velocity = velocity.lerp(Vector2.ZERO, delta);
+                velocity.lerp(0, 0, delta);
             } else {
-                boolean fastVel = Math.abs(getDirection().mult(moveDir).angleTo(velocity)) > Math.PI / 4.0;
-                // Make the plane have sharper turns when turning quickly.
-                velocity = velocity.lerp(velocity.rotatedTo(getDirection().mult(moveDir).angle()), fastVel ? .05 : .01);
+                double moveAngle = getDirection(moveDirection).mult(moveDir).angle();
+                boolean fastVel = Math.abs(velocity.angle() - moveAngle) > Math.PI / 4.0;
+                // Make the plane have sharper turns when turning quickly (towards the velocity rotated to the move direction).
+                double velocityLength = velocity.length();
+                velocity.lerp(velocityLength * Math.cos(moveAngle), velocityLength * Math.sin(moveAngle), fastVel ? .05 : .01);
             }
         }
 
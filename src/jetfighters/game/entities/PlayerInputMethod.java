@@ -1,14 +0,0 @@
-package jetfighters.game.entities;
-
-/**
- * <h3>PTP 2022 - Projekt "JetFighters"</h3>
- *
- * @author do04 - Daniel Flat, Moritz Junge
- * @version 13.07.22
- */
-@FunctionalInterface
-public interface PlayerInputMethod {
-
-    void set(boolean state);
-
-}
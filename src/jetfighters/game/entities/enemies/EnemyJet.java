@@ -1,6 +1,6 @@
 package jetfighters.game.entities.enemies;
 
-import jetfighters.game.Game;
+import jetfighters.game.GameWorld;
 import jetfighters.game.entities.JetEntity;
 import jetfighters.game.handlers.CollisionHandler;
 import jetfighters.game.math.Vector2;
@@ -19,14 +19,14 @@ public abstract class EnemyJet extends JetEntity {
 
 
     /**
-     * Initializes this EnemyJet using {@link JetEntity#JetEntity(Game, Vector2, Shape, int, int, double, String)}
+     * Initializes this EnemyJet using {@link JetEntity#JetEntity(GameWorld, Vector2, Shape, int, int, double, String)}
      *
      * @param game         the game object this exists in
      * @param position     the initial position of this jet
      * @param maxVelocity  the maximum velocity this jet should be able to reach
      * @param jetImagePath relative path to an image to use for this jet (relative to "sprites/")
      */
-    public EnemyJet(Game game, Vector2 position, double maxVelocity, String jetImagePath) {
+    public EnemyJet(GameWorld game, Vector2 position, double maxVelocity, String jetImagePath) {
         super(game, position, new Ellipse2D.Double(0, 0, 32, 30), CollisionHandler.ENEMY_LAYER, CollisionHandler.PLAYER_LAYER, maxVelocity, jetImagePath);  //TODO: 30 anstatt 32
         shape = getOutline();
     }
@@ -1,6 +1,6 @@
 package jetfighters.game.entities.enemies;
 
-import jetfighters.game.Game;
+import jetfighters.game.GameWorld;
 import jetfighters.game.math.Vector2;
 import jetfighters.game.tween.Tween;
 import jetfighters.game.tween.TweenMode;
@@ -26,11 +26,11 @@ public class StrafingEnemyJet extends EnemyJet {
      * @param to           the position this jet ends at
      * @param movementMode the type of movement this jet will use (see {@link TweenMode})
      */
-    public StrafingEnemyJet(Game game, Vector2 from, Vector2 to, TweenMode movementMode) {
+    public StrafingEnemyJet(GameWorld game, Vector2 from, Vector2 to, TweenMode movementMode) {
         super(game, from, 0, "jet/jet2/Jet_2_1.png");
         rotation = Vector2.UP.angleTo(to.sub(from));
         tween = new Tween.Vector(4, from, to, movementMode, this::setPosition, this::destroy);
-        velocity = Vector2.ZERO;
+        velocity.setZero();
         shooting = true;
     }
 
@@ -6,7 +6,9 @@ import jetfighters.game.entities.Player;
 import jetfighters.game.handlers.CollisionHandler;
 import jetfighters.game.math.Vector2;
 import jetfighters.game.powerupseffects.PowerUpEffect;
+import jetfighters.game.rendering.RenderQueue;
 import jetfighters.game.sprites.AnimatedSprite;
+import jetfighters.game.sprites.Sprite;
 
 import java.awt.*;
 
@@ -40,6 +42,19 @@ public class PowerUpEntity extends MovingEntity {
         this.sprite = sprite;
     }
 
+    /**
+     * Reinitialises this PowerUp (obtained from an {@link jetfighters.game.entities.EntityPool}) to fall again.
+     * The effect and sprite stay the same.
+     *
+     * @param position        the initial position of this PowerUp
+     * @param initialVelocity the initial velocity of this PowerUp
+     */
+    public void reset(Vector2 position, Vector2 initialVelocity) {
+        super.reset(position, CollisionHandler.POWERUP_LAYER, CollisionHandler.PLAYER_LAYER,
+                initialVelocity.length(), initialVelocity);
+        sprite.reset();
+    }
+
     @Override
     public void handleCollision(Entity otherEntity) {
         if (otherEntity instanceof Player player) {
@@ -62,6 +77,16 @@ public class PowerUpEntity extends MovingEntity {
         sprite.draw(g2d);
     }
 
+    @Override
+    public Sprite getSprite() {
+        return sprite;
+    }
+
+    @Override
+    public int getRenderLayer() {
+        return RenderQueue.LAYER_PICKUPS;
+    }
+
     /**
      * @return this PowerUps effect
      */
@@ -0,0 +1,394 @@
+package jetfighters.game.entities.projectiles;
+
+import jetfighters.game.entities.Entity;
+import jetfighters.game.entities.JetEntity;
+import jetfighters.game.entities.Player;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Simulates all bullets fired by jets in one place. Instead of a {@link Projectile} entity per bullet, every bullet is a
+ * row in a set of primitive arrays (position, velocity, start position, owner, layer and mask), so thousands of bullets
+ * can be moved in one tight loop without allocating anything. <br>
+ * Bullets follow the same rules as {@link Projectile}s: they damage any {@link Player} on their mask except their owner
+ * and destroy each other if their masks and layers match and they have different owners.
+ * They are destroyed after travelling {@link #MAX_DISTANCE}.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class BulletSystem {
+
+    public static final double MAX_DISTANCE = 1200;
+    public static final double BULLET_WIDTH = 4;
+    public static final double BULLET_LENGTH = 10;
+    public static final int ROTATION_STEPS = 64; // Amount of pre-rendered bullet rotations
+
+    private static final double BULLET_RADIUS = BULLET_LENGTH / 2; // Used for bullet vs bullet tests
+    private static final int GRID_CELL_SIZE = 32; // Smallest cell size of the grid used for bullet vs bullet tests
+    private static BufferedImage[] bulletImages;
+
+    private int size;
+    private double[] x, y;
+    private double[] previousX, previousY;
+    private double[] velocityX, velocityY;
+    private double[] startX, startY;
+    private int[] owner; // Index into owners
+    private int[] layer, mask;
+    private int[] rotationIndex;
+    private boolean[] dead;
+
+    private ProjectileOwner[] owners;
+    private int ownerCount;
+
+    // Reused buffers of the bullet vs bullet grid (counting sort of the bullets into cells)
+    private int[] cellOf;
+    private int[] cellStart;
+    private int[] sortedBullets;
+
+    /**
+     * Creates a new, empty BulletSystem.
+     */
+    public BulletSystem() {
+        this(256);
+    }
+
+    /**
+     * Creates a new, empty BulletSystem with space for {@code initialCapacity} bullets before it has to grow.
+     *
+     * @param initialCapacity the initial capacity
+     */
+    public BulletSystem(int initialCapacity) {
+        resize(Math.max(initialCapacity, 1));
+        owners = new ProjectileOwner[4];
+        cellStart = new int[0];
+    }
+
+    private void resize(int capacity) {
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        previousX = grow(previousX, capacity);
+        previousY = grow(previousY, capacity);
+        velocityX = grow(velocityX, capacity);
+        velocityY = grow(velocityY, capacity);
+        startX = grow(startX, capacity);
+        startY = grow(startY, capacity);
+        owner = grow(owner, capacity);
+        layer = grow(layer, capacity);
+        mask = grow(mask, capacity);
+        rotationIndex = grow(rotationIndex, capacity);
+        cellOf = grow(cellOf, capacity);
+        sortedBullets = grow(sortedBullets, capacity);
+        dead = dead == null ? new boolean[capacity] : Arrays.copyOf(dead, capacity);
+    }
+
+    private static double[] grow(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static int[] grow(int[] array, int capacity) {
+        return array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /**
+     * Fires a new bullet from ({@code posX}, {@code posY}) with the velocity ({@code velX}, {@code velY}).
+     * It uses the projectile layer and mask of its owner.
+     *
+     * @param owner the owner of this bullet (should mostly be the entity that fired it)
+     * @param posX  the x-position of the center of the bullet
+     * @param posY  the y-position of the center of the bullet
+     * @param velX  the horizontal velocity of the bullet
+     * @param velY  the vertical velocity of the bullet
+     */
+    public void spawn(ProjectileOwner owner, double posX, double posY, double velX, double velY) {
+        if (size == x.length)
+            resize(size * 2);
+        int i = size++;
+        x[i] = previousX[i] = startX[i] = posX;
+        y[i] = previousY[i] = startY[i] = posY;
+        velocityX[i] = velX;
+        velocityY[i] = velY;
+        this.owner[i] = ownerIndex(owner);
+        layer[i] = owner.getProjectileLayer();
+        mask[i] = owner.getProjectileMask();
+        // Same rotation as Projectile: Vector2.UP.angleTo(velocity)
+        double rotation = Math.atan2(velY, velX) + Math.PI / 2;
+        rotationIndex[i] = Math.floorMod((int) Math.round(rotation / (2 * Math.PI) * ROTATION_STEPS), ROTATION_STEPS);
+        dead[i] = false;
+    }
+
+    private int ownerIndex(ProjectileOwner projectileOwner) {
+        for (int i = 0; i < ownerCount; i++) {
+            if (owners[i] == projectileOwner)
+                return i;
+        }
+        if (ownerCount == owners.length)
+            owners = Arrays.copyOf(owners, ownerCount * 2);
+        owners[ownerCount] = projectileOwner;
+        return ownerCount++;
+    }
+
+    /**
+     * Moves all bullets and removes the ones that travelled further than {@link #MAX_DISTANCE}.
+     *
+     * @param delta the time that has passed since the last update
+     */
+    public void update(double delta) {
+        double maxDistanceSquared = MAX_DISTANCE * MAX_DISTANCE;
+        for (int i = 0; i < size; i++) {
+            previousX[i] = x[i];
+            previousY[i] = y[i];
+            x[i] += velocityX[i] * delta;
+            y[i] += velocityY[i] * delta;
+            double dx = x[i] - startX[i];
+            double dy = y[i] - startY[i];
+            if (dx * dx + dy * dy > maxDistanceSquared)
+                dead[i] = true;
+        }
+        removeDead();
+    }
+
+    /**
+     * Tests all bullets against each other and against every {@link Player} in {@code entities}. <br>
+     * Jets are approximated by a circle with {@link JetEntity#getCollisionRadius()} and bullets by the capsule they swept
+     * along in the last update, so fast bullets can't pass through a jet between two updates.
+     *
+     * @param entities the entities to test the bullets against (everything that is not a player is ignored)
+     */
+    public void collide(List<? extends Entity> entities) {
+        collideBullets();
+        for (Entity entity : entities) {
+            if (entity instanceof Player player && !player.shouldDestroy())
+                collideWithJet(player);
+        }
+        removeDead();
+    }
+
+    private void collideWithJet(JetEntity jet) {
+        int jetLayer = jet.getCollisionLayer();
+        double centerX = jet.getPosition().x + jet.getWidth() / 2.0;
+        double centerY = jet.getPosition().y + jet.getHeight() / 2.0;
+        double radius = jet.getCollisionRadius() + BULLET_WIDTH / 2;
+        double radiusSquared = radius * radius;
+        for (int i = 0; i < size; i++) {
+            if (dead[i] || (mask[i] & jetLayer) == 0 || owners[owner[i]] == jet)
+                continue;
+            if (segmentDistanceSquared(centerX, centerY, previousX[i], previousY[i], x[i], y[i]) <= radiusSquared) {
+                jet.damage(owners[owner[i]].getProjectileBaseDamage());
+                dead[i] = true;
+            }
+        }
+    }
+
+    /**
+     * @return the squared distance of the point (px, py) to the segment from (ax, ay) to (bx, by)
+     */
+    private static double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double abX = bx - ax;
+        double abY = by - ay;
+        double lengthSquared = abX * abX + abY * abY;
+        double t = lengthSquared == 0 ? 0 : ((px - ax) * abX + (py - ay) * abY) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double dx = ax + abX * t - px;
+        double dy = ay + abY * t - py;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Sorts all bullets into a uniform grid and only tests bullets in the same or neighbouring cells against each other.
+     */
+    private void collideBullets() {
+        if (size < 2)
+            return;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        // Bullets spread far apart don't need a fine grid, so the cells grow until there are at most 4 per bullet
+        double cellSize = GRID_CELL_SIZE;
+        int maxCells = Math.max(size * 4, 64);
+        int columns, rows;
+        while (true) {
+            columns = (int) ((maxX - minX) / cellSize) + 1;
+            rows = (int) ((maxY - minY) / cellSize) + 1;
+            if ((long) columns * rows <= maxCells)
+                break;
+            cellSize *= 2;
+        }
+        int cellCount = columns * rows;
+        if (cellStart.length < cellCount + 1)
+            cellStart = new int[Math.max(cellCount + 1, cellStart.length * 2)];
+        Arrays.fill(cellStart, 0, cellCount + 1, 0);
+        for (int i = 0; i < size; i++) {
+            int cell = (int) ((y[i] - minY) / cellSize) * columns + (int) ((x[i] - minX) / cellSize);
+            cellOf[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        for (int i = 0; i < size; i++) {
+            sortedBullets[cellStart[cellOf[i]]++] = i;
+        }
+        for (int cell = cellCount; cell > 0; cell--) { // Undo the shift caused by filling the cells
+            cellStart[cell] = cellStart[cell - 1];
+        }
+        cellStart[0] = 0;
+
+        double diameterSquared = 4 * BULLET_RADIUS * BULLET_RADIUS;
+        for (int i = 0; i < size; i++) {
+            int column = cellOf[i] % columns;
+            int row = cellOf[i] / columns;
+            for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+                for (int c = Math.max(column - 1, 0); c <= Math.min(column + 1, columns - 1); c++) {
+                    int cell = r * columns + c;
+                    for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                        int j = sortedBullets[k];
+                        if (j <= i || owner[i] == owner[j])
+                            continue; // Every pair only once, bullets of the same owner never collide
+                        boolean hitsJ = (mask[i] & layer[j]) != 0;
+                        boolean hitsI = (mask[j] & layer[i]) != 0;
+                        if (!hitsJ && !hitsI)
+                            continue;
+                        double dx = x[i] - x[j];
+                        double dy = y[i] - y[j];
+                        if (dx * dx + dy * dy <= diameterSquared) {
+                            if (hitsJ)
+                                dead[i] = true;
+                            if (hitsI)
+                                dead[j] = true;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void removeDead() {
+        for (int i = 0; i < size; ) {
+            if (dead[i])
+                moveLast(i);
+            else
+                i++;
+        }
+        if (size == 0)
+            clearOwners(); // No bullet refers to an owner anymore, so dead jets don't pile up during long matches
+    }
+
+    private void clearOwners() {
+        Arrays.fill(owners, 0, ownerCount, null);
+        ownerCount = 0;
+    }
+
+    private void moveLast(int to) {
+        int from = --size;
+        x[to] = x[from];
+        y[to] = y[from];
+        previousX[to] = previousX[from];
+        previousY[to] = previousY[from];
+        velocityX[to] = velocityX[from];
+        velocityY[to] = velocityY[from];
+        startX[to] = startX[from];
+        startY[to] = startY[from];
+        owner[to] = owner[from];
+        layer[to] = layer[from];
+        mask[to] = mask[from];
+        rotationIndex[to] = rotationIndex[from];
+        dead[to] = dead[from];
+    }
+
+    /**
+     * Removes all bullets and forgets their owners.
+     */
+    public void clear() {
+        size = 0;
+        clearOwners();
+    }
+
+    /**
+     * Copies the positions and rotations of all bullets into the given arrays (which need to have space for at least {@link #size()} bullets).
+     *
+     * @param previousXs     receives the x-positions before the last update
+     * @param previousYs     receives the y-positions before the last update
+     * @param xs             receives the current x-positions
+     * @param ys             receives the current y-positions
+     * @param rotationIndexs receives the rotation indices (see {@link #getBulletImage(int)})
+     */
+    public void copyTo(double[] previousXs, double[] previousYs, double[] xs, double[] ys, int[] rotationIndexs) {
+        System.arraycopy(previousX, 0, previousXs, 0, size);
+        System.arraycopy(previousY, 0, previousYs, 0, size);
+        System.arraycopy(x, 0, xs, 0, size);
+        System.arraycopy(y, 0, ys, 0, size);
+        System.arraycopy(rotationIndex, 0, rotationIndexs, 0, size);
+    }
+
+    /**
+     * @return the amount of bullets that are currently flying
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the amount of distinct owners of the flying bullets (owners are only forgotten once no bullet is left)
+     */
+    public int getOwnerCount() {
+        return ownerCount;
+    }
+
+    /**
+     * @param index the index of the bullet ({@code 0 <= index < size()})
+     * @return the current x-position of the center of the bullet
+     */
+    public double getX(int index) {
+        return x[index];
+    }
+
+    /**
+     * @param index the index of the bullet ({@code 0 <= index < size()})
+     * @return the current y-position of the center of the bullet
+     */
+    public double getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * Returns the pre-rendered image of a bullet at one of {@link #ROTATION_STEPS} rotations.
+     * The bullet is centered in the image.
+     *
+     * @param rotationIndex the rotation (0 = pointing up, {@code ROTATION_STEPS / 4} = pointing right)
+     * @return the image of the bullet
+     */
+    public static BufferedImage getBulletImage(int rotationIndex) {
+        if (bulletImages == null)
+            bulletImages = createBulletImages();
+        return bulletImages[rotationIndex];
+    }
+
+    private static BufferedImage[] createBulletImages() {
+        BufferedImage[] images = new BufferedImage[ROTATION_STEPS];
+        int imageSize = (int) Math.ceil(Math.hypot(BULLET_WIDTH, BULLET_LENGTH)) + 2;
+        Shape bullet = new RoundRectangle2D.Double(-BULLET_WIDTH / 2, -BULLET_LENGTH / 2, BULLET_WIDTH, BULLET_LENGTH, 3, 3);
+        for (int i = 0; i < ROTATION_STEPS; i++) {
+            BufferedImage image = new BufferedImage(imageSize, imageSize, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g2d = image.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.translate(imageSize / 2.0, imageSize / 2.0);
+            g2d.transform(AffineTransform.getRotateInstance(2 * Math.PI * i / ROTATION_STEPS));
+            g2d.setColor(Color.black);
+            g2d.fill(bullet);
+            g2d.dispose();
+            images[i] = image;
+        }
+        return images;
+    }
+}
@@ -10,7 +10,8 @@ import java.awt.geom.RoundRectangle2D;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
- * A Projectile that can be fired from a position with a velocity by a specific {@link ProjectileOwner}
+ * A Projectile that can be fired from a position with a velocity by a specific {@link ProjectileOwner}. <br>
+ * Bullets of jets are not Projectiles, they are simulated in bulk by the {@link BulletSystem}.
  *
  * @author do04 - Daniel Flat, Moritz Junge
  * @version 21.07.22
@@ -18,8 +19,18 @@ import java.awt.geom.RoundRectangle2D;
 public class Projectile extends MovingEntity {
 
     private final double maxDistance;
-    private final Vector2 startPosition;
-    private final ProjectileOwner owner;
+    private Vector2 startPosition;
+    private ProjectileOwner owner;
+
+    /**
+     * Creates a new Projectile that is not fired yet, it has to be {@link #reset} before it is added to the game.
+     * Used to fill {@link jetfighters.game.entities.EntityPool}s.
+     */
+    public Projectile() {
+        super(Vector2.ZERO, createShape(), 0, 0, 0);
+        maxDistance = 1200;
+        startPosition = Vector2.ZERO;
+    }
 
     /**
      * Creates a new Projectile from an initial position, a direction to fire in and the speed to fire at.
@@ -41,9 +52,7 @@ public class Projectile extends MovingEntity {
      * @param initialVelocity the initial velocity
      */
     public Projectile(ProjectileOwner owner, Vector2 position, Vector2 initialVelocity) {
-        super(position, new RoundRectangle2D.Double(
-                        -2, -5,
-                        4, 10, 3, 3),
+        super(position, createShape(),
                 owner.getProjectileLayer(),
                 owner.getProjectileMask(),
                 initialVelocity.length(), initialVelocity);
@@ -53,20 +62,45 @@ public class Projectile extends MovingEntity {
         rotation = Vector2.UP.angleTo(initialVelocity);
     }
 
+    private static Shape createShape() {
+        return new RoundRectangle2D.Double(
+                -2, -5,
+                4, 10, 3, 3);
+    }
+
+    /**
+     * Reinitialises this projectile (obtained from an {@link jetfighters.game.entities.EntityPool}) to be fired again.
+     *
+     * @param owner           the owner this projectile (should mostly be the entity that fired this projectile)
+     * @param position        the initial position
+     * @param initialVelocity the initial velocity
+     */
+    public void reset(ProjectileOwner owner, Vector2 position, Vector2 initialVelocity) {
+        super.reset(position, owner.getProjectileLayer(), owner.getProjectileMask(), initialVelocity.length(), initialVelocity);
+        this.owner = owner;
+        startPosition = position;
+        rotation = Vector2.UP.angleTo(initialVelocity);
+    }
+
     @Override
     public void update(double delta) {
         super.update(delta);
 
-        if (startPosition.distanceTo(position) > maxDistance)
+        if (startPosition.distanceSquaredTo(position) > maxDistance * maxDistance)
             destroy();
     }
 
     @Override
     public void draw(Graphics2D g2d) {
-        g2d.setColor(Color.black);
+        g2d.setColor(getFillColor());
         g2d.fill(getShape());
     }
 
+    @Override
+    public Color getFillColor() {
+        return Color.black;
+    }
+
     @Override
     public void handleCollision(Entity otherEntity) {
         if (otherEntity instanceof Player otherPlayer) {
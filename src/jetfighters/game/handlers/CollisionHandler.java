@@ -1,11 +1,10 @@
 package jetfighters.game.handlers;
 
+import jetfighters.game.collision.Broadphase;
+import jetfighters.game.collision.ContactManager;
+import jetfighters.game.collision.SpatialHashGrid;
 import jetfighters.game.entities.Entity;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
  * Uses an layer-system to calculate all collisions for entities registered in an EntityHandler.
@@ -23,46 +22,74 @@ public class CollisionHandler {
     public static final int POWERUP_LAYER = 32;
 
     private final EntityHandler entityHandler;
+    private final Broadphase broadphase;
+    private final Broadphase.PairCallback pairCallback;
+    private final ContactManager contactManager;
 
-    private final HashMap<Entity, Set<Entity>> currentCollisions;
+    /**
+     * Creates a new CollisionHandler that will detect all collisions for the supplied {@code entityHandler}
+     * with a {@link SpatialHashGrid} of the default world size.
+     *
+     * @param entityHandler the EntityHandler to detect collisions for
+     */
+    public CollisionHandler(EntityHandler entityHandler) {
+        this(entityHandler, new SpatialHashGrid());
+    }
 
     /**
      * Creates a new CollisionHandler that will detect all collisions for the supplied {@code entityHandler}.
      *
      * @param entityHandler the EntityHandler to detect collisions for
+     * @param broadphase    finds the pairs of entities that are close enough to be tested exactly
      */
-    public CollisionHandler(EntityHandler entityHandler) {
+    public CollisionHandler(EntityHandler entityHandler, Broadphase broadphase) {
         this.entityHandler = entityHandler;
-        currentCollisions = new HashMap<>();
+        this.broadphase = broadphase;
+        pairCallback = this::handlePair;
+        contactManager = new ContactManager();
+        entityHandler.addRemovalListener(this::forget);
+    }
+
+    /**
+     * Forgets all collisions of a removed entity, so it starts without any collisions if it is reused by a pool.
+     *
+     * @param entity the entity that was removed
+     */
+    private void forget(Entity entity) {
+        broadphase.remove(entity);
+        contactManager.remove(entity);
     }
 
     /**
      * Calculates all collisions happening between the entities of the corresponding {@link EntityHandler}. <br>
-     * Automatically calls the {@link Entity#handleCollision(Entity)} methods of the colliding entities according
-     * to their {@code collisionLayer} and {@code collisionMask}.
+     * Automatically calls the {@link Entity#handleCollision(Entity)}, {@link Entity#handleCollisionStay(Entity)} and
+     * {@link Entity#handleCollisionExit(Entity)} methods of the colliding entities according to their
+     * {@code collisionLayer} and {@code collisionMask}. <br>
+     * Only the pairs found by the {@link Broadphase} are tested exactly, each of them once.
      */
     public void update() {
-        for (Entity entity : entityHandler.getEntities()) {
-            int entityMask = entity.getCollisionMask();
-            if (!currentCollisions.containsKey(entity)) {
-                currentCollisions.put(entity, new HashSet<>());
-            }
-            for (Entity other : entityHandler.getEntities()) {
-                if (entity == other)
-                    continue;
-                int otherLayer = other.getCollisionLayer();
-                if ((entityMask & otherLayer) == 0)
-                    continue;
-                Set<Entity> collidingWith = currentCollisions.get(entity);
-                if (entity.isCollidingWith(other)) {
-                    if (!collidingWith.contains(other)) {
-                        entity.handleCollision(other);
-                        collidingWith.add(other);
-                    }
-                } else {
-                    collidingWith.remove(other);
-                }
-            }
-        }
+        contactManager.beginUpdate();
+        broadphase.update(entityHandler.getEntities());
+        broadphase.findPairs(pairCallback);
+        // Collisions that were not detected in this update ended (also the ones the broadphase didn't report anymore)
+        contactManager.endUpdate();
+    }
+
+    /**
+     * @return the contacts between the entities that are currently colliding
+     */
+    public ContactManager getContactManager() {
+        return contactManager;
+    }
+
+    private void handlePair(Entity entity, Entity other) {
+        // Both directions are decided before any entity handles the collision, so the result doesn't depend on the order
+        int directions = 0;
+        if ((entity.getCollisionMask() & other.getCollisionLayer()) != 0)
+            directions |= ContactManager.FIRST_DETECTS_SECOND;
+        if ((other.getCollisionMask() & entity.getCollisionLayer()) != 0)
+            directions |= ContactManager.SECOND_DETECTS_FIRST;
+        if (directions != 0 && entity.isCollidingWith(other))
+            contactManager.reportContact(entity, other, directions);
     }
 }
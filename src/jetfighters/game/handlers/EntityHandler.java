@@ -1,56 +1,71 @@
 package jetfighters.game.handlers;
 
 import jetfighters.game.entities.Entity;
+import jetfighters.game.entities.EntityRegistry;
 
 import java.awt.*;
-import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.AffineTransform;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
  * Handles updating and drawing entities. <br>
- * Entities can be added, removed and the list of all registered entities can be retrieved.
+ * Entities can be added, removed and the list of all registered entities can be retrieved. <br>
+ * The entities are stored in an {@link EntityRegistry}, so they can also be retrieved by collision layer or type
+ * without copying or filtering all entities. <br>
+ * Destroyed entities that were obtained from an {@link jetfighters.game.entities.EntityPool} are returned to it when they are removed.
  *
  * @author do04 - Daniel Flat, Moritz Junge
  * @version 13.07.22
  */
 public class EntityHandler {
 
-    private final List<Entity> entities;
+    private final EntityRegistry entities;
     private final List<Entity> entitiesToAdd;
     private final List<Entity> entitiesToRemove;
+    private final List<Consumer<Entity>> removalListeners;
 
     public EntityHandler() {
-        entities = new ArrayList<>();
+        entities = new EntityRegistry();
         entitiesToAdd = new ArrayList<>();
         entitiesToRemove = new ArrayList<>();
+        removalListeners = new ArrayList<>();
     }
 
     public void updateEntities(double delta) {
-        entities.removeAll(entitiesToRemove);
+        for (Entity entity : entitiesToRemove) {
+            if (!entities.remove(entity))
+                continue; // Removed twice or never added
+            for (Consumer<Entity> removalListener : removalListeners) {
+                removalListener.accept(entity);
+            }
+            entity.release(); // Returns pooled entities that were destroyed to their pool
+        }
         entitiesToRemove.clear();
-        entities.addAll(entitiesToAdd);
+        for (Entity entity : entitiesToAdd) {
+            entities.add(entity);
+        }
         entitiesToAdd.clear();
-        for (Entity entity : entities) {
+        List<Entity> allEntities = entities.getAll();
+        for (int i = 0; i < allEntities.size(); i++) {
+            Entity entity = allEntities.get(i);
             if (entity.shouldDestroy()) {
                 removeEntity(entity);
                 continue;
             }
+            entity.storePreviousState();
             entity.update(delta);
         }
     }
 
     public void drawEntities(Graphics2D g2d) {
-        for (Entity entity : entities) {
+        AffineTransform baseTransform = g2d.getTransform();
+        for (Entity entity : entities.getAll()) {
             g2d.transform(entity.getTransform());
             entity.draw(g2d);
-            try {
-                g2d.transform(entity.getTransform().createInverse());
-            } catch (NoninvertibleTransformException e) {
-                System.err.println("Couldn't inverse the transform of " + entity.getClass().getName());
-                e.printStackTrace();
-            }
+            g2d.setTransform(baseTransform);
         }
     }
 
@@ -62,7 +77,59 @@ public class EntityHandler {
         entitiesToRemove.add(entity);
     }
 
+    /**
+     * Removes all entities immediately, including the ones that are waiting to be added, without calling the removal
+     * listeners. The entities are unregistered, so they can be added to another handler afterwards.
+     */
+    public void clear() {
+        List<Entity> allEntities = entities.getAll();
+        while (!allEntities.isEmpty()) {
+            entities.remove(allEntities.get(allEntities.size() - 1));
+        }
+        entitiesToAdd.clear();
+        entitiesToRemove.clear();
+    }
+
+    /**
+     * Adds a listener that is called for every entity right after it was removed (before it is returned to its pool).
+     *
+     * @param removalListener the listener to be added
+     */
+    public void addRemovalListener(Consumer<Entity> removalListener) {
+        removalListeners.add(removalListener);
+    }
+
+    /**
+     * @return a read-only view of all entities (changes when entities are added or removed in {@link #updateEntities(double)})
+     */
     public List<Entity> getEntities() {
-        return new ArrayList<>(entities);
+        return entities.getAll();
+    }
+
+    /**
+     * @param layer a single collision layer (see {@link CollisionHandler})
+     * @return a read-only view of all entities that were on {@code layer} when they were added
+     * @see EntityRegistry#getByLayer(int)
+     */
+    public List<Entity> getEntitiesOnLayer(int layer) {
+        return entities.getByLayer(layer);
+    }
+
+    /**
+     * @param type the type of entities to return (including subclasses)
+     * @param <T>  the type of entities to return
+     * @return a read-only view of all entities of {@code type}
+     * @see EntityRegistry#getByType(Class)
+     */
+    public <T extends Entity> List<T> getEntitiesOfType(Class<T> type) {
+        return entities.getByType(type);
+    }
+
+    /**
+     * @param handle the handle of an entity (see {@link Entity#getHandle()})
+     * @return the entity with this handle or null if it was removed
+     */
+    public Entity getEntity(long handle) {
+        return entities.get(handle);
     }
 }
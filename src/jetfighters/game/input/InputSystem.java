@@ -0,0 +1,155 @@
+package jetfighters.game.input;
+
+import jetfighters.game.CommandQueue;
+import jetfighters.game.entities.Player;
+
+import java.util.function.IntFunction;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Hands the key events of the players from the EDT to the game thread and measures how long it takes until they are
+ * on the screen. <br>
+ * Every event is stamped with {@link System#nanoTime()} when it is submitted and queued until the game thread
+ * applies all waiting events at the start of its next tick ({@link #apply}), so a tick always sees one consistent
+ * input. An event that changes the state of an input is remembered with the tick it was applied in. When the render
+ * thread presents a frame of that tick or a later one ({@link #framePresented}), the time from the key event to the
+ * presentation is recorded in the {@link #getLatencyHistogram() latency histogram}.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class InputSystem {
+
+    public static final int EVENT_CAPACITY = 256;
+    public static final int MAX_PLAYERS = 2;
+
+    private static final int PENDING_CAPACITY = 256; // A power of two
+
+    private record InputEvent(int playerID, PlayerInput input, boolean pressed, long timestamp) {
+    }
+
+    private final CommandQueue<InputEvent> events; // From the EDT to the game thread
+    private final boolean[][] pressed; // The applied state of every input, only used by the game thread
+
+    // The applied events that weren't presented yet, a ring from the game thread to the render thread
+    private final long[] pendingTimestamps;
+    private final long[] pendingTicks;
+    private volatile long pendingWrite;
+    private volatile long pendingRead;
+    private volatile int untrackedCount;
+
+    private final LatencyHistogram latencyHistogram;
+
+    public InputSystem() {
+        events = new CommandQueue<>(EVENT_CAPACITY);
+        pressed = new boolean[MAX_PLAYERS][PlayerInput.values().length];
+        pendingTimestamps = new long[PENDING_CAPACITY];
+        pendingTicks = new long[PENDING_CAPACITY];
+        latencyHistogram = new LatencyHistogram();
+    }
+
+    /**
+     * Queues a key event, stamped with the current time. Can be called by any thread (usually the EDT).
+     *
+     * @param playerID the id of the player (1 or 2)
+     * @param input    the input of the key
+     * @param pressed  true if the key was pressed, false if it was released
+     * @return false if too many events are waiting and the event was dropped
+     */
+    public boolean submit(int playerID, PlayerInput input, boolean pressed) {
+        return submit(playerID, input, pressed, System.nanoTime());
+    }
+
+    /**
+     * Queues a key event. Can be called by any thread.
+     *
+     * @param playerID  the id of the player (1 or 2)
+     * @param input     the input of the key
+     * @param pressed   true if the key was pressed, false if it was released
+     * @param timestamp the time of the event (see {@link System#nanoTime()})
+     * @return false if too many events are waiting and the event was dropped
+     */
+    public boolean submit(int playerID, PlayerInput input, boolean pressed, long timestamp) {
+        if (playerID < 1 || playerID > MAX_PLAYERS)
+            throw new IllegalArgumentException("There is no player " + playerID);
+        return events.offer(new InputEvent(playerID, input, pressed, timestamp));
+    }
+
+    /**
+     * Applies all waiting events to the players. Must only be called by the game thread, at the start of a tick.
+     *
+     * @param tick    the number of the tick, which has to increase with every tick
+     * @param players returns the player with the given id or null, if there is no such player (e.g. in single mode)
+     * @return the amount of applied events
+     */
+    public int apply(long tick, IntFunction<Player> players) {
+        return events.drain((event) -> {
+            Player player = players.apply(event.playerID());
+            if (player == null)
+                return;
+            event.input().apply(player, event.pressed());
+            boolean[] state = pressed[event.playerID() - 1];
+            if (state[event.input().ordinal()] != event.pressed()) { // Repeated presses of a held key change nothing
+                state[event.input().ordinal()] = event.pressed();
+                track(tick, event.timestamp());
+            }
+        });
+    }
+
+    private void track(long tick, long timestamp) {
+        long write = pendingWrite;
+        if (write - pendingRead == PENDING_CAPACITY) {
+            untrackedCount++; // Nothing is presented (e.g. the window is minimized), the latency can't be measured
+            return;
+        }
+        int index = (int) (write & (PENDING_CAPACITY - 1));
+        pendingTimestamps[index] = timestamp;
+        pendingTicks[index] = tick;
+        pendingWrite = write + 1; // Publishes the event to the render thread
+    }
+
+    /**
+     * Records the latency of all events that are visible for the first time, because a frame of their tick (or a
+     * later tick) was presented. Must only be called by the render thread, right after the frame was shown.
+     *
+     * @param tick        the tick of the presented frame
+     * @param presentTime the time the frame was presented (see {@link System#nanoTime()})
+     * @return the amount of events that were presented
+     */
+    public int framePresented(long tick, long presentTime) {
+        long read = pendingRead;
+        long write = pendingWrite;
+        int count = 0;
+        while (read < write) {
+            int index = (int) (read & (PENDING_CAPACITY - 1));
+            if (pendingTicks[index] > tick)
+                break;
+            latencyHistogram.record(presentTime - pendingTimestamps[index]);
+            read++;
+            count++;
+        }
+        pendingRead = read;
+        return count;
+    }
+
+    /**
+     * @return the latencies from key events to the presentation of the first frame that shows them
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * @return how many events were dropped, because the game thread didn't keep up
+     */
+    public int getDroppedCount() {
+        return events.getRejectedCount();
+    }
+
+    /**
+     * @return how many events weren't measured, because too many events were waiting to be presented
+     */
+    public int getUntrackedCount() {
+        return untrackedCount;
+    }
+}
@@ -0,0 +1,132 @@
+package jetfighters.game.input;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Counts latencies in buckets of {@link #BUCKET_NANOS}, so recording one is a single increment and the distribution
+ * (e.g. the 99th percentile) can be read at any time. Latencies above the last bucket are counted in an overflow
+ * bucket. <br>
+ * Latencies are recorded by one thread, but can be read by any thread.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class LatencyHistogram {
+
+    public static final long BUCKET_NANOS = 500_000; // Half a millisecond
+    public static final int BUCKET_COUNT = 400; // Up to 200 ms
+
+    private static final int REPORT_ROW_BUCKETS = 10; // One row of the report covers 5 ms
+    private static final int REPORT_BAR_WIDTH = 40;
+
+    private final AtomicLongArray buckets; // The last bucket is the overflow
+    private final AtomicLong count;
+    private final AtomicLong totalNanos;
+    private final AtomicLong maxNanos;
+
+    public LatencyHistogram() {
+        buckets = new AtomicLongArray(BUCKET_COUNT + 1);
+        count = new AtomicLong();
+        totalNanos = new AtomicLong();
+        maxNanos = new AtomicLong();
+    }
+
+    /**
+     * @param nanos the latency to count, negative latencies are counted as 0
+     */
+    public void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        buckets.incrementAndGet((int) Math.min(nanos / BUCKET_NANOS, BUCKET_COUNT));
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        count.incrementAndGet();
+    }
+
+    /**
+     * Removes all recorded latencies.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    /**
+     * @return the amount of recorded latencies
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the mean latency in milliseconds (0 if nothing was recorded)
+     */
+    public double getMeanMillis() {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : totalNanos.get() / 1e6 / recorded;
+    }
+
+    /**
+     * @return the highest latency in milliseconds
+     */
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * Returns the upper end of the bucket the given percentile falls into, so the real percentile is at most half a
+     * millisecond lower. If the percentile is in the overflow bucket, the highest latency is returned.
+     *
+     * @param percentile the percentile between 0 and 100 (e.g. 99)
+     * @return the percentile in milliseconds (0 if nothing was recorded)
+     */
+    public double getPercentileMillis(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("The percentile has to be between 0 and 100, but was " + percentile);
+        long recorded = count.get();
+        if (recorded == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(recorded * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank)
+                return (i + 1) * BUCKET_NANOS / 1e6;
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * @return a summary and the distribution of the latencies in rows of 5 ms
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "%d samples, mean %.2f ms, p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.2f ms%n",
+                getCount(), getMeanMillis(), getPercentileMillis(50), getPercentileMillis(95),
+                getPercentileMillis(99), getMaxMillis()));
+        long[] rows = new long[BUCKET_COUNT / REPORT_ROW_BUCKETS + 1];
+        long largestRow = 0;
+        for (int i = 0; i <= BUCKET_COUNT; i++) {
+            int row = i / REPORT_ROW_BUCKETS;
+            rows[row] += buckets.get(i);
+            largestRow = Math.max(largestRow, rows[row]);
+        }
+        double rowMillis = REPORT_ROW_BUCKETS * BUCKET_NANOS / 1e6;
+        for (int row = 0; row < rows.length; row++) {
+            if (rows[row] == 0)
+                continue;
+            String range = row == rows.length - 1
+                    ? String.format(Locale.ROOT, ">= %5.1f ms     ", row * rowMillis)
+                    : String.format(Locale.ROOT, "%5.1f - %5.1f ms", row * rowMillis, (row + 1) * rowMillis);
+            int bar = (int) Math.max(1, rows[row] * REPORT_BAR_WIDTH / largestRow);
+            report.append(String.format(Locale.ROOT, "%s %8d %s%n", range, rows[row], "#".repeat(bar)));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package jetfighters.game.input;
+
+import jetfighters.game.entities.Player;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * The inputs a player controls with a key each.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public enum PlayerInput {
+
+    MoveForward,
+    TurnLeft,
+    MoveBackwards,
+    TurnRight,
+    Shoot;
+
+    /**
+     * Sets the state of this input of a player.
+     *
+     * @param player  the player
+     * @param pressed true if the key of the input is pressed
+     */
+    public void apply(Player player, boolean pressed) {
+        switch (this) {
+            case MoveForward -> player.setMoveForward(pressed);
+            case TurnLeft -> player.setTurnLeft(pressed);
+            case MoveBackwards -> player.setMoveBackwards(pressed);
+            case TurnRight -> player.setTurnRight(pressed);
+            case Shoot -> player.setShooting(pressed);
+        }
+    }
+}
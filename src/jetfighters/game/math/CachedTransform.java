@@ -0,0 +1,132 @@
+package jetfighters.game.math;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * A transform that is translated, rotated around its center and scaled, and only recomputed if one of these values
+ * changed since it was last requested. The inverse is computed lazily and cached the same way. <br>
+ * Entities and sprites request their transform several times per update and frame (collision, wrapping, drawing) but
+ * only move once per update, so most requests are answered from the cache. How often that happens is counted in
+ * {@link #getHits()} and {@link #getMisses()} for all instances together. <br>
+ * The returned transforms are shared and must not be modified.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class CachedTransform {
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private final AffineTransform transform = new AffineTransform();
+    private final AffineTransform inverse = new AffineTransform();
+    private boolean valid;
+    private boolean inverseValid;
+    private long version;
+
+    private double x, y, rotation, scaleX, scaleY, width, height;
+
+    /**
+     * Makes sure the transform matches the given values and recomputes it if it doesn't.
+     *
+     * @param x        the x-position
+     * @param y        the y-position
+     * @param rotation the rotation in radians around the center of the scaled size
+     * @param scaleX   the horizontal scale
+     * @param scaleY   the vertical scale
+     * @param width    the unscaled width, used for the center of rotation
+     * @param height   the unscaled height, used for the center of rotation
+     * @return true if the transform was recomputed, false if the cached transform still matched
+     */
+    public boolean update(double x, double y, double rotation, double scaleX, double scaleY, double width, double height) {
+        if (valid && this.x == x && this.y == y && this.rotation == rotation && this.scaleX == scaleX
+                && this.scaleY == scaleY && this.width == width && this.height == height) {
+            hits.increment();
+            return false;
+        }
+        misses.increment();
+        this.x = x;
+        this.y = y;
+        this.rotation = rotation;
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        this.width = width;
+        this.height = height;
+        compute(transform, x, y, rotation, scaleX, scaleY, width, height);
+        valid = true;
+        inverseValid = false;
+        version++;
+        return true;
+    }
+
+    /**
+     * Writes the transform for the given values into {@code target} without caching it.
+     *
+     * @see #update(double, double, double, double, double, double, double)
+     */
+    public static void compute(AffineTransform target, double x, double y, double rotation, double scaleX, double scaleY,
+                               double width, double height) {
+        target.setToRotation(rotation, x + width * scaleX / 2.0, y + height * scaleY / 2.0);
+        target.translate(x, y);
+        target.scale(scaleX, scaleY);
+    }
+
+    /**
+     * Forces the transform to be recomputed on the next {@link #update}.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * @return the transform of the last {@link #update}, must not be modified
+     */
+    public AffineTransform getTransform() {
+        return transform;
+    }
+
+    /**
+     * @return the inverse of {@link #getTransform()}, must not be modified
+     * @throws NoninvertibleTransformException if the transform is not invertible (e.g. scaled by 0)
+     */
+    public AffineTransform getInverse() throws NoninvertibleTransformException {
+        if (!inverseValid) {
+            inverse.setTransform(transform);
+            inverse.invert();
+            inverseValid = true;
+        }
+        return inverse;
+    }
+
+    /**
+     * @return a number that changes every time the transform is recomputed, so values derived from it can be cached too
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return how often a transform was requested and still matched, for all instances
+     */
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return how often a transform had to be recomputed, for all instances
+     */
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Resets {@link #getHits()} and {@link #getMisses()}.
+     */
+    public static void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+}
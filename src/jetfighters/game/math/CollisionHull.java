@@ -0,0 +1,279 @@
+package jetfighters.game.math;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * The collision shape of an entity as a few convex polygons in local coordinates. <br>
+ * Two hulls are tested for intersection with the separating axis theorem on their transformed vertices, after a quick
+ * test of their bounding circles. Unlike intersecting two {@link java.awt.geom.Area}s this doesn't allocate anything. <br>
+ * Hulls are created from shapes ({@link #fromShape(Shape)}) or from the opaque pixels of sprites
+ * ({@link #fromImage(BufferedImage, int)}, cached per image and alpha threshold, so every frame of an animation is only
+ * traced once).
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class CollisionHull {
+
+    private static final double SHAPE_FLATNESS = 0.02; // Maximum distance of the polygons to curves of shapes
+    private static final double IMAGE_SIMPLIFY_TOLERANCE = 1.0; // Maximum distance of the polygons to the pixel outline
+    private static final Map<BufferedImage, Map<Integer, CollisionHull>> imageHulls = new WeakHashMap<>(); // By alpha threshold
+    private static final ThreadLocal<double[][]> scratch = ThreadLocal.withInitial(() -> new double[4][64]);
+
+    private final ConvexPolygon[] parts;
+    private final int vertexCount;
+    private final double centerX, centerY, radius;
+
+    /**
+     * Creates a new CollisionHull out of convex polygons.
+     *
+     * @param parts the convex polygons the hull consists of (at least one)
+     */
+    public CollisionHull(List<ConvexPolygon> parts) {
+        if (parts.isEmpty())
+            throw new IllegalArgumentException("A collision hull needs at least one polygon");
+        this.parts = parts.toArray(new ConvexPolygon[0]);
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        int count = 0;
+        for (ConvexPolygon part : this.parts) {
+            count += part.getVertexCount();
+            minX = Math.min(minX, part.getCenterX() - part.getRadius());
+            minY = Math.min(minY, part.getCenterY() - part.getRadius());
+            maxX = Math.max(maxX, part.getCenterX() + part.getRadius());
+            maxY = Math.max(maxY, part.getCenterY() + part.getRadius());
+        }
+        vertexCount = count;
+        centerX = (minX + maxX) / 2;
+        centerY = (minY + maxY) / 2;
+        double maxRadius = 0;
+        for (ConvexPolygon part : this.parts) {
+            maxRadius = Math.max(maxRadius, Math.hypot(part.getCenterX() - centerX, part.getCenterY() - centerY) + part.getRadius());
+        }
+        radius = maxRadius;
+    }
+
+    /**
+     * Creates the hull of a shape. Curves are flattened, concave outlines are split into convex polygons.
+     *
+     * @param shape the shape to create the hull for
+     * @return the hull of the shape
+     */
+    public static CollisionHull fromShape(Shape shape) {
+        List<ConvexPolygon> parts = new ArrayList<>();
+        PathIterator iterator = new FlatteningPathIterator(shape.getPathIterator(null), SHAPE_FLATNESS);
+        List<double[]> contour = new ArrayList<>();
+        double[] coords = new double[6];
+        while (!iterator.isDone()) {
+            int type = iterator.currentSegment(coords);
+            if (type == PathIterator.SEG_MOVETO) {
+                addContour(contour, parts, 0);
+                contour = new ArrayList<>();
+            }
+            if (type == PathIterator.SEG_MOVETO || type == PathIterator.SEG_LINETO)
+                contour.add(new double[]{coords[0], coords[1]});
+            iterator.next();
+        }
+        addContour(contour, parts, 0);
+        if (parts.isEmpty()) { // Degenerated shape (e.g. a line), use its bounds
+            Rectangle bounds = shape.getBounds();
+            return fromShape(new Rectangle(bounds.x, bounds.y, Math.max(bounds.width, 1), Math.max(bounds.height, 1)));
+        }
+        return new CollisionHull(parts);
+    }
+
+    /**
+     * Creates the hull of all pixels of {@code image} with an alpha value {@code >= alphaThreshold}: the outlines
+     * are traced with marching squares, simplified and split into convex polygons. Holes are ignored. <br>
+     * Hulls are cached per image and alpha threshold.
+     *
+     * @param image          the image to create the hull for
+     * @param alphaThreshold [0, 255] the minimum alpha value of a pixel to be part of the hull
+     * @return the hull of the image or null if the image has no opaque pixels
+     */
+    public static CollisionHull fromImage(BufferedImage image, int alphaThreshold) {
+        synchronized (imageHulls) {
+            Map<Integer, CollisionHull> hulls = imageHulls.computeIfAbsent(image, (key) -> new HashMap<>(2));
+            CollisionHull hull = hulls.get(alphaThreshold);
+            if (hull == null && !hulls.containsKey(alphaThreshold)) { // Images without opaque pixels are cached as null
+                hull = createFromImage(image, alphaThreshold);
+                hulls.put(alphaThreshold, hull);
+            }
+            return hull;
+        }
+    }
+
+    private static CollisionHull createFromImage(BufferedImage image, int alphaThreshold) {
+        List<ConvexPolygon> parts = new ArrayList<>();
+        for (List<double[]> contour : CollisionUtil.traceContours(image, alphaThreshold)) {
+            addContour(contour, parts, IMAGE_SIMPLIFY_TOLERANCE);
+        }
+        return parts.isEmpty() ? null : new CollisionHull(parts);
+    }
+
+    private static void addContour(List<double[]> contour, List<ConvexPolygon> parts, double simplifyTolerance) {
+        List<double[]> points = CollisionUtil.removeDuplicates(contour);
+        if (simplifyTolerance > 0)
+            points = CollisionUtil.simplify(points, simplifyTolerance);
+        if (points.size() < 3 || Math.abs(CollisionUtil.signedArea(points)) < 1e-9)
+            return;
+        for (List<double[]> convexPart : CollisionUtil.decomposeConvex(points)) {
+            double[] xs = new double[convexPart.size()];
+            double[] ys = new double[convexPart.size()];
+            for (int i = 0; i < convexPart.size(); i++) {
+                xs[i] = convexPart.get(i)[0];
+                ys[i] = convexPart.get(i)[1];
+            }
+            parts.add(new ConvexPolygon(xs, ys));
+        }
+    }
+
+    /**
+     * Tests if this hull transformed by {@code transform} intersects {@code other} transformed by {@code otherTransform}.
+     * Hulls that only touch don't intersect.
+     *
+     * @param transform      the transform of this hull (e.g. {@link jetfighters.game.entities.Entity#getTransform()})
+     * @param other          the other hull
+     * @param otherTransform the transform of the other hull
+     * @return true if the transformed hulls intersect
+     */
+    public boolean intersects(AffineTransform transform, CollisionHull other, AffineTransform otherTransform) {
+        // Bounding circles first, most pairs of the broadphase are already separated here
+        double[][] buffers = scratch.get();
+        double[] centers = buffers[0];
+        centers[0] = centerX;
+        centers[1] = centerY;
+        centers[2] = other.centerX;
+        centers[3] = other.centerY;
+        transform.transform(centers, 0, centers, 0, 1);
+        otherTransform.transform(centers, 2, centers, 2, 1);
+        double radiusSum = radius * getMaxScale(transform) + other.radius * getMaxScale(otherTransform);
+        double dx = centers[2] - centers[0];
+        double dy = centers[3] - centers[1];
+        if (dx * dx + dy * dy >= radiusSum * radiusSum)
+            return false;
+
+        if (buffers[1].length < vertexCount * 2 + parts.length * 2 || buffers[2].length < other.vertexCount * 2 + other.parts.length * 2) {
+            int size = Math.max(vertexCount + parts.length, other.vertexCount + other.parts.length) * 4;
+            buffers[1] = new double[size];
+            buffers[2] = new double[size];
+        }
+        double[] vertices = buffers[1];
+        double[] otherVertices = buffers[2];
+        transformParts(transform, vertices);
+        other.transformParts(otherTransform, otherVertices);
+
+        double scale = getMaxScale(transform);
+        double otherScale = getMaxScale(otherTransform);
+        int start = 0;
+        for (ConvexPolygon part : parts) {
+            int count = part.getVertexCount();
+            int otherStart = 0;
+            for (ConvexPolygon otherPart : other.parts) {
+                int otherCount = otherPart.getVertexCount();
+                double partRadiusSum = part.getRadius() * scale + otherPart.getRadius() * otherScale;
+                double centerDx = otherVertices[(otherStart + otherCount) * 2] - vertices[(start + count) * 2];
+                double centerDy = otherVertices[(otherStart + otherCount) * 2 + 1] - vertices[(start + count) * 2 + 1];
+                if (centerDx * centerDx + centerDy * centerDy < partRadiusSum * partRadiusSum
+                        && !hasSeparatingAxis(vertices, start, count, otherVertices, otherStart, otherCount)
+                        && !hasSeparatingAxis(otherVertices, otherStart, otherCount, vertices, start, count))
+                    return true;
+                otherStart += otherCount + 1;
+            }
+            start += count + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Writes the transformed vertices of all parts into {@code target} (x, y pairs), each part followed by its transformed center.
+     */
+    private void transformParts(AffineTransform transform, double[] target) {
+        int offset = 0;
+        for (ConvexPolygon part : parts) {
+            for (int i = 0; i < part.getVertexCount(); i++) {
+                target[offset++] = part.getX(i);
+                target[offset++] = part.getY(i);
+            }
+            target[offset++] = part.getCenterX();
+            target[offset++] = part.getCenterY();
+        }
+        transform.transform(target, 0, target, 0, offset / 2);
+    }
+
+    /**
+     * Tests the normals of the edges of polygon a as separating axes of the polygons a and b.
+     */
+    private static boolean hasSeparatingAxis(double[] a, int aStart, int aCount, double[] b, int bStart, int bCount) {
+        for (int i = 0; i < aCount; i++) {
+            int current = (aStart + i) * 2;
+            int next = (aStart + (i + 1) % aCount) * 2;
+            double axisX = a[current + 1] - a[next + 1];
+            double axisY = a[next] - a[current];
+            if (axisX == 0 && axisY == 0)
+                continue;
+            double minA = Double.MAX_VALUE, maxA = -Double.MAX_VALUE;
+            for (int j = 0; j < aCount; j++) {
+                double projection = a[(aStart + j) * 2] * axisX + a[(aStart + j) * 2 + 1] * axisY;
+                minA = Math.min(minA, projection);
+                maxA = Math.max(maxA, projection);
+            }
+            double minB = Double.MAX_VALUE, maxB = -Double.MAX_VALUE;
+            for (int j = 0; j < bCount; j++) {
+                double projection = b[(bStart + j) * 2] * axisX + b[(bStart + j) * 2 + 1] * axisY;
+                minB = Math.min(minB, projection);
+                maxB = Math.max(maxB, projection);
+            }
+            double tolerance = 1e-9 * (Math.abs(axisX) + Math.abs(axisY));
+            if (maxA <= minB + tolerance || maxB <= minA + tolerance)
+                return true;
+        }
+        return false;
+    }
+
+    private static double getMaxScale(AffineTransform transform) {
+        double scaleX = Math.hypot(transform.getScaleX(), transform.getShearY());
+        double scaleY = Math.hypot(transform.getShearX(), transform.getScaleY());
+        return Math.max(scaleX, scaleY);
+    }
+
+    /**
+     * @return a shape of all convex polygons of this hull (e.g. to draw it for debugging)
+     */
+    public Shape toShape() {
+        Path2D.Double path = new Path2D.Double();
+        for (ConvexPolygon part : parts) {
+            path.moveTo(part.getX(0), part.getY(0));
+            for (int i = 1; i < part.getVertexCount(); i++) {
+                path.lineTo(part.getX(i), part.getY(i));
+            }
+            path.closePath();
+        }
+        return path;
+    }
+
+    /**
+     * @return the convex polygons of this hull
+     */
+    public List<ConvexPolygon> getParts() {
+        return Arrays.asList(parts);
+    }
+
+    /**
+     * @return the radius of the bounding circle of this hull
+     */
+    public double getRadius() {
+        return radius;
+    }
+}
@@ -1,56 +1,396 @@
 package jetfighters.game.math;
 
-import java.awt.*;
 import java.awt.geom.Area;
-import java.awt.geom.GeneralPath;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
- * Utility class for general use methods related to collisions.
+ * Utility class for general use methods related to collisions. <br>
+ * Polygons are lists of points, each point is a {@code double[]{x, y}}.
  *
  * @author do04 - Daniel Flat, Moritz Junge
- * @version 13.07.22
+ * @version 21.07.22
  */
 public class CollisionUtil {
 
+    private static final int MIN_CONTOUR_PIXELS = 4; // Smaller groups of pixels are ignored as noise
+
     /**
-     * Calculates the outline of a buffered image by constructing a path around the edge of visible pixels to invisible pixels. <br>
+     * Calculates the outline of a buffered image by tracing the edge of visible pixels to invisible pixels. <br>
      * All pixels with alpha value < {@code alphaThreshold} are considered invisible,
      * all pixels with alpha value >= {@code alphaThreshold} are considered visible.
+     * The outline is simplified to a few vertices (see {@link CollisionHull#fromImage(BufferedImage, int)}).
      *
      * @param alphaThreshold the threshold of what pixels are considered visible and which are considered invisible
      * @param image          the image to construct the outline for
      * @return an Area containing the Path that was drawn on the edge of visible to invisible pixels.
      */
     public static Area getOutline(float alphaThreshold, BufferedImage image) {
-        // construct the GeneralPath
-        GeneralPath gp = new GeneralPath();
-
-        boolean cont = false;
-        for (int xx = 0; xx < image.getWidth(); xx++) {
-            for (int yy = 0; yy < image.getHeight(); yy++) {
-                if (new Color(image.getRGB(xx, yy), true).getAlpha() >= alphaThreshold) {
-                    if (cont) {
-                        gp.lineTo(xx, yy);
-                        gp.lineTo(xx, yy + 1);
-                        gp.lineTo(xx + 1, yy + 1);
-                        gp.lineTo(xx + 1, yy);
-                        gp.lineTo(xx, yy);
-                    } else {
-                        gp.moveTo(xx, yy);
+        CollisionHull hull = CollisionHull.fromImage(image, (int) Math.ceil(alphaThreshold));
+        return hull == null ? new Area() : new Area(hull.toShape());
+    }
+
+    /**
+     * Traces the outer outlines of all groups of connected pixels with an alpha value {@code >= alphaThreshold} with
+     * marching squares. The vertices lie on the corners of the pixels.
+     *
+     * @param image          the image to trace
+     * @param alphaThreshold [0, 255] the minimum alpha value of a visible pixel
+     * @return one closed polygon per group of pixels (without holes)
+     */
+    public static List<List<double[]>> traceContours(BufferedImage image, int alphaThreshold) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        int[] labels = new int[width * height]; // 0 = invisible, otherwise the group of the pixel
+        int groupCount = 0;
+        List<List<double[]>> contours = new ArrayList<>();
+        int[] stack = new int[width * height];
+        for (int start = 0; start < pixels.length; start++) {
+            if (labels[start] != 0 || (pixels[start] >>> 24) < alphaThreshold)
+                continue;
+            // Flood fill the group (4-connected), the first pixel in scan order is its top left one
+            int group = ++groupCount;
+            int size = 0;
+            int stackSize = 0;
+            stack[stackSize++] = start;
+            labels[start] = group;
+            while (stackSize > 0) {
+                int pixel = stack[--stackSize];
+                size++;
+                int x = pixel % width;
+                int y = pixel / width;
+                if (x > 0) stackSize = push(pixel - 1, group, pixels, labels, alphaThreshold, stack, stackSize);
+                if (x < width - 1) stackSize = push(pixel + 1, group, pixels, labels, alphaThreshold, stack, stackSize);
+                if (y > 0) stackSize = push(pixel - width, group, pixels, labels, alphaThreshold, stack, stackSize);
+                if (y < height - 1) stackSize = push(pixel + width, group, pixels, labels, alphaThreshold, stack, stackSize);
+            }
+            if (size >= MIN_CONTOUR_PIXELS)
+                contours.add(traceContour(labels, width, height, group, start % width, start / width));
+        }
+        return contours;
+    }
+
+    private static int push(int pixel, int group, int[] pixels, int[] labels, int alphaThreshold, int[] stack, int stackSize) {
+        if (labels[pixel] == 0 && (pixels[pixel] >>> 24) >= alphaThreshold) {
+            labels[pixel] = group;
+            stack[stackSize++] = pixel;
+        }
+        return stackSize;
+    }
+
+    /**
+     * Follows the outline of a group of pixels from the top left corner of its top left pixel.
+     * Each corner of the pixel grid has a state of the 4 pixels around it (1 = up left, 2 = up right, 4 = down left,
+     * 8 = down right) that decides in which direction the outline continues.
+     */
+    private static List<double[]> traceContour(int[] labels, int width, int height, int group, int startX, int startY) {
+        List<double[]> contour = new ArrayList<>();
+        int x = startX;
+        int y = startY;
+        int stepX = 0, stepY = 0;
+        int previousStepX, previousStepY;
+        do {
+            int state = (isInGroup(labels, width, height, group, x - 1, y - 1) ? 1 : 0)
+                    | (isInGroup(labels, width, height, group, x, y - 1) ? 2 : 0)
+                    | (isInGroup(labels, width, height, group, x - 1, y) ? 4 : 0)
+                    | (isInGroup(labels, width, height, group, x, y) ? 8 : 0);
+            previousStepX = stepX;
+            previousStepY = stepY;
+            switch (state) {
+                case 1, 5, 13 -> { stepX = 0; stepY = -1; } // Up
+                case 2, 3, 7 -> { stepX = 1; stepY = 0; } // Right
+                case 4, 12, 14 -> { stepX = -1; stepY = 0; } // Left
+                case 8, 10, 11 -> { stepX = 0; stepY = 1; } // Down
+                case 6 -> { // Saddle: keep turning the same way
+                    stepX = previousStepY == -1 ? -1 : 1;
+                    stepY = 0;
+                }
+                case 9 -> {
+                    stepX = 0;
+                    stepY = previousStepX == 1 ? -1 : 1;
+                }
+                default -> throw new IllegalStateException("Lost the outline at " + x + ", " + y);
+            }
+            if (stepX != previousStepX || stepY != previousStepY)
+                contour.add(new double[]{x, y}); // Only corners where the direction changes are vertices
+            x += stepX;
+            y += stepY;
+        } while (x != startX || y != startY);
+        return contour;
+    }
+
+    private static boolean isInGroup(int[] labels, int width, int height, int group, int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && labels[y * width + x] == group;
+    }
+
+    /**
+     * @param polygon a polygon
+     * @return the polygon without consecutive duplicate points (also between the last and the first point)
+     */
+    public static List<double[]> removeDuplicates(List<double[]> polygon) {
+        List<double[]> result = new ArrayList<>(polygon.size());
+        for (double[] point : polygon) {
+            if (result.isEmpty() || !samePoint(result.get(result.size() - 1), point))
+                result.add(point);
+        }
+        while (result.size() > 1 && samePoint(result.get(0), result.get(result.size() - 1))) {
+            result.remove(result.size() - 1);
+        }
+        return result;
+    }
+
+    private static boolean samePoint(double[] a, double[] b) {
+        return Math.abs(a[0] - b[0]) < 1e-9 && Math.abs(a[1] - b[1]) < 1e-9;
+    }
+
+    /**
+     * Simplifies a closed polygon with the Douglas-Peucker algorithm: removes all vertices that are closer than
+     * {@code tolerance} to the simplified outline.
+     *
+     * @param polygon   the closed polygon to simplify
+     * @param tolerance the maximum distance of the removed vertices to the simplified polygon
+     * @return the simplified polygon
+     */
+    public static List<double[]> simplify(List<double[]> polygon, double tolerance) {
+        int n = polygon.size();
+        if (n <= 3)
+            return polygon;
+        // Split the closed polygon at the vertex farthest from the first one and simplify both halves
+        int farthest = 0;
+        double farthestDistance = -1;
+        for (int i = 1; i < n; i++) {
+            double distance = distanceSquared(polygon.get(0), polygon.get(i));
+            if (distance > farthestDistance) {
+                farthestDistance = distance;
+                farthest = i;
+            }
+        }
+        boolean[] keep = new boolean[n + 1];
+        keep[0] = keep[farthest] = keep[n] = true;
+        simplifyChain(polygon, 0, farthest, tolerance * tolerance, keep);
+        simplifyChain(polygon, farthest, n, tolerance * tolerance, keep);
+        List<double[]> result = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (keep[i])
+                result.add(polygon.get(i));
+        }
+        return result;
+    }
+
+    private static void simplifyChain(List<double[]> polygon, int first, int last, double toleranceSquared, boolean[] keep) {
+        if (last - first < 2)
+            return;
+        double[] a = polygon.get(first);
+        double[] b = polygon.get(last % polygon.size());
+        int farthest = -1;
+        double farthestDistance = toleranceSquared;
+        for (int i = first + 1; i < last; i++) {
+            double distance = segmentDistanceSquared(polygon.get(i), a, b);
+            if (distance > farthestDistance) {
+                farthestDistance = distance;
+                farthest = i;
+            }
+        }
+        if (farthest < 0)
+            return;
+        keep[farthest] = true;
+        simplifyChain(polygon, first, farthest, toleranceSquared, keep);
+        simplifyChain(polygon, farthest, last, toleranceSquared, keep);
+    }
+
+    private static double distanceSquared(double[] a, double[] b) {
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        return dx * dx + dy * dy;
+    }
+
+    private static double segmentDistanceSquared(double[] p, double[] a, double[] b) {
+        double abX = b[0] - a[0];
+        double abY = b[1] - a[1];
+        double lengthSquared = abX * abX + abY * abY;
+        double t = lengthSquared == 0 ? 0 : ((p[0] - a[0]) * abX + (p[1] - a[1]) * abY) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double dx = a[0] + abX * t - p[0];
+        double dy = a[1] + abY * t - p[1];
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * @param polygon a closed polygon
+     * @return the signed area of the polygon (positive if its vertices are clockwise on the screen)
+     */
+    public static double signedArea(List<double[]> polygon) {
+        double area = 0;
+        for (int i = 0; i < polygon.size(); i++) {
+            double[] a = polygon.get(i);
+            double[] b = polygon.get((i + 1) % polygon.size());
+            area += a[0] * b[1] - b[0] * a[1];
+        }
+        return area / 2;
+    }
+
+    /**
+     * Splits a simple polygon into convex polygons: it is triangulated by ear clipping and then neighbouring triangles
+     * are merged as long as the result stays convex (Hertel-Mehlhorn), which leaves only a few convex polygons.
+     *
+     * @param polygon a simple closed polygon (the direction of its vertices does not matter)
+     * @return the convex polygons that cover the polygon (all with their vertices in the same direction)
+     */
+    public static List<List<double[]>> decomposeConvex(List<double[]> polygon) {
+        List<double[]> points = removeCollinear(polygon);
+        if (signedArea(points) < 0) {
+            Collections.reverse(points);
+        }
+        List<List<double[]>> parts = new ArrayList<>();
+        if (isConvex(points)) {
+            parts.add(points);
+            return parts;
+        }
+        for (int[] triangle : triangulate(points)) {
+            List<double[]> part = new ArrayList<>(3);
+            for (int index : triangle)
+                part.add(points.get(index));
+            parts.add(part);
+        }
+        // Merge polygons that share an edge while the result is convex
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < parts.size() && !merged; i++) {
+                for (int j = i + 1; j < parts.size() && !merged; j++) {
+                    List<double[]> union = mergeAtSharedEdge(parts.get(i), parts.get(j));
+                    if (union != null && isConvex(union)) {
+                        parts.set(i, union);
+                        parts.remove(j);
+                        merged = true;
                     }
-                    cont = true;
-                } else {
-                    cont = false;
                 }
             }
-            cont = false;
         }
-        gp.closePath();
+        return parts;
+    }
 
-        // construct the Area from the GP & return it
-        return new Area(gp);
+    private static List<double[]> removeCollinear(List<double[]> polygon) {
+        List<double[]> points = new ArrayList<>(polygon);
+        for (int i = 0; i < points.size() && points.size() > 3; ) {
+            double[] previous = points.get((i + points.size() - 1) % points.size());
+            double[] next = points.get((i + 1) % points.size());
+            if (Math.abs(cross(previous, points.get(i), next)) < 1e-9)
+                points.remove(i);
+            else
+                i++;
+        }
+        return points;
     }
 
+    /**
+     * Ear clipping of a polygon with positive {@link #signedArea(List)}. If no ear is found (e.g. because the outline
+     * touches itself) the convex hull of the remaining vertices is used, so the result never has gaps.
+     */
+    private static List<int[]> triangulate(List<double[]> points) {
+        List<int[]> triangles = new ArrayList<>();
+        List<Integer> remaining = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++)
+            remaining.add(i);
+        while (remaining.size() > 3) {
+            boolean foundEar = false;
+            for (int i = 0; i < remaining.size(); i++) {
+                int previous = remaining.get((i + remaining.size() - 1) % remaining.size());
+                int current = remaining.get(i);
+                int next = remaining.get((i + 1) % remaining.size());
+                if (isEar(points, remaining, previous, current, next)) {
+                    triangles.add(new int[]{previous, current, next});
+                    remaining.remove(i);
+                    foundEar = true;
+                    break;
+                }
+            }
+            if (!foundEar) {
+                triangles.addAll(fanOfConvexHull(points, remaining));
+                return triangles;
+            }
+        }
+        if (cross(points.get(remaining.get(0)), points.get(remaining.get(1)), points.get(remaining.get(2))) > 0)
+            triangles.add(new int[]{remaining.get(0), remaining.get(1), remaining.get(2)});
+        return triangles;
+    }
+
+    private static boolean isEar(List<double[]> points, List<Integer> remaining, int previous, int current, int next) {
+        double[] a = points.get(previous);
+        double[] b = points.get(current);
+        double[] c = points.get(next);
+        if (cross(a, b, c) <= 0)
+            return false; // Reflex or degenerated vertex
+        for (int index : remaining) {
+            if (index == previous || index == current || index == next)
+                continue;
+            double[] p = points.get(index);
+            if (cross(a, b, p) >= 0 && cross(b, c, p) >= 0 && cross(c, a, p) >= 0)
+                return false;
+        }
+        return true;
+    }
+
+    private static List<int[]> fanOfConvexHull(List<double[]> points, List<Integer> indices) {
+        List<Integer> sorted = new ArrayList<>(indices);
+        sorted.sort((a, b) -> {
+            int compare = Double.compare(points.get(a)[0], points.get(b)[0]);
+            return compare != 0 ? compare : Double.compare(points.get(a)[1], points.get(b)[1]);
+        });
+        // Andrew's monotone chain
+        int[] hull = new int[sorted.size() * 2];
+        int size = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            int start = size;
+            for (int k = 0; k < sorted.size(); k++) {
+                int index = sorted.get(pass == 0 ? k : sorted.size() - 1 - k);
+                while (size >= start + 2 && cross(points.get(hull[size - 2]), points.get(hull[size - 1]), points.get(index)) <= 0)
+                    size--;
+                hull[size++] = index;
+            }
+            size--;
+        }
+        List<int[]> triangles = new ArrayList<>();
+        for (int i = 1; i + 1 < size; i++) {
+            triangles.add(new int[]{hull[0], hull[i], hull[i + 1]});
+        }
+        return triangles;
+    }
+
+    /**
+     * @return the merged polygon if {@code a} and {@code b} share an edge (in opposite directions), otherwise null
+     */
+    private static List<double[]> mergeAtSharedEdge(List<double[]> a, List<double[]> b) {
+        for (int i = 0; i < a.size(); i++) {
+            double[] a1 = a.get(i);
+            double[] a2 = a.get((i + 1) % a.size());
+            for (int j = 0; j < b.size(); j++) {
+                if (b.get(j) == a2 && b.get((j + 1) % b.size()) == a1) {
+                    List<double[]> union = new ArrayList<>(a.size() + b.size() - 2);
+                    for (int k = 0; k < a.size(); k++)
+                        union.add(a.get((i + 1 + k) % a.size())); // a2 ... a1
+                    for (int k = 2; k < b.size(); k++)
+                        union.add(b.get((j + k) % b.size())); // The vertices of b between a1 and a2
+                    return union;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isConvex(List<double[]> polygon) {
+        for (int i = 0; i < polygon.size(); i++) {
+            if (cross(polygon.get(i), polygon.get((i + 1) % polygon.size()), polygon.get((i + 2) % polygon.size())) < 0)
+                return false;
+        }
+        return true;
+    }
+
+    private static double cross(double[] a, double[] b, double[] c) {
+        return (b[0] - a[0]) * (c[1] - a[1]) - (b[1] - a[1]) * (c[0] - a[0]);
+    }
 }
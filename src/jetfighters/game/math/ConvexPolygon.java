@@ -0,0 +1,88 @@
+package jetfighters.game.math;
+
+import java.util.Arrays;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * An immutable convex polygon with a bounding circle. Part of a {@link CollisionHull}.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class ConvexPolygon {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double centerX, centerY, radius;
+
+    /**
+     * Creates a new ConvexPolygon. The vertices have to be in order (either direction) and must form a convex polygon.
+     *
+     * @param xs the x-coordinates of the vertices
+     * @param ys the y-coordinates of the vertices
+     */
+    public ConvexPolygon(double[] xs, double[] ys) {
+        if (xs.length != ys.length || xs.length < 3)
+            throw new IllegalArgumentException("A polygon needs at least 3 vertices with x- and y-coordinates");
+        this.xs = Arrays.copyOf(xs, xs.length);
+        this.ys = Arrays.copyOf(ys, ys.length);
+        double sumX = 0, sumY = 0;
+        for (int i = 0; i < xs.length; i++) {
+            sumX += xs[i];
+            sumY += ys[i];
+        }
+        centerX = sumX / xs.length;
+        centerY = sumY / ys.length;
+        double maxDistanceSquared = 0;
+        for (int i = 0; i < xs.length; i++) {
+            double dx = xs[i] - centerX;
+            double dy = ys[i] - centerY;
+            maxDistanceSquared = Math.max(maxDistanceSquared, dx * dx + dy * dy);
+        }
+        radius = Math.sqrt(maxDistanceSquared);
+    }
+
+    /**
+     * @return the amount of vertices
+     */
+    public int getVertexCount() {
+        return xs.length;
+    }
+
+    /**
+     * @param index the index of the vertex
+     * @return the x-coordinate of the vertex
+     */
+    public double getX(int index) {
+        return xs[index];
+    }
+
+    /**
+     * @param index the index of the vertex
+     * @return the y-coordinate of the vertex
+     */
+    public double getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * @return the x-coordinate of the center of the bounding circle
+     */
+    public double getCenterX() {
+        return centerX;
+    }
+
+    /**
+     * @return the y-coordinate of the center of the bounding circle
+     */
+    public double getCenterY() {
+        return centerY;
+    }
+
+    /**
+     * @return the radius of the bounding circle
+     */
+    public double getRadius() {
+        return radius;
+    }
+}
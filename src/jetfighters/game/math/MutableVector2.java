@@ -0,0 +1,202 @@
+package jetfighters.game.math;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * A vector in 2-dimensional space whose operations change the vector itself instead of returning a new one. <br>
+ * Used for values that change every update (e.g. velocities), so updating them doesn't allocate. Operations return
+ * this vector to allow chaining ({@code velocity.addScaled(acceleration, delta).clampLength(maxVelocity)}). Values that are shared or stored
+ * (e.g. positions that are kept as the previous state) should stay {@link Vector2}s.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class MutableVector2 {
+
+    public double x, y;
+
+    /**
+     * Creates a new MutableVector2 with a length of 0.
+     */
+    public MutableVector2() {
+    }
+
+    /**
+     * Creates a new MutableVector2
+     *
+     * @param x the x component of the vector
+     * @param y the y component of the vector
+     */
+    public MutableVector2(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Creates a new MutableVector2 with the values of {@code vec}
+     *
+     * @param vec the vector to copy
+     */
+    public MutableVector2(Vector2 vec) {
+        this(vec.x, vec.y);
+    }
+
+    public MutableVector2 set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    public MutableVector2 set(Vector2 vec) {
+        return set(vec.x, vec.y);
+    }
+
+    public MutableVector2 set(MutableVector2 vec) {
+        return set(vec.x, vec.y);
+    }
+
+    public MutableVector2 setZero() {
+        return set(0, 0);
+    }
+
+    /**
+     * Sets this vector to the given {@code magnitude} and {@code angle}
+     *
+     * @param magnitude magnitude (length) of this vector
+     * @param angle     angle of this vector (relative to {@link Vector2#RIGHT} - clockwise)
+     * @return this vector
+     * @see Vector2#toCartesian(double, double)
+     */
+    public MutableVector2 setToCartesian(double magnitude, double angle) {
+        return set(magnitude * Math.cos(angle), magnitude * Math.sin(angle));
+    }
+
+    public MutableVector2 add(double x, double y) {
+        this.x += x;
+        this.y += y;
+        return this;
+    }
+
+    public MutableVector2 add(Vector2 vec) {
+        return add(vec.x, vec.y);
+    }
+
+    public MutableVector2 add(MutableVector2 vec) {
+        return add(vec.x, vec.y);
+    }
+
+    /**
+     * Adds {@code vec} multiplied by {@code scalar} to this vector (this + vec * scalar).
+     *
+     * @param vec    the vector to add
+     * @param scalar the scalar to multiply {@code vec} with before adding it
+     * @return this vector
+     */
+    public MutableVector2 addScaled(MutableVector2 vec, double scalar) {
+        return add(vec.x * scalar, vec.y * scalar);
+    }
+
+    public MutableVector2 sub(double x, double y) {
+        this.x -= x;
+        this.y -= y;
+        return this;
+    }
+
+    public MutableVector2 sub(Vector2 vec) {
+        return sub(vec.x, vec.y);
+    }
+
+    public MutableVector2 mult(double scalar) {
+        x *= scalar;
+        y *= scalar;
+        return this;
+    }
+
+    /**
+     * Scales this vector to a length of 1 keeping its direction.
+     *
+     * @return this vector
+     */
+    public MutableVector2 normalize() {
+        return mult(1 / length());
+    }
+
+    /**
+     * Scales this vector to a length of {@code maxLength} if it is longer, otherwise it is not changed.
+     *
+     * @param maxLength the maximum length of this vector
+     * @return this vector
+     */
+    public MutableVector2 clampLength(double maxLength) {
+        double lengthSquared = lengthSquared();
+        if (lengthSquared > maxLength * maxLength) { // Compared squared, so the root is only needed if it is too long
+            double length = Math.sqrt(lengthSquared);
+            set(x / length * maxLength, y / length * maxLength);
+        }
+        return this;
+    }
+
+    /**
+     * Rotates this vector by {@code angle} in clockwise direction.
+     *
+     * @param angle angle to rotate by in radians
+     * @return this vector
+     */
+    public MutableVector2 rotate(double angle) {
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        return set(x * cos - y * sin, x * sin + y * cos);
+    }
+
+    /**
+     * Moves this vector linearly towards the point ({@code x}, {@code y}).
+     *
+     * @param x     the x-component of the end point of the interpolation
+     * @param y     the y-component of the end point of the interpolation
+     * @param delta [0,1] 0 = this vector, 1 = the end point
+     * @return this vector
+     * @see Vector2#lerp(Vector2, double)
+     */
+    public MutableVector2 lerp(double x, double y, double delta) {
+        return set(this.x + (x - this.x) * delta, this.y + (y - this.y) * delta);
+    }
+
+    /**
+     * @return the dot product of this vector and {@code vec}
+     */
+    public double dot(MutableVector2 vec) {
+        return x * vec.x + y * vec.y;
+    }
+
+    /**
+     * @return the length (or magnitude) of this vector
+     */
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * @return the squared length of this vector, cheaper than {@link #length()} to compare lengths
+     */
+    public double lengthSquared() {
+        return x * x + y * y;
+    }
+
+    /**
+     * @return the angle of this vector in radians ({@link Vector2#RIGHT} has an angle of 0, {@link Vector2#DOWN} of PI/2)
+     */
+    public double angle() {
+        return Math.atan2(y, x);
+    }
+
+    /**
+     * @return a new immutable vector with the current values of this vector
+     */
+    public Vector2 toVector2() {
+        return new Vector2(x, y);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%s, %s)", x, y);
+    }
+}
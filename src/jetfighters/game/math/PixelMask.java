@@ -0,0 +1,275 @@
+package jetfighters.game.math;
+
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * The opaque pixels of an image as one bit per pixel, packed into {@code long}s row by row. <br>
+ * Two masks are tested for overlap by AND-ing the overlapping part of their rows 64 pixels at a time, after testing
+ * their bounding boxes. Rotated and scaled masks are created once per quantised angle ({@link #ROTATION_STEPS} per
+ * full turn) and reused, so testing two transformed masks doesn't allocate anything. <br>
+ * Masks are created from the alpha raster of an image a row at a time and are cached per image and alpha threshold
+ * ({@link #fromImage(BufferedImage, int)}). Masks are shared by all simulations, so creating and testing them is thread
+ * safe: the transformed masks are kept per scale in a concurrent map and published through atomic arrays.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class PixelMask {
+
+    public static final int ROTATION_STEPS = 128;
+
+    private static final double SCALE_STEPS = 1e6; // Scales are rounded to a millionth, so tiny errors share the masks
+    private static final int MAX_CACHED_SCALES = 8; // The cache is emptied if a mask is used with more scales
+    private static final Map<BufferedImage, Map<Integer, PixelMask>> imageMasks = new WeakHashMap<>(); // By alpha threshold
+
+    private final int width, height;
+    private final int wordsPerRow;
+    private final long[] bits; // Bit x % 64 of word y * wordsPerRow + x / 64 is set if pixel (x, y) is opaque
+    private final int offsetX, offsetY; // Position of the top left pixel relative to the center of the unrotated mask
+
+    // Rotated and scaled versions of this mask by scale and rotation step, created on demand
+    private final Map<Scale, AtomicReferenceArray<PixelMask>> rotations;
+
+    private record Scale(long x, long y) { // In steps of 1 / SCALE_STEPS
+    }
+
+    /**
+     * Creates a new, empty PixelMask.
+     *
+     * @param width  the width in pixels
+     * @param height the height in pixels
+     */
+    public PixelMask(int width, int height) {
+        this(width, height, 0, 0);
+    }
+
+    private PixelMask(int width, int height, int offsetX, int offsetY) {
+        if (width < 0 || height < 0)
+            throw new IllegalArgumentException("The size of a pixel mask can't be negative");
+        this.width = width;
+        this.height = height;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        wordsPerRow = (width + 63) >>> 6;
+        bits = new long[wordsPerRow * height];
+        rotations = new ConcurrentHashMap<>(2);
+    }
+
+    /**
+     * Creates the mask of all pixels of {@code image} with an alpha value {@code >= alphaThreshold}. <br>
+     * Masks are cached per image and alpha threshold.
+     *
+     * @param image          the image to create the mask for
+     * @param alphaThreshold [0, 255] the minimum alpha value of an opaque pixel
+     * @return the mask of the image
+     */
+    public static PixelMask fromImage(BufferedImage image, int alphaThreshold) {
+        synchronized (imageMasks) {
+            return imageMasks.computeIfAbsent(image, (key) -> new HashMap<>(2))
+                    .computeIfAbsent(alphaThreshold, (key) -> createFromImage(image, alphaThreshold));
+        }
+    }
+
+    private static PixelMask createFromImage(BufferedImage image, int alphaThreshold) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        PixelMask mask = new PixelMask(width, height);
+        Raster alpha = image.getAlphaRaster();
+        if (alpha == null) { // Images without alpha channel are opaque everywhere
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    mask.set(x, y);
+                }
+            }
+            return mask;
+        }
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            alpha.getSamples(alpha.getMinX(), alpha.getMinY() + y, width, 1, 0, row);
+            for (int x = 0; x < width; x++) {
+                if (row[x] >= alphaThreshold)
+                    mask.set(x, y);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Marks the pixel ({@code x}, {@code y}) as opaque.
+     */
+    public void set(int x, int y) {
+        bits[y * wordsPerRow + (x >>> 6)] |= 1L << x;
+    }
+
+    /**
+     * @return true if the pixel ({@code x}, {@code y}) is opaque, false if it is transparent or outside of this mask
+     */
+    public boolean get(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+            return false;
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Tests if this mask with its top left pixel at ({@code x}, {@code y}) overlaps {@code other} with its top left
+     * pixel at ({@code otherX}, {@code otherY}).
+     *
+     * @return true if at least one opaque pixel of both masks is at the same position
+     */
+    public boolean overlaps(int x, int y, PixelMask other, int otherX, int otherY) {
+        int left = Math.max(x, otherX);
+        int right = Math.min(x + width, otherX + other.width);
+        int top = Math.max(y, otherY);
+        int bottom = Math.min(y + height, otherY + other.height);
+        if (left >= right || top >= bottom)
+            return false;
+        for (int row = top; row < bottom; row++) {
+            int rowOffset = (row - y) * wordsPerRow;
+            int otherRowOffset = (row - otherY) * other.wordsPerRow;
+            for (int column = left; column < right; column += 64) {
+                int count = Math.min(64, right - column);
+                if ((extract(rowOffset, column - x, count) & other.extract(otherRowOffset, column - otherX, count)) != 0)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the {@code count} bits starting at bit {@code start} of the row starting at word {@code rowOffset}
+     */
+    private long extract(int rowOffset, int start, int count) {
+        int word = start >>> 6;
+        int shift = start & 63;
+        long value = bits[rowOffset + word] >>> shift;
+        if (shift != 0 && word + 1 < wordsPerRow)
+            value |= bits[rowOffset + word + 1] << (64 - shift);
+        return count == 64 ? value : value & ((1L << count) - 1);
+    }
+
+    /**
+     * Tests if this mask transformed by {@code transform} overlaps {@code other} transformed by {@code otherTransform}.
+     * The rotations are rounded to the nearest of {@link #ROTATION_STEPS} angles and the positions to whole pixels.
+     * Transforms with shearing are not supported.
+     *
+     * @param transform      the transform of this mask (from the pixel coordinates of the mask to the world)
+     * @param other          the other mask
+     * @param otherTransform the transform of the other mask
+     * @return true if the transformed masks overlap
+     */
+    public boolean overlaps(AffineTransform transform, PixelMask other, AffineTransform otherTransform) {
+        PixelMask rotated = getTransformed(transform);
+        PixelMask otherRotated = other.getTransformed(otherTransform);
+        return rotated.overlaps(getWorldX(transform) + rotated.offsetX, getWorldY(transform) + rotated.offsetY,
+                otherRotated, other.getWorldX(otherTransform) + otherRotated.offsetX, other.getWorldY(otherTransform) + otherRotated.offsetY);
+    }
+
+    /**
+     * @return the x-position of the center of this mask in the world, rounded to a whole pixel
+     */
+    private int getWorldX(AffineTransform transform) {
+        double centerX = width / 2.0;
+        double centerY = height / 2.0;
+        return (int) Math.round(transform.getScaleX() * centerX + transform.getShearX() * centerY + transform.getTranslateX());
+    }
+
+    private int getWorldY(AffineTransform transform) {
+        double centerX = width / 2.0;
+        double centerY = height / 2.0;
+        return (int) Math.round(transform.getShearY() * centerX + transform.getScaleY() * centerY + transform.getTranslateY());
+    }
+
+    /**
+     * Returns this mask rotated and scaled like {@code transform} around its center. The result is cached per
+     * quantised scale and rotation. If two threads create the same mask at once, both get equal masks.
+     */
+    private PixelMask getTransformed(AffineTransform transform) {
+        double m00 = transform.getScaleX(), m10 = transform.getShearY();
+        double m01 = transform.getShearX(), m11 = transform.getScaleY();
+        double scaleX = Math.hypot(m00, m10);
+        double scaleY = Math.hypot(m01, m11);
+        if (m00 * m11 - m01 * m10 < 0) // Mirrored
+            scaleY = -scaleY;
+        double angle = Math.atan2(m10, m00);
+        int step = Math.floorMod((int) Math.round(angle / (2 * Math.PI) * ROTATION_STEPS), ROTATION_STEPS);
+
+        Scale scale = new Scale(Math.round(scaleX * SCALE_STEPS), Math.round(scaleY * SCALE_STEPS));
+        AtomicReferenceArray<PixelMask> scaled = rotations.get(scale);
+        if (scaled == null) {
+            if (rotations.size() >= MAX_CACHED_SCALES)
+                rotations.clear();
+            scaled = rotations.computeIfAbsent(scale, (key) -> new AtomicReferenceArray<>(ROTATION_STEPS));
+        }
+        PixelMask rotated = scaled.get(step);
+        if (rotated == null) {
+            rotated = createTransformed(step * 2 * Math.PI / ROTATION_STEPS, scale.x() / SCALE_STEPS, scale.y() / SCALE_STEPS);
+            if (!scaled.compareAndSet(step, null, rotated))
+                rotated = scaled.get(step);
+        }
+        return rotated;
+    }
+
+    /**
+     * Creates this mask scaled and then rotated by {@code angle} (clockwise) around its center. Every pixel of the new
+     * mask is opaque if the pixel of this mask under its center is.
+     */
+    private PixelMask createTransformed(double angle, double scaleX, double scaleY) {
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double halfWidth = width / 2.0;
+        double halfHeight = height / 2.0;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int corner = 0; corner < 4; corner++) {
+            double x = ((corner & 1) == 0 ? -halfWidth : halfWidth) * scaleX;
+            double y = ((corner & 2) == 0 ? -halfHeight : halfHeight) * scaleY;
+            double rotatedX = x * cos - y * sin;
+            double rotatedY = x * sin + y * cos;
+            minX = Math.min(minX, rotatedX);
+            minY = Math.min(minY, rotatedY);
+            maxX = Math.max(maxX, rotatedX);
+            maxY = Math.max(maxY, rotatedY);
+        }
+        int left = (int) Math.floor(minX);
+        int top = (int) Math.floor(minY);
+        PixelMask result = new PixelMask((int) Math.ceil(maxX) - left, (int) Math.ceil(maxY) - top, left, top);
+        for (int y = 0; y < result.height; y++) {
+            for (int x = 0; x < result.width; x++) {
+                // Rotate the center of the pixel back and undo the scale to find the pixel of this mask under it
+                double worldX = left + x + 0.5;
+                double worldY = top + y + 0.5;
+                double sourceX = (worldX * cos + worldY * sin) / scaleX + halfWidth;
+                double sourceY = (-worldX * sin + worldY * cos) / scaleY + halfHeight;
+                if (get((int) Math.floor(sourceX), (int) Math.floor(sourceY)))
+                    result.set(x, y);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the amount of opaque pixels
+     */
+    public int count() {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
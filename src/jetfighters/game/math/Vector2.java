@@ -166,6 +166,13 @@ public class Vector2 {
         return Math.sqrt(x * x + y * y);
     }
 
+    /**
+     * @return the squared length of this vector, cheaper than {@link #length()} to compare lengths
+     */
+    public double lengthSquared() {
+        return x * x + y * y;
+    }
+
     /**
      * @return the distance between this vector and the point ({@code x}, {@code y})
      */
@@ -180,6 +187,13 @@ public class Vector2 {
         return distanceTo(vec.x, vec.y);
     }
 
+    /**
+     * @return the squared distance between this vector and {@code vec}, cheaper than {@link #distanceTo(Vector2)} to compare distances
+     */
+    public double distanceSquaredTo(Vector2 vec) {
+        return (x - vec.x) * (x - vec.x) + (y - vec.y) * (y - vec.y);
+    }
+
     /**
      * @return the angle of this vector in radians ({@link #RIGHT} has an angle of 0, {@link #DOWN} of PI/2)
      */
@@ -37,4 +37,9 @@ public class HealthEffect extends PowerUpEffect {
 
     }
 
+    @Override
+    public HealthEffect copy() {
+        return new HealthEffect(healAmount);
+    }
+
 }
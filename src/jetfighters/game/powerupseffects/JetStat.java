@@ -1,22 +1,36 @@
 package jetfighters.game.powerupseffects;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
- * Represents a numerical "stat" of a jet like it's speed or the damage it deals.
+ * Represents a numerical "stat" of a jet like it's speed or the damage it deals. <br>
+ * The value with all modifiers applied is calculated whenever a modifier is added or removed, so reading it is as
+ * cheap as reading a field. Every added modifier is identified by a handle, which is used to remove exactly that
+ * modifier again.
  *
  * @author do04 - Daniel Flat, Moritz Junge
- * @version 13.07.22
+ * @version 21.07.22
  */
 public class JetStat {
 
+    public static final long INVALID_HANDLE = -1;
+
+    private static final int BASE_MULTIPLIER = 0; // Applied to base value
+    private static final int ADDITIVE = 1; // Added to multiplied base value
+    private static final int FULL_MULTIPLIER = 2; // Applied to added value
+    private static final int FREE = -1;
+
+    private static final int INITIAL_CAPACITY = 4;
+
     private final double value;
+    private double modifiedValue; // The value with all modifiers applied
 
-    private final List<Double> baseMultipliers; // Applied to base value
-    private final List<Double> additives; // Added to multiplied base value
-    private final List<Double> fullMultipliers; // Applied to added value
+    // The modifiers are stored in slots, a handle is the index of the slot and the generation of the slot when it was used
+    private double[] modifierValues;
+    private int[] modifierTypes;
+    private int[] generations; // Increased whenever a slot is freed, so old handles of the slot become invalid
+    private int modifierCount;
 
     /**
      * Creates a new JetStat
@@ -25,35 +39,29 @@ public class JetStat {
      */
     public JetStat(double value) {
         this.value = value;
-        baseMultipliers = new LinkedList<>();
-        additives = new LinkedList<>();
-        fullMultipliers = new LinkedList<>();
+        modifiedValue = value;
+        modifierValues = new double[INITIAL_CAPACITY];
+        modifierTypes = new int[INITIAL_CAPACITY];
+        generations = new int[INITIAL_CAPACITY];
+        Arrays.fill(modifierTypes, FREE);
     }
 
     /**
      * @return the value of this stat with all of its modifiers applied
      */
     public double getValue() {
-        double val = value;
-        for (Double d : baseMultipliers) {
-            val *= d;
-        }
-        for (Double d : additives) {
-            val += d;
-        }
-        for (Double d : fullMultipliers) {
-            val *= d;
-        }
-        return val;
+        return modifiedValue;
     }
 
     /**
      * Adds a new base multiplier that is applied to the base value of this stat before adding additive values.
      *
      * @param multiplier the base multiplier that should be added
+     * @return the handle to remove the multiplier with
+     * @see #removeModifier(long)
      */
-    public void addBaseMultiplier(double multiplier) {
-        baseMultipliers.add(multiplier);
+    public long addBaseMultiplier(double multiplier) {
+        return addModifier(BASE_MULTIPLIER, multiplier);
     }
 
     /**
@@ -61,9 +69,11 @@ public class JetStat {
      * applying full multipliers (therefore it will be multiplied by all full multipliers).
      *
      * @param additive the additive value that should be added
+     * @return the handle to remove the additive with
+     * @see #removeModifier(long)
      */
-    public void addAdditive(double additive) {
-        additives.add(additive);
+    public long addAdditive(double additive) {
+        return addModifier(ADDITIVE, additive);
     }
 
     /**
@@ -71,44 +81,76 @@ public class JetStat {
      * Therefor all additives will be multiplied with this value.
      *
      * @param multiplier the full multiplier that should be added
+     * @return the handle to remove the multiplier with
+     * @see #removeModifier(long)
      */
     @SuppressWarnings("unused")
-    public void addFullMultiplier(double multiplier) {
-        fullMultipliers.add(multiplier);
+    public long addFullMultiplier(double multiplier) {
+        return addModifier(FULL_MULTIPLIER, multiplier);
     }
 
-    /**
-     * Removes the base multiplier with the value {@code multiplier}. <br>
-     * If multiple multipliers with the same value are present only one will be removed.
-     *
-     * @param multiplier the base multiplier that should be removed
-     * @see #addBaseMultiplier(double)
-     */
-    public void removeBaseMultiplier(double multiplier) {
-        baseMultipliers.remove(multiplier);
+    private long addModifier(int type, double modifier) {
+        int slot = 0;
+        while (slot < modifierTypes.length && modifierTypes[slot] != FREE) {
+            slot++;
+        }
+        if (slot == modifierTypes.length) {
+            int capacity = modifierTypes.length * 2;
+            modifierValues = Arrays.copyOf(modifierValues, capacity);
+            modifierTypes = Arrays.copyOf(modifierTypes, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+            Arrays.fill(modifierTypes, slot, capacity, FREE);
+        }
+        modifierValues[slot] = modifier;
+        modifierTypes[slot] = type;
+        modifierCount++;
+        recalculate();
+        return (long) generations[slot] << 32 | slot;
     }
 
     /**
-     * Removes the additive with the value {@code additive}. <br>
-     * If multiple additives with the same value are present only one will be removed.
+     * Removes the modifier that was added with {@code handle}. <br>
+     * Other modifiers with the same value are kept.
      *
-     * @param additive the additive that should be removed
+     * @param handle the handle returned when the modifier was added
+     * @return false if the modifier was already removed
+     * @see #addBaseMultiplier(double)
      * @see #addAdditive(double)
+     * @see #addFullMultiplier(double)
      */
-    public void removeAdditive(double additive) {
-        additives.remove(additive);
+    public boolean removeModifier(long handle) {
+        int slot = (int) handle;
+        if (handle < 0 || slot >= modifierTypes.length || modifierTypes[slot] == FREE
+                || generations[slot] != (int) (handle >>> 32))
+            return false;
+        modifierTypes[slot] = FREE;
+        generations[slot]++;
+        modifierCount--;
+        recalculate();
+        return true;
+    }
+
+    private void recalculate() {
+        double baseMultiplier = 1;
+        double additive = 0;
+        double fullMultiplier = 1;
+        for (int i = 0; i < modifierTypes.length; i++) {
+            switch (modifierTypes[i]) {
+                case BASE_MULTIPLIER -> baseMultiplier *= modifierValues[i];
+                case ADDITIVE -> additive += modifierValues[i];
+                case FULL_MULTIPLIER -> fullMultiplier *= modifierValues[i];
+                default -> {
+                }
+            }
+        }
+        modifiedValue = (value * baseMultiplier + additive) * fullMultiplier;
     }
 
     /**
-     * Removes the full multiplier with the value {@code multiplier}. <br>
-     * If multiple multipliers with the same value are present only one will be removed.
-     *
-     * @param multiplier the full multiplier that should be removed
-     * @see #addFullMultiplier(double)
+     * @return the amount of modifiers applied to this stat
      */
-    @SuppressWarnings("unused")
-    public void removeFullMultiplier(double multiplier) {
-        fullMultipliers.remove(multiplier);
+    public int getModifierCount() {
+        return modifierCount;
     }
 
     /**
@@ -40,6 +40,13 @@ public abstract class PowerUpEffect {
      */
     public abstract void removeEffect(JetEntity jetEntity);
 
+    /**
+     * Creates a new effect with the same values that is not applied to any jet yet.
+     *
+     * @return a copy of this effect
+     */
+    public abstract PowerUpEffect copy();
+
     /**
      * Updates the time passed for this powerup, if the internal timer reaches the duration time, this should be removed
      * (by checking {@link #shouldRemove()}).
@@ -16,6 +16,7 @@ public class StatEffect extends PowerUpEffect {
     private final double value;
     private final boolean multiplicative;
     private boolean isApplied;
+    private long modifierHandle; // Removes exactly the modifier this effect added
 
     /**
      * Creates a new StatEffect that modifies the stat of a JetEntity.
@@ -30,6 +31,7 @@ public class StatEffect extends PowerUpEffect {
         this.statName = statName;
         this.value = value;
         this.multiplicative = multiplicative;
+        modifierHandle = JetStat.INVALID_HANDLE;
     }
 
     @Override
@@ -42,9 +44,9 @@ public class StatEffect extends PowerUpEffect {
             return;
         }
         if (multiplicative) {
-            stat.addBaseMultiplier(value);
+            modifierHandle = stat.addBaseMultiplier(value);
         } else {
-            stat.addAdditive(value);
+            modifierHandle = stat.addAdditive(value);
         }
         isApplied = true;
     }
@@ -57,14 +59,16 @@ public class StatEffect extends PowerUpEffect {
             System.err.println("Couldn't find stat: " + statName + " in JetEntity " + jetEntity.getClass().getName());
             return;
         }
-        if (multiplicative) {
-            stat.removeBaseMultiplier(value);
-        } else {
-            stat.removeAdditive(value);
-        }
+        stat.removeModifier(modifierHandle);
+        modifierHandle = JetStat.INVALID_HANDLE;
         isApplied = false;
     }
 
+    @Override
+    public StatEffect copy() {
+        return new StatEffect(statName, value, multiplicative, duration);
+    }
+
     /**
      * @return the name of the field of the stat that is modified by this effect
      */
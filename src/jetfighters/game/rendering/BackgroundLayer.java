@@ -0,0 +1,146 @@
+package jetfighters.game.rendering;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.VolatileImage;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * The static background of the game, kept in a {@link VolatileImage} so it stays in video memory and is drawn
+ * without resampling the source image every frame. <br>
+ * The background is larger than the canvas (drawn at a negative offset), so the shaking of the camera doesn't show
+ * its border. While the camera only translates, the layer is copied to the canvas at a whole pixel position. While it
+ * rotates, the oversized layer is drawn through the camera transform. If the video memory is lost (e.g. when the
+ * display mode changes), the layer is rendered again from the source image.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class BackgroundLayer {
+
+    private static final double ROTATION_EPSILON = 1e-4; // Less than a tenth of a pixel at the corners of the canvas
+
+    private Image source;
+    private volatile Image nextSource; // Replaces the source before the next frame, null if it isn't replaced
+    private final int offsetX;
+    private final int offsetY;
+    private int width;
+    private int height;
+    private VolatileImage layer;
+    private int renderCount; // How often the layer was rendered from the source
+
+    /**
+     * @param source  the background image, which has to be fully loaded
+     * @param offsetX the x position of the background in the world
+     * @param offsetY the y position of the background in the world
+     */
+    public BackgroundLayer(Image source, int offsetX, int offsetY) {
+        this.source = source;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        width = source.getWidth(null);
+        height = source.getHeight(null);
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("The background image has to be loaded");
+    }
+
+    /**
+     * Draws the background. The canvas is only cleared where the background doesn't cover it.
+     *
+     * @param g2d             the graphics of the canvas, without the camera transform
+     * @param cameraTransform the transform of the camera
+     * @param canvasWidth     the width of the canvas
+     * @param canvasHeight    the height of the canvas
+     */
+    public void draw(Graphics2D g2d, AffineTransform cameraTransform, int canvasWidth, int canvasHeight) {
+        Image replacement = nextSource;
+        if (replacement != null) {
+            nextSource = null;
+            source = replacement;
+            width = replacement.getWidth(null);
+            height = replacement.getHeight(null);
+            flush();
+        }
+        GraphicsConfiguration gc = g2d.getDeviceConfiguration();
+        boolean translateOnly = isTranslation(cameraTransform);
+        int x = (int) Math.round(cameraTransform.getTranslateX()) + offsetX;
+        int y = (int) Math.round(cameraTransform.getTranslateY()) + offsetY;
+        AffineTransform transform = null;
+        if (!translateOnly) {
+            transform = new AffineTransform(cameraTransform);
+            transform.translate(offsetX, offsetY);
+        }
+
+        boolean covered = translateOnly
+                ? x <= 0 && y <= 0 && x + width >= canvasWidth && y + height >= canvasHeight
+                : transform.createTransformedShape(new Rectangle(width, height)).contains(
+                new Rectangle2D.Double(0, 0, canvasWidth, canvasHeight));
+        if (!covered) {
+            g2d.setColor(Color.white);
+            g2d.fillRect(0, 0, canvasWidth, canvasHeight);
+        }
+
+        do {
+            validate(gc);
+            if (translateOnly)
+                g2d.drawImage(layer, x, y, null);
+            else
+                g2d.drawImage(layer, transform, null);
+        } while (layer.contentsLost());
+    }
+
+    /**
+     * Creates the layer if it doesn't exist or doesn't fit the configuration and renders it again if its contents were
+     * lost.
+     */
+    private void validate(GraphicsConfiguration gc) {
+        int status = layer == null ? VolatileImage.IMAGE_INCOMPATIBLE : layer.validate(gc);
+        if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+            if (layer != null)
+                layer.flush();
+            layer = gc.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+            layer.validate(gc); // A new layer can report itself as restored once, it is rendered below anyway
+            status = VolatileImage.IMAGE_RESTORED;
+        }
+        if (status == VolatileImage.IMAGE_RESTORED) {
+            Graphics2D layerGraphics = layer.createGraphics();
+            layerGraphics.drawImage(source, 0, 0, null);
+            layerGraphics.dispose();
+            renderCount++;
+        }
+    }
+
+    private static boolean isTranslation(AffineTransform transform) {
+        return Math.abs(transform.getShearX()) < ROTATION_EPSILON && Math.abs(transform.getShearY()) < ROTATION_EPSILON
+                && Math.abs(transform.getScaleX() - 1) < ROTATION_EPSILON && Math.abs(transform.getScaleY() - 1) < ROTATION_EPSILON;
+    }
+
+    /**
+     * Replaces the background image. Can be called by any thread, the layer is rendered from the new image before the
+     * next frame is drawn.
+     *
+     * @param source the new background image, which has to be fully loaded
+     */
+    public void setSource(Image source) {
+        if (source.getWidth(null) <= 0 || source.getHeight(null) <= 0)
+            throw new IllegalArgumentException("The background image has to be loaded");
+        nextSource = source;
+    }
+
+    /**
+     * Frees the video memory of the layer, it is created again when it is drawn the next time.
+     */
+    public void flush() {
+        if (layer != null)
+            layer.flush();
+        layer = null;
+    }
+
+    /**
+     * @return how often the layer was rendered from the source image (once, unless the video memory was lost)
+     */
+    public int getRenderCount() {
+        return renderCount;
+    }
+}
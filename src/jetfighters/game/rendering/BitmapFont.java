@@ -0,0 +1,277 @@
+package jetfighters.game.rendering;
+
+import jetfighters.game.sprites.AssetCache;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Draws text by copying pre-rendered glyphs from one atlas image instead of laying it out with Java2D every frame. <br>
+ * A font is either rendered once from a {@link Font} in one color ({@link #get(Font, Color)}, shared per font and color)
+ * or cut from a glyph sheet in the resources ({@link #fromSheet}), like the hand drawn alphabet in "fonts/". Only the
+ * characters of the font are drawn, others are skipped with the width of a space. Drawing text and numbers doesn't
+ * allocate and doesn't change the font, so they can be drawn every frame and by any thread.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class BitmapFont {
+
+    public static final String ASCII; // All printable ASCII characters
+    public static final String ALPHABET_SHEET = "fonts/Alphabet.png"; // The hand drawn glyphs of the menus
+    public static final String ALPHABET_CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ.,!?0123456789"; // 10 columns, 4 rows
+
+    private static final int GLYPH_PADDING = 1; // Transparent pixels around every glyph, so neighbours don't bleed in
+
+    private static final Map<FontKey, BitmapFont> fonts = new ConcurrentHashMap<>();
+
+    static {
+        char[] ascii = new char[127 - 32];
+        for (int i = 0; i < ascii.length; i++) {
+            ascii[i] = (char) (32 + i);
+        }
+        ASCII = new String(ascii);
+    }
+
+    private final BufferedImage atlas;
+    private final int[] glyphX, glyphWidth, advance; // Indexed by the character, -1 if the character isn't in the font
+    private final int glyphY; // All glyphs are in one row
+    private final int ascent;
+    private final int height;
+    private final int spaceAdvance;
+    private final int overhang; // The space left of every glyph, glyphs are drawn that far left of their position
+
+    private record FontKey(Font font, Color color) {
+    }
+
+    private BitmapFont(BufferedImage atlas, int[] glyphX, int[] glyphWidth, int[] advance, int glyphY, int ascent,
+                       int height, int spaceAdvance, int overhang) {
+        this.atlas = atlas;
+        this.glyphX = glyphX;
+        this.glyphWidth = glyphWidth;
+        this.advance = advance;
+        this.glyphY = glyphY;
+        this.ascent = ascent;
+        this.height = height;
+        this.spaceAdvance = spaceAdvance;
+        this.overhang = overhang;
+    }
+
+    /**
+     * Returns the printable ASCII characters of {@code font} rendered in {@code color}, rendered once and shared.
+     *
+     * @param font  the font to render
+     * @param color the color of the text
+     * @return the shared bitmap font
+     */
+    public static BitmapFont get(Font font, Color color) {
+        return fonts.computeIfAbsent(new FontKey(font, color), (key) -> render(font, color, ASCII));
+    }
+
+    /**
+     * Renders the glyphs of {@code characters} of {@code font} into a new atlas.
+     *
+     * @param font       the font to render
+     * @param color      the color of the text
+     * @param characters the characters to render (code points below 256)
+     * @return the new bitmap font
+     */
+    public static BitmapFont render(Font font, Color color, String characters) {
+        Graphics2D metricsGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        FontMetrics metrics;
+        try {
+            metrics = metricsGraphics.getFontMetrics(font);
+        } finally {
+            metricsGraphics.dispose();
+        }
+        int ascent = metrics.getAscent();
+        int height = ascent + metrics.getDescent();
+        int[] glyphX = createTable();
+        int[] glyphWidth = createTable();
+        int[] advance = createTable();
+        // The glyph can reach over its advance (e.g. italics) or start left of it, so it gets some space on both sides
+        int overhang = height / 4;
+
+        int width = GLYPH_PADDING;
+        for (int i = 0; i < characters.length(); i++) {
+            char character = checkCharacter(characters.charAt(i));
+            int glyphWidthWithOverhang = overhang + metrics.charWidth(character) + overhang;
+            glyphX[character] = width;
+            glyphWidth[character] = glyphWidthWithOverhang;
+            advance[character] = metrics.charWidth(character);
+            width += glyphWidthWithOverhang + GLYPH_PADDING;
+        }
+
+        BufferedImage atlas = AssetCache.createCompatibleImage(Math.max(width, 1), height + 2 * GLYPH_PADDING);
+        Graphics2D g2d = atlas.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setFont(font);
+        g2d.setColor(color);
+        g2d.setComposite(AlphaComposite.Src);
+        for (int i = 0; i < characters.length(); i++) {
+            char character = characters.charAt(i);
+            g2d.setClip(glyphX[character], GLYPH_PADDING, glyphWidth[character], height);
+            g2d.drawString(String.valueOf(character), glyphX[character] + overhang, GLYPH_PADDING + ascent);
+        }
+        g2d.dispose();
+        return new BitmapFont(atlas, glyphX, glyphWidth, advance, GLYPH_PADDING, ascent, height,
+                metrics.charWidth(' '), overhang);
+    }
+
+    /**
+     * Cuts a glyph sheet into a font. The sheet is a grid of equally sized cells, which contain the characters row by
+     * row. The glyphs are drawn with the width of their cell.
+     *
+     * @param sheetPath  the path of the sheet relative to the resources
+     * @param columns    the amount of cells in a row
+     * @param rows       the amount of rows
+     * @param characters the characters of the cells (code points below 256), at most {@code columns * rows}
+     * @param scale      the size the glyphs are drawn with relative to the sheet
+     * @return the new bitmap font
+     * @throws IllegalArgumentException if the sheet couldn't be loaded or there are more characters than cells
+     */
+    public static BitmapFont fromSheet(String sheetPath, int columns, int rows, String characters, double scale) {
+        BufferedImage sheet = AssetCache.getDefault().getImage(sheetPath);
+        if (sheet == null)
+            throw new IllegalArgumentException("Couldn't load the glyph sheet " + sheetPath);
+        if (characters.length() > columns * rows)
+            throw new IllegalArgumentException("The sheet " + sheetPath + " has only " + columns * rows + " cells");
+        int cellWidth = (int) Math.round(sheet.getWidth() / columns * scale);
+        int cellHeight = (int) Math.round(sheet.getHeight() / rows * scale);
+        int[] glyphX = createTable();
+        int[] glyphWidth = createTable();
+        int[] advance = createTable();
+
+        // The cells are copied into one row, scaled once, so drawing never scales
+        BufferedImage atlas = AssetCache.createCompatibleImage(characters.length() * (cellWidth + GLYPH_PADDING) + GLYPH_PADDING,
+                cellHeight + 2 * GLYPH_PADDING);
+        Graphics2D g2d = atlas.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        int sourceWidth = sheet.getWidth() / columns;
+        int sourceHeight = sheet.getHeight() / rows;
+        for (int i = 0; i < characters.length(); i++) {
+            char character = checkCharacter(characters.charAt(i));
+            int x = GLYPH_PADDING + i * (cellWidth + GLYPH_PADDING);
+            int sourceX = (i % columns) * sourceWidth;
+            int sourceY = (i / columns) * sourceHeight;
+            g2d.drawImage(sheet, x, GLYPH_PADDING, x + cellWidth, GLYPH_PADDING + cellHeight,
+                    sourceX, sourceY, sourceX + sourceWidth, sourceY + sourceHeight, null);
+            glyphX[character] = x;
+            glyphWidth[character] = cellWidth;
+            advance[character] = cellWidth;
+        }
+        g2d.dispose();
+        return new BitmapFont(atlas, glyphX, glyphWidth, advance, GLYPH_PADDING, cellHeight, cellHeight, cellWidth, 0);
+    }
+
+    private static int[] createTable() {
+        int[] table = new int[256];
+        Arrays.fill(table, -1);
+        return table;
+    }
+
+    private static char checkCharacter(char character) {
+        if (character >= 256)
+            throw new IllegalArgumentException("Only characters below 256 are supported, not '" + character + "'");
+        return character;
+    }
+
+    /**
+     * Draws {@code text} with the left end of its baseline at ({@code x}, {@code y}), like
+     * {@link Graphics2D#drawString(String, int, int)}.
+     *
+     * @param g2d  the graphics context to draw to
+     * @param text the text to draw
+     * @param x    the x-position of the text
+     * @param y    the y-position of the baseline
+     * @return the x-position after the text
+     */
+    public int drawString(Graphics2D g2d, CharSequence text, int x, int y) {
+        for (int i = 0; i < text.length(); i++) {
+            x = drawGlyph(g2d, text.charAt(i), x, y);
+        }
+        return x;
+    }
+
+    /**
+     * Draws a number without converting it to a string.
+     *
+     * @param g2d   the graphics context to draw to
+     * @param value the number to draw
+     * @param x     the x-position of the number
+     * @param y     the y-position of the baseline
+     * @return the x-position after the number
+     * @see #drawString(Graphics2D, CharSequence, int, int)
+     */
+    public int drawInt(Graphics2D g2d, int value, int x, int y) {
+        long remaining = Math.abs((long) value); // Integer.MIN_VALUE has no positive int
+        if (value < 0)
+            x = drawGlyph(g2d, '-', x, y);
+        // The digits are drawn from the highest one, so no buffer is needed and a font can be shared by threads
+        long divisor = 1;
+        while (divisor * 10 <= remaining) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            x = drawGlyph(g2d, (char) ('0' + remaining / divisor % 10), x, y);
+        }
+        return x;
+    }
+
+    private int drawGlyph(Graphics2D g2d, char character, int x, int y) {
+        if (character >= 256 || glyphX[character] < 0)
+            return x + spaceAdvance;
+        int sourceX = glyphX[character];
+        int width = glyphWidth[character];
+        int left = x - overhang;
+        int top = y - ascent;
+        g2d.drawImage(atlas, left, top, left + width, top + height, sourceX, glyphY, sourceX + width, glyphY + height, null);
+        return x + advance[character];
+    }
+
+    /**
+     * @param text the text to measure
+     * @return the width of {@code text} when it is drawn with this font
+     */
+    public int getWidth(CharSequence text) {
+        int width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            width += character < 256 && advance[character] >= 0 ? advance[character] : spaceAdvance;
+        }
+        return width;
+    }
+
+    /**
+     * @return the distance from the top of the glyphs to the baseline
+     */
+    public int getAscent() {
+        return ascent;
+    }
+
+    /**
+     * @return the height of the glyphs
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param character the character
+     * @return true if the character is part of this font
+     */
+    public boolean hasGlyph(char character) {
+        return character < 256 && glyphX[character] >= 0;
+    }
+
+    /**
+     * @return the image all glyphs are drawn from
+     */
+    public BufferedImage getAtlas() {
+        return atlas;
+    }
+}
@@ -0,0 +1,193 @@
+package jetfighters.game.rendering;
+
+import jetfighters.game.Game;
+import jetfighters.game.entities.Entity;
+import jetfighters.game.entities.JetEntity;
+import jetfighters.game.math.CachedTransform;
+import jetfighters.game.sprites.Sprite;
+import jetfighters.game.sprites.TextureAtlas;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * The state of a single entity at the end of a simulation tick, together with the state it had before that tick. <br>
+ * Snapshots are written by the simulation thread and only read by the render thread once they are published through a
+ * {@link SnapshotBuffer}, so they never change while they are drawn. Everything the render thread needs is copied, a
+ * snapshot keeps no reference to its entity.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 13.07.22
+ */
+public class EntitySnapshot {
+
+    // Jumps larger than this (e.g. from screen wrapping) are not interpolated, as the entity would fly across the screen
+    private static final double TELEPORT_DISTANCE = 200;
+
+    private double previousX, previousY, previousRotation;
+    private double x, y, rotation;
+    private double scaleX, scaleY;
+    private double width, height; // Size of the untransformed shape, the center of rotation
+
+    private BufferedImage frame; // The current sprite frame, null if the entity draws itself
+    private TextureAtlas.Region frameRegion; // The region of the frame in the texture atlas, null if it is not part of it
+    private final AffineTransform spriteTransform;
+    private Color fillColor; // Fills the outline if there is no frame, null if nothing is drawn
+    private final Path2D.Double outline; // A copy of the untransformed shape, empty if it isn't drawn
+    private double healthPercent; // NaN if the entity has no health bar
+    private double jetWidth, jetHeight;
+    private int healthBarWidth, healthBarHeight;
+    private int layer;
+
+    private final AffineTransform transform; // Reused when drawing to avoid allocations
+
+    EntitySnapshot() {
+        spriteTransform = new AffineTransform();
+        outline = new Path2D.Double();
+        transform = new AffineTransform();
+    }
+
+    /**
+     * Copies the current state of {@code entity} into this snapshot.
+     *
+     * @param entity the entity to capture
+     */
+    void capture(Entity entity) {
+        previousX = entity.getPreviousPosition().x;
+        previousY = entity.getPreviousPosition().y;
+        previousRotation = entity.getPreviousRotation();
+        x = entity.getPosition().x;
+        y = entity.getPosition().y;
+        rotation = entity.getRotation();
+        scaleX = entity.getScale().x;
+        scaleY = entity.getScale().y;
+        width = entity.getLocalBounds().width;
+        height = entity.getLocalBounds().height;
+
+        Sprite sprite = entity.getSprite();
+        if (sprite != null && sprite.isVisible() && sprite.hasValidImage()) {
+            frame = sprite.getImage();
+            frameRegion = sprite.getRegion();
+            spriteTransform.setTransform(sprite.getTransform());
+        } else {
+            frame = null;
+            frameRegion = null;
+        }
+        fillColor = frame == null ? entity.getFillColor() : null;
+        outline.reset(); // Keeps its arrays, so capturing the same shape again doesn't allocate
+        if (fillColor != null || Game.debug)
+            outline.append(entity.getShape(), false);
+        layer = entity.getRenderLayer();
+        if (entity instanceof JetEntity jet) {
+            healthPercent = jet.getHealthPercent();
+            jetWidth = jet.getWidth();
+            jetHeight = jet.getHeight();
+            healthBarWidth = jet.getHealthBarWidth();
+            healthBarHeight = jet.getHealthBarHeight();
+        } else {
+            healthPercent = Double.NaN;
+        }
+    }
+
+    /**
+     * Removes the references to the captured images, so they can be garbage collected.
+     */
+    void clear() {
+        frame = null;
+        frameRegion = null;
+        fillColor = null;
+        outline.reset();
+    }
+
+    /**
+     * Adds the command that draws the entity in the state between the previous and the current state to {@code queue}.
+     *
+     * @param queue the queue of the frame
+     * @param alpha [0,1] 0 = the state before the tick, 1 = the state after the tick
+     */
+    public void submit(RenderQueue queue, double alpha) {
+        CachedTransform.compute(transform, getX(alpha), getY(alpha), getRotation(alpha), scaleX, scaleY, width, height);
+        if (frame != null) {
+            transform.concatenate(spriteTransform);
+            if (frameRegion != null) // Straight from the page, so most entities are drawn from the same image
+                queue.submit(layer, frameRegion.getPage(), frameRegion.getX(), frameRegion.getY(),
+                        frameRegion.getWidth(), frameRegion.getHeight(), transform, 1);
+            else
+                queue.submit(layer, frame, 0, 0, frame.getWidth(), frame.getHeight(), transform, 1);
+        } else if (fillColor != null) {
+            queue.submit(layer, outline, fillColor, transform);
+        }
+    }
+
+    /**
+     * Draws the outline of the entity's shape, used when {@link Game#debug} is enabled.
+     *
+     * @param g2d   the graphics context to draw to
+     * @param alpha [0,1] 0 = the state before the tick, 1 = the state after the tick
+     */
+    public void drawShape(Graphics2D g2d, double alpha) {
+        CachedTransform.compute(transform, getX(alpha), getY(alpha), getRotation(alpha), scaleX, scaleY, width, height);
+        AffineTransform baseTransform = g2d.getTransform();
+        g2d.transform(transform);
+        g2d.setColor(Color.BLUE);
+        g2d.draw(outline);
+        g2d.setTransform(baseTransform);
+    }
+
+    /**
+     * @param alpha the interpolation factor (see {@link #submit(RenderQueue, double)})
+     * @return the interpolated x-position
+     */
+    public double getX(double alpha) {
+        return isTeleport() ? x : previousX + (x - previousX) * alpha;
+    }
+
+    /**
+     * @param alpha the interpolation factor (see {@link #submit(RenderQueue, double)})
+     * @return the interpolated y-position
+     */
+    public double getY(double alpha) {
+        return isTeleport() ? y : previousY + (y - previousY) * alpha;
+    }
+
+    /**
+     * @param alpha the interpolation factor (see {@link #submit(RenderQueue, double)})
+     * @return the interpolated rotation in radians
+     */
+    public double getRotation(double alpha) {
+        return previousRotation + (rotation - previousRotation) * alpha;
+    }
+
+    private boolean isTeleport() {
+        return Math.abs(x - previousX) > TELEPORT_DISTANCE || Math.abs(y - previousY) > TELEPORT_DISTANCE;
+    }
+
+    /**
+     * Draws the health bar of the jet in the state between the previous and the current state, if it has one.
+     *
+     * @param g2d   the graphics context to draw to
+     * @param alpha [0,1] 0 = the state before the tick, 1 = the state after the tick
+     */
+    public void drawHealthBar(Graphics2D g2d, double alpha) {
+        if (hasHealthBar())
+            JetEntity.drawHealthBar(g2d, getX(alpha), getY(alpha), jetWidth, jetHeight, healthBarWidth, healthBarHeight,
+                    healthPercent);
+    }
+
+    /**
+     * @return true if the entity is a jet with a health bar
+     */
+    public boolean hasHealthBar() {
+        return !Double.isNaN(healthPercent);
+    }
+
+    /**
+     * @return the health of the entity relative to its maximum health or NaN if it has no health bar
+     */
+    public double getHealthPercent() {
+        return healthPercent;
+    }
+}
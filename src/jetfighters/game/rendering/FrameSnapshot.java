@@ -0,0 +1,252 @@
+package jetfighters.game.rendering;
+
+import jetfighters.game.Game;
+import jetfighters.game.entities.Entity;
+import jetfighters.game.entities.projectiles.BulletSystem;
+import jetfighters.game.transitions.ScreenTransition;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Everything the render thread needs to draw one simulation tick: the snapshots of all entities and bullets, the camera,
+ * the game time and the screen transition. <br>
+ * FrameSnapshots are reused by the {@link SnapshotBuffer}, so their entity snapshots are only allocated when the amount
+ * of entities grows.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 13.07.22
+ */
+public class FrameSnapshot {
+
+    private EntitySnapshot[] entities;
+    private int entityCount;
+    private double[] bulletPreviousX, bulletPreviousY, bulletX, bulletY;
+    private int[] bulletRotationIndex;
+    private int bulletCount;
+    private final AffineTransform cameraTransform;
+    private final AffineTransform cameraInverseTransform;
+    private double gameTime;
+    private long publishTime; // System.nanoTime() when the tick was finished
+    private long tickNanos; // Length of the tick in nanoseconds
+    private long tick; // The number of the tick
+    private final Path2D.Double transitionShape; // The shape of the screen transition, empty if none is running
+    private Color transitionColor; // null if no screen transition is running
+
+    FrameSnapshot() {
+        entities = new EntitySnapshot[0];
+        bulletPreviousX = bulletPreviousY = bulletX = bulletY = new double[0];
+        bulletRotationIndex = new int[0];
+        cameraTransform = new AffineTransform();
+        cameraInverseTransform = new AffineTransform();
+        transitionShape = new Path2D.Double();
+    }
+
+    /**
+     * Captures the current state of all {@code entities}.
+     *
+     * @param entities               the entities to capture
+     * @param cameraTransform        the camera transform after the tick
+     * @param cameraInverseTransform the inverse camera transform after the tick
+     * @param gameTime               the game time after the tick
+     * @param tickNanos              the length of a tick in nanoseconds
+     */
+    public void capture(List<Entity> entities, AffineTransform cameraTransform, AffineTransform cameraInverseTransform,
+                        double gameTime, long tickNanos) {
+        ensureCapacity(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            this.entities[i].capture(entities.get(i));
+        }
+        for (int i = entities.size(); i < entityCount; i++) {
+            this.entities[i].clear();
+        }
+        entityCount = entities.size();
+        this.cameraTransform.setTransform(cameraTransform);
+        this.cameraInverseTransform.setTransform(cameraInverseTransform);
+        this.gameTime = gameTime;
+        this.tickNanos = tickNanos;
+        publishTime = System.nanoTime();
+    }
+
+    /**
+     * Stores the number of the captured tick, so the render thread knows which inputs are visible in this snapshot.
+     *
+     * @param tick the number of the tick
+     */
+    public void captureTick(long tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * Copies the shape and color of the screen transition, which are changed by the game thread while it runs.
+     *
+     * @param transition the running screen transition or null if there is none
+     */
+    public void captureTransition(ScreenTransition transition) {
+        transitionShape.reset(); // Keeps its arrays, so capturing a transition every tick doesn't allocate
+        if (transition == null) {
+            transitionColor = null;
+            return;
+        }
+        transitionShape.append(transition.getShape(), false);
+        transitionColor = transition.getColor();
+    }
+
+    /**
+     * Copies the positions of all bullets of {@code bulletSystem}. Should be called before {@link #capture}.
+     *
+     * @param bulletSystem the bullet system to capture
+     */
+    public void captureBullets(BulletSystem bulletSystem) {
+        int count = bulletSystem.size();
+        if (bulletX.length < count) {
+            int capacity = Math.max(count, bulletX.length * 2);
+            bulletPreviousX = new double[capacity];
+            bulletPreviousY = new double[capacity];
+            bulletX = new double[capacity];
+            bulletY = new double[capacity];
+            bulletRotationIndex = new int[capacity];
+        }
+        bulletSystem.copyTo(bulletPreviousX, bulletPreviousY, bulletX, bulletY, bulletRotationIndex);
+        bulletCount = count;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (entities.length >= capacity)
+            return;
+        int oldLength = entities.length;
+        entities = Arrays.copyOf(entities, Math.max(capacity, oldLength * 2));
+        for (int i = oldLength; i < entities.length; i++) {
+            entities[i] = new EntitySnapshot();
+        }
+    }
+
+    /**
+     * Calculates how far the render thread is between this and the next tick. Rendering this snapshot with the returned
+     * value shows the simulation with a delay of at most one tick but moves smoothly at any frame rate.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return [0,1] the fraction of a tick that has passed since this snapshot was published
+     */
+    public double getAlpha(long now) {
+        if (tickNanos <= 0)
+            return 1;
+        return Math.max(0, Math.min(1, (now - publishTime) / (double) tickNanos));
+    }
+
+    /**
+     * Draws all entities of this snapshot interpolated by {@code alpha}, sorted by their layer and image.
+     *
+     * @param g2d   the graphics context to draw to
+     * @param queue the queue the entities are drawn with, it is empty afterwards
+     * @param alpha the interpolation factor (see {@link #getAlpha(long)})
+     */
+    public void drawEntities(Graphics2D g2d, RenderQueue queue, double alpha) {
+        for (int i = 0; i < entityCount; i++) {
+            entities[i].submit(queue, alpha);
+        }
+        queue.flush(g2d);
+        if (Game.debug) {
+            for (int i = 0; i < entityCount; i++) {
+                entities[i].drawShape(g2d, alpha);
+            }
+        }
+    }
+
+    /**
+     * Draws all bullets of this snapshot interpolated by {@code alpha}. <br>
+     * Every bullet is a single blit of a pre-rotated image, so the transform of {@code g2d} is never changed.
+     *
+     * @param g2d   the graphics context to draw to
+     * @param alpha the interpolation factor (see {@link #getAlpha(long)})
+     */
+    public void drawBullets(Graphics2D g2d, double alpha) {
+        for (int i = 0; i < bulletCount; i++) {
+            BufferedImage image = BulletSystem.getBulletImage(bulletRotationIndex[i]);
+            double x = bulletPreviousX[i] + (bulletX[i] - bulletPreviousX[i]) * alpha;
+            double y = bulletPreviousY[i] + (bulletY[i] - bulletPreviousY[i]) * alpha;
+            g2d.drawImage(image, (int) (x - image.getWidth() / 2.0), (int) (y - image.getHeight() / 2.0), null);
+        }
+    }
+
+    /**
+     * Fills the captured screen transition, if there was one.
+     *
+     * @param g2d the graphics context to draw to
+     */
+    public void drawTransition(Graphics2D g2d) {
+        if (transitionColor == null)
+            return;
+        g2d.setColor(transitionColor);
+        g2d.fill(transitionShape);
+    }
+
+    /**
+     * @return true if a screen transition was captured in this snapshot
+     */
+    public boolean hasTransition() {
+        return transitionColor != null;
+    }
+
+    /**
+     * @return the amount of bullets captured in this snapshot
+     */
+    public int getBulletCount() {
+        return bulletCount;
+    }
+
+    /**
+     * @param index the index of the entity snapshot ({@code 0 <= index < getEntityCount()})
+     * @return the entity snapshot at {@code index}
+     */
+    public EntitySnapshot getEntity(int index) {
+        return entities[index];
+    }
+
+    /**
+     * @return the amount of entities captured in this snapshot
+     */
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    /**
+     * @return the camera transform of this snapshot
+     */
+    public AffineTransform getCameraTransform() {
+        return cameraTransform;
+    }
+
+    /**
+     * @return the inverse camera transform of this snapshot
+     */
+    public AffineTransform getCameraInverseTransform() {
+        return cameraInverseTransform;
+    }
+
+    /**
+     * @return the game time of this snapshot
+     */
+    public double getGameTime() {
+        return gameTime;
+    }
+
+    /**
+     * @return the number of the tick this snapshot was captured after
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return true if this snapshot was never captured
+     */
+    public boolean isEmpty() {
+        return publishTime == 0;
+    }
+}
@@ -0,0 +1,206 @@
+package jetfighters.game.rendering;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Collects the draw commands of one frame and draws them sorted by their layer and their source image. <br>
+ * Every command stores its complete world transform, which is concatenated to the base transform of the graphics
+ * context once, so no transform has to be inverted to undo it. Commands with the same source image (e.g. the same
+ * page of the texture atlas) are drawn back to back and the composite is only changed when it differs from the
+ * previous command. Within a layer and source image, commands are drawn in the order they were submitted. <br>
+ * The queue is reused every frame and stores its commands in primitive arrays, which only grow.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class RenderQueue {
+
+    /**
+     * The layers of the game, commands in higher layers are drawn on top.
+     */
+    public static final int LAYER_PICKUPS = -10;
+    public static final int LAYER_DEFAULT = 0;
+    public static final int LAYER_EFFECTS = 10;
+
+    private static final int LAYER_LIMIT = 1 << 15; // Layers are stored in the 16 (signed) upper bits of the sort key
+    private static final int TRANSFORM_SIZE = 6;
+
+    private long[] keys; // Layer, image index and command index, sorted before drawing
+    private double[] transforms; // The flat matrices of the world transforms, see AffineTransform#getMatrix
+    private Image[] images; // Null for commands that fill a shape
+    private int[] sourceX, sourceY, width, height;
+    private float[] alphas;
+    private Shape[] shapes;
+    private Color[] colors;
+    private int size;
+
+    private Image[] distinctImages; // The source images of this frame, their index is part of the sort key
+    private int distinctImageCount;
+
+    private final AffineTransform baseTransform;
+    private final AffineTransform worldTransform;
+    private final AffineTransform commandTransform;
+    private final double[] matrix;
+
+    public RenderQueue() {
+        keys = new long[0];
+        transforms = new double[0];
+        images = new Image[0];
+        sourceX = sourceY = width = height = new int[0];
+        alphas = new float[0];
+        shapes = new Shape[0];
+        colors = new Color[0];
+        distinctImages = new Image[8];
+        baseTransform = new AffineTransform();
+        worldTransform = new AffineTransform();
+        commandTransform = new AffineTransform();
+        matrix = new double[TRANSFORM_SIZE];
+    }
+
+    /**
+     * Adds a command that draws a rectangle of {@code image}.
+     *
+     * @param layer          the layer of the command (between -32768 and 32767)
+     * @param image          the source image, e.g. the page of a texture atlas
+     * @param sourceX        the x-position of the rectangle in the image
+     * @param sourceY        the y-position of the rectangle in the image
+     * @param width          the width of the rectangle
+     * @param height         the height of the rectangle
+     * @param worldTransform the transform from the rectangle (at 0, 0) to the world, it is copied
+     * @param alpha          the opacity between 0 and 1
+     */
+    public void submit(int layer, Image image, int sourceX, int sourceY, int width, int height,
+                       AffineTransform worldTransform, float alpha) {
+        int index = add(layer, getImageIndex(image), worldTransform);
+        images[index] = image;
+        this.sourceX[index] = sourceX;
+        this.sourceY[index] = sourceY;
+        this.width[index] = width;
+        this.height[index] = height;
+        alphas[index] = alpha;
+    }
+
+    /**
+     * Adds a command that fills {@code shape} with {@code color}.
+     *
+     * @param layer          the layer of the command (between -32768 and 32767)
+     * @param shape          the shape to fill, it must not change until the queue is flushed
+     * @param color          the color to fill the shape with
+     * @param worldTransform the transform from the shape to the world, it is copied
+     */
+    public void submit(int layer, Shape shape, Color color, AffineTransform worldTransform) {
+        int index = add(layer, 0, worldTransform);
+        shapes[index] = shape;
+        colors[index] = color;
+        alphas[index] = 1;
+    }
+
+    private int add(int layer, int imageIndex, AffineTransform worldTransform) {
+        if (layer < -LAYER_LIMIT || layer >= LAYER_LIMIT)
+            throw new IllegalArgumentException("The layer has to be between " + -LAYER_LIMIT + " and " + (LAYER_LIMIT - 1));
+        ensureCapacity(size + 1);
+        int index = size++;
+        keys[index] = (long) layer << 48 | (long) imageIndex << 32 | index;
+        worldTransform.getMatrix(matrix);
+        System.arraycopy(matrix, 0, transforms, index * TRANSFORM_SIZE, TRANSFORM_SIZE);
+        images[index] = null;
+        shapes[index] = null;
+        colors[index] = null;
+        return index;
+    }
+
+    /**
+     * @return the index of the image in this frame, 0 is reserved for commands without an image
+     */
+    private int getImageIndex(Image image) {
+        for (int i = 0; i < distinctImageCount; i++) {
+            if (distinctImages[i] == image)
+                return i + 1;
+        }
+        if (distinctImageCount == distinctImages.length)
+            distinctImages = Arrays.copyOf(distinctImages, distinctImages.length * 2);
+        distinctImages[distinctImageCount++] = image;
+        return distinctImageCount;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (keys.length >= capacity)
+            return;
+        int newCapacity = Math.max(capacity, keys.length * 2);
+        keys = Arrays.copyOf(keys, newCapacity);
+        transforms = Arrays.copyOf(transforms, newCapacity * TRANSFORM_SIZE);
+        images = Arrays.copyOf(images, newCapacity);
+        sourceX = Arrays.copyOf(sourceX, newCapacity);
+        sourceY = Arrays.copyOf(sourceY, newCapacity);
+        width = Arrays.copyOf(width, newCapacity);
+        height = Arrays.copyOf(height, newCapacity);
+        alphas = Arrays.copyOf(alphas, newCapacity);
+        shapes = Arrays.copyOf(shapes, newCapacity);
+        colors = Arrays.copyOf(colors, newCapacity);
+    }
+
+    /**
+     * Draws all commands sorted by their layer and source image and clears the queue. <br>
+     * The transform, composite and color of {@code g2d} are the same afterwards.
+     *
+     * @param g2d the graphics context to draw to, its transform is the base of all world transforms (e.g. the camera)
+     */
+    public void flush(Graphics2D g2d) {
+        Arrays.sort(keys, 0, size);
+        baseTransform.setTransform(g2d.getTransform());
+        Composite baseComposite = g2d.getComposite();
+        Color baseColor = g2d.getColor();
+        float currentAlpha = 1;
+
+        for (int i = 0; i < size; i++) {
+            int index = (int) keys[i];
+            int offset = index * TRANSFORM_SIZE;
+            worldTransform.setTransform(transforms[offset], transforms[offset + 1], transforms[offset + 2],
+                    transforms[offset + 3], transforms[offset + 4], transforms[offset + 5]);
+            commandTransform.setTransform(baseTransform);
+            commandTransform.concatenate(worldTransform);
+            g2d.setTransform(commandTransform);
+
+            if (alphas[index] != currentAlpha) {
+                currentAlpha = alphas[index];
+                g2d.setComposite(currentAlpha == 1 ? baseComposite : AlphaComposite.getInstance(AlphaComposite.SRC_OVER, currentAlpha));
+            }
+
+            if (shapes[index] != null) {
+                g2d.setColor(colors[index]);
+                g2d.fill(shapes[index]);
+            } else {
+                int x = sourceX[index];
+                int y = sourceY[index];
+                g2d.drawImage(images[index], 0, 0, width[index], height[index], x, y, x + width[index], y + height[index], null);
+            }
+        }
+
+        g2d.setTransform(baseTransform);
+        g2d.setComposite(baseComposite);
+        g2d.setColor(baseColor);
+        clear();
+    }
+
+    /**
+     * Removes all commands without drawing them.
+     */
+    public void clear() {
+        Arrays.fill(images, 0, size, null);
+        Arrays.fill(shapes, 0, size, null);
+        Arrays.fill(colors, 0, size, null);
+        Arrays.fill(distinctImages, 0, distinctImageCount, null);
+        distinctImageCount = 0;
+        size = 0;
+    }
+
+    /**
+     * @return the amount of commands in the queue
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,59 @@
+package jetfighters.game.rendering;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * A lock-free triple buffer that hands {@link FrameSnapshot}s from the simulation thread to the render thread. <br>
+ * The writer always has a snapshot of its own to fill, the reader always has one to draw and the third one holds the
+ * latest published snapshot. Neither thread ever waits for the other and the reader always gets the newest tick.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 13.07.22
+ */
+public class SnapshotBuffer {
+
+    private static final int INDEX_MASK = 0b11;
+    private static final int DIRTY = 0b100; // Set if the middle snapshot was published but not read yet
+
+    private final FrameSnapshot[] snapshots;
+    private final AtomicInteger middle; // Index of the middle snapshot combined with the DIRTY flag
+    private int writeIndex; // Only accessed by the simulation thread
+    private int readIndex; // Only accessed by the render thread
+
+    public SnapshotBuffer() {
+        snapshots = new FrameSnapshot[]{new FrameSnapshot(), new FrameSnapshot(), new FrameSnapshot()};
+        writeIndex = 0;
+        middle = new AtomicInteger(1);
+        readIndex = 2;
+    }
+
+    /**
+     * Should only be called by the simulation thread.
+     *
+     * @return the snapshot to capture the next tick into
+     */
+    public FrameSnapshot getWriteSnapshot() {
+        return snapshots[writeIndex];
+    }
+
+    /**
+     * Publishes the snapshot returned by {@link #getWriteSnapshot()}, making it available to the reader. <br>
+     * Should only be called by the simulation thread.
+     */
+    public void publish() {
+        writeIndex = middle.getAndSet(writeIndex | DIRTY) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the latest published snapshot. The returned snapshot won't be changed until this is called again. <br>
+     * Should only be called by the render thread.
+     *
+     * @return the latest published snapshot (can be empty if nothing was published yet, see {@link FrameSnapshot#isEmpty()})
+     */
+    public FrameSnapshot getReadSnapshot() {
+        if ((middle.get() & DIRTY) != 0)
+            readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        return snapshots[readIndex];
+    }
+}
@@ -1,9 +1,12 @@
 package jetfighters.game.spawner;
 
+import jetfighters.game.entities.EntityPool;
+import jetfighters.game.entities.EntityPools;
 import jetfighters.game.entities.powerups.*;
 import jetfighters.game.handlers.EntityHandler;
 import jetfighters.game.math.Vector2;
 
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -16,6 +19,7 @@ import java.util.Random;
 public class PowerUpSpawner {
 
     private final EntityHandler entityHandler;
+    private final List<EntityPool<? extends PowerUpEntity>> powerUpPools;
     private final int powerUps;
     private final Random random;
     private final double spawnTime;
@@ -24,9 +28,36 @@ public class PowerUpSpawner {
 
     //TODO: Add doc comments
     public PowerUpSpawner(EntityHandler entityHandler) {
+        this(entityHandler, new Random());
+    }
+
+    /**
+     * Creates a new PowerUpSpawner that uses {@code random} to decide which power ups are spawned where.
+     *
+     * @param entityHandler the entity handler the power ups are added to
+     * @param random        the source of randomness (seeded to make matches reproducible)
+     */
+    public PowerUpSpawner(EntityHandler entityHandler, Random random) {
+        this(entityHandler, random, new EntityPools());
+    }
+
+    /**
+     * Creates a new PowerUpSpawner that obtains its power ups from pools registered in {@code entityPools}.
+     *
+     * @param entityHandler the entity handler the power ups are added to
+     * @param random        the source of randomness (seeded to make matches reproducible)
+     * @param entityPools   the pools of the game the power up pools are registered in
+     */
+    public PowerUpSpawner(EntityHandler entityHandler, Random random, EntityPools entityPools) {
         this.entityHandler = entityHandler;
-        this.powerUps = 5;
-        this.random = new Random();
+        powerUpPools = List.of(
+                entityPools.register("health kits", () -> new HealthKitEntity(Vector2.ZERO, Vector2.ZERO, 50.0)),
+                entityPools.register("attack buffs", () -> new AttackBuffEntity(Vector2.ZERO, Vector2.ZERO, 2, 5)),
+                entityPools.register("attack debuffs", () -> new AttackDebuffEntity(Vector2.ZERO, Vector2.ZERO, 0.5, 5)),
+                entityPools.register("speed buffs", () -> new SpeedBuffEntity(Vector2.ZERO, Vector2.ZERO, 2, 5)),
+                entityPools.register("speed debuffs", () -> new SpeedDebuffEntity(Vector2.ZERO, Vector2.ZERO, 0.5, 5)));
+        this.powerUps = powerUpPools.size();
+        this.random = random;
         this.spawnTime = 5.0;
         this.time = spawnTime;
         this.offset = 32;
@@ -35,24 +66,12 @@ public class PowerUpSpawner {
     public void update(double delta) {
         time += delta;
         if (time >= spawnTime) {
-            PowerUpEntity powerUp = null;
             time -= spawnTime;
             int number = random.nextInt(powerUps);
             int x = random.nextInt(1068 - 2 * offset) + offset;
-            switch (number) {
-                case 0 -> powerUp = new HealthKitEntity(new Vector2(x, 0), new Vector2(0, 100.0), 50.0);
-                case 1 -> powerUp = new AttackBuffEntity(new Vector2(x, 0), new Vector2(0, 100.0),
-                        2, 5);
-                case 2 -> powerUp = new AttackDebuffEntity(new Vector2(x, 0), new Vector2(0, 100.0),
-                        0.5, 5);
-                case 3 -> powerUp = new SpeedBuffEntity(new Vector2(x, 0), new Vector2(0, 100.0),
-                        2, 5);
-                case 4 -> powerUp = new SpeedDebuffEntity(new Vector2(x, 0), new Vector2(0, 100.0),
-                        0.5, 5);
-            }
-            if (powerUp != null) {
-                entityHandler.addEntity(powerUp);
-            }
+            PowerUpEntity powerUp = powerUpPools.get(number).obtain();
+            powerUp.reset(new Vector2(x, 0), new Vector2(0, 100.0));
+            entityHandler.addEntity(powerUp);
         }
     }
 }
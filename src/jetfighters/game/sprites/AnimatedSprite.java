@@ -1,5 +1,7 @@
 package jetfighters.game.sprites;
 
+import jetfighters.game.math.PixelMask;
+
 import java.awt.image.BufferedImage;
 
 /**
@@ -10,7 +12,9 @@ import java.awt.image.BufferedImage;
  */
 public class AnimatedSprite extends Sprite {
 
-    private BufferedImage[] frames;
+    private BufferedImage[] frames; // Shared with the AssetCache, must not be modified
+    private TextureAtlas.Region[] regions; // The regions of the frames in the texture atlas, null if they are not part of it
+    private PixelMask[] masks; // Null until createMasks() is called
     private int activeFrameCount;
     private double frameDelay;
     private double animationSpeed;
@@ -41,14 +45,14 @@ public class AnimatedSprite extends Sprite {
      * @param looping    if this is true the animation will loop
      */
     public AnimatedSprite(String imagePath, int frameCount, double frameDelay, boolean looping) {
-        super(imagePath + "1.png");
+        super(imagePath + "1.png", null, null); // The first frame is shown from the frames, so it isn't loaded twice
         setup(frameDelay, frameCount, looping);
-        frames[0] = image;
-
-        for (int i = 1; i < frameCount; i++) {
-            int frameNumber = i + 1;
-            frames[i] = readImage(imagePath + frameNumber + ".png");
-        }
+        regions = TextureAtlas.getDefault().getFrameRegions(imagePath, frameCount);
+        if (regions != null)
+            frames = getRegionImages(regions);
+        else
+            frames = AssetCache.getDefault().getFrames(imagePath, frameCount); // Shared with all sprites of the same animation
+        showFrame(0);
     }
 
     /**
@@ -103,22 +107,33 @@ public class AnimatedSprite extends Sprite {
      *                         (e.g. a 3x3 sheet where the frame in position 3,3 is empty would have an activeFrameCount of 8)
      */
     public AnimatedSprite(String imagePath, int hFrameCount, int vFrameCount, int hSeparation, int vSeparation, double frameDelay, boolean looping, int activeFrameCount) {
-        super(imagePath);
+        super(imagePath, null, null); // The sheet is only loaded to be cut into the frames
 
         setup(frameDelay, activeFrameCount, looping);
 
-        BufferedImage fullImage = image;
-        int subWidth = (fullImage.getWidth() - hSeparation * (hFrameCount - 1)) / hFrameCount;
-        int subHeight = (fullImage.getHeight() - vSeparation * (vFrameCount - 1)) / vFrameCount;
-        for (int yFrame = 0; yFrame < vFrameCount; yFrame++) {
-            for (int xFrame = 0; xFrame < hFrameCount; xFrame++) {
-                frames[yFrame * hFrameCount + xFrame] = fullImage.getSubimage(
-                        (subWidth + hSeparation) * xFrame, (subHeight + vSeparation) * yFrame,
-                        subWidth, subHeight
-                );
-            }
+        // Cut once and shared with all sprites of the same animation
+        regions = TextureAtlas.getDefault().getSheetRegions(imagePath, hFrameCount, vFrameCount, hSeparation, vSeparation, activeFrameCount);
+        if (regions != null) {
+            frames = getRegionImages(regions);
+        } else {
+            frames = AssetCache.getDefault().getSheetFrames(imagePath, hFrameCount, vFrameCount, hSeparation, vSeparation, activeFrameCount);
+            if (frames == null)
+                frames = new BufferedImage[activeFrameCount];
+        }
+        showFrame(0);
+    }
+
+    private static BufferedImage[] getRegionImages(TextureAtlas.Region[] regions) {
+        BufferedImage[] images = new BufferedImage[regions.length];
+        for (int i = 0; i < regions.length; i++) {
+            images[i] = regions[i].getImage();
         }
-        image = frames[0];
+        return images;
+    }
+
+    private void showFrame(int frame) {
+        image = frames[frame];
+        region = regions != null ? regions[frame] : null;
     }
 
     private void setup(double frameDelay, int frameCount, boolean looping) {
@@ -130,8 +145,6 @@ public class AnimatedSprite extends Sprite {
         timer = 0;
         paused = false;
         currentFrame = 0;
-
-        frames = new BufferedImage[frameCount];
     }
 
     public void update(double delta) {
@@ -154,10 +167,10 @@ public class AnimatedSprite extends Sprite {
             currentFrame = activeFrameCount;
             paused = true;
             setVisible(false);
-            System.out.println("not looping");
+            return;
         }
         currentFrame = (currentFrame + 1) % activeFrameCount;
-        image = frames[currentFrame];
+        showFrame(currentFrame);
     }
 
     /**
@@ -168,14 +181,40 @@ public class AnimatedSprite extends Sprite {
      */
     public void setFrame(int frame) {
         currentFrame = frame % activeFrameCount;
-        image = frames[currentFrame];
+        showFrame(currentFrame);
     }
 
     /**
-     * Resets the animation to the first frame.
+     * Resets the animation to the first frame and resumes it (also if it was finished and invisible).
      */
     public void reset() {
         currentFrame = 0;
+        showFrame(0);
+        timer = 0;
+        paused = false;
+        setVisible(true);
+    }
+
+    /**
+     * Creates the {@link PixelMask}s of all frames, so they are ready before the first collision test.
+     *
+     * @param alphaThreshold [0, 255] the minimum alpha value of an opaque pixel
+     */
+    public void createMasks(int alphaThreshold) {
+        masks = new PixelMask[activeFrameCount];
+        for (int i = 0; i < activeFrameCount; i++) {
+            if (frames[i] != null)
+                masks[i] = PixelMask.fromImage(frames[i], alphaThreshold);
+        }
+    }
+
+    /**
+     * @return the mask of the current frame or null if {@link #createMasks(int)} wasn't called or the frame couldn't be loaded
+     */
+    public PixelMask getMask() {
+        if (masks == null || currentFrame >= masks.length)
+            return null;
+        return masks[currentFrame];
     }
 
     public int getCurrentFrame() {
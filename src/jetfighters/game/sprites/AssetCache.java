@@ -0,0 +1,282 @@
+package jetfighters.game.sprites;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Loads every image once for the whole process and shares it between all sprites that use it, so creating a sprite
+ * in the middle of a match (e.g. an explosion) doesn't read and decode a file. <br>
+ * Images are converted to a translucent image that is compatible with the screen, so Java2D can draw them accelerated.
+ * Animations are cut into frames once and the frame arrays are shared as well, they must not be modified. <br>
+ * The cache is thread safe: an asset that is requested by several threads at once is only loaded by the first one,
+ * the others wait for it. If the images in the cache get larger than the maximum size, the least recently used ones are
+ * evicted (sprites that already use them keep them).
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class AssetCache {
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final AssetCache defaultCache = new AssetCache(DEFAULT_MAX_BYTES);
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Asset> assets; // In order of their last use
+    private final Map<String, CompletableFuture<Object>> loading; // Assets that are currently loaded by another thread
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private record Asset(Object value, long bytes) {
+    }
+
+    /**
+     * Creates a new, empty AssetCache. Most assets should be loaded through the shared {@link #getDefault()} cache.
+     *
+     * @param maxBytes the maximum size of all images in the cache (4 bytes per pixel)
+     */
+    public AssetCache(long maxBytes) {
+        if (maxBytes <= 0)
+            throw new IllegalArgumentException("The maximum size of an asset cache has to be positive");
+        this.maxBytes = maxBytes;
+        assets = new LinkedHashMap<>(16, 0.75f, true);
+        loading = new HashMap<>();
+    }
+
+    /**
+     * @return the cache shared by all sprites
+     */
+    public static AssetCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * Returns the image at {@code path} (relative to the resources).
+     *
+     * @param path the path of the image
+     * @return the shared image or null if it couldn't be loaded
+     */
+    public BufferedImage getImage(String path) {
+        return (BufferedImage) get("image:" + path, () -> {
+            BufferedImage image = toCompatibleImage(readImage(path));
+            return image == null ? null : new Asset(image, getBytes(image));
+        });
+    }
+
+    /**
+     * Returns the frames of an animation that is saved as one image per frame
+     * ("[basePath]1.png", "[basePath]2.png", ...).
+     *
+     * @param basePath   the path of the frames without the number and ".png"
+     * @param frameCount the amount of frames
+     * @return the shared frames, must not be modified (frames that couldn't be loaded are null)
+     */
+    public BufferedImage[] getFrames(String basePath, int frameCount) {
+        return (BufferedImage[]) get("frames:" + basePath + ":" + frameCount, () -> {
+            BufferedImage[] frames = new BufferedImage[frameCount];
+            long size = 0;
+            for (int i = 0; i < frameCount; i++) {
+                // Not cached as images, the frames are only reachable (and counted) through this entry
+                frames[i] = toCompatibleImage(readImage(basePath + (i + 1) + ".png"));
+                size += getBytes(frames[i]);
+            }
+            return new Asset(frames, size);
+        });
+    }
+
+    /**
+     * Returns the frames of an animation that is saved as a sprite-sheet, each frame copied into its own image. <br>
+     * The sheet itself is not cached, it isn't needed anymore once it is cut.
+     *
+     * @param path             the path of the sheet
+     * @param hFrameCount      the amount of frames the sheet has horizontally
+     * @param vFrameCount      the amount of frames the sheet has vertically
+     * @param hSeparation      the spacing between the frames horizontally
+     * @param vSeparation      the spacing between the frames vertically
+     * @param activeFrameCount the amount of frames that are used (row by row)
+     * @return the shared frames, must not be modified, or null if the sheet couldn't be loaded
+     */
+    public BufferedImage[] getSheetFrames(String path, int hFrameCount, int vFrameCount, int hSeparation, int vSeparation, int activeFrameCount) {
+        String key = "sheet:" + path + ":" + hFrameCount + "x" + vFrameCount + ":" + hSeparation + "x" + vSeparation + ":" + activeFrameCount;
+        return (BufferedImage[]) get(key, () -> {
+            BufferedImage sheet = readImage(path);
+            if (sheet == null)
+                return null;
+            int subWidth = (sheet.getWidth() - hSeparation * (hFrameCount - 1)) / hFrameCount;
+            int subHeight = (sheet.getHeight() - vSeparation * (vFrameCount - 1)) / vFrameCount;
+            BufferedImage[] frames = new BufferedImage[activeFrameCount];
+            long size = 0;
+            for (int i = 0; i < activeFrameCount; i++) {
+                int xFrame = i % hFrameCount;
+                int yFrame = i / hFrameCount;
+                // Copied, as Java2D can't accelerate sub images that share the raster of the sheet
+                frames[i] = toCompatibleImage(sheet.getSubimage((subWidth + hSeparation) * xFrame,
+                        (subHeight + vSeparation) * yFrame, subWidth, subHeight));
+                size += getBytes(frames[i]);
+            }
+            return new Asset(frames, size);
+        });
+    }
+
+    private Object get(String key, Supplier<Asset> loader) {
+        CompletableFuture<Object> future;
+        boolean loadedByOtherThread;
+        synchronized (this) {
+            Asset asset = assets.get(key);
+            if (asset != null) {
+                hits++;
+                return asset.value();
+            }
+            future = loading.get(key);
+            loadedByOtherThread = future != null;
+            if (loadedByOtherThread) {
+                hits++; // This thread only waits for the other one
+            } else {
+                misses++;
+                future = new CompletableFuture<>();
+                loading.put(key, future);
+            }
+        }
+        if (loadedByOtherThread)
+            return future.join();
+
+        Asset asset = null;
+        try {
+            asset = loader.get();
+        } finally {
+            synchronized (this) {
+                loading.remove(key);
+                if (asset != null)
+                    put(key, asset);
+            }
+            future.complete(asset == null ? null : asset.value());
+        }
+        return asset == null ? null : asset.value();
+    }
+
+    private void put(String key, Asset asset) {
+        Asset previous = assets.put(key, asset);
+        if (previous != null)
+            bytes -= previous.bytes();
+        bytes += asset.bytes();
+        Iterator<Map.Entry<String, Asset>> iterator = assets.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Asset> eldest = iterator.next();
+            if (eldest.getKey().equals(key))
+                continue; // Never evict the asset that was just added
+            bytes -= eldest.getValue().bytes();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static long getBytes(BufferedImage image) {
+        return image == null ? 0 : (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    /**
+     * Reads and decodes the image at {@code path} without caching or converting it.
+     *
+     * @param path the path of the image relative to the resources
+     * @return the decoded image or null if it couldn't be loaded
+     */
+    public static BufferedImage readImage(String path) {
+        try {
+            ClassLoader classLoader = AssetCache.class.getClassLoader();
+            try (InputStream inputStream = Objects.requireNonNull(classLoader.getResourceAsStream(path))) {
+                return ImageIO.read(inputStream);
+            }
+        } catch (IOException | NullPointerException e) {
+            System.err.println("Couldn't load image " + path + " in AssetCache:");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Copies {@code image} into a translucent image in the format of the screen (premultiplied ARGB without a screen).
+     *
+     * @param image the image to convert
+     * @return the converted image or null if {@code image} is null
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        if (image == null)
+            return null;
+        BufferedImage compatible = createCompatibleImage(image.getWidth(), image.getHeight());
+        Graphics2D g2d = compatible.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return compatible;
+    }
+
+    /**
+     * Creates an empty, translucent image in the format of the screen (premultiplied ARGB without a screen).
+     *
+     * @param width  the width of the image
+     * @param height the height of the image
+     * @return the new image
+     */
+    public static BufferedImage createCompatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless())
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * @return how often an asset was found in the cache (or loaded by another thread at the same time)
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return how often an asset had to be loaded
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return how often an asset was removed because the cache was full
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the size of all images in the cache in bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the amount of cached assets
+     */
+    public synchronized int size() {
+        return assets.size();
+    }
+
+    /**
+     * Removes all assets, sprites that already use them keep them.
+     */
+    public synchronized void clear() {
+        assets.clear();
+        bytes = 0;
+    }
+}
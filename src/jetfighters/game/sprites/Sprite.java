@@ -1,15 +1,12 @@
 package jetfighters.game.sprites;
 
+import jetfighters.game.math.CachedTransform;
 import jetfighters.game.math.Vector2;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.NoninvertibleTransformException;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Objects;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
@@ -24,14 +21,37 @@ public class Sprite {
     protected Vector2 scale;
 
     protected BufferedImage image;
+    protected TextureAtlas.Region region; // The region of image in the texture atlas, null if image is a separate image
 
     private boolean visible;
 
+    private final CachedTransform cachedTransform = new CachedTransform(); // Recomputed only if the sprite was moved
+
     protected final String imagePath;
 
     public Sprite(String imagePath) {
         this.imagePath = imagePath;
-        image = readImage(imagePath);
+        region = TextureAtlas.getDefault().getRegion(imagePath);
+        image = region != null ? region.getImage() : readImage(imagePath);
+
+        position = Vector2.ZERO;
+        rotation = 0;
+        scale = Vector2.ONE;
+        visible = true;
+    }
+
+    /**
+     * Creates a sprite without loading its image, for subclasses that set {@link #image} and {@link #region} themselves
+     * (e.g. to the first frame of an animation).
+     *
+     * @param imagePath the path the sprite was created from
+     * @param image     the image to draw, can be null until it is set
+     * @param region    the region of the image in the texture atlas or null
+     */
+    protected Sprite(String imagePath, BufferedImage image, TextureAtlas.Region region) {
+        this.imagePath = imagePath;
+        this.image = image;
+        this.region = region;
 
         position = Vector2.ZERO;
         rotation = 0;
@@ -39,42 +59,56 @@ public class Sprite {
         visible = true;
     }
 
+    /**
+     * Returns the image at {@code imagePath} from the {@link AssetCache}, so every image is only loaded once.
+     *
+     * @param imagePath the path of the image relative to the resources
+     * @return the shared image or null if it couldn't be loaded
+     */
     protected BufferedImage readImage(String imagePath) {
-        try {
-            ClassLoader classLoader = getClass().getClassLoader();
-            InputStream inputStream = Objects.requireNonNull(classLoader.getResourceAsStream(imagePath));
-            return ImageIO.read(inputStream);
-        } catch (IOException | NullPointerException e) {
-            System.err.println("Couldn't load image " + imagePath + " in Sprite:");
-            e.printStackTrace();
-            return null;
-        }
+        return AssetCache.getDefault().getImage(imagePath);
     }
 
     public void draw(Graphics2D g2d) {
         if (image == null || !isVisible())
             return;
+        AffineTransform baseTransform = g2d.getTransform(); // Restored instead of inverted, so no error builds up
         g2d.transform(getTransform());
-        g2d.drawImage(image, 0, 0, null);
-        try {
-            g2d.transform(getTransform().createInverse());
-        } catch (NoninvertibleTransformException e) {
-            System.err.println("Couldn't inverse transform in Sprite:");
-            e.printStackTrace();
-        }
+        drawImage(g2d);
+        g2d.setTransform(baseTransform);
     }
 
     /**
-     * Returns the transform that is applied to this sprite
+     * Draws the current image at (0, 0) of the current transform of {@code g2d}, from the page of the texture atlas
+     * if it is part of it.
      *
-     * @return the transform
+     * @param g2d the graphics context to draw to
+     */
+    public void drawImage(Graphics2D g2d) {
+        if (region != null)
+            region.draw(g2d);
+        else
+            g2d.drawImage(image, 0, 0, null);
+    }
+
+    /**
+     * Returns the transform that is applied to this sprite. It is cached and only recomputed if the position, rotation,
+     * scale or image size changed since the last call.
+     *
+     * @return the transform, must not be modified
      */
     public AffineTransform getTransform() {
-        AffineTransform transform = new AffineTransform();
-        transform.rotate(rotation, position.x + image.getWidth() * scale.x / 2.0, position.y + image.getHeight() * scale.y / 2.0);
-        transform.translate(position.x, position.y);
-        transform.scale(scale.x, scale.y);
-        return transform;
+        cachedTransform.update(position.x, position.y, rotation, scale.x, scale.y, getWidth(), getHeight());
+        return cachedTransform.getTransform();
+    }
+
+    /**
+     * @return the inverse of {@link #getTransform()}, must not be modified
+     * @throws NoninvertibleTransformException if the transform is not invertible (e.g. scaled by 0)
+     */
+    public AffineTransform getInverseTransform() throws NoninvertibleTransformException {
+        getTransform();
+        return cachedTransform.getInverse();
     }
 
     /**
@@ -154,6 +188,13 @@ public class Sprite {
         return image;
     }
 
+    /**
+     * @return the region of the current image in the texture atlas or null if it is not part of it
+     */
+    public TextureAtlas.Region getRegion() {
+        return region;
+    }
+
     public String getImagePath() {
         return imagePath;
     }
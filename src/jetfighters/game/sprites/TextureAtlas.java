@@ -0,0 +1,444 @@
+package jetfighters.game.sprites;
+
+import javax.imageio.ImageIO;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.RasterFormatException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Many small sprite images packed into a few large pages, so sprites are drawn from a few shared images instead of one
+ * image per frame. Each packed image is a {@link Region} of a page, found by its resource path. <br>
+ * The {@link #getDefault() default atlas} is read from "atlas/sprites.atlas" if it was generated at build time
+ * (see {@link #main(String[])}), otherwise all images in "sprites/" are packed once at startup. Sprites whose images
+ * are not part of the atlas are loaded from the {@link AssetCache} as before.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class TextureAtlas {
+
+    public static final int DEFAULT_PAGE_SIZE = 512;
+    public static final int DEFAULT_PADDING = 2; // Transparent pixels between regions, so filtering doesn't bleed
+    public static final String DEFAULT_DIRECTORY = "sprites";
+    public static final String DEFAULT_INDEX = "atlas/sprites.atlas";
+
+    private static TextureAtlas defaultAtlas;
+
+    private final List<BufferedImage> pages;
+    private final Map<String, Region> regions;
+    private final Map<String, Region[]> sheetRegions = new ConcurrentHashMap<>(); // Cut once per sheet layout
+
+    /**
+     * A rectangle of a page of the atlas that contains one image.
+     */
+    public static class Region {
+
+        private final String name;
+        private final BufferedImage page;
+        private final int x, y, width, height;
+        private BufferedImage image; // A copy of the region, created when it is first needed
+
+        Region(String name, BufferedImage page, int x, int y, int width, int height) {
+            this.name = name;
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Draws this region at (0, 0) of the current transform of {@code g2d} straight from its page.
+         *
+         * @param g2d the graphics context to draw to
+         */
+        public void draw(Graphics2D g2d) {
+            g2d.drawImage(page, 0, 0, width, height, x, y, x + width, y + height, null);
+        }
+
+        /**
+         * Creates a region of a part of this region (e.g. a frame of a sprite-sheet).
+         *
+         * @param x      the x-position in this region
+         * @param y      the y-position in this region
+         * @param width  the width of the new region
+         * @param height the height of the new region
+         * @return the new region
+         */
+        public Region subRegion(int x, int y, int width, int height) {
+            if (x < 0 || y < 0 || x + width > this.width || y + height > this.height)
+                throw new IllegalArgumentException("A sub region has to be inside of its region");
+            return new Region(name + "[" + x + "," + y + "]", page, this.x + x, this.y + y, width, height);
+        }
+
+        /**
+         * Returns this region copied into its own compatible image, e.g. to read its pixels for collision or to draw it
+         * without the page. The copy is created once and shared, as a sub image sharing the raster of the page couldn't
+         * be accelerated by Java2D. Drawing should still use the page (see {@link #draw(Graphics2D)}).
+         *
+         * @return the shared copy of this region, must not be modified
+         */
+        public synchronized BufferedImage getImage() {
+            if (image == null)
+                image = AssetCache.toCompatibleImage(page.getSubimage(x, y, width, height));
+            return image;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public BufferedImage getPage() {
+            return page;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    private TextureAtlas(List<BufferedImage> pages, Map<String, Region> regions) {
+        this.pages = pages;
+        this.regions = regions;
+    }
+
+    /**
+     * @return the atlas used by all sprites, loaded or packed on the first call
+     */
+    public static synchronized TextureAtlas getDefault() {
+        if (defaultAtlas == null) {
+            try {
+                defaultAtlas = TextureAtlas.class.getClassLoader().getResource(DEFAULT_INDEX) != null
+                        ? load(DEFAULT_INDEX) : pack(listImages(DEFAULT_DIRECTORY), DEFAULT_PAGE_SIZE, DEFAULT_PADDING);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Couldn't create the texture atlas, sprites are loaded separately:");
+                e.printStackTrace();
+                defaultAtlas = new TextureAtlas(List.of(), Map.of());
+            }
+        }
+        return defaultAtlas;
+    }
+
+    /**
+     * Packs the images at {@code paths} (relative to the resources) into pages. Images that can't be loaded are skipped.
+     *
+     * @param paths    the paths of the images to pack
+     * @param pageSize the maximum width and height of a page
+     * @param padding  the amount of transparent pixels between two regions
+     * @return the new atlas
+     */
+    public static TextureAtlas pack(List<String> paths, int pageSize, int padding) {
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        for (String path : paths) {
+            BufferedImage image = AssetCache.readImage(path); // Not cached, the atlas replaces the single images
+            if (image != null)
+                images.put(path, image);
+        }
+        return pack(images, pageSize, padding);
+    }
+
+    /**
+     * Packs {@code images} into pages in rows (shelves) from the top left to the bottom right, the highest images first.
+     *
+     * @param images   the images to pack by their name
+     * @param pageSize the maximum width and height of a page
+     * @param padding  the amount of transparent pixels between two regions
+     * @return the new atlas
+     * @throws IllegalArgumentException if an image is larger than a page
+     */
+    public static TextureAtlas pack(Map<String, BufferedImage> images, int pageSize, int padding) {
+        List<String> names = new ArrayList<>(images.keySet());
+        names.sort(Comparator.comparingInt((String name) -> -images.get(name).getHeight())
+                .thenComparingInt(name -> -images.get(name).getWidth()).thenComparing(Comparator.naturalOrder()));
+
+        // Positions of all images: page, x, y
+        Map<String, int[]> positions = new HashMap<>();
+        List<Integer> pageHeights = new ArrayList<>();
+        int page = 0, x = 0, y = 0, shelfHeight = 0;
+        for (String name : names) {
+            BufferedImage image = images.get(name);
+            if (image.getWidth() > pageSize || image.getHeight() > pageSize)
+                throw new IllegalArgumentException("The image " + name + " doesn't fit on a page of the texture atlas");
+            if (x + image.getWidth() > pageSize) { // Next shelf
+                x = 0;
+                y += shelfHeight + padding;
+                shelfHeight = 0;
+            }
+            if (y + image.getHeight() > pageSize) { // Next page
+                pageHeights.add(y - padding);
+                page++;
+                x = 0;
+                y = 0;
+                shelfHeight = 0;
+            }
+            positions.put(name, new int[]{page, x, y});
+            x += image.getWidth() + padding;
+            shelfHeight = Math.max(shelfHeight, image.getHeight());
+        }
+        if (!names.isEmpty())
+            pageHeights.add(y + shelfHeight);
+
+        List<BufferedImage> pages = new ArrayList<>();
+        List<Graphics2D> graphics = new ArrayList<>();
+        for (int pageHeight : pageHeights) {
+            BufferedImage pageImage = AssetCache.createCompatibleImage(pageSize, Math.max(pageHeight, 1));
+            pages.add(pageImage);
+            Graphics2D g2d = pageImage.createGraphics();
+            g2d.setComposite(AlphaComposite.Src);
+            graphics.add(g2d);
+        }
+        Map<String, Region> regions = new HashMap<>();
+        for (String name : names) {
+            BufferedImage image = images.get(name);
+            int[] position = positions.get(name);
+            graphics.get(position[0]).drawImage(image, position[1], position[2], null);
+            regions.put(name, new Region(name, pages.get(position[0]), position[1], position[2], image.getWidth(), image.getHeight()));
+        }
+        graphics.forEach(Graphics2D::dispose);
+        return new TextureAtlas(pages, regions);
+    }
+
+    /**
+     * Reads an atlas that was saved with {@link #save(File, String)} from the resources.
+     *
+     * @param indexPath the path of the index relative to the resources (the pages are next to it)
+     * @return the loaded atlas
+     * @throws IOException if the index or a page can't be read
+     */
+    public static TextureAtlas load(String indexPath) throws IOException {
+        String directory = indexPath.contains("/") ? indexPath.substring(0, indexPath.lastIndexOf('/') + 1) : "";
+        InputStream indexStream = TextureAtlas.class.getClassLoader().getResourceAsStream(indexPath);
+        if (indexStream == null)
+            throw new FileNotFoundException(indexPath);
+        return read(indexStream, indexPath, (pageName) -> AssetCache.readImage(directory + pageName));
+    }
+
+    /**
+     * Reads an atlas that was saved with {@link #save(File, String)} from a file.
+     *
+     * @param indexFile the index file (the pages are next to it)
+     * @return the loaded atlas
+     * @throws IOException if the index or a page can't be read
+     */
+    public static TextureAtlas load(File indexFile) throws IOException {
+        return read(new FileInputStream(indexFile), indexFile.getPath(), (pageName) -> {
+            try {
+                return ImageIO.read(new File(indexFile.getParentFile(), pageName));
+            } catch (IOException e) {
+                return null;
+            }
+        });
+    }
+
+    private static TextureAtlas read(InputStream indexStream, String indexName, Function<String, BufferedImage> pageLoader) throws IOException {
+        List<BufferedImage> pages = new ArrayList<>();
+        Map<String, Region> regions = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(indexStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split(" ");
+                if (parts[0].equals("page") && parts.length == 2) {
+                    BufferedImage page = AssetCache.toCompatibleImage(pageLoader.apply(parts[1]));
+                    if (page == null)
+                        throw new IOException("Couldn't read the atlas page " + parts[1]);
+                    pages.add(page);
+                } else if (parts[0].equals("region") && parts.length == 7) {
+                    BufferedImage page = pages.get(Integer.parseInt(parts[2]));
+                    regions.put(parts[1], new Region(parts[1], page, Integer.parseInt(parts[3]), Integer.parseInt(parts[4]),
+                            Integer.parseInt(parts[5]), Integer.parseInt(parts[6])));
+                } else if (!parts[0].isEmpty()) {
+                    throw new IOException("Invalid line in the atlas index " + indexName + ": " + line);
+                }
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException | RasterFormatException e) {
+            throw new IOException("Invalid atlas index " + indexName, e);
+        }
+        return new TextureAtlas(pages, regions);
+    }
+
+    /**
+     * Writes the pages of this atlas as PNGs ("[name]_[page].png") and an index of all regions ("[name].atlas") into
+     * {@code directory}.
+     *
+     * @param directory the directory to write to
+     * @param name      the name of the atlas
+     * @throws IOException if a file can't be written
+     */
+    public void save(File directory, String name) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Couldn't create " + directory);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(directory, name + ".atlas")), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < pages.size(); i++) {
+                String pageName = name + "_" + i + ".png";
+                ImageIO.write(pages.get(i), "png", new File(directory, pageName));
+                writer.write("page " + pageName + "\n");
+            }
+            List<String> names = new ArrayList<>(regions.keySet());
+            Collections.sort(names);
+            for (String regionName : names) {
+                Region region = regions.get(regionName);
+                writer.write("region " + regionName + " " + pages.indexOf(region.page) + " " + region.x + " " + region.y
+                        + " " + region.width + " " + region.height + "\n");
+            }
+        }
+    }
+
+    /**
+     * Lists all PNGs in {@code directory} and its subdirectories of the resources, from a folder or from the jar.
+     *
+     * @param directory the directory relative to the resources
+     * @return the paths of all PNGs relative to the resources
+     * @throws IOException if the directory can't be read
+     */
+    public static List<String> listImages(String directory) throws IOException {
+        URL url = TextureAtlas.class.getClassLoader().getResource(directory);
+        if (url == null)
+            return List.of();
+        try {
+            URI uri = url.toURI();
+            if (uri.getScheme().equals("jar")) {
+                FileSystem fileSystem;
+                try {
+                    fileSystem = FileSystems.newFileSystem(uri, Map.of());
+                } catch (FileSystemAlreadyExistsException e) {
+                    fileSystem = FileSystems.getFileSystem(uri);
+                }
+                return listImages(fileSystem.getPath(directory), directory);
+            }
+            return listImages(Paths.get(uri), directory);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static List<String> listImages(Path root, String directory) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(path -> path.toString().endsWith(".png"))
+                    .map(path -> directory + "/" + root.relativize(path).toString().replace('\\', '/'))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Generates the atlas at build time, so it doesn't have to be packed at startup. <br>
+     * Packs all images in "sprites/" of the resources and writes the atlas into the directory of the first argument
+     * (should be "res/atlas" to be found by {@link #getDefault()}).
+     *
+     * @param args the output directory
+     * @throws IOException if the atlas can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: TextureAtlas <output directory>");
+            return;
+        }
+        TextureAtlas atlas = pack(listImages(DEFAULT_DIRECTORY), DEFAULT_PAGE_SIZE, DEFAULT_PADDING);
+        atlas.save(new File(args[0]), "sprites");
+        System.out.println("Packed " + atlas.regions.size() + " images into " + atlas.pages.size() + " pages");
+    }
+
+    /**
+     * @param name the resource path of the image
+     * @return the region of the image or null if it is not part of this atlas
+     */
+    public Region getRegion(String name) {
+        return regions.get(name);
+    }
+
+    /**
+     * @return the regions of all frames of an animation saved as one image per frame ("[basePath]1.png", ...)
+     * or null if not all of them are part of this atlas
+     */
+    public Region[] getFrameRegions(String basePath, int frameCount) {
+        Region[] frames = new Region[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            frames[i] = regions.get(basePath + (i + 1) + ".png");
+            if (frames[i] == null)
+                return null;
+        }
+        return frames;
+    }
+
+    /**
+     * Cuts the region of a sprite sheet into the regions of its frames, once per sheet and layout.
+     *
+     * @param name the resource path of the sheet
+     * @return the regions of the first activeFrameCount frames (row by row), shared and must not be modified,
+     * or null if the sheet is not part of this atlas
+     */
+    public Region[] getSheetRegions(String name, int hFrameCount, int vFrameCount, int hSeparation, int vSeparation, int activeFrameCount) {
+        Region sheet = regions.get(name);
+        if (sheet == null)
+            return null;
+        String key = name + '|' + hFrameCount + '|' + vFrameCount + '|' + hSeparation + '|' + vSeparation + '|' + activeFrameCount;
+        return sheetRegions.computeIfAbsent(key, (k) -> {
+            int subWidth = (sheet.getWidth() - hSeparation * (hFrameCount - 1)) / hFrameCount;
+            int subHeight = (sheet.getHeight() - vSeparation * (vFrameCount - 1)) / vFrameCount;
+            Region[] frames = new Region[activeFrameCount];
+            for (int i = 0; i < activeFrameCount; i++) {
+                frames[i] = sheet.subRegion((subWidth + hSeparation) * (i % hFrameCount),
+                        (subHeight + vSeparation) * (i / hFrameCount), subWidth, subHeight);
+            }
+            return frames;
+        });
+    }
+
+    /**
+     * @return the pages of this atlas, must not be modified
+     */
+    public List<BufferedImage> getPages() {
+        return Collections.unmodifiableList(pages);
+    }
+
+    /**
+     * @return the amount of images in this atlas
+     */
+    public int size() {
+        return regions.size();
+    }
+}
@@ -8,7 +8,7 @@ package jetfighters.game.states;
  */
 public class GameStateManager {
 
-    private GameState currenState;
+    private volatile GameState currenState; // Read by the game loop thread, written by the EDT
 
     public GameStateManager() {
         setState(GameState.Menu);
@@ -37,4 +37,18 @@ public abstract class ScreenTransition {
     public boolean isFinished() {
         return tween.isFinished();
     }
+
+    /**
+     * @return the shape that is filled at the current progress of the transition
+     */
+    public Shape getShape() {
+        return transitionShape;
+    }
+
+    /**
+     * @return the color the shape is filled with at the current progress of the transition
+     */
+    public Color getColor() {
+        return color;
+    }
 }
@@ -1,12 +1,16 @@
 package jetfighters.main;
 
+import jetfighters.windows.AssetPreloader;
+import jetfighters.windows.LoadingScreen;
 import jetfighters.windows.Window;
 
+import javax.swing.*;
+
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
  *
  * @author do04 - Daniel Flat, Moritz Junge
- * @version 13.07.22
+ * @version 21.07.22
  */
 public class Main {
 
@@ -14,7 +18,9 @@ public class Main {
     private static Window window;
 
     public static void main(String[] args) {
-        window = new Window();
+        // The assets are decoded in the background while the loading screen is shown, the windows are created after
+        AssetPreloader preloader = AssetPreloader.getDefault().start();
+        SwingUtilities.invokeLater(() -> new LoadingScreen(preloader, () -> window = new Window()).start());
     }
 
 }
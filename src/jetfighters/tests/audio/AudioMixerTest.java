@@ -0,0 +1,148 @@
+package jetfighters.tests.audio;
+
+import jetfighters.audio.AudioMixer;
+import jetfighters.audio.AudioPlayer;
+import org.junit.jupiter.api.Test;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class AudioMixerTest {
+
+    private static short[] constant(int frames, int value) {
+        short[] samples = new short[frames * AudioMixer.CHANNELS];
+        Arrays.fill(samples, (short) value);
+        return samples;
+    }
+
+    private static short sample(byte[] output, int index) {
+        return (short) (output[2 * index] & 0xFF | output[2 * index + 1] << 8);
+    }
+
+    @Test
+    void voicesAreMixedWithTheirGain() {
+        AudioMixer mixer = new AudioMixer(4, 4);
+        byte[] output = new byte[4 * 4];
+        mixer.play(constant(8, 1000), 1, 0, AudioMixer.GROUP_SOUND, false);
+        mixer.play(constant(4, 200), .5f, 0, AudioMixer.GROUP_SOUND, false);
+        long music = mixer.play(constant(2, 32000), 1, 0, AudioMixer.GROUP_MUSIC, true);
+
+        mixer.render(output);
+        assertEquals(Short.MAX_VALUE, sample(output, 0), "The sum should be clipped");
+        assertEquals(2, mixer.getActiveVoiceCount(), "The short voice should have ended");
+
+        mixer.setGroupGain(AudioMixer.GROUP_MUSIC, 0);
+        mixer.render(output);
+        assertEquals(1000, sample(output, 7));
+        assertEquals(1, mixer.getActiveVoiceCount());
+
+        mixer.setGroupGain(AudioMixer.GROUP_MUSIC, .1f);
+        mixer.render(output);
+        assertEquals(3200, sample(output, 3), "A looping voice should keep playing");
+        mixer.setGain(music, .2f);
+        mixer.render(output);
+        assertEquals(640, sample(output, 0));
+        mixer.stop(music);
+        mixer.render(output);
+        assertEquals(0, sample(output, 0));
+        assertEquals(0, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    void theOldestVoiceWithTheLowestPriorityIsReplaced() {
+        AudioMixer mixer = new AudioMixer(1, 2);
+        byte[] output = new byte[4];
+        mixer.play(constant(10, 1), 1, 1, AudioMixer.GROUP_SOUND, false);
+        mixer.render(output);
+        mixer.play(constant(10, 10), 1, 1, AudioMixer.GROUP_SOUND, false);
+        mixer.render(output);
+        assertEquals(11, sample(output, 0));
+
+        mixer.play(constant(10, 100), 1, 0, AudioMixer.GROUP_SOUND, false);
+        mixer.render(output);
+        assertEquals(11, sample(output, 0), "A less important voice should be dropped");
+        assertEquals(1, mixer.getDroppedCount());
+
+        mixer.play(constant(10, 1000), 1, 1, AudioMixer.GROUP_SOUND, false);
+        mixer.render(output);
+        assertEquals(1010, sample(output, 0), "The older voice should be replaced");
+        assertEquals(1, mixer.getStolenCount());
+        assertEquals(2, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    void decodedAudioIsConvertedToTheFormatOfTheMixer() throws IOException {
+        // One second of mono, 8 bit audio at 22050 Hz, rising from -64 to 63
+        byte[] bytes = new byte[22050];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 128 / bytes.length - 64);
+        }
+        AudioFormat format = new AudioFormat(22050, 8, 1, true, false);
+        short[] samples = AudioMixer.decode(new AudioInputStream(new ByteArrayInputStream(bytes), format, bytes.length));
+
+        assertEquals(44100 * AudioMixer.CHANNELS, samples.length);
+        assertEquals(-64 << 8, samples[0]);
+        assertEquals(samples[0], samples[1], "Mono should be played on both channels");
+        assertEquals(samples[44100], samples[44101]);
+        assertTrue(Math.abs(samples[44100]) < 256, "The middle should be close to 0, but was " + samples[44100]);
+
+        short[] halved = AudioMixer.resample(new short[]{0, 0, 100, -100, 200, -200, 300, -300}, 4, 2);
+        assertArrayEquals(new short[]{0, 0, 200, -200}, halved);
+    }
+
+    @Test
+    void soundsOfTheGameCanBeDecoded() throws Exception {
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream("sounds/Button_01.wav");
+             AudioInputStream ais = AudioSystem.getAudioInputStream(new ByteArrayInputStream(stream.readAllBytes()))) {
+            float seconds = ais.getFrameLength() / ais.getFormat().getFrameRate();
+            short[] samples = AudioMixer.decode(ais);
+            assertEquals(seconds * 44100, samples.length / AudioMixer.CHANNELS, 2);
+        }
+    }
+
+    @Test
+    void audioPlayersShareOneMixer() {
+        assertSame(AudioMixer.getDefault(), AudioMixer.getDefault());
+        AudioMixer mixer = new AudioMixer(4, 4);
+        mixer.close(); // Closing a mixer that was never started does nothing
+        assertFalse(mixer.isRunning());
+        if (mixer.start()) { // Only if there is a sound card
+            mixer.close();
+            assertFalse(mixer.isRunning());
+            assertEquals(0, mixer.getActiveVoiceCount());
+        }
+    }
+
+    @Test
+    void volumesAreMappedOntoDecibels() {
+        assertEquals(2, AudioPlayer.toGroupGain(1), 1e-3, "The default volume is +6 dB");
+        assertEquals(Math.pow(10, -36.99 / 20), AudioPlayer.toGroupGain(.5f), 1e-5);
+        assertEquals(0, AudioPlayer.toGroupGain(0));
+        assertEquals(1, AudioPlayer.toVoiceGain(1), 1e-6, "A full voice is as loud as its group");
+        assertEquals(AudioPlayer.toGroupGain(.5f) / AudioPlayer.toGroupGain(1), AudioPlayer.toVoiceGain(.5f), 1e-6);
+        assertEquals(0, AudioPlayer.toVoiceGain(0));
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AudioMixer(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AudioMixer(1, 0));
+        AudioMixer mixer = new AudioMixer();
+        assertThrows(IllegalArgumentException.class, () -> mixer.play(new short[3], 1, 0, AudioMixer.GROUP_SOUND, false));
+        assertThrows(IllegalArgumentException.class, () -> mixer.setGroupGain(5, 1));
+        assertEquals(2 * 512 * 1000.0 / 44100, mixer.getLatencyMillis(), 1e-9);
+    }
+}
@@ -0,0 +1,115 @@
+package jetfighters.tests.audio;
+
+import jetfighters.audio.AudioMixer;
+import jetfighters.audio.MusicStream;
+import org.junit.jupiter.api.Test;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class MusicStreamTest {
+
+    /**
+     * @return a track whose first channel counts the frames and whose second channel counts down
+     */
+    private static AudioInputStream createTrack(int frames, float sampleRate, int channels) {
+        byte[] bytes = new byte[frames * channels * 2];
+        for (int frame = 0; frame < frames; frame++) {
+            for (int channel = 0; channel < channels; channel++) {
+                int value = channel == 0 ? frame : -frame;
+                int offset = (frame * channels + channel) * 2;
+                bytes[offset] = (byte) value;
+                bytes[offset + 1] = (byte) (value >> 8);
+            }
+        }
+        AudioFormat format = new AudioFormat(sampleRate, 16, channels, true, false);
+        return new AudioInputStream(new ByteArrayInputStream(bytes), format, frames);
+    }
+
+    /**
+     * Reads from the stream like the audio thread, until {@code samples} is full or the stream ended.
+     *
+     * @return the amount of samples read
+     */
+    private static int readAll(MusicStream stream, short[] samples) throws InterruptedException {
+        int length = 0;
+        long timeout = System.currentTimeMillis() + 5000;
+        while (length < samples.length && System.currentTimeMillis() < timeout) {
+            int read = stream.read(samples, length, Math.min(512, samples.length - length));
+            if (read < 0)
+                break;
+            if (read == 0)
+                Thread.sleep(1);
+            length += read;
+        }
+        return length;
+    }
+
+    private static void renderBuffered(AudioMixer mixer, MusicStream stream, byte[] output) throws InterruptedException {
+        while (stream.getBufferedFrames() < mixer.getBufferFrames())
+            Thread.sleep(1);
+        mixer.render(output);
+    }
+
+    @Test
+    void loopsWithoutGap() throws InterruptedException {
+        MusicStream stream = new MusicStream(() -> createTrack(3000, 44100, 2), 1024, true).start();
+        short[] samples = new short[2 * 7000];
+        assertEquals(samples.length, readAll(stream, samples));
+        for (int frame = 0; frame < 7000; frame++) {
+            assertEquals(frame % 3000, samples[2 * frame], "Frame " + frame);
+            assertEquals(-(frame % 3000), samples[2 * frame + 1], "Frame " + frame);
+        }
+        assertTrue(stream.getLoopCount() >= 2);
+        assertEquals(1024, stream.getCapacityFrames(), "The stream should never buffer more than its capacity");
+        assertTrue(stream.getBufferedFrames() <= stream.getCapacityFrames());
+
+        stream.close();
+        assertTrue(stream.isClosed());
+    }
+
+    @Test
+    void otherFormatsAreResampledWhileStreaming() throws InterruptedException {
+        MusicStream stream = new MusicStream(() -> createTrack(2000, 22050, 1), 1024, false).start();
+        short[] samples = new short[2 * 5000];
+        int length = readAll(stream, samples);
+        assertEquals(2 * 3998, length, "Every source frame but the last should be followed by an interpolated frame");
+        for (int frame = 0; frame < length / 2; frame++) {
+            assertEquals(Math.round(frame / 2f), samples[2 * frame], 1, "Frame " + frame);
+            assertEquals(samples[2 * frame], samples[2 * frame + 1], "Mono should be played on both channels");
+        }
+        assertEquals(-1, stream.read(samples, 0, 2));
+        assertTrue(stream.isFinished());
+    }
+
+    @Test
+    void streamsAreCrossfadedByTheMixer() throws InterruptedException {
+        AudioMixer mixer = new AudioMixer(256, 4);
+        byte[] output = new byte[256 * 4];
+        MusicStream first = new MusicStream(() -> createTrack(100000, 44100, 2), 1024, true).start();
+        long firstVoice = mixer.play(first, 1, 0, AudioMixer.GROUP_MUSIC);
+        renderBuffered(mixer, first, output);
+        assertEquals(255, output[4 * 255] & 0xFF | output[4 * 255 + 1] << 8);
+
+        mixer.fade(firstVoice, 0, 512, true);
+        renderBuffered(mixer, first, output);
+        assertEquals(1, mixer.getActiveVoiceCount(), "The voice should play until the end of the fade");
+        int halfFaded = output[4 * 255] & 0xFF | output[4 * 255 + 1] << 8;
+        assertEquals((256 + 255) * (1 - 255 / 512f), halfFaded, 1);
+        renderBuffered(mixer, first, output);
+        assertEquals(0, mixer.getActiveVoiceCount());
+        assertTrue(first.isClosed(), "The stream should be closed with its voice");
+
+        assertThrows(IllegalArgumentException.class, () -> mixer.fade(firstVoice, 1, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> new MusicStream(() -> createTrack(1, 44100, 2), 16, true));
+    }
+}
@@ -0,0 +1,47 @@
+package jetfighters.tests.audio;
+
+import jetfighters.audio.AudioMixer;
+import jetfighters.audio.SampleBank;
+import jetfighters.audio.Sound;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class SampleBankTest {
+
+    @Test
+    void everySoundIsDecodedOnce() {
+        SampleBank bank = new SampleBank();
+        for (Sound sound : Sound.values()) {
+            assertTrue(bank.load(sound), sound + " should be decodable");
+        }
+        assertEquals(Sound.values().length, bank.getDecodeCount());
+
+        short[] hit = bank.get(Sound.Hit);
+        assertSame(hit, bank.get(Sound.Hit));
+        assertSame(hit, bank.get("sounds/" + Sound.Hit.getSoundPath()));
+        assertEquals(0, hit.length % AudioMixer.CHANNELS);
+        assertEquals(Sound.values().length, bank.getDecodeCount(), "Getting a loaded sound shouldn't decode it again");
+        assertTrue(bank.getBytes() >= 2L * hit.length);
+    }
+
+    @Test
+    void missingFilesAreOnlyReadOnce() {
+        SampleBank bank = new SampleBank();
+        assertNull(bank.get("sounds/missing.wav"));
+        assertNull(bank.get("sounds/missing.wav"));
+        assertEquals(1, bank.getDecodeCount());
+        assertEquals(0, bank.getBytes());
+    }
+
+    @Test
+    void theDefaultBankIsShared() {
+        assertSame(SampleBank.getDefault(), SampleBank.getDefault());
+    }
+}
@@ -0,0 +1,119 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.sprites.AnimatedSprite;
+import jetfighters.game.sprites.AssetCache;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class AssetCacheTest {
+
+    private static final String EXPLOSION = "sprites/explosion/explosion.png";
+
+    @Test
+    void imagesAreLoadedOnce() {
+        AssetCache cache = new AssetCache(AssetCache.DEFAULT_MAX_BYTES);
+        BufferedImage image = cache.getImage(EXPLOSION);
+        assertNotNull(image);
+        assertSame(image, cache.getImage(EXPLOSION));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals((long) image.getWidth() * image.getHeight() * 4, cache.getBytes());
+
+        assertNull(cache.getImage("sprites/missing.png"));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void sheetFramesAreSharedCopies() {
+        AssetCache cache = new AssetCache(AssetCache.DEFAULT_MAX_BYTES);
+        BufferedImage[] frames = cache.getSheetFrames(EXPLOSION, 5, 1, 0, 0, 5);
+        assertEquals(5, frames.length);
+        assertSame(frames, cache.getSheetFrames(EXPLOSION, 5, 1, 0, 0, 5));
+        assertEquals(1, cache.size(), "The sheet shouldn't be cached next to its frames");
+        assertEquals(5L * frames[0].getWidth() * frames[0].getHeight() * 4, cache.getBytes());
+        BufferedImage sheet = cache.getImage(EXPLOSION);
+        for (BufferedImage frame : frames) {
+            assertEquals(sheet.getWidth() / 5, frame.getWidth());
+            assertNull(frame.getRaster().getParent(), "Frames shouldn't share the raster of the sheet");
+        }
+
+        AnimatedSprite sprite = new AnimatedSprite(EXPLOSION, 5, 1, 0, 0, .1, false);
+        AnimatedSprite otherSprite = new AnimatedSprite(EXPLOSION, 5, 1, 0, 0, .1, false);
+        otherSprite.nextFrame();
+        sprite.nextFrame();
+        assertSame(sprite.getImage(), otherSprite.getImage(), "Sprites of the same animation should share their frames");
+    }
+
+    @Test
+    void animationsOnlyCacheTheirFrames() {
+        AssetCache cache = AssetCache.getDefault();
+        cache.clear();
+        AnimatedSprite sheetSprite = new AnimatedSprite(EXPLOSION, 5, 1, 0, 0, .1, false);
+        assertNotNull(sheetSprite.getImage());
+        assertTrue(cache.size() <= 1, "The sheet shouldn't be cached next to its frames"); // 0 if it is in the atlas
+        cache.clear();
+        AnimatedSprite frameSprite = new AnimatedSprite("sprites/health_kit/Health_Kit_", 8, .125);
+        assertNotNull(frameSprite.getImage());
+        assertTrue(cache.size() <= 1, "The first frame shouldn't be cached next to the frames");
+    }
+
+    @Test
+    void framesAreCountedWithTheirEntry() {
+        AssetCache cache = new AssetCache(AssetCache.DEFAULT_MAX_BYTES);
+        BufferedImage[] frames = cache.getFrames("sprites/health_kit/Health_Kit_", 1);
+        assertNotNull(frames[0]);
+        assertEquals(1, cache.size());
+        assertEquals((long) frames[0].getWidth() * frames[0].getHeight() * 4, cache.getBytes());
+
+        AssetCache smallCache = new AssetCache(1);
+        smallCache.getFrames("sprites/health_kit/Health_Kit_", 1);
+        smallCache.getImage(EXPLOSION);
+        assertEquals(1, smallCache.size(), "The frames should be evicted like any other image");
+        assertEquals(1, smallCache.getEvictions());
+    }
+
+    @Test
+    void leastRecentlyUsedAssetsAreEvicted() {
+        AssetCache cache = new AssetCache(1);
+        BufferedImage image = cache.getImage(EXPLOSION);
+        cache.getImage("sprites/health_kit/Health_Kit_1.png");
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotSame(image, cache.getImage(EXPLOSION), "The evicted image should be loaded again");
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    void concurrentRequestsLoadOnce() throws Exception {
+        AssetCache cache = new AssetCache(AssetCache.DEFAULT_MAX_BYTES);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BufferedImage>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.getImage(EXPLOSION);
+            }));
+        }
+        start.countDown();
+        BufferedImage image = results.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<BufferedImage> result : results) {
+            assertSame(image, result.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, cache.getMisses());
+        assertEquals(7, cache.getHits());
+    }
+}
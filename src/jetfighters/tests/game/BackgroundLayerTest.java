@@ -0,0 +1,118 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.rendering.BackgroundLayer;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class BackgroundLayerTest {
+
+    private static final int WIDTH = 60;
+    private static final int HEIGHT = 40;
+
+    private static BufferedImage createBackground() {
+        BufferedImage image = new BufferedImage(WIDTH + 10, HEIGHT + 10, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, (x * 3) << 16 | (y * 5) << 8 | 128);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage createCanvas() {
+        BufferedImage canvas = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = canvas.createGraphics();
+        g2d.setColor(Color.MAGENTA); // Left over from the last frame
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+        g2d.dispose();
+        return canvas;
+    }
+
+    @Test
+    void translatedLayerIsDrawnAtWholePixels() {
+        BufferedImage background = createBackground();
+        BackgroundLayer layer = new BackgroundLayer(background, -5, -5);
+        BufferedImage canvas = createCanvas();
+
+        Graphics2D g2d = canvas.createGraphics();
+        layer.draw(g2d, AffineTransform.getTranslateInstance(2.4, -1.6), WIDTH, HEIGHT);
+        layer.draw(g2d, AffineTransform.getTranslateInstance(2.4, -1.6), WIDTH, HEIGHT);
+        g2d.dispose();
+
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals(background.getRGB(x + 3, y + 7) & 0xFFFFFF, canvas.getRGB(x, y) & 0xFFFFFF, "Pixel " + x + ", " + y);
+            }
+        }
+        assertEquals(1, layer.getRenderCount(), "The layer should only be rendered once");
+    }
+
+    @Test
+    void canvasIsOnlyClearedIfTheBackgroundDoesntCoverIt() {
+        BackgroundLayer layer = new BackgroundLayer(createBackground(), -5, -5);
+        BufferedImage canvas = createCanvas();
+
+        Graphics2D g2d = canvas.createGraphics();
+        layer.draw(g2d, AffineTransform.getTranslateInstance(20, 0), WIDTH, HEIGHT);
+        g2d.dispose();
+        assertEquals(Color.WHITE.getRGB(), canvas.getRGB(1, 10), "The uncovered part should be cleared");
+        assertNotEquals(Color.MAGENTA.getRGB(), canvas.getRGB(WIDTH - 1, 10));
+    }
+
+    @Test
+    void rotatedLayerCoversTheCanvas() {
+        BackgroundLayer layer = new BackgroundLayer(createBackground(), -5, -5);
+        BufferedImage canvas = createCanvas();
+
+        Graphics2D g2d = canvas.createGraphics();
+        layer.draw(g2d, AffineTransform.getRotateInstance(.02, WIDTH / 2.0, HEIGHT / 2.0), WIDTH, HEIGHT);
+        g2d.dispose();
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertNotEquals(Color.MAGENTA.getRGB(), canvas.getRGB(x, y), "Pixel " + x + ", " + y);
+                assertNotEquals(Color.WHITE.getRGB(), canvas.getRGB(x, y), "Pixel " + x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    void flushedLayerIsRenderedAgain() {
+        BackgroundLayer layer = new BackgroundLayer(createBackground(), -5, -5);
+        BufferedImage canvas = createCanvas();
+
+        Graphics2D g2d = canvas.createGraphics();
+        layer.draw(g2d, new AffineTransform(), WIDTH, HEIGHT);
+        layer.flush();
+        layer.draw(g2d, new AffineTransform(), WIDTH, HEIGHT);
+        g2d.dispose();
+        assertEquals(2, layer.getRenderCount());
+    }
+
+    @Test
+    void replacedSourceIsDrawnFromTheNextFrame() {
+        BufferedImage small = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB); // Black, doesn't cover the canvas
+        BackgroundLayer layer = new BackgroundLayer(small, -5, -5);
+        BufferedImage canvas = createCanvas();
+
+        Graphics2D g2d = canvas.createGraphics();
+        layer.draw(g2d, new AffineTransform(), WIDTH, HEIGHT);
+        assertEquals(Color.WHITE.getRGB(), canvas.getRGB(WIDTH - 1, HEIGHT - 1));
+        BufferedImage background = createBackground();
+        layer.setSource(background);
+        layer.draw(g2d, new AffineTransform(), WIDTH, HEIGHT);
+        g2d.dispose();
+        assertEquals(background.getRGB(WIDTH + 4, HEIGHT + 4) & 0xFFFFFF, canvas.getRGB(WIDTH - 1, HEIGHT - 1) & 0xFFFFFF);
+        assertEquals(2, layer.getRenderCount());
+    }
+}
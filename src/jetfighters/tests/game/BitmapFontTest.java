@@ -0,0 +1,121 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.rendering.BitmapFont;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class BitmapFontTest {
+
+    private static final Font FONT = new Font(Font.DIALOG, Font.PLAIN, 20);
+
+    private static BufferedImage draw(BitmapFont font, String text, int value) {
+        BufferedImage canvas = new BufferedImage(300, 40, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = canvas.createGraphics();
+        if (text != null)
+            font.drawString(g2d, text, 5, 30);
+        else
+            font.drawInt(g2d, value, 5, 30);
+        g2d.dispose();
+        return canvas;
+    }
+
+    private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel " + x + ", " + y);
+            }
+        }
+    }
+
+    private static int countOpaquePixels(BufferedImage image) {
+        int count = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if (image.getRGB(x, y) >>> 24 > 128)
+                    count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void numbersAreDrawnLikeTheirText() {
+        BitmapFont font = BitmapFont.get(FONT, Color.RED);
+        assertSamePixels(draw(font, "1234", 0), draw(font, null, 1234));
+        assertSamePixels(draw(font, "-907", 0), draw(font, null, -907));
+        assertSamePixels(draw(font, "0", 0), draw(font, null, 0));
+        assertSamePixels(draw(font, String.valueOf(Integer.MIN_VALUE), 0), draw(font, null, Integer.MIN_VALUE));
+        assertTrue(countOpaquePixels(draw(font, null, 1234)) > 0);
+    }
+
+    @Test
+    void textIsAsWideAsWithJava2D() {
+        BitmapFont font = BitmapFont.get(FONT, Color.RED);
+        FontMetrics metrics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics().getFontMetrics(FONT);
+        String text = "Player 1: 42 HP";
+        assertEquals(metrics.stringWidth(text), font.getWidth(text));
+        assertEquals(metrics.getAscent(), font.getAscent());
+
+        BufferedImage canvas = new BufferedImage(300, 40, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = canvas.createGraphics();
+        assertEquals(5 + font.getWidth(text), font.drawString(g2d, text, 5, 30));
+        g2d.dispose();
+    }
+
+    @Test
+    void glyphsReachingOverTheirAdvanceAreNotClipped() {
+        Font italic = FONT.deriveFont(Font.ITALIC);
+        BitmapFont font = BitmapFont.render(italic, Color.RED, "fjJ/");
+        BufferedImage expected = new BufferedImage(300, 40, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = expected.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setFont(italic);
+        g2d.setColor(Color.RED);
+        for (char character : "fjJ/".toCharArray()) {
+            g2d.drawString(String.valueOf(character), 40 * ("fjJ/".indexOf(character) + 1), 30);
+        }
+        g2d.dispose();
+
+        BufferedImage actual = new BufferedImage(300, 40, BufferedImage.TYPE_INT_ARGB);
+        g2d = actual.createGraphics();
+        for (char character : "fjJ/".toCharArray()) {
+            font.drawString(g2d, String.valueOf(character), 40 * ("fjJ/".indexOf(character) + 1), 30);
+        }
+        g2d.dispose();
+        assertEquals(countOpaquePixels(expected), countOpaquePixels(actual));
+    }
+
+    @Test
+    void fontsAreSharedPerFontAndColor() {
+        assertSame(BitmapFont.get(FONT, Color.RED), BitmapFont.get(FONT, Color.RED));
+        assertNotSame(BitmapFont.get(FONT, Color.RED), BitmapFont.get(FONT, Color.BLUE));
+        assertTrue(BitmapFont.get(FONT, Color.RED).hasGlyph('~'));
+        assertFalse(BitmapFont.get(FONT, Color.RED).hasGlyph('ä'));
+    }
+
+    @Test
+    void glyphSheetsAreCutIntoCells() {
+        BitmapFont font = BitmapFont.fromSheet(BitmapFont.ALPHABET_SHEET, 10, 4, BitmapFont.ALPHABET_CHARACTERS, .5);
+        assertEquals(16, font.getHeight());
+        assertEquals(8 * 3, font.getWidth("JET"));
+        assertTrue(font.hasGlyph('7'));
+        assertFalse(font.hasGlyph('a'), "The alphabet only has capital letters");
+        assertTrue(countOpaquePixels(draw(font, "JET 42", 0)) > 0);
+        assertEquals(0, countOpaquePixels(draw(font, "    ", 0)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BitmapFont.fromSheet(BitmapFont.ALPHABET_SHEET, 2, 2, "ABCDE", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> BitmapFont.fromSheet("fonts/missing.png", 1, 1, "A", 1));
+    }
+}
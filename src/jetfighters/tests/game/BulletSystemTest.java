@@ -0,0 +1,119 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.Simulation;
+import jetfighters.game.entities.Entity;
+import jetfighters.game.entities.Player;
+import jetfighters.game.entities.projectiles.BulletSystem;
+import jetfighters.game.entities.projectiles.ProjectileOwner;
+import jetfighters.game.handlers.CollisionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class BulletSystemTest {
+
+    private Simulation simulation;
+    private BulletSystem bullets;
+
+    @BeforeEach
+    void setUp() {
+        simulation = new Simulation(1068, 685, 42);
+        bullets = new BulletSystem(1);
+    }
+
+    @Test
+    void updateMovesAndExpiresBullets() {
+        Player player = simulation.getPlayer1();
+        for (int i = 0; i < 100; i++) {
+            bullets.spawn(player, i, 0, 700, 0);
+        }
+        assertEquals(100, bullets.size());
+        bullets.update(1);
+        assertEquals(100, bullets.size());
+        assertEquals(700, bullets.getX(0), 1e-9);
+        bullets.update(1);
+        assertEquals(0, bullets.size(), "Bullets should be removed after travelling more than " + BulletSystem.MAX_DISTANCE);
+    }
+
+    @Test
+    void bulletsDamageOpponentButNotOwner() {
+        Player player1 = simulation.getPlayer1();
+        Player player2 = simulation.getPlayer2();
+        double healthBefore = player2.getCurrentHealth();
+        double centerX = player2.getCenteredPosition().x;
+        double centerY = player2.getCenteredPosition().y;
+        bullets.spawn(player1, centerX - 100, centerY, 10_000, 0); // Fast enough to skip over the jet in one update
+        bullets.spawn(player2, centerX, centerY, 0, 0);
+        bullets.update(0.02);
+        bullets.collide(List.of(player1, player2));
+        assertEquals(healthBefore - player1.getProjectileBaseDamage(), player2.getCurrentHealth(), 1e-9);
+        assertEquals(1, bullets.size(), "Only the bullet of the owner should be left");
+    }
+
+    @Test
+    void bulletsOfDifferentOwnersDestroyEachOther() {
+        bullets.spawn(simulation.getPlayer1(), 0, 0, 0, 0);
+        bullets.spawn(simulation.getPlayer2(), 3, 0, 0, 0);
+        bullets.spawn(simulation.getPlayer1(), 500, 0, 0, 0);
+        bullets.spawn(simulation.getPlayer1(), 502, 0, 0, 0);
+        bullets.collide(List.<Entity>of());
+        assertEquals(2, bullets.size(), "Bullets of the same owner should not collide");
+        assertEquals(500, Math.min(bullets.getX(0), bullets.getX(1)), 1e-9);
+    }
+
+    @Test
+    void bulletsIgnoreLayersOutsideTheirMask() {
+        ProjectileOwner enemy = new ProjectileOwner() {
+            @Override
+            public int getProjectileLayer() {
+                return CollisionHandler.PROJECTILE_ENEMY_LAYER;
+            }
+
+            @Override
+            public int getProjectileMask() {
+                return CollisionHandler.PLAYER_LAYER;
+            }
+
+            @Override
+            public double getProjectileBaseDamage() {
+                return 1;
+            }
+        };
+        bullets.spawn(enemy, 0, 0, 0, 0);
+        bullets.spawn(simulation.getPlayer1(), 0, 0, 0, 0);
+        bullets.collide(List.<Entity>of());
+        assertEquals(2, bullets.size());
+    }
+
+    @Test
+    void ownersAreForgottenWithTheirBullets() {
+        bullets.spawn(simulation.getPlayer1(), 0, 0, 0, 0);
+        bullets.spawn(simulation.getPlayer2(), 500, 0, 0, 0);
+        bullets.spawn(simulation.getPlayer1(), 100, 0, 0, 0);
+        assertEquals(2, bullets.getOwnerCount());
+        bullets.clear();
+        assertEquals(0, bullets.getOwnerCount(), "Owners of a finished match should not be kept");
+
+        bullets.spawn(simulation.getPlayer2(), 0, 0, 10_000, 0);
+        bullets.update(1);
+        assertEquals(0, bullets.size());
+        assertEquals(0, bullets.getOwnerCount());
+    }
+
+    @Test
+    void simulationUpdatesBulletsFiredByJets() {
+        simulation.getPlayer1().shoot();
+        assertEquals(2, simulation.getBulletSystem().size());
+        simulation.step(1);
+        assertEquals(2, simulation.getBulletSystem().size());
+    }
+}
@@ -0,0 +1,89 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.math.CachedTransform;
+import jetfighters.game.math.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class CachedTransformTest {
+
+    DummyEntity entity;
+
+    @BeforeEach
+    void setUp() {
+        entity = new DummyEntity(new Vector2(20, 30), new Rectangle(10, 20), 1, 1, null);
+        CachedTransform.resetStatistics();
+    }
+
+    @Test
+    void transformIsOnlyRecomputedAfterChanges() {
+        Shape shape = entity.getTransformedShape();
+        long misses = CachedTransform.getMisses();
+        assertSame(shape, entity.getTransformedShape());
+        entity.getTransform();
+        assertEquals(misses, CachedTransform.getMisses());
+        assertTrue(CachedTransform.getHits() >= 2);
+
+        entity.setPosition(new Vector2(40, 30));
+        assertNotSame(shape, entity.getTransformedShape());
+        assertEquals(misses + 1, CachedTransform.getMisses());
+    }
+
+    @Test
+    void matchesUncachedTransform() {
+        entity.setRotation(0.7);
+        entity.setScale(new Vector2(2, 1.5));
+        entity.getTransform(); // Cache the old state once, it has to be replaced afterwards
+        entity.setPosition(new Vector2(-5, 12));
+        AffineTransform expected = new AffineTransform();
+        expected.rotate(0.7, -5 + 10 * 2 / 2.0, 12 + 20 * 1.5 / 2.0);
+        expected.translate(-5, 12);
+        expected.scale(2, 1.5);
+        double[] expectedMatrix = new double[6];
+        double[] matrix = new double[6];
+        expected.getMatrix(expectedMatrix);
+        entity.getTransform().getMatrix(matrix);
+        assertArrayEquals(expectedMatrix, matrix, 1e-9);
+
+        Rectangle2D expectedBounds = expected.createTransformedShape(new Rectangle(10, 20)).getBounds2D();
+        assertEquals(expectedBounds.getMinX(), entity.getWorldBounds().getMinX(), 1e-9);
+        assertEquals(expectedBounds.getMaxY(), entity.getWorldBounds().getMaxY(), 1e-9);
+    }
+
+    @Test
+    void inverseUndoesTransform() throws NoninvertibleTransformException {
+        entity.setRotation(1.2);
+        Point2D point = entity.getTransform().transform(new Point2D.Double(3, 4), null);
+        Point2D back = entity.getInverseTransform().transform(point, null);
+        assertEquals(3, back.getX(), 1e-9);
+        assertEquals(4, back.getY(), 1e-9);
+
+        entity.setRotation(-0.4); // The inverse has to follow the new transform
+        point = entity.getTransform().transform(new Point2D.Double(3, 4), null);
+        back = entity.getInverseTransform().transform(point, null);
+        assertEquals(3, back.getX(), 1e-9);
+        assertEquals(4, back.getY(), 1e-9);
+    }
+
+    @Test
+    void replacedShapeUpdatesBounds() {
+        Rectangle2D bounds = entity.getWorldBounds();
+        assertEquals(10, bounds.getWidth(), 1e-9);
+        entity.replaceShape(new Rectangle(30, 20));
+        assertEquals(30, entity.getWorldBounds().getWidth(), 1e-9);
+    }
+}
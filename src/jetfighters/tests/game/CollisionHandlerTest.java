@@ -96,4 +96,24 @@ class CollisionHandlerTest {
         assertEquals(1, dummy2Collisions.get());
         assertEquals(1, dummy3Collisions.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    void collisionEndsWhenEntitiesMoveApart() {
+        AtomicInteger dummy1Collisions = new AtomicInteger();
+        DummyEntity dummyEntity = new DummyEntity(new Vector2(0, 0), new Rectangle(10, 10),
+                1, 1, (otherEntity) -> dummy1Collisions.getAndIncrement());
+        DummyEntity dummyEntity2 = new DummyEntity(new Vector2(5, 5), new Rectangle(10, 10),
+                1, 0, null);
+        entityHandler.addEntity(dummyEntity);
+        entityHandler.addEntity(dummyEntity2);
+        entityHandler.updateEntities(0);
+        collisionHandler.update();
+        collisionHandler.update();
+        assertEquals(1, dummy1Collisions.get(), "A collision should only be handled when it starts");
+        dummyEntity2.setPosition(new Vector2(500, 500)); // Far enough to not be a candidate of the broadphase anymore
+        collisionHandler.update();
+        dummyEntity2.setPosition(new Vector2(5, 5));
+        collisionHandler.update();
+        assertEquals(2, dummy1Collisions.get());
+    }
+}
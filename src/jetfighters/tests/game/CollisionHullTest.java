@@ -0,0 +1,123 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.math.CollisionHull;
+import jetfighters.game.math.ConvexPolygon;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class CollisionHullTest {
+
+    private static Shape createLShape() {
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(0, 0);
+        path.lineTo(10, 0);
+        path.lineTo(10, 30);
+        path.lineTo(30, 30);
+        path.lineTo(30, 40);
+        path.lineTo(0, 40);
+        path.closePath();
+        return path;
+    }
+
+    private static double area(CollisionHull hull) {
+        double area = 0;
+        for (ConvexPolygon part : hull.getParts()) {
+            for (int i = 0; i < part.getVertexCount(); i++) {
+                int next = (i + 1) % part.getVertexCount();
+                area += part.getX(i) * part.getY(next) - part.getX(next) * part.getY(i);
+            }
+        }
+        return Math.abs(area / 2);
+    }
+
+    @Test
+    void convexShapesStayOnePolygon() {
+        assertEquals(1, CollisionHull.fromShape(new Rectangle(10, 20)).getParts().size());
+        assertEquals(1, CollisionHull.fromShape(new Ellipse2D.Double(0, 0, 10, 10)).getParts().size());
+    }
+
+    @Test
+    void concaveShapesAreSplitIntoFewConvexPolygons() {
+        CollisionHull hull = CollisionHull.fromShape(createLShape());
+        assertEquals(2, hull.getParts().size());
+        assertEquals(10 * 30 + 30 * 10, area(hull), 1e-9);
+    }
+
+    @Test
+    void imageHullFollowsOpaquePixels() {
+        BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(Color.BLACK);
+        g2d.fill(createLShape());
+        g2d.dispose();
+        CollisionHull hull = CollisionHull.fromImage(image, 200);
+        assertNotNull(hull);
+        assertSame(hull, CollisionHull.fromImage(image, 200), "Hulls of images should be cached");
+        assertTrue(hull.getParts().size() <= 3);
+        // The L is cut off by the image at 32 x 32
+        assertEquals(10 * 30 + 30 * 2, area(hull), 1e-9);
+        assertNull(CollisionHull.fromImage(new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB), 200));
+    }
+
+    @Test
+    void imageHullsAreCachedPerAlphaThreshold() {
+        BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(new Color(0, 0, 0, 150));
+        g2d.fillRect(4, 4, 20, 10);
+        g2d.dispose();
+        assertNull(CollisionHull.fromImage(image, 200), "No pixel is opaque enough");
+        CollisionHull hull = CollisionHull.fromImage(image, 100);
+        assertNotNull(hull, "The hull of another threshold must not be the cached one");
+        assertEquals(20 * 10, area(hull), 1e-9);
+        assertSame(hull, CollisionHull.fromImage(image, 100));
+        assertNull(CollisionHull.fromImage(image, 200));
+    }
+
+    @Test
+    void matchesAreaIntersection() {
+        Shape shape = createLShape();
+        Shape otherShape = new Ellipse2D.Double(0, 0, 12, 8);
+        CollisionHull hull = CollisionHull.fromShape(shape);
+        CollisionHull otherHull = CollisionHull.fromShape(otherShape);
+        Random random = new Random(42);
+        int intersections = 0;
+        for (int i = 0; i < 2000; i++) {
+            AffineTransform transform = AffineTransform.getRotateInstance(random.nextDouble() * Math.PI * 2, 20, 20);
+            AffineTransform otherTransform = AffineTransform.getTranslateInstance(random.nextDouble() * 60 - 10, random.nextDouble() * 60 - 10);
+            otherTransform.rotate(random.nextDouble() * Math.PI * 2, 6, 4);
+            otherTransform.scale(1.5, 1.5);
+            Area area = new Area(transform.createTransformedShape(shape));
+            area.intersect(new Area(otherTransform.createTransformedShape(otherShape)));
+            boolean expected = !area.isEmpty() && area.getBounds2D().getWidth() > 1e-3 && area.getBounds2D().getHeight() > 1e-3;
+            boolean actual = hull.intersects(transform, otherHull, otherTransform);
+            if (expected != actual) // Only allowed at the edges, where the flattened ellipse differs from the curve
+                assertTrue(area.isEmpty() || area.getBounds2D().getWidth() < 0.1 || area.getBounds2D().getHeight() < 0.1, "Pair " + i);
+            if (actual)
+                intersections++;
+        }
+        assertTrue(intersections > 100);
+    }
+
+    @Test
+    void touchingIsNoIntersection() {
+        CollisionHull hull = CollisionHull.fromShape(new Rectangle(10, 10));
+        assertFalse(hull.intersects(new AffineTransform(), hull, AffineTransform.getTranslateInstance(10, 0)));
+        assertTrue(hull.intersects(new AffineTransform(), hull, AffineTransform.getTranslateInstance(9.9, 0)));
+    }
+}
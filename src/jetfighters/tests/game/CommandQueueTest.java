@@ -0,0 +1,114 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.CommandQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class CommandQueueTest {
+
+    @Test
+    void commandsAreConsumedInOrder() {
+        CommandQueue<Integer> queue = new CommandQueue<>(4);
+        assertTrue(queue.isEmpty());
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(queue.offer(lap * 10 + i));
+            }
+            assertEquals(lap * 10, (int) queue.poll());
+            List<Integer> drained = new ArrayList<>();
+            assertEquals(2, queue.drain(drained::add));
+            assertEquals(List.of(lap * 10 + 1, lap * 10 + 2), drained);
+            assertNull(queue.poll());
+        }
+    }
+
+    @Test
+    void fullQueuesRejectCommands() {
+        CommandQueue<String> queue = new CommandQueue<>(3);
+        assertEquals(4, queue.getCapacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer("Command " + i));
+        }
+        assertFalse(queue.offer("Too much"));
+        assertEquals(1, queue.getRejectedCount());
+        assertEquals("Command 0", queue.poll());
+        assertTrue(queue.offer("Command 4"), "The consumed slot should be free again");
+        assertEquals(4, queue.drain((command) -> {
+        }));
+        assertTrue(queue.isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> queue.offer(null));
+        assertThrows(IllegalArgumentException.class, () -> new CommandQueue<>(0));
+    }
+
+    @Test
+    void capacityOfOneIsRoundedUp() {
+        CommandQueue<String> queue = new CommandQueue<>(1);
+        assertEquals(2, queue.getCapacity());
+        for (int lap = 0; lap < 3; lap++) {
+            assertTrue(queue.offer("a"));
+            assertTrue(queue.offer("b"));
+            assertFalse(queue.offer("c"));
+            assertEquals("a", queue.poll());
+            assertEquals("b", queue.poll());
+            assertNull(queue.poll());
+        }
+        assertEquals(3, queue.getRejectedCount());
+    }
+
+    @Test
+    void commandsOfSeveralProducersAreNeitherLostNorReordered() throws InterruptedException {
+        int producers = 4;
+        int commandsPerProducer = 20000;
+        CommandQueue<long[]> queue = new CommandQueue<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int producer = 0; producer < producers; producer++) {
+            int id = producer;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < commandsPerProducer; i++) {
+                    long[] command = {id, i};
+                    while (!queue.offer(command))
+                        Thread.yield(); // Lets the consumer run, even on a single core
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long[] next = new long[producers];
+        int consumed = 0;
+        long timeout = System.currentTimeMillis() + 10000;
+        start.countDown();
+        while (consumed < producers * commandsPerProducer && System.currentTimeMillis() < timeout) {
+            int drained = queue.drain((command) -> {
+                assertEquals(next[(int) command[0]], command[1], "Commands of producer " + command[0] + " were reordered");
+                next[(int) command[0]]++;
+            });
+            if (drained == 0)
+                Thread.yield();
+            consumed += drained;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * commandsPerProducer, consumed);
+        assertTrue(queue.isEmpty());
+    }
+}
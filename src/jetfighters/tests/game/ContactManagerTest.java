@@ -0,0 +1,188 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.collision.ContactManager;
+import jetfighters.game.entities.Entity;
+import jetfighters.game.handlers.CollisionHandler;
+import jetfighters.game.handlers.EntityHandler;
+import jetfighters.game.math.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class ContactManagerTest {
+
+    ContactManager contactManager;
+
+    @BeforeEach
+    void setUp() {
+        contactManager = new ContactManager();
+    }
+
+    @Test
+    void enterStayExit() {
+        EventEntity entity = new EventEntity(new Vector2(0, 0), 1, 1);
+        EventEntity other = new EventEntity(new Vector2(5, 5), 1, 0);
+        for (int i = 0; i < 3; i++) {
+            contactManager.beginUpdate();
+            contactManager.reportContact(entity, other, ContactManager.FIRST_DETECTS_SECOND);
+            contactManager.endUpdate();
+        }
+        assertEquals(1, entity.enters);
+        assertEquals(2, entity.stays);
+        assertEquals(0, entity.exits);
+        assertEquals(0, other.enters + other.stays, "The mask of the other entity doesn't contain the layer");
+        assertTrue(contactManager.isInContact(other, entity));
+
+        contactManager.beginUpdate();
+        contactManager.endUpdate();
+        assertEquals(1, entity.exits);
+        assertEquals(0, other.exits);
+        assertFalse(contactManager.isInContact(entity, other));
+        assertEquals(0, contactManager.size());
+    }
+
+    @Test
+    void directionsFollowOrderOfReport() {
+        EventEntity entity = new EventEntity(new Vector2(0, 0), 1, 1);
+        EventEntity other = new EventEntity(new Vector2(5, 5), 1, 1);
+        contactManager.beginUpdate();
+        contactManager.reportContact(other, entity, ContactManager.FIRST_DETECTS_SECOND);
+        contactManager.endUpdate();
+        assertEquals(1, other.enters);
+        assertEquals(0, entity.enters);
+        contactManager.beginUpdate();
+        contactManager.endUpdate();
+        assertEquals(1, other.exits);
+        assertEquals(0, entity.exits);
+    }
+
+    @Test
+    void removedEntityEvictsContacts() {
+        EventEntity removed = new EventEntity(new Vector2(0, 0), 1, 1);
+        List<EventEntity> others = new ArrayList<>();
+        contactManager.beginUpdate();
+        for (int i = 0; i < 10; i++) {
+            EventEntity other = new EventEntity(new Vector2(i, i), 1, 1);
+            others.add(other);
+            contactManager.reportContact(removed, other,
+                    ContactManager.FIRST_DETECTS_SECOND | ContactManager.SECOND_DETECTS_FIRST);
+        }
+        contactManager.reportContact(others.get(0), others.get(1), ContactManager.FIRST_DETECTS_SECOND);
+        contactManager.endUpdate();
+        assertEquals(11, contactManager.size());
+
+        contactManager.remove(removed);
+        assertEquals(1, contactManager.size());
+        assertEquals(0, removed.exits, "The removed entity shouldn't receive exit events");
+        for (EventEntity other : others) {
+            assertEquals(1, other.exits);
+            assertFalse(contactManager.isInContact(removed, other));
+        }
+        assertTrue(contactManager.isInContact(others.get(0), others.get(1)));
+    }
+
+    @Test
+    void manyContactsGrowAndShrink() {
+        List<EventEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            entities.add(new EventEntity(new Vector2(0, 0), 1, 1));
+        }
+        for (int update = 0; update < 5; update++) {
+            contactManager.beginUpdate();
+            for (int i = 0; i < entities.size(); i++) {
+                for (int j = i + 1; j < entities.size(); j++) {
+                    if ((i + j + update) % 3 != 0)
+                        contactManager.reportContact(entities.get(i), entities.get(j), ContactManager.FIRST_DETECTS_SECOND);
+                }
+            }
+            contactManager.endUpdate();
+            for (int i = 0; i < entities.size(); i++) {
+                for (int j = i + 1; j < entities.size(); j++) {
+                    assertEquals((i + j + update) % 3 != 0, contactManager.isInContact(entities.get(i), entities.get(j)));
+                }
+            }
+        }
+        int enters = 0, exits = 0;
+        for (EventEntity entity : entities) {
+            enters += entity.enters;
+            exits += entity.exits;
+        }
+        assertEquals(enters - exits, contactManager.size(), "Every contact that started and didn't end should be stored");
+    }
+
+    @Test
+    void collisionHandlerTestsEachPairOnce() {
+        EntityHandler entityHandler = new EntityHandler();
+        CollisionHandler collisionHandler = new CollisionHandler(entityHandler);
+        EventEntity entity = new EventEntity(new Vector2(0, 0), 1, 1);
+        EventEntity other = new EventEntity(new Vector2(5, 5), 1, 1);
+        entityHandler.addEntity(entity);
+        entityHandler.addEntity(other);
+        entityHandler.updateEntities(0);
+        collisionHandler.update();
+        collisionHandler.update();
+        assertEquals(2, entity.tests + other.tests, "The pair should be tested once per update");
+        assertEquals(1, entity.enters);
+        assertEquals(1, other.enters);
+        assertEquals(1, entity.stays);
+        assertEquals(1, other.stays);
+
+        other.destroy();
+        entityHandler.updateEntities(0);
+        collisionHandler.update();
+        assertEquals(1, entity.exits);
+        assertEquals(0, collisionHandler.getContactManager().size());
+    }
+
+    private static class EventEntity extends Entity {
+
+        int enters;
+        int stays;
+        int exits;
+        int tests;
+
+        EventEntity(Vector2 position, int collisionLayer, int collisionMask) {
+            super(position, new Rectangle(10, 10), collisionLayer, collisionMask);
+        }
+
+        @Override
+        public void update(double delta) {
+        }
+
+        @Override
+        public void draw(Graphics2D g2d) {
+        }
+
+        @Override
+        public boolean isCollidingWith(Entity otherEntity) {
+            tests++;
+            return super.isCollidingWith(otherEntity);
+        }
+
+        @Override
+        public void handleCollision(Entity otherEntity) {
+            enters++;
+        }
+
+        @Override
+        public void handleCollisionStay(Entity otherEntity) {
+            stays++;
+        }
+
+        @Override
+        public void handleCollisionExit(Entity otherEntity) {
+            exits++;
+        }
+    }
+}
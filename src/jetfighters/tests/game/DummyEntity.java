@@ -18,7 +18,6 @@ class DummyEntity extends Entity {
     private int updateCount;
     private int drawCount;
 
-    private LimitedTimeCondition renderedLatch;
     private LimitedTimeCondition updatedLatch;
 
     private CollisionCallback collisionCallback;
@@ -36,9 +35,8 @@ class DummyEntity extends Entity {
         this.collisionCallback = collisionCallback;
     }
 
-    public DummyEntity(LimitedTimeCondition renderedLatch, LimitedTimeCondition updatedLatch) {
+    public DummyEntity(LimitedTimeCondition updatedLatch) {
         this();
-        this.renderedLatch = renderedLatch;
         this.updatedLatch = updatedLatch;
     }
 
@@ -52,8 +50,11 @@ class DummyEntity extends Entity {
     @Override
     public void draw(Graphics2D g2d) {
         drawCount++;
-        if (drawCount > 3 && renderedLatch != null)
-            renderedLatch.conditionWasMet();
+    }
+
+    @Override
+    public Color getFillColor() {
+        return Color.MAGENTA; // Drawn by the render thread from the captured shape
     }
 
     @Override
@@ -61,6 +62,10 @@ class DummyEntity extends Entity {
         collisionCallback.call(otherEntity);
     }
 
+    public void replaceShape(Shape shape) {
+        this.shape = shape;
+    }
+
     public int getUpdateCount() {
         return updateCount;
     }
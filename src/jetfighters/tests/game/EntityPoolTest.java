@@ -0,0 +1,92 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.Simulation;
+import jetfighters.game.entities.EntityPool;
+import jetfighters.game.entities.Explosion;
+import jetfighters.game.handlers.EntityHandler;
+import jetfighters.game.math.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class EntityPoolTest {
+
+    private EntityHandler entityHandler;
+    private EntityPool<DummyEntity> pool;
+
+    @BeforeEach
+    void setUp() {
+        entityHandler = new EntityHandler();
+        pool = new EntityPool<>(DummyEntity::new, 2);
+    }
+
+    @Test
+    void destroyedEntitiesAreReturnedOnRemoval() {
+        DummyEntity dummyEntity = pool.obtain();
+        assertEquals(1, pool.getMisses());
+        entityHandler.addEntity(dummyEntity);
+        entityHandler.updateEntities(1);
+        dummyEntity.destroy();
+        entityHandler.updateEntities(1); // Queues the removal
+        assertEquals(0, pool.getFreeCount());
+        entityHandler.updateEntities(1); // Removes the entity
+        assertEquals(1, pool.getFreeCount());
+
+        assertSame(dummyEntity, pool.obtain());
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    void entitiesThatWereNotDestroyedAreNotReturned() {
+        DummyEntity dummyEntity = pool.obtain();
+        entityHandler.addEntity(dummyEntity);
+        entityHandler.updateEntities(1);
+        entityHandler.removeEntity(dummyEntity);
+        entityHandler.updateEntities(1);
+        assertEquals(0, pool.getFreeCount());
+    }
+
+    @Test
+    void releaseIsIgnoredTwiceAndAboveMaxSize() {
+        DummyEntity[] dummyEntities = {pool.obtain(), pool.obtain(), pool.obtain()};
+        for (DummyEntity dummyEntity : dummyEntities) {
+            dummyEntity.destroy();
+            dummyEntity.release();
+            dummyEntity.release();
+        }
+        assertEquals(2, pool.getFreeCount());
+        assertNotSame(pool.obtain(), pool.obtain());
+    }
+
+    @Test
+    void explosionsAreReusedAfterTheirAnimation() {
+        Simulation simulation = new Simulation(1068, 685, 42);
+        EntityPool<Explosion> explosions = simulation.getEntityPools().getExplosions();
+        for (int i = 0; i < 3; i++) {
+            Explosion explosion = explosions.obtain();
+            explosion.reset(new Vector2(100, 100), 3);
+            simulation.addEntity(explosion);
+            simulation.step(50);
+            assertFalse(simulation.getEntityHandler().getEntities().contains(explosion), "Explosion should be removed after its animation");
+        }
+        assertEquals(1, explosions.getMisses());
+        assertEquals(2, explosions.getHits());
+    }
+
+    @Test
+    void powerUpsAreReusedInLongMatches() {
+        Simulation simulation = new Simulation(1068, 685, 42);
+        simulation.step(50 * 600); // 10 minutes, a power up every 5 seconds
+        // A power up falls for 7 seconds, so at most 2 of each kind exist at the same time
+        assertTrue(simulation.getEntityPools().getTotalMisses() <= 2 * 5, "Power ups should be reused");
+        assertTrue(simulation.getEntityPools().getTotalHits() >= 100);
+    }
+}
@@ -0,0 +1,107 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.entities.Entity;
+import jetfighters.game.entities.EntityRegistry;
+import jetfighters.game.handlers.CollisionHandler;
+import jetfighters.game.math.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class EntityRegistryTest {
+
+    private EntityRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new EntityRegistry();
+    }
+
+    private static DummyEntity createOnLayer(int layer) {
+        return new DummyEntity(Vector2.ZERO, new Rectangle(10, 10), layer, 0, null);
+    }
+
+    @Test
+    void removeKeepsOtherEntities() {
+        DummyEntity[] dummyEntities = new DummyEntity[100];
+        for (int i = 0; i < dummyEntities.length; i++) {
+            dummyEntities[i] = new DummyEntity();
+            registry.add(dummyEntities[i]);
+        }
+        for (int i = 0; i < dummyEntities.length; i += 2) {
+            assertTrue(registry.remove(dummyEntities[i]));
+        }
+        assertFalse(registry.remove(dummyEntities[0]), "Removing twice should be ignored");
+        assertEquals(50, registry.size());
+        for (int i = 0; i < dummyEntities.length; i++) {
+            assertEquals(i % 2 == 1, registry.getAll().contains(dummyEntities[i]));
+        }
+    }
+
+    @Test
+    void handlesAreInvalidAfterRemoval() {
+        DummyEntity dummyEntity = new DummyEntity();
+        long handle = registry.add(dummyEntity);
+        assertEquals(handle, dummyEntity.getHandle());
+        assertSame(dummyEntity, registry.get(handle));
+        registry.remove(dummyEntity);
+        assertEquals(EntityRegistry.INVALID_HANDLE, dummyEntity.getHandle());
+        assertNull(registry.get(handle));
+
+        DummyEntity dummyEntity2 = new DummyEntity();
+        long handle2 = registry.add(dummyEntity2); // Reuses the slot of the removed entity
+        assertNotEquals(handle, handle2);
+        assertNull(registry.get(handle));
+        assertSame(dummyEntity2, registry.get(handle2));
+    }
+
+    @Test
+    void layerBuckets() {
+        DummyEntity player = createOnLayer(CollisionHandler.PLAYER_LAYER);
+        DummyEntity powerUp = createOnLayer(CollisionHandler.POWERUP_LAYER);
+        DummyEntity both = createOnLayer(CollisionHandler.PLAYER_LAYER | CollisionHandler.POWERUP_LAYER);
+        registry.add(player);
+        registry.add(powerUp);
+        registry.add(both);
+        List<Entity> players = registry.getByLayer(CollisionHandler.PLAYER_LAYER);
+        assertEquals(List.of(player, both), players);
+        registry.remove(player);
+        assertEquals(List.of(both), players, "Views should not be copies");
+        assertEquals(List.of(powerUp, both), registry.getByLayer(CollisionHandler.POWERUP_LAYER));
+        assertThrows(IllegalArgumentException.class, () -> registry.getByLayer(3));
+    }
+
+    @Test
+    void typeBuckets() {
+        DummyEntity dummyEntity = new DummyEntity();
+        registry.add(dummyEntity);
+        List<DummyEntity> dummyEntities = registry.getByType(DummyEntity.class);
+        assertEquals(List.of(dummyEntity), dummyEntities, "Entities added before the first request should be in the bucket");
+        DummyEntity dummyEntity2 = new DummyEntity();
+        registry.add(dummyEntity2);
+        assertEquals(2, dummyEntities.size());
+        assertEquals(2, registry.getByType(Entity.class).size());
+        registry.remove(dummyEntity);
+        assertEquals(List.of(dummyEntity2), dummyEntities);
+        assertThrows(UnsupportedOperationException.class, () -> dummyEntities.add(dummyEntity));
+    }
+
+    @Test
+    void entityCanOnlyBeInOneRegistry() {
+        DummyEntity dummyEntity = new DummyEntity();
+        long handle = registry.add(dummyEntity);
+        assertEquals(handle, registry.add(dummyEntity));
+        assertEquals(1, registry.size());
+        assertThrows(IllegalStateException.class, () -> new EntityRegistry().add(dummyEntity));
+    }
+}
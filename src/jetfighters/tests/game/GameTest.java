@@ -46,13 +46,17 @@ class GameTest {
     }
 
     @Test
-    void addEntityAndUpdate() {
+    void addEntityAndUpdate() throws InterruptedException {
         LimitedTimeCondition entityUpdated = new LimitedTimeCondition(1, TimeUnit.SECONDS);
-        LimitedTimeCondition entityRendered = new LimitedTimeCondition(1, TimeUnit.SECONDS);
-        DummyEntity dummy = new DummyEntity(entityRendered, entityUpdated);
+        DummyEntity dummy = new DummyEntity(entityUpdated);
         game.addEntity(dummy);
         assertTrue(entityUpdated.waitForConditionToBeMet(), "entity was not updated after adding to game.");
-        assertTrue(entityRendered.waitForConditionToBeMet(), "entity was not rendered after adding to game.");
+        long updatedTick = game.getTick(); // The snapshots of this tick and all later ones contain the entity
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (game.getPresentedTick() < updatedTick && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(game.getPresentedTick() >= updatedTick, "no frame containing the entity was presented after adding it to game.");
     }
 
     @Test
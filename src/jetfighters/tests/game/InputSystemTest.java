@@ -0,0 +1,69 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.Simulation;
+import jetfighters.game.input.InputSystem;
+import jetfighters.game.input.LatencyHistogram;
+import jetfighters.game.input.PlayerInput;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Runs without a window, canvas or audio, so it also works on machines without a display.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class InputSystemTest {
+
+    private static final int TEST_WIDTH = 1068;
+    private static final int TEST_HEIGHT = 685;
+
+    @Test
+    void eventsAreAppliedAtTheStartOfTheTick() {
+        Simulation simulation = new Simulation(TEST_WIDTH, TEST_HEIGHT, 42);
+        Simulation idle = new Simulation(TEST_WIDTH, TEST_HEIGHT, 42);
+        InputSystem inputSystem = new InputSystem();
+
+        assertTrue(inputSystem.submit(1, PlayerInput.MoveForward, true));
+        simulation.step(10);
+        idle.step(10);
+        assertEquals(idle.getPlayer1().getPosition(), simulation.getPlayer1().getPosition(),
+                "Submitted events should wait for the game thread");
+
+        assertEquals(1, inputSystem.apply(1, (id) -> id == 1 ? simulation.getPlayer1() : simulation.getPlayer2()));
+        simulation.step(10);
+        idle.step(10);
+        assertNotEquals(idle.getPlayer1().getPosition(), simulation.getPlayer1().getPosition());
+        assertEquals(idle.getPlayer2().getPosition(), simulation.getPlayer2().getPosition());
+
+        inputSystem.submit(2, PlayerInput.TurnLeft, true);
+        assertEquals(1, inputSystem.apply(2, (id) -> null), "Events of missing players should be skipped");
+        assertThrows(IllegalArgumentException.class, () -> inputSystem.submit(3, PlayerInput.Shoot, true));
+    }
+
+    @Test
+    void latencyIsMeasuredUntilTheFirstFrameOfTheTick() {
+        InputSystem inputSystem = new InputSystem();
+        Simulation simulation = new Simulation(TEST_WIDTH, TEST_HEIGHT, 42);
+        long millis = 1_000_000;
+
+        inputSystem.submit(1, PlayerInput.Shoot, true, 0);
+        inputSystem.submit(2, PlayerInput.TurnRight, true, 2 * millis);
+        inputSystem.apply(1, (id) -> id == 1 ? simulation.getPlayer1() : simulation.getPlayer2());
+        inputSystem.submit(1, PlayerInput.Shoot, true, 5 * millis); // A repeated press of a held key
+        inputSystem.submit(1, PlayerInput.Shoot, false, 6 * millis);
+        inputSystem.apply(2, (id) -> id == 1 ? simulation.getPlayer1() : simulation.getPlayer2());
+
+        assertEquals(0, inputSystem.framePresented(0, 7 * millis), "The frame shows none of the applied ticks");
+        assertEquals(2, inputSystem.framePresented(1, 10 * millis));
+        assertEquals(1, inputSystem.framePresented(2, 16 * millis));
+        assertEquals(0, inputSystem.framePresented(2, 20 * millis), "Every event should only be measured once");
+
+        LatencyHistogram histogram = inputSystem.getLatencyHistogram();
+        assertEquals(3, histogram.getCount());
+        assertEquals(10, histogram.getMaxMillis(), 1e-9);
+        assertEquals((10 + 8 + 10) / 3.0, histogram.getMeanMillis(), 1e-9);
+    }
+}
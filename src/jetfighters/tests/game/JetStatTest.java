@@ -0,0 +1,70 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.powerupseffects.JetStat;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class JetStatTest {
+
+    @Test
+    void modifiersAreAppliedInOrder() {
+        JetStat stat = new JetStat(10);
+        assertEquals(10, stat.getValue());
+        long base = stat.addBaseMultiplier(2);
+        long additive = stat.addAdditive(5);
+        long full = stat.addFullMultiplier(3);
+        assertEquals((10 * 2 + 5) * 3, stat.getValue(), 1e-9);
+        assertEquals(3, stat.getModifierCount());
+
+        assertTrue(stat.removeModifier(base));
+        assertEquals((10 + 5) * 3, stat.getValue(), 1e-9);
+        assertTrue(stat.removeModifier(full));
+        assertTrue(stat.removeModifier(additive));
+        assertEquals(10, stat.getValue());
+        assertEquals(10, stat.getBaseValue());
+        assertEquals(0, stat.getModifierCount());
+    }
+
+    @Test
+    void handlesRemoveExactlyTheirModifier() {
+        JetStat stat = new JetStat(100);
+        long first = stat.addBaseMultiplier(0.5);
+        long second = stat.addBaseMultiplier(0.5);
+        assertNotEquals(first, second);
+        assertEquals(25, stat.getValue(), 1e-9);
+
+        assertTrue(stat.removeModifier(first));
+        assertFalse(stat.removeModifier(first), "A handle should only remove its modifier once");
+        assertEquals(50, stat.getValue(), 1e-9);
+
+        long reused = stat.addAdditive(1); // Takes the slot of the first multiplier
+        assertFalse(stat.removeModifier(first), "An old handle must not remove the new modifier of its slot");
+        assertEquals(51, stat.getValue(), 1e-9);
+        assertTrue(stat.removeModifier(reused));
+        assertTrue(stat.removeModifier(second));
+        assertFalse(stat.removeModifier(JetStat.INVALID_HANDLE));
+        assertEquals(100, stat.getValue());
+    }
+
+    @Test
+    void capacityGrowsWithTheModifiers() {
+        JetStat stat = new JetStat(0);
+        long[] handles = new long[20];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = stat.addAdditive(1);
+        }
+        assertEquals(20, stat.getValue(), 1e-9);
+        for (int i = 0; i < handles.length; i += 2) {
+            assertTrue(stat.removeModifier(handles[i]));
+        }
+        assertEquals(10, stat.getValue(), 1e-9);
+        assertEquals(10, stat.getModifierCount());
+    }
+}
@@ -0,0 +1,48 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.input.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesAreRoundedUpToTheirBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileMillis(99));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 100_000L - 50_000); // 0.05 ms to 9.95 ms
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(5, histogram.getMeanMillis(), 1e-9);
+        assertEquals(9.95, histogram.getMaxMillis(), 1e-9);
+        assertEquals(5, histogram.getPercentileMillis(50), 1e-9);
+        assertEquals(9.5, histogram.getPercentileMillis(95), 1e-9);
+        assertEquals(10, histogram.getPercentileMillis(99), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileMillis(101));
+    }
+
+    @Test
+    void latenciesAboveTheLastBucketOverflow() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(1_000_000_000L);
+        assertEquals(0.5, histogram.getPercentileMillis(50), 1e-9, "Negative latencies should be counted as 0");
+        assertEquals(1000, histogram.getPercentileMillis(100), 1e-9);
+
+        String report = histogram.report();
+        assertTrue(report.startsWith("2 samples"), report);
+        assertTrue(report.contains(">= 200.0 ms"), report);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxMillis());
+    }
+}
@@ -0,0 +1,65 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.entities.MovingEntity;
+import jetfighters.game.math.MutableVector2;
+import jetfighters.game.math.Vector2;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class MutableVector2Test {
+
+    @Test
+    void matchesImmutableOperations() {
+        Vector2 expected = new Vector2(3, -4).add(1, 2).mult(2.5).rotated(0.3).lerp(Vector2.ONE, 0.25);
+        MutableVector2 vector = new MutableVector2(3, -4).add(1, 2).mult(2.5).rotate(0.3).lerp(1, 1, 0.25);
+        assertEquals(expected.x, vector.x, 1e-9);
+        assertEquals(expected.y, vector.y, 1e-9);
+        assertEquals(expected.length() * expected.length(), vector.lengthSquared(), 1e-9);
+        assertEquals(expected.angle(), vector.angle(), 1e-9);
+        assertEquals(expected.normalized(), vector.toVector2().normalized());
+    }
+
+    @Test
+    void clampLength() {
+        MutableVector2 vector = new MutableVector2(0, -1000).clampLength(250);
+        assertEquals(Vector2.UP.mult(250), vector.toVector2());
+        vector.set(30, 40).clampLength(50);
+        assertEquals(new Vector2(30, 40), vector.toVector2(), "Vectors that are not too long shouldn't change");
+        assertEquals(25, new Vector2(3, 4).lengthSquared());
+        assertEquals(25, new Vector2(3, 4).distanceSquaredTo(Vector2.ZERO));
+    }
+
+    @Test
+    void movingEntityUpdateDoesNotAllocateVelocities() {
+        MovingEntity entity = new MovingEntity(Vector2.ZERO, new Rectangle(10, 10), 0, 0, 200,
+                new Vector2(10, 0), new Vector2(0, 400)) {
+            @Override
+            public void draw(Graphics2D g2d) {
+            }
+        };
+        int updates = 20_000;
+        for (int i = 0; i < updates; i++) { // Warm up, so the measurement doesn't include class loading
+            entity.update(1 / 60.0);
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < updates; i++) {
+            entity.update(1 / 60.0);
+        }
+        long bytesPerUpdate = (threadBean.getThreadAllocatedBytes(threadId) - before) / updates;
+        // Only the new immutable position may be allocated (at most 32 bytes)
+        assertTrue(bytesPerUpdate <= 40, bytesPerUpdate + " bytes per update");
+        assertEquals(200, entity.getVelocity().length(), 1e-9);
+    }
+}
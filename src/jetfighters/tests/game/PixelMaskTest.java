@@ -0,0 +1,142 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.math.PixelMask;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class PixelMaskTest {
+
+    private static BufferedImage createBar(int width, int height, int barWidth, int barHeight) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int left = (width - barWidth) / 2;
+        int top = (height - barHeight) / 2;
+        for (int y = top; y < top + barHeight; y++) {
+            for (int x = left; x < left + barWidth; x++) {
+                image.setRGB(x, y, 0xFF000000);
+            }
+        }
+        return image;
+    }
+
+    @Test
+    void fromImageUsesAlphaThreshold() {
+        BufferedImage image = new BufferedImage(100, 3, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 0xC8FFFFFF); // Alpha 200
+        image.setRGB(70, 1, 0xC7FFFFFF); // Alpha 199
+        image.setRGB(99, 2, 0xFF000000);
+        PixelMask mask = PixelMask.fromImage(image, 200);
+        assertEquals(2, mask.count());
+        assertTrue(mask.get(0, 0));
+        assertFalse(mask.get(70, 1));
+        assertTrue(mask.get(99, 2));
+        assertSame(mask, PixelMask.fromImage(image, 200), "Masks should be cached per image");
+        assertEquals(3, PixelMask.fromImage(image, 100).count(), "Masks should be cached per alpha threshold");
+        assertSame(PixelMask.fromImage(image, 100), PixelMask.fromImage(image, 100));
+
+        PixelMask subMask = PixelMask.fromImage(image.getSubimage(60, 1, 40, 2), 200);
+        assertEquals(1, subMask.count());
+        assertTrue(subMask.get(39, 1));
+    }
+
+    @Test
+    void overlapsMatchesPixelComparison() {
+        Random random = new Random(12);
+        PixelMask mask = new PixelMask(150, 20);
+        PixelMask other = new PixelMask(90, 25);
+        for (int i = 0; i < 200; i++) {
+            mask.set(random.nextInt(150), random.nextInt(20));
+            other.set(random.nextInt(90), random.nextInt(25));
+        }
+        for (int i = 0; i < 2000; i++) {
+            int otherX = random.nextInt(260) - 100;
+            int otherY = random.nextInt(50) - 25;
+            boolean expected = false;
+            for (int y = 0; y < 20 && !expected; y++) {
+                for (int x = 0; x < 150 && !expected; x++) {
+                    expected = mask.get(x, y) && other.get(x - otherX, y - otherY);
+                }
+            }
+            assertEquals(expected, mask.overlaps(0, 0, other, otherX, otherY), "Offset " + otherX + ", " + otherY);
+        }
+    }
+
+    @Test
+    void rotatedMasks() {
+        PixelMask horizontal = PixelMask.fromImage(createBar(40, 40, 40, 4), 200);
+        PixelMask vertical = PixelMask.fromImage(createBar(40, 40, 4, 40), 200);
+        // The vertical bar is below the horizontal one, they only overlap if the horizontal bar is rotated upright
+        AffineTransform transform = new AffineTransform();
+        AffineTransform otherTransform = AffineTransform.getTranslateInstance(0, 30);
+        assertTrue(horizontal.overlaps(transform, vertical, new AffineTransform()));
+        assertFalse(horizontal.overlaps(transform, vertical, otherTransform));
+        transform.setToRotation(Math.PI / 2, 20, 20);
+        assertTrue(horizontal.overlaps(transform, vertical, otherTransform));
+        transform.setToRotation(Math.PI, 20, 20);
+        assertFalse(horizontal.overlaps(transform, vertical, otherTransform));
+        transform.setToRotation(-Math.PI / 2 + 0.01, 20, 20); // Rounded to the nearest quantised angle
+        assertTrue(horizontal.overlaps(transform, vertical, otherTransform));
+    }
+
+    @Test
+    void scaledMasks() {
+        PixelMask square = PixelMask.fromImage(createBar(10, 10, 10, 10), 200);
+        AffineTransform transform = new AffineTransform();
+        AffineTransform otherTransform = AffineTransform.getTranslateInstance(12, 0);
+        assertFalse(square.overlaps(transform, square, otherTransform));
+        transform.scale(1.5, 1.5); // Grows to the right and bottom, as the transform scales around the origin
+        assertTrue(square.overlaps(transform, square, otherTransform));
+    }
+
+    @Test
+    void sharedMasksCanBeTestedWithDifferentScalesAtOnce() throws InterruptedException {
+        PixelMask shared = PixelMask.fromImage(createBar(40, 40, 40, 4), 200);
+        PixelMask reference = PixelMask.fromImage(createBar(40, 40, 40, 4), 200); // Another image, so another mask
+        PixelMask probe = PixelMask.fromImage(createBar(6, 6, 6, 6), 200);
+        double[] scales = {0.5, 2};
+        boolean[][] expected = new boolean[scales.length][PixelMask.ROTATION_STEPS];
+        for (int s = 0; s < scales.length; s++) {
+            for (int step = 0; step < PixelMask.ROTATION_STEPS; step++) {
+                expected[s][step] = reference.overlaps(transform(step, scales[s]), probe, AffineTransform.getTranslateInstance(30, 24));
+            }
+        }
+
+        AtomicInteger mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[scales.length];
+        for (int s = 0; s < scales.length; s++) {
+            int scaleIndex = s;
+            threads[s] = new Thread(() -> {
+                for (int lap = 0; lap < 20; lap++) {
+                    for (int step = 0; step < PixelMask.ROTATION_STEPS; step++) {
+                        boolean overlaps = shared.overlaps(transform(step, scales[scaleIndex]), probe,
+                                AffineTransform.getTranslateInstance(30, 24));
+                        if (overlaps != expected[scaleIndex][step])
+                            mismatches.incrementAndGet();
+                    }
+                }
+            });
+            threads[s].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, mismatches.get());
+    }
+
+    private static AffineTransform transform(int step, double scale) {
+        AffineTransform transform = AffineTransform.getRotateInstance(step * 2 * Math.PI / PixelMask.ROTATION_STEPS, 20, 20);
+        transform.scale(scale, scale);
+        return transform;
+    }
+}
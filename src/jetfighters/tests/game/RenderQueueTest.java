@@ -0,0 +1,117 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.rendering.RenderQueue;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class RenderQueueTest {
+
+    private static BufferedImage createImage(Color... colors) {
+        BufferedImage image = new BufferedImage(4 * colors.length, 4, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        for (int i = 0; i < colors.length; i++) {
+            g2d.setColor(colors[i]);
+            g2d.fillRect(4 * i, 0, 4, 4);
+        }
+        g2d.dispose();
+        return image;
+    }
+
+    @Test
+    void higherLayersAreDrawnOnTop() {
+        BufferedImage red = createImage(Color.RED);
+        BufferedImage green = createImage(Color.GREEN);
+        BufferedImage canvas = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+        RenderQueue queue = new RenderQueue();
+
+        queue.submit(RenderQueue.LAYER_EFFECTS, red, 0, 0, 4, 4, new AffineTransform(), 1);
+        queue.submit(RenderQueue.LAYER_DEFAULT, green, 0, 0, 4, 4, new AffineTransform(), 1);
+        queue.submit(RenderQueue.LAYER_PICKUPS, red, 0, 0, 4, 4, AffineTransform.getTranslateInstance(4, 4), 1);
+        queue.submit(RenderQueue.LAYER_DEFAULT, green, 0, 0, 4, 4, AffineTransform.getTranslateInstance(4, 4), 1);
+        assertEquals(4, queue.size());
+
+        Graphics2D g2d = canvas.createGraphics();
+        queue.flush(g2d);
+        g2d.dispose();
+        assertEquals(Color.RED.getRGB(), canvas.getRGB(1, 1));
+        assertEquals(Color.GREEN.getRGB(), canvas.getRGB(5, 5));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void commandsAreGroupedBySourceImageInSubmissionOrder() {
+        BufferedImage page = createImage(Color.RED, Color.BLUE);
+        BufferedImage green = createImage(Color.GREEN);
+        BufferedImage canvas = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+        RenderQueue queue = new RenderQueue();
+
+        queue.submit(RenderQueue.LAYER_DEFAULT, page, 0, 0, 4, 4, new AffineTransform(), 1);
+        queue.submit(RenderQueue.LAYER_DEFAULT, green, 0, 0, 4, 4, new AffineTransform(), 1);
+        queue.submit(RenderQueue.LAYER_DEFAULT, page, 4, 0, 4, 4, new AffineTransform(), 1);
+
+        Graphics2D g2d = canvas.createGraphics();
+        queue.flush(g2d);
+        g2d.dispose();
+        // Both rectangles of the page are drawn first (red, then blue), green is the only other image
+        assertEquals(Color.GREEN.getRGB(), canvas.getRGB(2, 2));
+
+        queue.submit(RenderQueue.LAYER_DEFAULT, page, 4, 0, 4, 4, new AffineTransform(), 1);
+        queue.submit(RenderQueue.LAYER_DEFAULT, page, 0, 0, 4, 4, new AffineTransform(), 1);
+        g2d = canvas.createGraphics();
+        queue.flush(g2d);
+        g2d.dispose();
+        assertEquals(Color.RED.getRGB(), canvas.getRGB(2, 2));
+    }
+
+    @Test
+    void graphicsStateIsRestored() {
+        BufferedImage image = createImage(Color.RED);
+        BufferedImage canvas = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+        RenderQueue queue = new RenderQueue();
+
+        AffineTransform rotation = AffineTransform.getRotateInstance(1.3, 2, 2);
+        rotation.scale(1.7, .3);
+        queue.submit(RenderQueue.LAYER_DEFAULT, image, 0, 0, 4, 4, rotation, .5f);
+        queue.submit(RenderQueue.LAYER_DEFAULT, new Rectangle(4, 4), Color.GREEN, AffineTransform.getTranslateInstance(3, 3));
+        queue.submit(RenderQueue.LAYER_EFFECTS, image, 0, 0, 4, 4, AffineTransform.getTranslateInstance(20, 20), 1);
+
+        Graphics2D g2d = canvas.createGraphics();
+        g2d.translate(3, 5);
+        AffineTransform base = g2d.getTransform();
+        Composite composite = g2d.getComposite();
+        Color color = g2d.getColor();
+        queue.flush(g2d);
+        assertEquals(base, g2d.getTransform());
+        assertSame(composite, g2d.getComposite());
+        assertEquals(color, g2d.getColor());
+        g2d.dispose();
+
+        assertEquals(Color.GREEN.getRGB(), canvas.getRGB(9, 11), "The shape should be filled");
+        assertEquals(Color.RED.getRGB(), canvas.getRGB(24, 26), "The base transform should apply to all commands");
+    }
+
+    @Test
+    void layersOutsideOfTheRangeAreRejected() {
+        RenderQueue queue = new RenderQueue();
+        BufferedImage image = createImage(Color.RED);
+        assertThrows(IllegalArgumentException.class,
+                () -> queue.submit(1 << 15, image, 0, 0, 4, 4, new AffineTransform(), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> queue.submit(-(1 << 15) - 1, new Rectangle(4, 4), Color.RED, new AffineTransform()));
+        queue.submit(-(1 << 15), image, 0, 0, 4, 4, new AffineTransform(), 1);
+        assertEquals(1, queue.size());
+        queue.clear();
+        assertEquals(0, queue.size());
+    }
+}
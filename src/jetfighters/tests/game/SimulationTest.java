@@ -0,0 +1,89 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.Simulation;
+import jetfighters.game.tween.Tween;
+import jetfighters.game.tween.TweenMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Runs without a window, canvas or audio, so it also works on machines without a display.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 13.07.22
+ */
+class SimulationTest {
+
+    private static final int TEST_WIDTH = 1068;
+    private static final int TEST_HEIGHT = 685;
+    private Simulation simulation;
+
+    @BeforeEach
+    void setUp() {
+        simulation = new Simulation(TEST_WIDTH, TEST_HEIGHT, 42);
+    }
+
+    @Test
+    void step() {
+        assertEquals(50, simulation.step(50));
+        assertEquals(50, simulation.getTickCount());
+        assertEquals(1, simulation.getCurrentGameTime(), 1e-9);
+        assertTrue(simulation.getEntityHandler().getEntities().contains(simulation.getPlayer1()));
+        assertTrue(simulation.getEntityHandler().getEntities().contains(simulation.getPlayer2()));
+    }
+
+    @Test
+    void addEntityAndTween() {
+        DummyEntity dummyEntity = new DummyEntity();
+        AtomicInteger tweenUpdates = new AtomicInteger();
+        simulation.addEntity(dummyEntity);
+        simulation.addTween(new Tween.Double(1, 0, 1, TweenMode.Linear, (val) -> tweenUpdates.incrementAndGet()));
+        simulation.step(10);
+        assertEquals(10, dummyEntity.getUpdateCount());
+        assertEquals(10, tweenUpdates.get());
+    }
+
+    @Test
+    void stepAfterReset() {
+        DummyEntity dummyEntity = new DummyEntity();
+        simulation.addEntity(dummyEntity);
+        simulation.step(500);
+        simulation.reset();
+        assertEquals(0, simulation.getTickCount());
+        assertEquals(0, simulation.getCurrentGameTime());
+
+        assertEquals(5, simulation.step(5));
+        assertFalse(simulation.getEntityHandler().getEntities().contains(dummyEntity));
+        assertEquals(500, dummyEntity.getUpdateCount(), "Removed entities should no longer be updated");
+        assertTrue(simulation.getEntityHandler().getEntities().contains(simulation.getPlayer1()));
+        assertTrue(simulation.getEntityHandler().getEntities().contains(simulation.getPlayer2()));
+
+        simulation.reset();
+        assertEquals(5, simulation.step(5));
+    }
+
+    @Test
+    void gameOverStopsStepping() {
+        AtomicInteger gameOverCalls = new AtomicInteger();
+        simulation.setGameOverAction((playerLost) -> gameOverCalls.incrementAndGet());
+        simulation.getPlayer1().damage(simulation.getPlayer1().getCurrentHealth(), true);
+        assertTrue(simulation.isGameOver());
+        assertSame(simulation.getPlayer1(), simulation.getLoser());
+        assertEquals(1, gameOverCalls.get());
+        assertEquals(0, simulation.step(10), "A finished game should not be stepped any further");
+    }
+
+    @Test
+    void sameSeedSameMatch() {
+        Simulation other = new Simulation(TEST_WIDTH, TEST_HEIGHT, 42);
+        simulation.step(1000);
+        other.step(1000);
+        assertEquals(simulation.getEntityHandler().getEntities().size(), other.getEntityHandler().getEntities().size());
+        assertEquals(simulation.getPlayer1().getPosition(), other.getPlayer1().getPosition());
+    }
+}
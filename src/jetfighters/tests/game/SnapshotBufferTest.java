@@ -0,0 +1,118 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.entities.Entity;
+import jetfighters.game.math.Vector2;
+import jetfighters.game.rendering.FrameSnapshot;
+import jetfighters.game.rendering.RenderQueue;
+import jetfighters.game.rendering.SnapshotBuffer;
+import jetfighters.game.transitions.VocalCircleTransition;
+import jetfighters.game.tween.TweenMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 13.07.22
+ */
+class SnapshotBufferTest {
+
+    private SnapshotBuffer snapshotBuffer;
+
+    @BeforeEach
+    void setUp() {
+        snapshotBuffer = new SnapshotBuffer();
+    }
+
+    private void publish(List<Entity> entities, double gameTime) {
+        snapshotBuffer.getWriteSnapshot().capture(entities, new AffineTransform(), new AffineTransform(), gameTime, 20_000_000);
+        snapshotBuffer.publish();
+    }
+
+    @Test
+    void readLatestSnapshot() {
+        assertTrue(snapshotBuffer.getReadSnapshot().isEmpty(), "Nothing was published yet");
+        publish(List.of(), 1);
+        publish(List.of(), 2);
+        FrameSnapshot snapshot = snapshotBuffer.getReadSnapshot();
+        assertFalse(snapshot.isEmpty());
+        assertEquals(2, snapshot.getGameTime(), "The reader should always get the newest snapshot");
+        assertSame(snapshot, snapshotBuffer.getReadSnapshot(), "The snapshot should not change without a new publish");
+        publish(List.of(), 3);
+        assertNotSame(snapshot, snapshotBuffer.getWriteSnapshot(), "The writer must never write into the snapshot that is read");
+        assertEquals(3, snapshotBuffer.getReadSnapshot().getGameTime());
+    }
+
+    @Test
+    void interpolateEntities() {
+        DummyEntity dummyEntity = new DummyEntity();
+        dummyEntity.storePreviousState();
+        dummyEntity.setPosition(new Vector2(10, -20));
+        dummyEntity.setRotation(1);
+        publish(List.of(dummyEntity), 0);
+        FrameSnapshot snapshot = snapshotBuffer.getReadSnapshot();
+        assertEquals(1, snapshot.getEntityCount());
+        assertFalse(snapshot.getEntity(0).hasHealthBar());
+        assertEquals(0, snapshot.getEntity(0).getX(0));
+        assertEquals(5, snapshot.getEntity(0).getX(.5));
+        assertEquals(-20, snapshot.getEntity(0).getY(1));
+        assertEquals(.25, snapshot.getEntity(0).getRotation(.25));
+        dummyEntity.setPosition(new Vector2(1000, 0)); // Changes after publishing must not be visible
+        assertEquals(10, snapshot.getEntity(0).getX(1));
+    }
+
+    @Test
+    void teleportIsNotInterpolated() {
+        DummyEntity dummyEntity = new DummyEntity();
+        dummyEntity.storePreviousState();
+        dummyEntity.setPosition(new Vector2(1000, 0));
+        publish(List.of(dummyEntity), 0);
+        assertEquals(1000, snapshotBuffer.getReadSnapshot().getEntity(0).getX(.5));
+    }
+
+    @Test
+    void capturedShapeIsDrawnWithoutTheEntity() {
+        DummyEntity dummyEntity = new DummyEntity();
+        dummyEntity.storePreviousState();
+        publish(List.of(dummyEntity), 0);
+        dummyEntity.replaceShape(new Rectangle(1, 1)); // Changes after publishing must not be visible
+
+        BufferedImage canvas = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = canvas.createGraphics();
+        snapshotBuffer.getReadSnapshot().drawEntities(g2d, new RenderQueue(), 1);
+        g2d.dispose();
+        assertEquals(Color.MAGENTA.getRGB(), canvas.getRGB(8, 8));
+        assertEquals(0, canvas.getRGB(12, 12));
+        assertEquals(0, dummyEntity.getDrawCount(), "The render thread must not call into the entity");
+    }
+
+    @Test
+    void capturedTransitionIsNotChangedByTheGameThread() {
+        VocalCircleTransition transition = new VocalCircleTransition(new Vector2(8, 8), 0, 100, true, 1, 1,
+                TweenMode.Linear, null, Color.BLACK);
+        FrameSnapshot snapshot = snapshotBuffer.getWriteSnapshot();
+        snapshot.captureTransition(transition);
+        snapshotBuffer.publish();
+        transition.setVocalTransitionShape(1); // Shrinks the circle to nothing after the snapshot was published
+
+        BufferedImage canvas = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = canvas.createGraphics();
+        assertTrue(snapshotBuffer.getReadSnapshot().hasTransition());
+        snapshotBuffer.getReadSnapshot().drawTransition(g2d);
+        g2d.dispose();
+        assertEquals(Color.BLACK.getRGB(), canvas.getRGB(8, 8));
+
+        snapshot = snapshotBuffer.getWriteSnapshot();
+        snapshot.captureTransition(null);
+        snapshotBuffer.publish();
+        assertFalse(snapshotBuffer.getReadSnapshot().hasTransition());
+    }
+}
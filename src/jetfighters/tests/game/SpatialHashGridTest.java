@@ -0,0 +1,113 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.collision.BruteForceBroadphase;
+import jetfighters.game.collision.SpatialHashGrid;
+import jetfighters.game.entities.Entity;
+import jetfighters.game.math.Vector2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class SpatialHashGridTest {
+
+    private SpatialHashGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new SpatialHashGrid(640, 480, 64);
+    }
+
+    private static DummyEntity createAt(double x, double y, int size) {
+        return new DummyEntity(new Vector2(x, y), new Rectangle(size, size), 1, 1, null);
+    }
+
+    private static Set<String> collectPairs(jetfighters.game.collision.Broadphase broadphase, boolean onlyOverlapping) {
+        Set<String> pairs = new HashSet<>();
+        broadphase.findPairs((entity, otherEntity) -> {
+            if (onlyOverlapping && !entity.getTransformedShape().getBounds2D().intersects(otherEntity.getTransformedShape().getBounds2D()))
+                return;
+            String pair = Math.min(entity.hashCode(), otherEntity.hashCode()) + "-" + Math.max(entity.hashCode(), otherEntity.hashCode());
+            assertTrue(pairs.add(pair), "Pairs should only be reported once");
+        });
+        return pairs;
+    }
+
+    @Test
+    void findsTheSamePairsAsBruteForce() {
+        Random random = new Random(42);
+        List<Entity> entities = new ArrayList<>();
+        for (int i = 0; i < 300; i++) { // Some entities are outside the world, like jets that are about to wrap
+            entities.add(createAt(random.nextDouble() * 800 - 80, random.nextDouble() * 640 - 80, 10 + random.nextInt(60)));
+        }
+        BruteForceBroadphase bruteForce = new BruteForceBroadphase();
+        for (int update = 0; update < 3; update++) {
+            grid.update(entities);
+            bruteForce.update(entities);
+            assertEquals(collectPairs(bruteForce, true), collectPairs(grid, true));
+            for (Entity entity : entities) {
+                entity.setPosition(entity.getPosition().add(random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20));
+            }
+        }
+    }
+
+    @Test
+    void distantEntitiesAreNoCandidates() {
+        DummyEntity dummyEntity = createAt(10, 10, 20);
+        DummyEntity dummyEntity2 = createAt(300, 300, 20);
+        DummyEntity dummyEntity3 = createAt(10 + 640, 10, 20); // In the same cell after wrapping, but a world apart
+        grid.update(List.of(dummyEntity, dummyEntity2, dummyEntity3));
+        assertEquals(0, collectPairs(grid, false).size());
+    }
+
+    @Test
+    void removedEntitiesAreNoCandidates() {
+        DummyEntity dummyEntity = createAt(10, 10, 20);
+        DummyEntity dummyEntity2 = createAt(15, 15, 20);
+        grid.update(List.of(dummyEntity, dummyEntity2));
+        assertEquals(1, collectPairs(grid, false).size());
+        grid.remove(dummyEntity2);
+        assertEquals(0, collectPairs(grid, false).size());
+    }
+
+    @Test
+    void oversizedEntities() {
+        DummyEntity big = createAt(-10, -10, 1000);
+        DummyEntity big2 = createAt(-10, -10, 1000);
+        DummyEntity small = createAt(300, 300, 20);
+        grid.update(List.of(big, big2, small));
+        assertEquals(3, collectPairs(grid, false).size());
+    }
+
+    @Test
+    void oversizedEntitiesCanBeRemovedAndShrunk() {
+        DummyEntity big = createAt(-10, -10, 1000);
+        DummyEntity big2 = createAt(-10, -10, 1000);
+        DummyEntity big3 = createAt(-10, -10, 1000);
+        DummyEntity small = createAt(300, 300, 20);
+        DummyEntity small2 = createAt(100, 100, 20);
+        grid.update(List.of(big, big2, big3, small, small2));
+        assertEquals(3 + 3 * 2, collectPairs(grid, false).size());
+
+        grid.remove(big); // The last oversized entity takes its place
+        grid.remove(small);
+        assertEquals(1 + 2, collectPairs(grid, false).size());
+
+        big2.replaceShape(new Rectangle(20, 20)); // No longer oversized
+        grid.update(List.of(big2, big3, small2));
+        assertEquals(2, collectPairs(grid, false).size());
+    }
+}
@@ -0,0 +1,134 @@
+package jetfighters.tests.game;
+
+import jetfighters.game.sprites.AnimatedSprite;
+import jetfighters.game.sprites.AssetCache;
+import jetfighters.game.sprites.TextureAtlas;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+class TextureAtlasTest {
+
+    private static BufferedImage createImage(int width, int height, int seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, 0xFF000000 | (seed * 7919 + x * 31 + y * 131) & 0xFFFFFF);
+            }
+        }
+        return image;
+    }
+
+    private static Map<String, BufferedImage> createImages() {
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        for (int i = 0; i < 12; i++) {
+            images.put("image" + i, createImage(10 + i * 3, 40 - i * 2, i));
+        }
+        return images;
+    }
+
+    private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel " + x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    void packedRegionsDontOverlapAndKeepTheirPixels() {
+        Map<String, BufferedImage> images = createImages();
+        TextureAtlas atlas = TextureAtlas.pack(images, 64, 2);
+        assertEquals(images.size(), atlas.size());
+        assertTrue(atlas.getPages().size() > 1, "The images don't fit on one page of 64x64");
+
+        List<TextureAtlas.Region> regions = new ArrayList<>();
+        for (Map.Entry<String, BufferedImage> entry : images.entrySet()) {
+            TextureAtlas.Region region = atlas.getRegion(entry.getKey());
+            assertNotNull(region);
+            assertTrue(region.getX() + region.getWidth() <= region.getPage().getWidth());
+            assertTrue(region.getY() + region.getHeight() <= region.getPage().getHeight());
+            assertSamePixels(entry.getValue(), region.getImage());
+            regions.add(region);
+        }
+
+        for (int i = 0; i < regions.size(); i++) {
+            for (int j = i + 1; j < regions.size(); j++) {
+                TextureAtlas.Region a = regions.get(i);
+                TextureAtlas.Region b = regions.get(j);
+                if (a.getPage() != b.getPage())
+                    continue;
+                Rectangle paddedA = new Rectangle(a.getX() - 2, a.getY() - 2, a.getWidth() + 4, a.getHeight() + 4);
+                assertFalse(paddedA.intersects(b.getX(), b.getY(), b.getWidth(), b.getHeight()),
+                        a.getName() + " and " + b.getName() + " are too close");
+            }
+        }
+    }
+
+    @Test
+    void imagesLargerThanAPageAreRejected() {
+        Map<String, BufferedImage> images = Map.of("large", createImage(70, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> TextureAtlas.pack(images, 64, 2));
+    }
+
+    @Test
+    void savedAtlasesCanBeLoaded() throws IOException {
+        Map<String, BufferedImage> images = createImages();
+        TextureAtlas atlas = TextureAtlas.pack(images, 64, 2);
+
+        File directory = Files.createTempDirectory("atlas").toFile();
+        atlas.save(directory, "test");
+        TextureAtlas loaded = TextureAtlas.load(new File(directory, "test.atlas"));
+
+        assertEquals(atlas.size(), loaded.size());
+        assertEquals(atlas.getPages().size(), loaded.getPages().size());
+        for (Map.Entry<String, BufferedImage> entry : images.entrySet()) {
+            assertSamePixels(entry.getValue(), loaded.getRegion(entry.getKey()).getImage());
+        }
+    }
+
+    @Test
+    void defaultAtlasContainsTheSprites() {
+        TextureAtlas atlas = TextureAtlas.getDefault();
+        String path = "sprites/jet/jet1/Jet_1_1.png";
+        TextureAtlas.Region region = atlas.getRegion(path);
+        assertNotNull(region);
+        assertSamePixels(AssetCache.readImage(path), region.getImage());
+        assertNotNull(atlas.getFrameRegions("sprites/jet/jet1/Jet_1_", 2));
+        assertNull(atlas.getFrameRegions("sprites/jet/jet1/Jet_1_", 1000));
+    }
+
+    @Test
+    void animatedSpritesAreDrawnFromTheAtlas() {
+        String explosion = "sprites/explosion/explosion.png";
+        AnimatedSprite sprite = new AnimatedSprite(explosion, 5, 1, 0, 0, .1, false);
+        TextureAtlas.Region sheet = TextureAtlas.getDefault().getRegion(explosion);
+        assertNotNull(sprite.getRegion());
+        assertSame(sheet.getPage(), sprite.getRegion().getPage());
+        assertEquals(sheet.getWidth() / 5, sprite.getRegion().getWidth());
+
+        sprite.nextFrame();
+        assertEquals(sheet.getX() + sheet.getWidth() / 5, sprite.getRegion().getX());
+        assertSame(sprite.getRegion().getImage(), sprite.getImage());
+        assertNull(sprite.getImage().getRaster().getParent(), "Sprites shouldn't share the raster of the page");
+        assertSame(sprite.getImage(), sprite.getRegion().getImage(), "The copy of a region should be shared");
+    }
+}
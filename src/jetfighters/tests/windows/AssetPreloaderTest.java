@@ -0,0 +1,49 @@
+package jetfighters.tests.windows;
+
+import jetfighters.game.sprites.AssetCache;
+import jetfighters.windows.AssetPreloader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class AssetPreloaderTest {
+
+    @Test
+    void allImagesAreLoadedInTheBackground() throws IOException {
+        AssetCache cache = new AssetCache(AssetCache.DEFAULT_MAX_BYTES);
+        AssetPreloader preloader = new AssetPreloader(cache);
+        assertFalse(preloader.isDone());
+        assertEquals(0, preloader.getProgress());
+
+        preloader.start();
+        assertSame(preloader, preloader.start(), "Starting twice shouldn't load the assets again");
+        preloader.awaitCompletion();
+
+        assertTrue(preloader.isDone());
+        assertEquals(1, preloader.getProgress());
+        assertEquals(preloader.getTotalCount(), preloader.getLoadedCount());
+        assertTrue(preloader.getTotalCount() > AssetPreloader.IMAGES.size());
+        assertEquals(AssetPreloader.IMAGES.size(), cache.getMisses(), "Every image should be decoded once");
+
+        long hits = cache.getHits();
+        for (String path : AssetPreloader.IMAGES) {
+            assertSame(cache.getImage(path), preloader.getIcon(path).getImage());
+        }
+        assertEquals(AssetPreloader.IMAGES.size(), cache.getMisses(), "The windows shouldn't decode images again");
+        assertEquals(hits + 2L * AssetPreloader.IMAGES.size(), cache.getHits());
+    }
+
+    @Test
+    void missingImagesThrow() {
+        AssetPreloader preloader = new AssetPreloader(new AssetCache(AssetCache.DEFAULT_MAX_BYTES));
+        assertThrows(IOException.class, () -> preloader.getIcon("buttons/missing.png"));
+    }
+}
@@ -13,6 +13,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.image.PixelGrabber;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -54,9 +55,13 @@ public class BackgroundImageTest {
             assertNotNull(backgroundImage.getImage(2));
             assertNotNull(backgroundImage.getImage(3));
             assertNotNull(backgroundImage.getImage(4));
-            assertTrue(checkPixelsEqual(backgroundImage.getBackgroundImage().getImage(),
-                    backgroundImage.getScaledImage(1).getImage()));
-        } catch (ImageNotFoundException | IOException e) {
+            // Until the morning image is scaled the background is a placeholder, the window replaces it on the EDT
+            BackgroundImage windowBackground = window.getBackgroundImage();
+            ImageIcon scaledMorning = windowBackground.getScaledImageAsync(1).join();
+            SwingUtilities.invokeAndWait(() -> {
+            });
+            assertTrue(checkPixelsEqual(windowBackground.getBackgroundImage().getImage(), scaledMorning.getImage()));
+        } catch (ImageNotFoundException | IOException | InterruptedException | InvocationTargetException e) {
             throw new RuntimeException(e);
         }
     }
@@ -150,6 +155,7 @@ public class BackgroundImageTest {
     @Test
     void testGetAndSetBackgroundImage() {
         try {
+            backgroundImage.setBackgroundImage(backgroundImage.getScaledImage(1));
             assertTrue(checkPixelsEqual(backgroundImage.getBackgroundImage().getImage(),
                     backgroundImage.getScaledImage(1).getImage()));
             backgroundImage.setBackgroundImage(dummyImage);
@@ -162,6 +168,25 @@ public class BackgroundImageTest {
         }
     }
 
+    @Test
+    void testScaledVariantsAreCached() {
+        try {
+            assertSame(backgroundImage.getScaledImage(2).getImage(), backgroundImage.getScaledImage(2).getImage());
+            backgroundImage.setBackgroundImage(backgroundImage.getScaledImage(2));
+            Image gameImage = backgroundImage.getBackgroundImageScaled(1.1, 1.1).getImage();
+            assertSame(gameImage, backgroundImage.getBackgroundImageScaled(1.1, 1.1).getImage());
+            assertEquals((int) (1068 * 1.1), gameImage.getWidth(null));
+            assertEquals((int) (685 * 1.1), gameImage.getHeight(null));
+            // A variant is scaled from the full size image again, not from the smaller variant
+            assertSame(backgroundImage.getScaledImage(2).getImage(),
+                    backgroundImage.scaleImageIcon(new ImageIcon(gameImage)).getImage());
+            assertTrue(backgroundImage.getScaledVariant(backgroundImage.getImage(3).getImage(), 1068, 685).isDone(),
+                    "The backgrounds should be scaled ahead");
+        } catch (ImageNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private boolean checkPixelsEqual(Image image1, Image image2) throws IOException {
         return checkPixelDifferenceGrabber(image1, image2) == 0;
     }
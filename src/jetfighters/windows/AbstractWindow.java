@@ -25,8 +25,7 @@ public abstract class AbstractWindow extends JPanel {
         this.window = window;
 
         background = new JLabel();
-        BackgroundImage backgroundImage = new BackgroundImage(window);  //nur relevant für die Initialisierung
-        setupLabel(background, 0, 0, backgroundImage.getBackgroundImage());
+        setupLabel(background, 0, 0, window.getBackgroundImage().getBackgroundImage()); //shared by all windows
 
         this.width = 1068;
         this.height = 685;
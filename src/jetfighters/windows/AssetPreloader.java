@@ -0,0 +1,197 @@
+package jetfighters.windows;
+
+import jetfighters.audio.SampleBank;
+import jetfighters.audio.Sound;
+import jetfighters.game.sprites.AssetCache;
+import jetfighters.game.sprites.TextureAtlas;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Decodes all images of the menus, the sprite atlas and all sounds at startup in parallel on a small pool of daemon
+ * threads, while the {@link LoadingScreen} shows the progress. The windows take their images from
+ * {@link #getIcon(String)}: an image that is already decoded is returned directly, an image that is still being
+ * decoded is waited for and an image that is not part of the {@link #IMAGES manifest} is decoded on the calling
+ * thread.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class AssetPreloader {
+
+    /**
+     * the images used by the windows, decoded into the {@link AssetCache}
+     */
+    public static final List<String> IMAGES = List.of(
+            "sprites/jet/jet1/Jet_1_1.png",
+            "backgrounds/Morning.png", "backgrounds/Daytime.png", "backgrounds/Night.png",
+            "fonts/Jet_Fighters_title.png", "fonts/ChooseWindow_title.png", "fonts/Options_title.png",
+            "fonts/Pause_title.png", "fonts/GameOver_title.png", "fonts/Music_label.png", "fonts/Sound_label.png",
+            "fonts/Background_label.png", "fonts/OptionsCancel_description.png", "fonts/PauseLeave_description.png",
+            "fonts/Game_Over_description_1.png", "fonts/Game_Over_description_2.png",
+            "buttons/Startbutton_default.png", "buttons/Startbutton_pressed.png",
+            "buttons/Optionsbutton_default.png", "buttons/Optionsbutton_pressed.png",
+            "buttons/Quitbutton_default.png", "buttons/Quitbutton_pressed.png",
+            "buttons/Versusbutton_default.png", "buttons/Versusbutton_pressed.png",
+            "buttons/Singlebutton_default.png", "buttons/Singlebutton_pressed.png",
+            "buttons/Coopbutton_default.png", "buttons/Coopbutton_pressed.png",
+            "buttons/Backbutton_default.png", "buttons/Backbutton_pressed.png",
+            "buttons/Applybutton_default.png", "buttons/Applybutton_pressed.png",
+            "buttons/Cancelbutton_default.png", "buttons/Cancelbutton_pressed.png",
+            "buttons/Resumebutton_default.png", "buttons/Resumebutton_pressed.png",
+            "buttons/Restartbutton_default.png", "buttons/Restartbutton_pressed.png",
+            "buttons/Leavebutton_default.png", "buttons/Leavebutton_pressed.png",
+            "buttons/Yesbutton_default.png", "buttons/Yesbutton_pressed.png",
+            "buttons/Nobutton_default.png", "buttons/Nobutton_pressed.png",
+            "buttons/Morningbutton_default.png", "buttons/Morningbutton_pressed.png",
+            "buttons/Morningbutton_activated_default.png", "buttons/Morningbutton_activated_pressed.png",
+            "buttons/Daytimebutton_default.png", "buttons/Daytimebutton_pressed.png",
+            "buttons/Daytimebutton_activated_default.png", "buttons/Daytimebutton_activated_pressed.png",
+            "buttons/Nightbutton_default.png", "buttons/Nightbutton_pressed.png",
+            "buttons/Nightbutton_activated_default.png", "buttons/Nightbutton_activated_pressed.png",
+            "buttons/Importbutton_default.png", "buttons/Importbutton_pressed.png",
+            "buttons/Importbutton_activated_default.png", "buttons/Importbutton_activated_pressed.png");
+
+    private static final AssetPreloader defaultPreloader = new AssetPreloader(AssetCache.getDefault());
+
+    private final AssetCache cache;
+    private final AtomicInteger loaded;
+    private final AtomicInteger failed;
+    private CompletableFuture<Void> completion; // Null until start() is called
+    private int total;
+
+    /**
+     * creates a new preloader, most windows should use the shared {@link #getDefault()} preloader
+     *
+     * @param cache the cache the images are decoded into
+     */
+    public AssetPreloader(AssetCache cache) {
+        this.cache = cache;
+        loaded = new AtomicInteger();
+        failed = new AtomicInteger();
+    }
+
+    /**
+     * @return the preloader shared by all windows
+     */
+    public static AssetPreloader getDefault() {
+        return defaultPreloader;
+    }
+
+    /**
+     * starts loading all assets of the manifest in the background, later calls do nothing
+     *
+     * @return this preloader
+     */
+    public synchronized AssetPreloader start() {
+        if (completion != null)
+            return this;
+
+        List<Runnable> tasks = new ArrayList<>();
+        // The atlas is the largest task, so it is started first
+        tasks.add(TextureAtlas::getDefault);
+        for (String path : IMAGES) {
+            tasks.add(() -> {
+                if (cache.getImage(path) == null)
+                    failed.incrementAndGet();
+            });
+        }
+        for (Sound sound : Sound.values()) {
+            tasks.add(() -> {
+                if (!SampleBank.getDefault().load(sound))
+                    failed.incrementAndGet();
+            });
+        }
+        total = tasks.size();
+
+        // Decoding is CPU bound, so one thread per core (at most 4, to keep the pool small on the cabinets)
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, (runnable) -> {
+            Thread thread = new Thread(runnable, "AssetPreloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            Runnable task = tasks.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    task.run();
+                } finally {
+                    loaded.incrementAndGet();
+                }
+            }, executor);
+        }
+        completion = CompletableFuture.allOf(futures);
+        completion.whenComplete((result, exception) -> executor.shutdown());
+        return this;
+    }
+
+    /**
+     * waits until all assets are loaded, starting the preloader if it wasn't started yet
+     */
+    public void awaitCompletion() {
+        start();
+        completion.join();
+    }
+
+    /**
+     * a getter for an image of the windows, see {@link AssetPreloader}
+     *
+     * @param path the path of the image relative to the resources
+     * @return the image as an icon
+     * @throws IOException if the image couldn't be loaded
+     */
+    public ImageIcon getIcon(String path) throws IOException {
+        BufferedImage image = cache.getImage(path);
+        if (image == null)
+            throw new IOException("Couldn't load image " + path);
+        return new ImageIcon(image);
+    }
+
+    /**
+     * @return true, if all assets are loaded
+     */
+    public synchronized boolean isDone() {
+        return completion != null && completion.isDone();
+    }
+
+    /**
+     * @return the loaded part of all assets between 0 and 1
+     */
+    public synchronized double getProgress() {
+        if (completion == null)
+            return 0;
+        return total == 0 ? 1 : (double) loaded.get() / total;
+    }
+
+    /**
+     * @return the amount of assets that are loaded (including the ones that failed)
+     */
+    public int getLoadedCount() {
+        return loaded.get();
+    }
+
+    /**
+     * @return the amount of assets that couldn't be loaded
+     */
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return the amount of all assets in the manifest, 0 until the preloader is started
+     */
+    public synchronized int getTotalCount() {
+        return total;
+    }
+}
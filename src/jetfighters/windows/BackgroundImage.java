@@ -1,27 +1,50 @@
 package jetfighters.windows;
 
+import jetfighters.game.sprites.AssetCache;
 import jetfighters.windows.exceptions.ImageNotFoundException;
 import jetfighters.windows.exceptions.StateNotFoundException;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.filechooser.FileFilter;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.util.Objects;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * Owns the background images of all windows, one instance is shared through {@link Window#getBackgroundImage()}.
+ * Scaled variants are cached by their source image and size and are scaled on a worker thread. The variants used
+ * by the windows and the game are scaled ahead when the images are set up, so switching the background doesn't
+ * scale on the event dispatch thread. Until the first background is scaled, the windows show an empty placeholder.
  *
  * @author do04 - Daniel Flat, Moritz Junge
  * @version 13.07.22
  */
 public class BackgroundImage {
+    private static final double GAME_SCALE = 1.1; // The game draws the background a bit larger, so shaking doesn't show the border
+
+    private static final ExecutorService scaler = Executors.newSingleThreadExecutor((runnable) -> {
+        Thread thread = new Thread(runnable, "BackgroundScaler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final Window window;
 
+    private final Map<Variant, CompletableFuture<ImageIcon>> variants = new ConcurrentHashMap<>();
+    private final Map<Image, Image> variantSources = new WeakHashMap<>(); // The source image of every scaled variant
+    private Image backgroundSource; // The unscaled image of the current background
+
     private ImageIcon backgroundImage;
+    private final ImageIcon placeholder; // Shown until the first background is scaled, it has the size of the windows
 
     private static final FileFilter PNG_FILTER = new FileNameExtensionFilter(
             "PNG image files (*.png)", "png");
@@ -29,16 +52,21 @@ public class BackgroundImage {
     private ImageIcon morningImage;
     private ImageIcon daytimeImage;
     private ImageIcon nightImage;
-    private ImageIcon importImage;
+    private ImageIcon importImage; // The morning image until the user imports an image
+    private boolean imported; // True if importImage was loaded by the user
 
     private final int width;
 
     private final int height;
 
+    private record Variant(Image source, int width, int height) {
+    }
+
     public BackgroundImage(Window window) {
         this.window = window;
         this.width = 1068;
         this.height = 685;
+        placeholder = new ImageIcon(AssetCache.createCompatibleImage(width, height));
         setupImages();
     }
 
@@ -46,25 +74,38 @@ public class BackgroundImage {
      * a method for setting up the preloaded background images
      */
     private void setupImages() {
-        ClassLoader classLoader = getClass().getClassLoader();
+        AssetPreloader assets = AssetPreloader.getDefault();
         try {
-            morningImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "backgrounds/Morning.png"))));
-            daytimeImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "backgrounds/Daytime.png"))));
-            nightImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "backgrounds/Night.png"))));
-            importImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "backgrounds/Morning.png"))));
+            morningImage = assets.getIcon("backgrounds/Morning.png");
+            daytimeImage = assets.getIcon("backgrounds/Daytime.png");
+            nightImage = assets.getIcon("backgrounds/Night.png");
+            importImage = assets.getIcon("backgrounds/Morning.png");
         } catch (IOException | NullPointerException e) {
             System.err.println("Couldn't load images in BackgroundImage correctly:");
             e.printStackTrace();
         }
-        backgroundImage = scaleImageIcon(morningImage);
+        for (ImageIcon image : new ImageIcon[]{morningImage, daytimeImage, nightImage}) {
+            prefetch(image);
+        }
+        backgroundImage = getScaledVariant(morningImage.getImage(), width, height).getNow(placeholder);
+        backgroundSource = getSource(morningImage.getImage());
+    }
+
+    /**
+     * starts scaling the variants of an image that are used by the windows and the game on the worker thread
+     *
+     * @param imageIcon the image to scale
+     */
+    private void prefetch(ImageIcon imageIcon) {
+        if (imageIcon == null)
+            return;
+        getScaledVariant(imageIcon.getImage(), width, height);
+        getScaledVariant(imageIcon.getImage(), (int) (width * GAME_SCALE), (int) (height * GAME_SCALE));
     }
 
     /**
-     * a method for scaling an image
+     * a method for scaling an image, which waits for the worker thread, so it shouldn't be called by the event dispatch
+     * thread (see {@link #getScaledVariant(Image, int, int)})
      *
      * @param imageIcon the image to scale
      * @return the scaled image
@@ -74,7 +115,7 @@ public class BackgroundImage {
     }
 
     /**
-     * a method for scaling an image
+     * a method for scaling an image, which waits for the worker thread like {@link #scaleImageIcon(ImageIcon)}
      *
      * @param imageIcon the image to scale
      * @param scaleX    the x factor
@@ -82,9 +123,68 @@ public class BackgroundImage {
      * @return the scaled image
      */
     public ImageIcon scaleImageIcon(ImageIcon imageIcon, double scaleX, double scaleY) {
-        Image image = imageIcon.getImage();
-        Image newImage = image.getScaledInstance((int) (width * scaleX), (int) (height * scaleY), Image.SCALE_SMOOTH);
-        return new ImageIcon(newImage);
+        return getScaledVariant(imageIcon.getImage(), (int) (width * scaleX), (int) (height * scaleY)).join();
+    }
+
+    /**
+     * a getter for a scaled variant of an image, which is scaled once on the worker thread
+     *
+     * @param image  the image to scale, a variant is scaled from its source image
+     * @param width  the width of the variant
+     * @param height the height of the variant
+     * @return the variant, which is completed when the image is scaled
+     */
+    public CompletableFuture<ImageIcon> getScaledVariant(Image image, int width, int height) {
+        Image source = getSource(image);
+        if (source.getWidth(null) == width && source.getHeight(null) == height)
+            return CompletableFuture.completedFuture(new ImageIcon(source));
+        return variants.computeIfAbsent(new Variant(source, width, height),
+                (variant) -> CompletableFuture.supplyAsync(() -> {
+                    Image scaled = scale(source, width, height);
+                    synchronized (variantSources) {
+                        variantSources.put(scaled, source);
+                    }
+                    return new ImageIcon(scaled);
+                }, scaler));
+    }
+
+    /**
+     * scales an image with bilinear filtering, halving the size in steps while it is more than twice as large,
+     * so no pixels are skipped
+     *
+     * @param image  the image to scale
+     * @param width  the width of the scaled image
+     * @param height the height of the scaled image
+     * @return the scaled image
+     */
+    static BufferedImage scale(Image image, int width, int height) {
+        Image current = image;
+        int currentWidth = image.getWidth(null);
+        int currentHeight = image.getHeight(null);
+        do {
+            currentWidth = currentWidth / 2 >= width ? currentWidth / 2 : width;
+            currentHeight = currentHeight / 2 >= height ? currentHeight / 2 : height;
+            BufferedImage step = AssetCache.createCompatibleImage(currentWidth, currentHeight);
+            Graphics2D g2d = step.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            g2d.dispose();
+            current = step;
+        } while (currentWidth != width || currentHeight != height);
+        return (BufferedImage) current;
+    }
+
+    /**
+     * a getter for the source of a scaled variant
+     *
+     * @param image the image
+     * @return the image the variant was scaled from or the image itself, if it isn't a variant
+     */
+    private Image getSource(Image image) {
+        synchronized (variantSources) {
+            return variantSources.getOrDefault(image, image);
+        }
     }
 
     /**
@@ -99,7 +199,13 @@ public class BackgroundImage {
         int fcOption = fileChooser.showOpenDialog(null);
         if (fcOption == JFileChooser.APPROVE_OPTION) {
             File loadFile = fileChooser.getSelectedFile();
+            if (imported) { // Before that, importImage is the morning image, whose variants are still needed
+                Image previousImport = importImage.getImage();
+                variants.keySet().removeIf(variant -> variant.source() == previousImport);
+            }
             importImage = new ImageIcon(loadFile.getAbsolutePath());
+            imported = true;
+            prefetch(importImage);
             window.updateBackgroundImage(4);
         } else {
             try {
@@ -144,31 +250,49 @@ public class BackgroundImage {
     }
 
     /**
-     * a getter for the scaled preloaded background images
+     * a getter for the scaled preloaded background images, which waits for the scaling (see
+     * {@link #getScaledImageAsync(int)})
      *
      * @param image the integer for the image
      * @return the scaled background image
      * @throws ImageNotFoundException if there is no image for the integer value
      */
     public ImageIcon getScaledImage(int image) throws ImageNotFoundException {
-        return switch (image) {
-            case 1 -> scaleImageIcon(morningImage);
-            case 2 -> scaleImageIcon(daytimeImage);
-            case 3 -> scaleImageIcon(nightImage);
-            case 4 -> scaleImageIcon(importImage);
-            default -> throw new ImageNotFoundException();
-        };
+        return getScaledImageAsync(image).join();
     }
 
     /**
-     * a getter for the current background image which is getting scaled
+     * a getter for the scaled preloaded background images, which doesn't wait for the scaling
+     *
+     * @param image the integer for the image
+     * @return the scaled background image, which is completed when the image is scaled
+     * @throws ImageNotFoundException if there is no image for the integer value
+     */
+    public CompletableFuture<ImageIcon> getScaledImageAsync(int image) throws ImageNotFoundException {
+        return getScaledVariant(getImage(image).getImage(), width, height);
+    }
+
+    /**
+     * a getter for the current background image which is getting scaled, which waits for the scaling (see
+     * {@link #getBackgroundImageScaledAsync(double, double)})
      *
      * @param scaleX the scale factor for the x coordinate
      * @param scaleY the scale factor for the y coordinate
      * @return the scaled current image
      */
     public ImageIcon getBackgroundImageScaled(double scaleX, double scaleY) {
-        return scaleImageIcon(backgroundImage, scaleX, scaleY);
+        return getBackgroundImageScaledAsync(scaleX, scaleY).join();
+    }
+
+    /**
+     * a getter for the current background image which is getting scaled, which doesn't wait for the scaling
+     *
+     * @param scaleX the scale factor for the x coordinate
+     * @param scaleY the scale factor for the y coordinate
+     * @return the scaled current image, which is completed when the image is scaled
+     */
+    public CompletableFuture<ImageIcon> getBackgroundImageScaledAsync(double scaleX, double scaleY) {
+        return getScaledVariant(backgroundSource, (int) (width * scaleX), (int) (height * scaleY));
     }
 
     /**
@@ -183,9 +307,10 @@ public class BackgroundImage {
     /**
      * is setting the current background image with a new image
      *
-     * @param background the new background image
+     * @param background the new background image, used as it is if it isn't scaled to the size of the windows yet
      */
     public void setBackgroundImage(ImageIcon background) {
-        backgroundImage = scaleImageIcon(background);
+        backgroundImage = getScaledVariant(background.getImage(), width, height).getNow(background);
+        backgroundSource = getSource(background.getImage());
     }
 }
@@ -6,11 +6,9 @@ import jetfighters.windows.exceptions.StateNotFoundException;
 import jetfighters.windows.listeners.UserInput;
 import jetfighters.windows.states.MenuState;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.io.IOException;
-import java.util.Objects;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
@@ -70,26 +68,17 @@ public class ChooseWindow extends AbstractWindow {
      * is setting up all the images
      */
     private void setupImages() {
-        ClassLoader classLoader = getClass().getClassLoader();
+        AssetPreloader assets = AssetPreloader.getDefault();
         try {
-            titleImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "fonts/ChooseWindow_title.png"))));
-            versusDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Versusbutton_default.png"))));
-            versusPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Versusbutton_pressed.png"))));
-            singleDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Singlebutton_default.png"))));
-            singlePressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Singlebutton_pressed.png"))));
-            coopDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Coopbutton_default.png"))));
-            coopPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Coopbutton_pressed.png"))));
-            backDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Backbutton_default.png"))));
-            backPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Backbutton_pressed.png"))));
+            titleImage = assets.getIcon("fonts/ChooseWindow_title.png");
+            versusDefaultImage = assets.getIcon("buttons/Versusbutton_default.png");
+            versusPressedImage = assets.getIcon("buttons/Versusbutton_pressed.png");
+            singleDefaultImage = assets.getIcon("buttons/Singlebutton_default.png");
+            singlePressedImage = assets.getIcon("buttons/Singlebutton_pressed.png");
+            coopDefaultImage = assets.getIcon("buttons/Coopbutton_default.png");
+            coopPressedImage = assets.getIcon("buttons/Coopbutton_pressed.png");
+            backDefaultImage = assets.getIcon("buttons/Backbutton_default.png");
+            backPressedImage = assets.getIcon("buttons/Backbutton_pressed.png");
         } catch (IOException | NullPointerException e) {
             System.err.println("Couldn't load images in ChooseWindow correctly:");
             e.printStackTrace();
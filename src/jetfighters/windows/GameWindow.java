@@ -2,9 +2,8 @@ package jetfighters.windows;
 
 import jetfighters.audio.Sound;
 import jetfighters.game.Game;
-import jetfighters.game.GetPlayerMethod;
 import jetfighters.game.entities.PlayerActionMethod;
-import jetfighters.game.entities.PlayerInputMethod;
+import jetfighters.game.input.PlayerInput;
 import jetfighters.game.states.GameState;
 import jetfighters.windows.exceptions.StateNotFoundException;
 import jetfighters.windows.states.MenuState;
@@ -81,8 +80,8 @@ public class GameWindow extends AbstractWindow {
         game.initBuffer();
 
         addPauseKeystroke(this::pauseGame);
-        addPlayerKeybindings(1, game::getPlayer1, "W", "A", "S", "D", "C");
-        addPlayerKeybindings(2, game::getPlayer2, "I", "J", "K", "L", "N");
+        addPlayerKeybindings(1, "W", "A", "S", "D", "C");
+        addPlayerKeybindings(2, "I", "J", "K", "L", "N");
 
         game.startGameLoop();
     }
@@ -98,29 +97,28 @@ public class GameWindow extends AbstractWindow {
      * is adding the key bindings of the players
      *
      * @param playerID   the player id
-     * @param player     the player
      * @param keyStrokes the array of keystrokes
      */
-    private void addPlayerKeybindings(int playerID, GetPlayerMethod player, String... keyStrokes) {
+    private void addPlayerKeybindings(int playerID, String... keyStrokes) {
         if (keyStrokes.length != 5) {
             System.err.println("Player keybindings need exactly 5 keystrokes");
         }
-        addPlayerBoolAction(playerID, keyStrokes[0], "MoveForwards", (val) -> player.getPlayer().setMoveForward(val));
-        addPlayerBoolAction(playerID, keyStrokes[1], "TurnLeft", (val) -> player.getPlayer().setTurnLeft(val));
-        addPlayerBoolAction(playerID, keyStrokes[2], "MoveBackwards", (val) -> player.getPlayer().setMoveBackwards(val));
-        addPlayerBoolAction(playerID, keyStrokes[3], "TurnRight", (val) -> player.getPlayer().setTurnRight(val));
-        addPlayerBoolAction(playerID, keyStrokes[4], "Shoot", (val) -> player.getPlayer().setShooting(val));
+        addPlayerBoolAction(playerID, keyStrokes[0], "MoveForwards", PlayerInput.MoveForward);
+        addPlayerBoolAction(playerID, keyStrokes[1], "TurnLeft", PlayerInput.TurnLeft);
+        addPlayerBoolAction(playerID, keyStrokes[2], "MoveBackwards", PlayerInput.MoveBackwards);
+        addPlayerBoolAction(playerID, keyStrokes[3], "TurnRight", PlayerInput.TurnRight);
+        addPlayerBoolAction(playerID, keyStrokes[4], "Shoot", PlayerInput.Shoot);
     }
 
     /**
-     * is adding the key bindings of the players
+     * is adding the key bindings of the players, the inputs are applied by the game thread before its next tick
      *
      * @param player     the player id
      * @param keyStroke  the string of the keystrokes
      * @param actionName the action name
-     * @param method     the action method
+     * @param input      the input of the key
      */
-    private void addPlayerBoolAction(int player, String keyStroke, String actionName, PlayerInputMethod method) {
+    private void addPlayerBoolAction(int player, String keyStroke, String actionName, PlayerInput input) {
         InputMap inputMap = this.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
         String playerActionName = player + actionName;
         inputMap.put(KeyStroke.getKeyStroke("pressed " + keyStroke), playerActionName + "P");
@@ -130,13 +128,13 @@ public class GameWindow extends AbstractWindow {
         actionMap.put(playerActionName + "P", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                method.set(true);
+                game.getInputSystem().submit(player, input, true);
             }
         });
         actionMap.put(playerActionName + "R", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                method.set(false);
+                game.getInputSystem().submit(player, input, false);
             }
         });
     }
@@ -0,0 +1,70 @@
+package jetfighters.windows;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * <h3>PTP 2022 - Projekt "JetFighters"</h3>
+ * A small undecorated window that shows the progress of the {@link AssetPreloader} at startup. It only uses Swing
+ * components and no images, so it is visible before the first asset is decoded.
+ *
+ * @author do04 - Daniel Flat, Moritz Junge
+ * @version 21.07.22
+ */
+public class LoadingScreen extends JWindow {
+
+    private static final int UPDATE_DELAY = 30; // In milliseconds
+
+    private final AssetPreloader preloader;
+    private final JProgressBar progressBar;
+    private final Timer timer;
+
+    /**
+     * creates the loading screen, it has to be created on the event dispatch thread
+     *
+     * @param preloader the preloader whose progress is shown
+     * @param onDone    is run on the event dispatch thread after all assets are loaded, the screen is closed afterwards
+     */
+    public LoadingScreen(AssetPreloader preloader, Runnable onDone) {
+        this.preloader = preloader;
+
+        JLabel titleLabel = new JLabel("Jet Fighters", SwingConstants.CENTER);
+        titleLabel.setFont(new Font(Font.MONOSPACED, Font.BOLD, 32));
+        titleLabel.setForeground(Color.WHITE);
+
+        progressBar = new JProgressBar(0, 1000);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Loading...");
+
+        JPanel panel = new JPanel(new BorderLayout(0, 20));
+        panel.setBackground(new Color(30, 40, 60));
+        panel.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
+        panel.add(titleLabel, BorderLayout.CENTER);
+        panel.add(progressBar, BorderLayout.SOUTH);
+        setContentPane(panel);
+        setSize(400, 200);
+        setLocationRelativeTo(null);
+
+        timer = new Timer(UPDATE_DELAY, e -> update(onDone));
+    }
+
+    /**
+     * shows the screen and starts the preloader, if it wasn't started yet
+     */
+    public void start() {
+        preloader.start();
+        setVisible(true);
+        timer.start();
+    }
+
+    private void update(Runnable onDone) {
+        progressBar.setValue((int) (preloader.getProgress() * 1000));
+        if (!preloader.isDone())
+            return;
+        timer.stop();
+        if (preloader.getFailedCount() > 0)
+            System.err.println("Couldn't load " + preloader.getFailedCount() + " of " + preloader.getTotalCount() + " assets");
+        onDone.run();
+        dispose();
+    }
+}
@@ -6,11 +6,9 @@ import jetfighters.windows.exceptions.StateNotFoundException;
 import jetfighters.windows.listeners.UserInput;
 import jetfighters.windows.states.MenuState;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.io.IOException;
-import java.util.Objects;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
@@ -67,22 +65,15 @@ public class MenuWindow extends AbstractWindow {
      * is setting up all the images
      */
     private void setupImages() {
-        ClassLoader classLoader = getClass().getClassLoader();
+        AssetPreloader assets = AssetPreloader.getDefault();
         try {
-            titleImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "fonts/Jet_Fighters_title.png"))));
-            startDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Startbutton_default.png"))));
-            startPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Startbutton_pressed.png"))));
-            optionsDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Optionsbutton_default.png"))));
-            optionsPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Optionsbutton_pressed.png"))));
-            quitDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Quitbutton_default.png"))));
-            quitPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Quitbutton_pressed.png"))));
+            titleImage = assets.getIcon("fonts/Jet_Fighters_title.png");
+            startDefaultImage = assets.getIcon("buttons/Startbutton_default.png");
+            startPressedImage = assets.getIcon("buttons/Startbutton_pressed.png");
+            optionsDefaultImage = assets.getIcon("buttons/Optionsbutton_default.png");
+            optionsPressedImage = assets.getIcon("buttons/Optionsbutton_pressed.png");
+            quitDefaultImage = assets.getIcon("buttons/Quitbutton_default.png");
+            quitPressedImage = assets.getIcon("buttons/Quitbutton_pressed.png");
         } catch (IOException | NullPointerException e) {
             System.err.println("Couldn't load images in MenuWindow correctly:");
             e.printStackTrace();
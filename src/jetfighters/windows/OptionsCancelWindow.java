@@ -6,11 +6,9 @@ import jetfighters.windows.exceptions.StateNotFoundException;
 import jetfighters.windows.listeners.UserInput;
 import jetfighters.windows.states.MenuState;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.io.IOException;
-import java.util.Objects;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
@@ -66,20 +64,14 @@ public class OptionsCancelWindow extends AbstractWindow {
      * is setting up all the images
      */
     private void setupImages() {
-        ClassLoader classLoader = getClass().getClassLoader();
+        AssetPreloader assets = AssetPreloader.getDefault();
         try {
-            titleImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "fonts/Options_title.png"))));
-            descriptionImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "fonts/OptionsCancel_description.png"))));
-            yesDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Yesbutton_default.png"))));
-            yesPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Yesbutton_pressed.png"))));
-            noDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Nobutton_default.png"))));
-            noPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Nobutton_pressed.png"))));
+            titleImage = assets.getIcon("fonts/Options_title.png");
+            descriptionImage = assets.getIcon("fonts/OptionsCancel_description.png");
+            yesDefaultImage = assets.getIcon("buttons/Yesbutton_default.png");
+            yesPressedImage = assets.getIcon("buttons/Yesbutton_pressed.png");
+            noDefaultImage = assets.getIcon("buttons/Nobutton_default.png");
+            noPressedImage = assets.getIcon("buttons/Nobutton_pressed.png");
         } catch (IOException | NullPointerException e) {
             System.err.println("Couldn't load images in OptionsCancelWindow correctly:");
             e.printStackTrace();
@@ -7,13 +7,11 @@ import jetfighters.windows.exceptions.StateNotFoundException;
 import jetfighters.windows.listeners.UserInput;
 import jetfighters.windows.states.MenuState;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.io.IOException;
-import java.util.Objects;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
@@ -118,58 +116,34 @@ public class OptionsWindow extends AbstractWindow {
      * is setting up all the images
      */
     private void setupImages() {
-        ClassLoader classLoader = getClass().getClassLoader();
+        AssetPreloader assets = AssetPreloader.getDefault();
         try {
-            optionsTitleImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "fonts/Options_title.png"))));
-            musicImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "fonts/Music_label.png"))));
-            soundImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "fonts/Sound_label.png"))));
-            backgroundLabelImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "fonts/Background_label.png"))));
-
-            applyDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Applybutton_default.png"))));
-            applyPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Applybutton_pressed.png"))));
-            cancelDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Cancelbutton_default.png"))));
-            cancelPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Cancelbutton_pressed.png"))));
-
-            morningDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Morningbutton_default.png"))));
-            morningPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Morningbutton_pressed.png"))));
-            morningActivatedDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Morningbutton_activated_default.png"))));
-            morningActivatedPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Morningbutton_activated_pressed.png"))));
-            daytimeDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Daytimebutton_default.png"))));
-            daytimePressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Daytimebutton_pressed.png"))));
-            daytimeActivatedDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Daytimebutton_activated_default.png"))));
-            daytimeActivatedPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Daytimebutton_activated_pressed.png"))));
-            nightDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Nightbutton_default.png"))));
-            nightPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Nightbutton_pressed.png"))));
-            nightActivatedDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Nightbutton_activated_default.png"))));
-            nightActivatedPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Nightbutton_activated_pressed.png"))));
-            importDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Importbutton_default.png"))));
-            importPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Importbutton_pressed.png"))));
-            importActivatedDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Importbutton_activated_default.png"))));
-            importActivatedPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(
-                    classLoader.getResourceAsStream("buttons/Importbutton_activated_pressed.png"))));
+            optionsTitleImage = assets.getIcon("fonts/Options_title.png");
+            musicImage = assets.getIcon("fonts/Music_label.png");
+            soundImage = assets.getIcon("fonts/Sound_label.png");
+            backgroundLabelImage = assets.getIcon("fonts/Background_label.png");
+
+            applyDefaultImage = assets.getIcon("buttons/Applybutton_default.png");
+            applyPressedImage = assets.getIcon("buttons/Applybutton_pressed.png");
+            cancelDefaultImage = assets.getIcon("buttons/Cancelbutton_default.png");
+            cancelPressedImage = assets.getIcon("buttons/Cancelbutton_pressed.png");
+
+            morningDefaultImage = assets.getIcon("buttons/Morningbutton_default.png");
+            morningPressedImage = assets.getIcon("buttons/Morningbutton_pressed.png");
+            morningActivatedDefaultImage = assets.getIcon("buttons/Morningbutton_activated_default.png");
+            morningActivatedPressedImage = assets.getIcon("buttons/Morningbutton_activated_pressed.png");
+            daytimeDefaultImage = assets.getIcon("buttons/Daytimebutton_default.png");
+            daytimePressedImage = assets.getIcon("buttons/Daytimebutton_pressed.png");
+            daytimeActivatedDefaultImage = assets.getIcon("buttons/Daytimebutton_activated_default.png");
+            daytimeActivatedPressedImage = assets.getIcon("buttons/Daytimebutton_activated_pressed.png");
+            nightDefaultImage = assets.getIcon("buttons/Nightbutton_default.png");
+            nightPressedImage = assets.getIcon("buttons/Nightbutton_pressed.png");
+            nightActivatedDefaultImage = assets.getIcon("buttons/Nightbutton_activated_default.png");
+            nightActivatedPressedImage = assets.getIcon("buttons/Nightbutton_activated_pressed.png");
+            importDefaultImage = assets.getIcon("buttons/Importbutton_default.png");
+            importPressedImage = assets.getIcon("buttons/Importbutton_pressed.png");
+            importActivatedDefaultImage = assets.getIcon("buttons/Importbutton_activated_default.png");
+            importActivatedPressedImage = assets.getIcon("buttons/Importbutton_activated_pressed.png");
         } catch (IOException | NullPointerException e) {
             System.err.println("Couldn't load images in OptionsWindow correctly:");
             e.printStackTrace();
@@ -6,11 +6,9 @@ import jetfighters.windows.exceptions.StateNotFoundException;
 import jetfighters.windows.listeners.UserInput;
 import jetfighters.windows.states.MenuState;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.io.IOException;
-import java.util.Objects;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
@@ -72,26 +70,17 @@ public class PauseWindow extends AbstractWindow {
      * is setting up all the images
      */
     private void setupImages() {
-        ClassLoader classLoader = getClass().getClassLoader();
+        AssetPreloader assets = AssetPreloader.getDefault();
         try {
-            titleImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "fonts/Pause_title.png"))));
-            resumeDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Resumebutton_default.png"))));
-            resumePressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Resumebutton_pressed.png"))));
-            restartDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Restartbutton_default.png"))));
-            restartPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Restartbutton_pressed.png"))));
-            optionsDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Optionsbutton_default.png"))));
-            optionsPressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Optionsbutton_pressed.png"))));
-            leaveDefaultImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Leavebutton_default.png"))));
-            leavePressedImage = new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "buttons/Leavebutton_pressed.png"))));
+            titleImage = assets.getIcon("fonts/Pause_title.png");
+            resumeDefaultImage = assets.getIcon("buttons/Resumebutton_default.png");
+            resumePressedImage = assets.getIcon("buttons/Resumebutton_pressed.png");
+            restartDefaultImage = assets.getIcon("buttons/Restartbutton_default.png");
+            restartPressedImage = assets.getIcon("buttons/Restartbutton_pressed.png");
+            optionsDefaultImage = assets.getIcon("buttons/Optionsbutton_default.png");
+            optionsPressedImage = assets.getIcon("buttons/Optionsbutton_pressed.png");
+            leaveDefaultImage = assets.getIcon("buttons/Leavebutton_default.png");
+            leavePressedImage = assets.getIcon("buttons/Leavebutton_pressed.png");
         } catch (IOException | NullPointerException e) {
             System.err.println("Couldn't load images in PauseWindow correctly:");
             e.printStackTrace();
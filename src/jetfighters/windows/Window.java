@@ -9,10 +9,9 @@ import jetfighters.windows.listeners.CustomWindowListener;
 import jetfighters.windows.states.MenuState;
 import jetfighters.windows.states.MenuStateManager;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.io.IOException;
-import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * <h3>PTP 2022 - Projekt "JetFighters"</h3>
@@ -35,6 +34,7 @@ public class Window extends JFrame {
     private AbstractWindow currentWindow;
     private AudioPlayer audioPlayer;
     private BackgroundImage backgroundImage;
+    private int backgroundRequest; //the number of the last background change
     private MenuStateManager menuStateManager;
 
     /**
@@ -61,10 +61,9 @@ public class Window extends JFrame {
      * @param muted true, if no sounds and music should be played, false otherwise
      */
     private void setupWindow(boolean muted) {
-        ClassLoader classLoader = getClass().getClassLoader();
+        AssetPreloader assets = AssetPreloader.getDefault();
         try {
-            this.setIconImage(new ImageIcon(ImageIO.read(Objects.requireNonNull(classLoader.getResourceAsStream(
-                    "sprites/jet/jet1/Jet_1_1.png")))).getImage());
+            this.setIconImage(assets.getIcon("sprites/jet/jet1/Jet_1_1.png").getImage());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -88,6 +87,7 @@ public class Window extends JFrame {
         gameOverWindow = new GameOverWindow(this);
         optionsCancelWindow = new OptionsCancelWindow(this);
         pauseLeaveWindow = new PauseLeaveWindow(this);
+        updateBackgroundImage(1); //replaces the placeholder of the windows as soon as the morning image is scaled
 
         AudioOptions audioOptions = optionsWindow.getAudioOptions();
         if (muted) {
@@ -113,27 +113,42 @@ public class Window extends JFrame {
     }
 
     /**
-     * is updating every window with the new background
+     * is updating every window with the new background, as soon as it is scaled
      *
      * @param backgroundState the new background state
      */
     public void updateBackgroundImage(int backgroundState) {
         try {
-            ImageIcon image = backgroundImage.getScaledImage(backgroundState);
-            backgroundImage.setBackgroundImage(image);
-            menuWindow.setBackgroundImage(image);
-            optionsWindow.setBackgroundImage(image, backgroundState);
-            chooseWindow.setBackgroundImage(image);
-            pauseWindow.setBackgroundImage(image);
-            gameOverWindow.setBackgroundImage(image);
-            optionsCancelWindow.setBackgroundImage(image);
-            pauseLeaveWindow.setBackgroundImage(image);
-
+            CompletableFuture<ImageIcon> scaledImage = backgroundImage.getScaledImageAsync(backgroundState);
+            int request = ++backgroundRequest;
+            if (scaledImage.isDone()) { //is usually scaled ahead
+                applyBackgroundImage(scaledImage.join(), backgroundState);
+            } else {
+                scaledImage.thenAccept(image -> SwingUtilities.invokeLater(() -> {
+                    if (request == backgroundRequest) //only applied if no newer background was chosen in the meantime
+                        applyBackgroundImage(image, backgroundState);
+                })).exceptionally(e -> {
+                    System.err.println("Couldn't scale the background image " + backgroundState + ":");
+                    e.printStackTrace();
+                    return null;
+                });
+            }
         } catch (ImageNotFoundException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private void applyBackgroundImage(ImageIcon image, int backgroundState) {
+        backgroundImage.setBackgroundImage(image);
+        menuWindow.setBackgroundImage(image);
+        optionsWindow.setBackgroundImage(image, backgroundState);
+        chooseWindow.setBackgroundImage(image);
+        pauseWindow.setBackgroundImage(image);
+        gameOverWindow.setBackgroundImage(image);
+        optionsCancelWindow.setBackgroundImage(image);
+        pauseLeaveWindow.setBackgroundImage(image);
+    }
+
     /**
      * is updating the window based on the menu state
      *